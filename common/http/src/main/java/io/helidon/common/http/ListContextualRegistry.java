@@ -16,23 +16,23 @@
 
 package io.helidon.common.http;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Supplier;
 
 /**
  * A {@link ContextualRegistry} implementation with deque registry.
+ * <p>
+ * Registries are copy-on-write arrays, so lookups are lock-free. A request context is mostly written by a single thread
+ * and read far more often than written.
  */
 class ListContextualRegistry implements ContextualRegistry {
 
     private final ContextualRegistry parent;
-    private final ConcurrentHashMap<Object, ClassifiedRegistry> classifiers = new ConcurrentHashMap<>();
+    private final Object classifiersLock = new Object();
+    private volatile ConcurrentHashMap<Object, ClassifiedRegistry> classifiers;
     private final ClassifiedRegistry registry = new ClassifiedRegistry();
 
     /**
@@ -78,21 +78,22 @@ class ListContextualRegistry implements ContextualRegistry {
     @Override
     public <T> void register(Object classifier, T instance) {
         Objects.requireNonNull(classifier, "Parameter 'classifier' is null!");
-        ClassifiedRegistry cr = classifiers.computeIfAbsent(classifier, k -> new ClassifiedRegistry());
+        ClassifiedRegistry cr = classifiers().computeIfAbsent(classifier, k -> new ClassifiedRegistry());
         cr.register(instance);
     }
 
     @Override
     public <T> void supply(Object classifier, Class<T> type, Supplier<T> supplier) {
         Objects.requireNonNull(classifier, "Parameter 'classifier' is null!");
-        ClassifiedRegistry cr = classifiers.computeIfAbsent(classifier, k -> new ClassifiedRegistry());
+        ClassifiedRegistry cr = classifiers().computeIfAbsent(classifier, k -> new ClassifiedRegistry());
         cr.supply(type, supplier);
     }
 
     @Override
     public <T> Optional<T> get(Object classifier, Class<T> type) {
         Objects.requireNonNull(classifier, "Parameter 'classifier' is null!");
-        ClassifiedRegistry cr = classifiers.get(classifier);
+        ConcurrentHashMap<Object, ClassifiedRegistry> map = classifiers;
+        ClassifiedRegistry cr = map == null ? null : map.get(classifier);
         if (cr != null) {
             T result = cr.get(type);
             if (result == null && parent != null) {
@@ -109,6 +110,21 @@ class ListContextualRegistry implements ContextualRegistry {
         }
     }
 
+    private ConcurrentHashMap<Object, ClassifiedRegistry> classifiers() {
+        // most contexts never use a classifier
+        ConcurrentHashMap<Object, ClassifiedRegistry> result = classifiers;
+        if (result == null) {
+            synchronized (classifiersLock) {
+                result = classifiers;
+                if (result == null) {
+                    result = new ConcurrentHashMap<>();
+                    classifiers = result;
+                }
+            }
+        }
+        return result;
+    }
+
     private interface RegisteredItem<T> {
         T get();
 
@@ -116,25 +132,36 @@ class ListContextualRegistry implements ContextualRegistry {
     }
 
     private static class ClassifiedRegistry {
-        private final ReadWriteLock lock = new ReentrantReadWriteLock();
-        private final List<RegisteredItem> content = new ArrayList<>();
+        private static final RegisteredItem[] EMPTY = new RegisteredItem[0];
+        private static final AtomicReferenceFieldUpdater<ClassifiedRegistry, RegisteredItem[]> CONTENT =
+                AtomicReferenceFieldUpdater.newUpdater(ClassifiedRegistry.class, RegisteredItem[].class, "content");
+
+        private volatile RegisteredItem[] content = EMPTY;
 
         private void registerItem(RegisteredItem item) {
-            Lock l = lock.writeLock();
-            try {
-                Class<?> c = item.getType();
-                l.lock();
-                for (int i = 0; i < content.size(); i++) {
-                    RegisteredItem reg = content.get(i);
-                    if (c == reg.getType()) {
-                        content.remove(i);
+            Class<?> c = item.getType();
+            RegisteredItem[] current;
+            RegisteredItem[] updated;
+            do {
+                current = content;
+                int index = -1;
+                for (int i = 0; i < current.length; i++) {
+                    if (c == current[i].getType()) {
+                        index = i;
                         break;
                     }
                 }
-                content.add(item);
-            } finally {
-                l.unlock();
-            }
+                if (index < 0) {
+                    updated = new RegisteredItem[current.length + 1];
+                    System.arraycopy(current, 0, updated, 0, current.length);
+                } else {
+                    // the replaced item moves to the end, so it is found first
+                    updated = new RegisteredItem[current.length];
+                    System.arraycopy(current, 0, updated, 0, index);
+                    System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+                }
+                updated[updated.length - 1] = item;
+            } while (!CONTENT.compareAndSet(this, current, updated));
         }
 
         @SuppressWarnings("unchecked")
@@ -152,17 +179,12 @@ class ListContextualRegistry implements ContextualRegistry {
 
         <T> T get(Class<T> type) {
             Objects.requireNonNull(type, "Parameter 'type' is null!");
-            Lock l = lock.readLock();
-            try {
-                l.lock();
-                for (int i = content.size() - 1; i >= 0; i--) {
-                    RegisteredItem item = content.get(i);
-                    if (type.isAssignableFrom(item.getType())) {
-                        return type.cast(item.get());
-                    }
+            RegisteredItem[] current = content;
+            for (int i = current.length - 1; i >= 0; i--) {
+                RegisteredItem item = current[i];
+                if (type.isAssignableFrom(item.getType())) {
+                    return type.cast(item.get());
                 }
-            } finally {
-                l.unlock();
             }
             return null;
         }
@@ -22,6 +22,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -33,6 +35,9 @@ import java.util.function.Supplier;
 public class MediaType implements AcceptPredicate<MediaType> {
     // must be first, as this is used to create instances of media types
     private static final Map<MediaType, MediaType> KNOWN_TYPES = new HashMap<>();
+    // parsed header values; bounded, as the values come from clients
+    private static final int PARSED_TYPES_LIMIT = 512;
+    private static final ConcurrentMap<String, MediaType> PARSED_TYPES = new ConcurrentHashMap<>();
 
     /**
      * The media type {@value CHARSET_PARAMETER} parameter name.
@@ -209,6 +214,8 @@ public class MediaType implements AcceptPredicate<MediaType> {
 
     /**
      * Parses a media type from its string representation.
+     * <p>
+     * Parsed media types are cached by the input string, so parsing a repeated header value returns the same instance.
      *
      * @param input the input string representing a media type
      * @return parsed {@link MediaType} instance
@@ -217,6 +224,19 @@ public class MediaType implements AcceptPredicate<MediaType> {
      */
     public static MediaType parse(String input) {
         Objects.requireNonNull(input, "Parameter 'input' is null!");
+        MediaType result = PARSED_TYPES.get(input);
+        if (result == null) {
+            result = doParse(input);
+            if (PARSED_TYPES.size() >= PARSED_TYPES_LIMIT) {
+                // too many distinct values, start over rather than track their usage
+                PARSED_TYPES.clear();
+            }
+            PARSED_TYPES.putIfAbsent(input, result);
+        }
+        return result;
+    }
+
+    private static MediaType doParse(String input) {
         MediaType.Tokenizer tokenizer = new MediaType.Tokenizer(input);
         try {
             String type = tokenizer.consumeToken(TOKEN_MATCHER);
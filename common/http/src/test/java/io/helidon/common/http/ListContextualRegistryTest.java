@@ -16,7 +16,10 @@
 
 package io.helidon.common.http;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
@@ -160,4 +163,40 @@ public class ListContextualRegistryTest {
         assertEquals("bbb", context.get(classifier, String.class).orElse(null));
         assertEquals(1, counter.get());
     }
+
+    @Test
+    public void concurrentRegister() throws Exception {
+        ContextualRegistry context = ContextualRegistry.create();
+        Object[][] values = {
+                {"a", "b"}, {1, 2}, {1L, 2L}, {1.0, 2.0}, {'a', 'b'}, {(short) 1, (short) 2}, {true, false}, {1f, 2f}};
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (Object[] pair : values) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    context.register(pair[0]);
+                    context.register("classifier", pair[0]);
+                }
+                context.register(pair[1]);
+                context.register("classifier", pair[1]);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // no registration got lost
+        for (Object[] pair : values) {
+            assertEquals(pair[1], context.get(pair[1].getClass()).orElse(null));
+            assertEquals(pair[1], context.get("classifier", pair[1].getClass()).orElse(null));
+        }
+    }
 }
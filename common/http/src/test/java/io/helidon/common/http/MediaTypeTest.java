@@ -22,6 +22,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
 
 /**
  * Unit test for {@link MediaType}.
@@ -36,4 +37,13 @@ class MediaTypeTest {
         assertThat(textPlain.getSubtype(), is("plain"));
         assertThat(textPlain.getCharset(), is(Optional.empty()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testParseCached() {
+        MediaType parsed = MediaType.parse("application/vnd.example+json; charset=UTF-8");
+
+        assertThat(MediaType.parse("application/vnd.example+json; charset=UTF-8"), sameInstance(parsed));
+        assertThat(parsed.getCharset(), is(Optional.of("utf-8")));
+        assertThat(MediaType.parse("application/json"), sameInstance(MediaType.APPLICATION_JSON));
+    }
+}
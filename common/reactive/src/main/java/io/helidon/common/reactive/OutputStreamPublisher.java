@@ -21,6 +21,7 @@ import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Output stream that {@link io.helidon.common.reactive.Flow.Publisher publishes} any data written to it as {@link ByteBuffer}
@@ -30,7 +31,8 @@ import java.util.concurrent.ExecutionException;
 public class OutputStreamPublisher extends OutputStream implements Flow.Publisher<ByteBuffer> {
 
     private final SingleSubscriberHolder<ByteBuffer> subscriber = new SingleSubscriberHolder<>();
-    private final Object invocationLock = new Object();
+    // not a monitor - a virtual thread blocked in the subscriber would pin its carrier thread
+    private final ReentrantLock invocationLock = new ReentrantLock();
 
     private final RequestedCounter requested = new RequestedCounter();
 
@@ -82,12 +84,15 @@ public class OutputStreamPublisher extends OutputStream implements Flow.Publishe
                 Thread.sleep(250); // wait until some data can be sent or the stream has been closed
             }
 
-            synchronized (invocationLock) {
+            invocationLock.lock();
+            try {
                 if (subscriber.isClosed()) {
                     throw new IOException("Output stream already closed.");
                 }
 
                 sub.onNext(ByteBuffer.wrap(buffer, offset, length));
+            } finally {
+                invocationLock.unlock();
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -101,16 +106,22 @@ public class OutputStreamPublisher extends OutputStream implements Flow.Publishe
 
     private void complete() {
         subscriber.close(sub -> {
-            synchronized (invocationLock) {
+            invocationLock.lock();
+            try {
                 sub.onComplete();
+            } finally {
+                invocationLock.unlock();
             }
         });
     }
 
     private void complete(Throwable t) {
         subscriber.close(sub -> {
-            synchronized (invocationLock) {
+            invocationLock.lock();
+            try {
                 sub.onError(t);
+            } finally {
+                invocationLock.unlock();
             }
         });
     }
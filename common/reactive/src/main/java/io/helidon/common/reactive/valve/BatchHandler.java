@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive.valve;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.BiConsumer;
+
+/**
+ * Collects items into batches for {@link Valve#handleBatch(int, BiConsumer, java.util.function.Consumer, Runnable)}.
+ * <p>
+ * {@link Valve} implementations which know what data is available recognize this handler and fill it directly,
+ * checking for a pause once per batch and {@link #flush(Pausable) flushing} it whenever nothing more is available
+ * without waiting. Others hand every item over in its own batch. The same list instance is reused for all batches.
+ */
+class BatchHandler<T> implements BiConsumer<T, Pausable> {
+
+    static final int INITIAL_CAPACITY = 256;
+
+    private final int maxBatchSize;
+    private final BiConsumer<List<T>, Pausable> onData;
+    private final ArrayList<T> items;
+    private final List<T> view;
+
+    /**
+     * Creates new instance.
+     *
+     * @param maxBatchSize a maximal number of items in a single batch
+     * @param onData       a callback for batches
+     * @throws NullPointerException     if {@code onData} parameter is {@code null}
+     * @throws IllegalArgumentException if {@code maxBatchSize} is not positive
+     */
+    BatchHandler(int maxBatchSize, BiConsumer<List<T>, Pausable> onData) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Parameter 'maxBatchSize' must be positive!");
+        }
+        Objects.requireNonNull(onData, "Parameter 'onData' is null!");
+        this.maxBatchSize = maxBatchSize;
+        this.onData = onData;
+        this.items = new ArrayList<>(Math.min(maxBatchSize, INITIAL_CAPACITY));
+        this.view = Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Adds an item to the current batch.
+     *
+     * @param item an item to add
+     * @return {@code true} if the batch is full and should be {@link #flush(Pausable) flushed}
+     */
+    boolean add(T item) {
+        items.add(item);
+        return items.size() >= maxBatchSize;
+    }
+
+    /**
+     * Moves available items from the queue to the current batch.
+     *
+     * @param queue a queue to drain
+     * @return a number of moved items
+     */
+    int drain(BlockingQueue<T> queue) {
+        return queue.drainTo(items, maxBatchSize - items.size());
+    }
+
+    /**
+     * Hands the current batch over, if there is any item.
+     *
+     * @param pausable a pausable of the source
+     */
+    void flush(Pausable pausable) {
+        if (!items.isEmpty()) {
+            try {
+                onData.accept(view, pausable);
+            } finally {
+                items.clear();
+            }
+        }
+    }
+
+    @Override
+    public void accept(T item, Pausable pausable) {
+        if (add(item)) {
+            flush(pausable);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive.valve;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@link Valve} implementation of {@link Valve#flatMap(Function, int)}.
+ * <p>
+ * At most {@code maxConcurrency} inner valves are handled at a time, the source is paused while the limit is reached.
+ * Items of concurrently handled inner valves are handed over sequentially.
+ * <p>
+ * The source is paused only after the handler of an inner valve is registered, so an inner valve which completes
+ * synchronously never resumes the source from within its own data callback and the source simply continues.
+ */
+class FlatMapValve<T, K> implements Valve<K> {
+
+    private static final Logger LOGGER = Logger.getLogger(FlatMapValve.class.getName());
+
+    private final Valve<T> source;
+    private final Function<T, Valve<K>> mapFunction;
+    private final int maxConcurrency;
+    private final Object lock = new Object();
+    private final Object emitLock = new Object();
+    private final List<Valve<K>> active;
+
+    private volatile BiConsumer<K, Pausable> onData;
+    private volatile Consumer<Throwable> onError;
+    private volatile Runnable onComplete;
+    private volatile boolean done = false;
+
+    // guarded by lock
+    private boolean paused = false;
+    private boolean sourcePaused = false;
+    private boolean sourceComplete = false;
+
+    FlatMapValve(Valve<T> source, Function<T, Valve<K>> mapFunction, int maxConcurrency) {
+        Objects.requireNonNull(mapFunction, "Parameter 'mapFunction' is null!");
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Parameter 'maxConcurrency' must be positive!");
+        }
+        this.source = source;
+        this.mapFunction = mapFunction;
+        this.maxConcurrency = maxConcurrency;
+        this.active = new ArrayList<>(Math.min(maxConcurrency, 16));
+    }
+
+    @Override
+    public void handle(BiConsumer<K, Pausable> onData, Consumer<Throwable> onError, Runnable onComplete) {
+        Objects.requireNonNull(onData, "Parameter 'onData' is null!");
+        synchronized (this) {
+            if (this.onData != null) {
+                throw new IllegalStateException("Handler is already registered!");
+            }
+            this.onData = onData;
+            this.onError = onError;
+            this.onComplete = onComplete;
+        }
+        source.handle(this::sourceData, this::fail, this::sourceComplete);
+    }
+
+    @Override
+    public void pause() {
+        synchronized (lock) {
+            paused = true;
+            source.pause();
+            for (Valve<K> valve : active) {
+                valve.pause();
+            }
+        }
+    }
+
+    @Override
+    public void resume() {
+        Object[] inner;
+        boolean resumeSource;
+        synchronized (lock) {
+            paused = false;
+            inner = active.toArray();
+            resumeSource = !sourceComplete && active.size() < maxConcurrency;
+            if (resumeSource) {
+                sourcePaused = false;
+            }
+        }
+        // outside of the lock, resumed valves can process synchronously
+        for (Object valve : inner) {
+            ((Valve<?>) valve).resume();
+        }
+        if (resumeSource) {
+            source.resume();
+        }
+    }
+
+    private void sourceData(T item, Pausable pausable) {
+        if (done) {
+            return;
+        }
+        Valve<K> valve = mapFunction.apply(item);
+        if (valve == null) {
+            return;
+        }
+        synchronized (lock) {
+            active.add(valve);
+        }
+        try {
+            valve.handle(this::innerData, this::fail, () -> innerComplete(valve));
+        } catch (Exception e) {
+            innerComplete(valve);
+            fail(e);
+            return;
+        }
+        synchronized (lock) {
+            // a later completion of an inner valve resumes the source
+            if (active.size() >= maxConcurrency && !sourceComplete) {
+                sourcePaused = true;
+                source.pause();
+            }
+        }
+    }
+
+    private void innerData(K item, Pausable pausable) {
+        if (done) {
+            return;
+        }
+        if (maxConcurrency == 1) {
+            // a single inner valve at a time, already sequential
+            onData.accept(item, this);
+        } else {
+            synchronized (emitLock) {
+                onData.accept(item, this);
+            }
+        }
+    }
+
+    private void innerComplete(Valve<K> valve) {
+        boolean resumeSource;
+        boolean complete;
+        synchronized (lock) {
+            active.remove(valve);
+            resumeSource = sourcePaused && !paused && active.size() < maxConcurrency;
+            if (resumeSource) {
+                sourcePaused = false;
+            }
+            complete = sourceComplete && active.isEmpty();
+        }
+        if (complete) {
+            complete();
+        } else if (resumeSource) {
+            source.resume();
+        }
+    }
+
+    private void sourceComplete() {
+        boolean complete;
+        synchronized (lock) {
+            sourceComplete = true;
+            complete = active.isEmpty();
+        }
+        if (complete) {
+            complete();
+        }
+    }
+
+    private void complete() {
+        synchronized (emitLock) {
+            if (done) {
+                return;
+            }
+            done = true;
+        }
+        if (onComplete != null) {
+            onComplete.run();
+        }
+    }
+
+    private void fail(Throwable throwable) {
+        synchronized (emitLock) {
+            if (done) {
+                return;
+            }
+            done = true;
+        }
+        synchronized (lock) {
+            source.pause();
+            for (Valve<K> valve : active) {
+                valve.pause();
+            }
+        }
+        if (onError != null) {
+            onError.accept(throwable);
+        } else {
+            LOGGER.log(Level.WARNING, "Unhandled throwable!", throwable);
+        }
+    }
+}
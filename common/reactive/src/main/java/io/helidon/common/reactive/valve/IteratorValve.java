@@ -17,6 +17,9 @@
 package io.helidon.common.reactive.valve;
 
 import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * The {@link Valve} implementation for {@link Iterator}.
@@ -29,6 +32,14 @@ class IteratorValve<T> extends RetryingPausableRegistry<T> implements Valve<T> {
         this.iterator = iterator;
     }
 
+    @Override
+    public void handleBatch(int maxBatchSize,
+                            BiConsumer<List<T>, Pausable> onData,
+                            Consumer<Throwable> onError,
+                            Runnable onComplete) {
+        handle(new BatchHandler<>(maxBatchSize, onData), onError, onComplete);
+    }
+
     @Override
     protected T moreData() {
         return iterator.hasNext() ? iterator.next() : null;
@@ -23,17 +23,22 @@ import java.util.function.BiConsumer;
  */
 abstract class RetryingPausableRegistry<T> extends PausableRegistry<T> {
     @Override
+    @SuppressWarnings("unchecked")
     protected void tryProcess() {
         if (canProcess()) {
             try {
                 BiConsumer<T, Pausable> onData = getOnData();
                 boolean breakByPause = false;
-                T data;
-                while ((data = moreData()) != null) {
-                    onData.accept(data, this);
-                    if (!canContinueProcessing()) {
-                        breakByPause = true;
-                        break;
+                if (onData instanceof BatchHandler) {
+                    breakByPause = processBatches((BatchHandler<T>) onData);
+                } else {
+                    T data;
+                    while ((data = moreData()) != null) {
+                        onData.accept(data, this);
+                        if (!canContinueProcessing()) {
+                            breakByPause = true;
+                            break;
+                        }
                     }
                 }
                 if (!breakByPause && getOnComplete() != null) {
@@ -46,5 +51,19 @@ abstract class RetryingPausableRegistry<T> extends PausableRegistry<T> {
         }
     }
 
+    private boolean processBatches(BatchHandler<T> batch) throws Throwable {
+        T data;
+        while ((data = moreData()) != null) {
+            if (batch.add(data)) {
+                batch.flush(this);
+                if (!canContinueProcessing()) {
+                    return true;
+                }
+            }
+        }
+        batch.flush(this);
+        return !canContinueProcessing();
+    }
+
     protected abstract T moreData() throws Throwable;
 }
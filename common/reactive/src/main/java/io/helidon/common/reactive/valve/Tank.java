@@ -18,6 +18,7 @@ package io.helidon.common.reactive.valve;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.Spliterator;
@@ -96,17 +97,37 @@ public class Tank<T> implements Valve<T>, BlockingQueue<T>, AutoCloseable {
         registry.handle(onData, onError, onComplete);
     }
 
+    @Override
+    public void handleBatch(int maxBatchSize,
+                            BiConsumer<List<T>, Pausable> onData,
+                            Consumer<Throwable> onError,
+                            Runnable onComplete) {
+        registry.handle(new BatchHandler<>(maxBatchSize, onData), onError, onComplete);
+    }
+
+    @SuppressWarnings("unchecked")
     private void tryProcess() {
         if (registry.canProcess()) {
             boolean breakByPause = false;
             try {
                 BiConsumer<T, Pausable> onData = registry.getOnData();
-                T t;
-                while ((t = poll()) != null) {
-                    onData.accept(t, this);
-                    if (registry.paused()) {
-                        breakByPause = true;
-                        break;
+                if (onData instanceof BatchHandler) {
+                    BatchHandler<T> batch = (BatchHandler<T>) onData;
+                    while (batch.drain(this) > 0) {
+                        batch.flush(this);
+                        if (registry.paused()) {
+                            breakByPause = true;
+                            break;
+                        }
+                    }
+                } else {
+                    T t;
+                    while ((t = poll()) != null) {
+                        onData.accept(t, this);
+                        if (registry.paused()) {
+                            breakByPause = true;
+                            break;
+                        }
                     }
                 }
             } catch (Exception e) {
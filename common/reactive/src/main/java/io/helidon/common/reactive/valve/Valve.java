@@ -16,6 +16,7 @@
 
 package io.helidon.common.reactive.valve;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -106,6 +107,49 @@ public interface Valve<T> extends Pausable {
         handle(onData, onError, null);
     }
 
+    /**
+     * Register data handlers (callbacks) receiving elements in batches.
+     * <p>
+     * A batch contains elements available without waiting, at most {@code maxBatchSize} of them. A pause requested from
+     * the callback takes effect after the whole batch. The list is reused for later batches and must not be retained
+     * after the callback returns. Implementations which cannot tell what is available hand every element over in its own
+     * batch as soon as it arrives, so that no element waits for the next one.
+     *
+     * @param maxBatchSize a maximal number of elements in a single batch
+     * @param onData       a callback for batches of data chunks and {@link Pausable} representing a <i>faucet</i> of this
+     *                     {@link Valve}.
+     * @param onError      a callback of errors or {@code null}
+     * @param onComplete   a callback for completion event or {@code null}
+     * @throws NullPointerException     if {@code onData} parameter is {@code null}
+     * @throws IllegalArgumentException if {@code maxBatchSize} is not positive
+     * @throws IllegalStateException    if cannot register new callback. For example if instance accepts only a single handler.
+     */
+    default void handleBatch(int maxBatchSize,
+                             BiConsumer<List<T>, Pausable> onData,
+                             Consumer<Throwable> onError,
+                             Runnable onComplete) {
+        BatchHandler<T> batch = new BatchHandler<>(maxBatchSize, onData);
+        handle((item, pausable) -> {
+            batch.add(item);
+            batch.flush(pausable);
+        }, onError, onComplete);
+    }
+
+    /**
+     * Register data handlers (callbacks) receiving elements in batches.
+     *
+     * @param maxBatchSize a maximal number of elements in a single batch
+     * @param onData       a callback for batches of data chunks and {@link Pausable} representing a <i>faucet</i> of this
+     *                     {@link Valve}.
+     * @throws NullPointerException     if {@code onData} parameter is {@code null}
+     * @throws IllegalArgumentException if {@code maxBatchSize} is not positive
+     * @throws IllegalStateException    if cannot register new callback. For example if instance accepts only a single handler.
+     * @see #handleBatch(int, BiConsumer, Consumer, Runnable)
+     */
+    default void handleBatch(int maxBatchSize, BiConsumer<List<T>, Pausable> onData) {
+        handleBatch(maxBatchSize, onData, null, null);
+    }
+
     /**
      * Returns a {@link Valve} consisting of the results of applying the given function to the elements of this {@link Valve}.
      *
@@ -120,14 +164,33 @@ public interface Valve<T> extends Pausable {
     /**
      * Returns new {@code Valve} instance which combines all results into a single Valve.
      * <p>
-     * If provided {@code mapFunction} returns {@code null} then this result is skipped.
+     * If provided {@code mapFunction} returns {@code null} then this result is skipped. Resulting valves are handled
+     * one by one, so the order of their elements is kept.
      *
      * @param mapFunction maps an element into new {@link Valve} instance.
      * @param <K>         the element type of the new {@link Valve}
      * @return the new {@code Valve}
      */
     default <K> Valve<K> flatMap(Function<T, Valve<K>> mapFunction) {
-        throw new UnsupportedOperationException("Not implemented!");
+        return flatMap(mapFunction, 1);
+    }
+
+    /**
+     * Returns new {@code Valve} instance which combines all results into a single Valve.
+     * <p>
+     * If provided {@code mapFunction} returns {@code null} then this result is skipped. Up to {@code maxConcurrency}
+     * resulting valves are handled at a time and their elements can interleave. This {@code Valve} is paused while
+     * the limit is reached.
+     *
+     * @param mapFunction    maps an element into new {@link Valve} instance.
+     * @param maxConcurrency a maximal number of resulting valves handled at a time
+     * @param <K>            the element type of the new {@link Valve}
+     * @return the new {@code Valve}
+     * @throws NullPointerException     if {@code mapFunction} parameter is {@code null}
+     * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+     */
+    default <K> Valve<K> flatMap(Function<T, Valve<K>> mapFunction, int maxConcurrency) {
+        return new FlatMapValve<>(this, mapFunction, maxConcurrency);
     }
 
     /**
@@ -16,6 +16,7 @@
 
 package io.helidon.common.reactive.valve;
 
+import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -48,4 +49,39 @@ class ValveFilter<S, T> implements Valve<S> {
     public void handle(BiConsumer<S, Pausable> onData, Consumer<Throwable> onError, Runnable onComplete) {
         delegate.handle(filteringFunction.apply(onData), onError, onComplete);
     }
+
+    /**
+     * Filters the batches of the first valve which is not a {@code ValveFilter}, so that its batch handling is kept and
+     * the elements are collected into a single batch regardless of the number of stages.
+     */
+    @Override
+    public void handleBatch(int maxBatchSize,
+                            BiConsumer<List<S>, Pausable> onData,
+                            Consumer<Throwable> onError,
+                            Runnable onComplete) {
+        BatchHandler<S> batch = new BatchHandler<>(maxBatchSize, onData);
+        filterBatches(maxBatchSize, batch, batch, onError, onComplete);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> void filterBatches(int maxBatchSize,
+                                   BiConsumer<S, Pausable> handler,
+                                   BatchHandler<R> batch,
+                                   Consumer<Throwable> onError,
+                                   Runnable onComplete) {
+        BiConsumer<T, Pausable> delegateHandler = filteringFunction.apply(handler);
+        if (delegate instanceof ValveFilter) {
+            ((ValveFilter<T, ?>) delegate).filterBatches(maxBatchSize, delegateHandler, batch, onError, onComplete);
+        } else {
+            delegate.handleBatch(maxBatchSize,
+                                 (items, p) -> {
+                                     for (int i = 0; i < items.size(); i++) {
+                                         delegateHandler.accept(items.get(i), p);
+                                     }
+                                     batch.flush(p);
+                                 },
+                                 onError,
+                                 onComplete);
+        }
+    }
 }
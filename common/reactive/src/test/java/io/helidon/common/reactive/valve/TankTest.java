@@ -16,6 +16,9 @@
 
 package io.helidon.common.reactive.valve;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ForkJoinPool;
@@ -139,4 +142,29 @@ class TankTest {
         assertEquals(generateList(0, 15), cf.get());
     }
 
+
+    @Test
+    void handleBatch() throws Exception {
+        Tank<Integer> tank = new Tank<>(100);
+        generate(0, 30, tank::add);
+        List<List<Integer>> batches = new ArrayList<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        tank.handleBatch(8, (batch, p) -> {
+            batches.add(new ArrayList<>(batch));
+            if (batches.size() == 2) {
+                p.pause();
+            }
+        }, completed::completeExceptionally, () -> completed.complete(null));
+        assertEquals(Arrays.asList(generateList(0, 8), generateList(8, 16)), batches);
+        generate(30, 35, tank::add);
+        tank.resume();
+        assertEquals(Arrays.asList(generateList(0, 8), generateList(8, 16), generateList(16, 24), generateList(24, 32),
+                                   generateList(32, 35)),
+                     batches);
+        tank.add(35);
+        assertEquals(Collections.singletonList(35), batches.get(5));
+        assertFalse(completed.isDone());
+        tank.close();
+        completed.get();
+    }
 }
@@ -17,19 +17,25 @@
 package io.helidon.common.reactive.valve;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ValveTest {
@@ -162,4 +168,200 @@ class ValveTest {
         assertEquals(LIST_0_100, result);
         assertTrue(threadNames.size() > 1);
     }
+
+    @Test
+    void pipeline() throws Exception {
+        List<Integer> buffer = Collections.synchronizedList(new ArrayList<>(10));
+        Valve<Integer> source = Valves.from(LIST_0_10);
+        Valve<String> pipeline = source.filter(i -> i % 2 == 0)
+                                       .map(i -> i * 10)
+                                       .peek(buffer::add)
+                                       .filter(i -> i > 0)
+                                       .map(String::valueOf);
+        String result = pipeline.collect(Collectors.joining(","))
+                                .toCompletableFuture()
+                                .get();
+        assertEquals("20,40,60,80", result);
+        assertEquals(Arrays.asList(0, 20, 40, 60, 80), buffer);
+    }
+
+    @Test
+    void pipelinePause() {
+        List<Integer> buffer = new ArrayList<>(10);
+        Valve<Integer> valve = Valves.from(LIST_0_10)
+                                     .map(i -> i + 1)
+                                     .map(i -> i - 1);
+        valve.handle((i, p) -> {
+            if (i == 4) {
+                p.pause();
+            }
+            buffer.add(i);
+        });
+        assertEquals(LIST_0_5, buffer);
+        valve.resume();
+        assertEquals(LIST_0_10, buffer);
+    }
+
+    @Test
+    void flatMap() throws Exception {
+        List<Integer> result = Valves.from(LIST_0_5)
+                                     .flatMap(i -> i == 2 ? null : Valves.from(LIST_0_10).map(j -> i * 10 + j))
+                                     .collect(Collectors.toList())
+                                     .toCompletableFuture()
+                                     .get();
+        List<Integer> expected = new ArrayList<>();
+        for (int i : LIST_0_5) {
+            if (i != 2) {
+                for (int j : LIST_0_10) {
+                    expected.add(i * 10 + j);
+                }
+            }
+        }
+        assertEquals(expected, result);
+        assertEquals(Collections.emptyList(), Valves.from(LIST_0_5)
+                                                    .flatMap(i -> Valves.<Integer>empty())
+                                                    .collect(Collectors.toList())
+                                                    .toCompletableFuture()
+                                                    .get());
+    }
+
+    @Test
+    void flatMapConcurrency() throws Exception {
+        List<Tank<Integer>> tanks = Arrays.asList(new Tank<>(10), new Tank<>(10), new Tank<>(10));
+        CompletableFuture<List<Integer>> result = Valves.from(0, 1, 2)
+                                                        .flatMap(tanks::get, 2)
+                                                        .collect(Collectors.toList())
+                                                        .toCompletableFuture();
+        tanks.get(2).add(20);
+        tanks.get(1).add(10);
+        tanks.get(0).add(0);
+        // only two tanks are handled
+        assertEquals(0, tanks.get(0).size());
+        assertEquals(0, tanks.get(1).size());
+        assertEquals(1, tanks.get(2).size());
+        tanks.get(1).close();
+        assertEquals(0, tanks.get(2).size());
+        tanks.get(0).close();
+        assertFalse(result.isDone());
+        tanks.get(2).close();
+        assertEquals(Arrays.asList(10, 0, 20), result.get());
+    }
+
+    @Test
+    void flatMapError() {
+        AtomicReference<Throwable> thrRef = new AtomicReference<>();
+        List<Integer> buffer = new ArrayList<>(10);
+        Valves.from(LIST_0_5)
+              .flatMap(i -> {
+                  if (i == 2) {
+                      throw new IllegalStateException("Boom!");
+                  }
+                  return Valves.from(i);
+              }, 3)
+              .handle((Consumer<Integer>) buffer::add, thrRef::set);
+        assertEquals(Arrays.asList(0, 1), buffer);
+        assertTrue(thrRef.get() instanceof IllegalStateException);
+        assertThrows(IllegalArgumentException.class, () -> Valves.from(LIST_0_5).flatMap(i -> Valves.from(i), 0));
+    }
+
+    @Test
+    void handleBatch() {
+        List<List<Integer>> batches = new ArrayList<>();
+        AtomicReference<Boolean> resultRef = new AtomicReference<>(false);
+        Valve<Integer> valve = Valves.from(LIST_0_10);
+        valve.handleBatch(4, (batch, p) -> {
+            batches.add(new ArrayList<>(batch));
+            if (batch.contains(4)) {
+                p.pause();
+            }
+        }, null, () -> resultRef.set(true));
+        assertEquals(Arrays.asList(LIST_0_10.subList(0, 4), LIST_0_10.subList(4, 8)), batches);
+        assertFalse(resultRef.get());
+        valve.resume();
+        assertEquals(Arrays.asList(LIST_0_10.subList(0, 4), LIST_0_10.subList(4, 8), LIST_0_10.subList(8, 10)), batches);
+        assertTrue(resultRef.get());
+        assertThrows(IllegalArgumentException.class, () -> Valves.from(LIST_0_10).handleBatch(0, (batch, p) -> { }));
+    }
+
+    @Test
+    void handleBatchFiltered() {
+        List<List<String>> batches = new ArrayList<>();
+        Valves.from(LIST_0_100)
+              .filter(i -> i % 10 == 0)
+              .map(String::valueOf)
+              .handleBatch(50, (batch, p) -> batches.add(new ArrayList<>(batch)));
+        assertEquals(Arrays.asList(Arrays.asList("0", "10", "20", "30", "40"), Arrays.asList("50", "60", "70", "80", "90")),
+                     batches);
+    }
+
+    @Test
+    void handleBatchDetached() throws Exception {
+        List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        // detached valve cannot tell what is available
+        Valves.from(LIST_0_5)
+              .executeOn(ForkJoinPool.commonPool())
+              .handleBatch(2, (batch, p) -> batches.add(new ArrayList<>(batch)), completed::completeExceptionally,
+                           () -> completed.complete(null));
+        completed.get();
+        assertEquals(LIST_0_5.stream().map(Collections::singletonList).collect(Collectors.toList()), batches);
+    }
+
+    @Test
+    void handleBatchWithoutWaiting() {
+        Tank<Integer> tank = new Tank<>(10);
+        // plain valve cannot tell what is available
+        Valve<Integer> valve = new Valve<Integer>() {
+            @Override
+            public void handle(BiConsumer<Integer, Pausable> onData, Consumer<Throwable> onError, Runnable onComplete) {
+                tank.handle(onData, onError, onComplete);
+            }
+
+            @Override
+            public void pause() {
+                tank.pause();
+            }
+
+            @Override
+            public void resume() {
+                tank.resume();
+            }
+        };
+        List<List<String>> batches = new ArrayList<>();
+        valve.map(String::valueOf)
+             .handleBatch(10, (batch, p) -> batches.add(new ArrayList<>(batch)));
+        tank.add(1);
+        tank.add(2);
+        assertEquals(Arrays.asList(Collections.singletonList("1"), Collections.singletonList("2")), batches);
+    }
+
+    @Test
+    void flatMapSynchronousInnerValves() throws Exception {
+        AtomicInteger resumed = new AtomicInteger();
+        Valve<Integer> delegate = Valves.from(LIST_0_100);
+        Valve<Integer> source = new Valve<Integer>() {
+            @Override
+            public void handle(BiConsumer<Integer, Pausable> onData, Consumer<Throwable> onError, Runnable onComplete) {
+                delegate.handle(onData, onError, onComplete);
+            }
+
+            @Override
+            public void pause() {
+                delegate.pause();
+            }
+
+            @Override
+            public void resume() {
+                resumed.incrementAndGet();
+                delegate.resume();
+            }
+        };
+        // inner valves complete within the source callback, so the source is never paused and resumed
+        List<Integer> result = source.flatMap(i -> Valves.from(i))
+                                     .collect(Collectors.toList())
+                                     .toCompletableFuture()
+                                     .get();
+        assertEquals(LIST_0_100, result);
+        assertEquals(0, resumed.get());
+    }
 }
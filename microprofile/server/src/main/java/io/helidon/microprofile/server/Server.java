@@ -152,6 +152,7 @@ public interface Server {
         private int port = -1;
         private boolean containerCreated;
         private Supplier<? extends ExecutorService> defaultExecutorService;
+        private Boolean virtualThreads;
 
         private Builder() {
         }
@@ -186,6 +187,13 @@ public interface Server {
                 defaultExecutorService = ThreadPoolSupplier.from(config.getConfig());
             }
 
+            if (null == virtualThreads) {
+                virtualThreads = config.getConfig()
+                        .get("server.executor-service.virtual-threads")
+                        .asOptional(Boolean.class)
+                        .orElse(false);
+            }
+
             STARTUP_LOGGER.finest("Configuration obtained");
 
             if (null == cdiContainer) {
@@ -310,6 +318,21 @@ public interface Server {
             return this;
         }
 
+        /**
+         * Handle requests of applications without their own executor service by virtual threads instead of the
+         * {@link #setDefaultExecutorServiceSupplier(Supplier) default executor service}. Virtual threads require a newer
+         * Java runtime, the default executor service is used if they are not available.
+         * Defaults to configuration key {@code server.executor-service.virtual-threads}, or {@code false}.
+         *
+         * @param virtualThreads whether to use virtual threads
+         * @return updated builder instance
+         * @see io.helidon.webserver.jersey.JerseySupport.Builder#virtualThreads(boolean)
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
         /**
          * Configure listen port.
          *
@@ -526,5 +549,9 @@ public interface Server {
         ExecutorService getDefaultExecutorService() {
             return defaultExecutorService.get();
         }
+
+        boolean getVirtualThreads() {
+            return virtualThreads;
+        }
     }
 }
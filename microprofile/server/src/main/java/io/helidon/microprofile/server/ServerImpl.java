@@ -148,12 +148,21 @@ public class ServerImpl implements Server {
 
         STARTUP_LOGGER.finest("Static path");
 
+        if (builder.getVirtualThreads() && !JerseySupport.virtualThreadsSupported()) {
+            LOGGER.warning("Virtual threads are not supported by this Java runtime, using the default executor service.");
+        }
+
         applications
                 .forEach(app -> {
-                    JerseySupport js = JerseySupport.builder(app.getConfig())
-                            .executorService(app.getExecutorService()
-                                                     .orElseGet(builder::getDefaultExecutorService))
-                            .build();
+                    JerseySupport.Builder jsBuilder = JerseySupport.builder(app.getConfig());
+                    if (app.getExecutorService().isPresent()) {
+                        jsBuilder.executorService(app.getExecutorService().get());
+                    } else if (builder.getVirtualThreads() && JerseySupport.virtualThreadsSupported()) {
+                        jsBuilder.virtualThreads(true);
+                    } else {
+                        jsBuilder.executorService(builder.getDefaultExecutorService());
+                    }
+                    JerseySupport js = jsBuilder.build();
 
                     if ("/".equals(app.getContextRoot())) {
                         routingBuilder.register(js);
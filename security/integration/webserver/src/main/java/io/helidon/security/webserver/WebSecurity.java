@@ -334,15 +334,17 @@ public final class WebSecurity implements Service {
 
         //make sure there is no context
         if (!req.context().get(SecurityContext.class).isPresent()) {
-            SecurityEnvironment env = security.environmentBuilder()
+            SecurityEnvironment.Builder envBuilder = security.environmentBuilder()
                     .targetUri(req.uri())
                     .path(req.path().toString())
                     .method(req.method().name())
                     .addAttribute("userIp", req.remoteAddress())
                     .addAttribute("userPort", req.remotePort())
                     .transport(req.isSecure() ? "https" : "http")
-                    .headers(allHeaders)
-                    .build();
+                    .headers(allHeaders);
+            // providers calling remote services should not wait longer than the caller
+            req.deadline().ifPresent(deadline -> envBuilder.addAttribute("deadline", deadline));
+            SecurityEnvironment env = envBuilder.build();
             EndpointConfig ec = EndpointConfig.builder()
                     .build();
 
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.http;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link ListContextualRegistry} with the read-write locked registry it replaced. The registry is shared by
+ * the benchmark threads, the way a request context is shared by the handlers of a request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextualRegistryBenchmark {
+
+    @Param({"copyOnWrite", "locking"})
+    private String registryKind;
+
+    private ContextualRegistry context;
+
+    /**
+     * Creates a request context with a parent holding server wide values.
+     */
+    @Setup
+    public void setup() {
+        ContextualRegistry parent = create(null);
+        parent.register(new Date());
+        context = create(parent);
+        context.register(1);
+        context.register(new StringBuilder("span"));
+        context.register("subject");
+        context.supply(Long.class, () -> 2L);
+    }
+
+    private ContextualRegistry create(ContextualRegistry parent) {
+        switch (registryKind) {
+        case "copyOnWrite":
+            return ContextualRegistry.create(parent);
+        case "locking":
+            return new LockingContextualRegistry(parent);
+        default:
+            throw new IllegalArgumentException("Unknown registry kind: " + registryKind);
+        }
+    }
+
+    /**
+     * Finds a value registered in the request context by four threads.
+     *
+     * @return the value
+     */
+    @Benchmark
+    @Threads(4)
+    public Optional<String> get() {
+        return context.get(String.class);
+    }
+
+    /**
+     * Finds a value registered in the parent context by four threads.
+     *
+     * @return the value
+     */
+    @Benchmark
+    @Threads(4)
+    public Optional<Date> getFromParent() {
+        return context.get(Date.class);
+    }
+
+    /**
+     * Finds a value while another thread keeps registering.
+     *
+     * @return the value
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Optional<String> readWhileWriting() {
+        return context.get(String.class);
+    }
+
+    /**
+     * Replaces a value while other threads read.
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void writeWhileReading() {
+        context.register(1);
+    }
+
+    /**
+     * A request lifecycle: a new context, a few registrations and lookups.
+     *
+     * @return the last value found
+     */
+    @Benchmark
+    public Optional<Long> request() {
+        ContextualRegistry request = create(context);
+        request.register("user");
+        request.register(new StringBuilder("child-span"));
+        request.get(String.class);
+        request.get(StringBuilder.class);
+        return request.get(Long.class);
+    }
+
+    /**
+     * The registry guarding an {@code ArrayList} with a read-write lock, as {@link ListContextualRegistry} did before.
+     */
+    private static final class LockingContextualRegistry implements ContextualRegistry {
+
+        private final ContextualRegistry parent;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final List<Object[]> content = new ArrayList<>();
+
+        private LockingContextualRegistry(ContextualRegistry parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public <T> void register(T instance) {
+            registerItem(instance.getClass(), instance);
+        }
+
+        @Override
+        public <T> void supply(Class<T> type, Supplier<T> supplier) {
+            registerItem(type, supplier);
+        }
+
+        private void registerItem(Class<?> type, Object value) {
+            Lock l = lock.writeLock();
+            l.lock();
+            try {
+                for (int i = 0; i < content.size(); i++) {
+                    if (content.get(i)[0] == type) {
+                        content.remove(i);
+                        break;
+                    }
+                }
+                content.add(new Object[] {type, value});
+            } finally {
+                l.unlock();
+            }
+        }
+
+        @Override
+        public <T> Optional<T> get(Class<T> type) {
+            Lock l = lock.readLock();
+            l.lock();
+            try {
+                for (int i = content.size() - 1; i >= 0; i--) {
+                    Object[] item = content.get(i);
+                    if (type.isAssignableFrom((Class<?>) item[0])) {
+                        Object value = item[1];
+                        return Optional.of(type.cast(value instanceof Supplier ? ((Supplier<?>) value).get() : value));
+                    }
+                }
+            } finally {
+                l.unlock();
+            }
+            return parent == null ? Optional.empty() : parent.get(type);
+        }
+
+        @Override
+        public <T> void register(Object classifier, T instance) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> void supply(Object classifier, Class<T> type, Supplier<T> supplier) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> Optional<T> get(Object classifier, Class<T> type) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive.valve;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures long {@link Valve} pipelines of {@code map}, {@code filter} and {@code peek} stages over a thousand elements,
+ * handled element by element and in batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValveBenchmark {
+
+    private static final int BATCH_SIZE = 64;
+
+    @Param({"1", "8", "32"})
+    private int stages;
+
+    private List<Integer> items;
+    private List<Integer> inner;
+
+    /**
+     * Creates the elements.
+     */
+    @Setup
+    public void setup() {
+        items = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            items.add(i);
+        }
+        inner = items.subList(0, 10);
+    }
+
+    /**
+     * Handles each element of a pipeline.
+     *
+     * @param blackhole a blackhole
+     */
+    @Benchmark
+    public void handle(Blackhole blackhole) {
+        pipeline(Valves.from(items)).handle((Consumer<Integer>) blackhole::consume);
+    }
+
+    /**
+     * Handles batches of a pipeline.
+     *
+     * @param blackhole a blackhole
+     */
+    @Benchmark
+    public void handleBatch(Blackhole blackhole) {
+        pipeline(Valves.from(items)).handleBatch(BATCH_SIZE, (batch, p) -> {
+            for (int i = 0; i < batch.size(); i++) {
+                blackhole.consume(batch.get(i));
+            }
+        });
+    }
+
+    /**
+     * Handles each element of a pipeline over a filled {@link Tank}.
+     *
+     * @param blackhole a blackhole
+     */
+    @Benchmark
+    public void tank(Blackhole blackhole) {
+        Tank<Integer> tank = filledTank();
+        pipeline(tank).handle((Consumer<Integer>) blackhole::consume);
+        tank.close();
+    }
+
+    /**
+     * Handles batches of a pipeline over a filled {@link Tank}.
+     *
+     * @param blackhole a blackhole
+     */
+    @Benchmark
+    public void tankBatch(Blackhole blackhole) {
+        Tank<Integer> tank = filledTank();
+        pipeline(tank).handleBatch(BATCH_SIZE, (batch, p) -> {
+            for (int i = 0; i < batch.size(); i++) {
+                blackhole.consume(batch.get(i));
+            }
+        });
+        tank.close();
+    }
+
+    /**
+     * Collects a pipeline into a list.
+     *
+     * @return the list
+     * @throws Exception if the collection fails
+     */
+    @Benchmark
+    public List<Integer> collect() throws Exception {
+        return pipeline(Valves.from(items)).collect(Collectors.toList()).toCompletableFuture().get();
+    }
+
+    /**
+     * Flat maps a hundred elements into valves of ten elements, one at a time.
+     *
+     * @param blackhole a blackhole
+     */
+    @Benchmark
+    public void flatMap(Blackhole blackhole) {
+        Valves.from(items.subList(0, 100))
+              .flatMap(i -> pipeline(Valves.from(inner)))
+              .handle((Consumer<Integer>) blackhole::consume);
+    }
+
+    /**
+     * Flat maps a hundred elements into valves of ten elements, four at a time.
+     *
+     * @param blackhole a blackhole
+     */
+    @Benchmark
+    public void flatMapConcurrent(Blackhole blackhole) {
+        Valves.from(items.subList(0, 100))
+              .flatMap(i -> pipeline(Valves.from(inner)), 4)
+              .handle((Consumer<Integer>) blackhole::consume);
+    }
+
+    private Tank<Integer> filledTank() {
+        Tank<Integer> tank = new Tank<>(items.size());
+        tank.addAll(items);
+        return tank;
+    }
+
+    private Valve<Integer> pipeline(Valve<Integer> valve) {
+        for (int i = 0; i < stages; i++) {
+            switch (i % 3) {
+            case 0:
+                valve = valve.map(t -> t + 1);
+                break;
+            case 1:
+                valve = valve.filter(t -> t >= 0);
+                break;
+            default:
+                valve = valve.peek(t -> { });
+            }
+        }
+        return valve;
+    }
+}
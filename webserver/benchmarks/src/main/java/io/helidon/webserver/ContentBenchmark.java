@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.ReactiveStreamsAdapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+/**
+ * Measures the throughput of {@link ContentWriters} and {@link ContentReaders}. Read content is published in chunks
+ * of {@value #CHUNK_SIZE} bytes, as received from the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentBenchmark {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    @Param({"128", "16384", "1048576"})
+    private int size;
+
+    private byte[] bytes;
+    private String text;
+    private byte[][] chunks;
+
+    /**
+     * Creates the content.
+     */
+    @Setup
+    public void setup() {
+        bytes = new byte[size];
+        Arrays.fill(bytes, (byte) 'a');
+        text = new String(bytes, StandardCharsets.UTF_8);
+        int count = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunks = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            chunks[i] = Arrays.copyOfRange(bytes, i * CHUNK_SIZE, Math.min(size, (i + 1) * CHUNK_SIZE));
+        }
+    }
+
+    /**
+     * Writes a byte array with a defensive copy, as {@code response.send(byte[])} does.
+     *
+     * @return the written bytes
+     * @throws Exception if writing fails
+     */
+    @Benchmark
+    public byte[] writeBytes() throws Exception {
+        return drain(ContentWriters.byteArrayWriter(true).apply(bytes));
+    }
+
+    /**
+     * Writes a byte array without a copy.
+     *
+     * @return the written bytes
+     * @throws Exception if writing fails
+     */
+    @Benchmark
+    public byte[] writeBytesNoCopy() throws Exception {
+        return drain(ContentWriters.byteArrayWriter(false).apply(bytes));
+    }
+
+    /**
+     * Writes a string, as {@code response.send(String)} does.
+     *
+     * @return the written bytes
+     * @throws Exception if writing fails
+     */
+    @Benchmark
+    public byte[] writeString() throws Exception {
+        return drain(ContentWriters.charSequenceWriter(StandardCharsets.UTF_8).apply(text));
+    }
+
+    /**
+     * Reads a chunked request content as a byte array.
+     *
+     * @return the read bytes
+     * @throws Exception if reading fails
+     */
+    @Benchmark
+    public byte[] readBytes() throws Exception {
+        return ContentReaders.byteArrayReader().apply(chunked()).toCompletableFuture().get();
+    }
+
+    /**
+     * Reads a chunked request content as a string.
+     *
+     * @return the read string
+     * @throws Exception if reading fails
+     */
+    @Benchmark
+    public String readString() throws Exception {
+        return ContentReaders.stringReader(StandardCharsets.UTF_8).apply(chunked()).toCompletableFuture().get();
+    }
+
+    private Flow.Publisher<DataChunk> chunked() {
+        return ReactiveStreamsAdapter.publisherToFlow(Flux.fromArray(chunks).map(DataChunk::create));
+    }
+
+    private static byte[] drain(Flow.Publisher<DataChunk> publisher) throws Exception {
+        return ContentReaders.byteArrayReader().apply(publisher).toCompletableFuture().get();
+    }
+}
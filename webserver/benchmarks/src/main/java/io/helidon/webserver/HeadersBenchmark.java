@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.MediaType;
+import io.helidon.common.http.Parameters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the operations on {@link HashParameters} and {@link HashRequestHeaders} done for each request, and
+ * {@link MediaType#parse(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeadersBenchmark {
+
+    private static final String BROWSER_ACCEPT = "text/html,application/xhtml+xml,application/xml;q=0.9,"
+            + "image/webp,image/apng,*/*;q=0.8";
+
+    private Map<String, List<String>> rawHeaders;
+    private HashRequestHeaders headers;
+    private HashParameters parameters;
+
+    /**
+     * Creates headers of a typical browser request.
+     */
+    @Setup
+    public void setup() {
+        rawHeaders = new HashMap<>();
+        rawHeaders.put("Host", Collections.singletonList("localhost:8080"));
+        rawHeaders.put("Connection", Collections.singletonList("keep-alive"));
+        rawHeaders.put("User-Agent", Collections.singletonList("Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36"));
+        rawHeaders.put("Accept", Collections.singletonList(BROWSER_ACCEPT));
+        rawHeaders.put("Accept-Encoding", Collections.singletonList("gzip, deflate, br"));
+        rawHeaders.put("Accept-Language", Collections.singletonList("en-US,en;q=0.9,cs;q=0.8"));
+        rawHeaders.put("Content-Type", Collections.singletonList("application/json; charset=UTF-8"));
+        rawHeaders.put("Content-Length", Collections.singletonList("1024"));
+        rawHeaders.put("Cookie", Collections.singletonList("session=38afes7a8; theme=dark; locale=en"));
+        rawHeaders.put("Cache-Control", Collections.singletonList("max-age=0"));
+        headers = new HashRequestHeaders(rawHeaders);
+        parameters = new HashParameters(rawHeaders);
+    }
+
+    /**
+     * Creates the headers of a request.
+     *
+     * @return the headers
+     */
+    @Benchmark
+    public RequestHeaders createHeaders() {
+        return new HashRequestHeaders(rawHeaders);
+    }
+
+    /**
+     * Case insensitive lookup of a header.
+     *
+     * @return the value
+     */
+    @Benchmark
+    public Optional<String> first() {
+        return headers.first("content-length");
+    }
+
+    /**
+     * Parses the {@code Accept} header of a fresh request.
+     *
+     * @return the accepted types
+     */
+    @Benchmark
+    public List<MediaType> acceptedTypes() {
+        return new HashRequestHeaders(rawHeaders).acceptedTypes();
+    }
+
+    /**
+     * Content negotiation of a fresh request.
+     *
+     * @return the best accepted type
+     */
+    @Benchmark
+    public Optional<MediaType> bestAccepted() {
+        return new HashRequestHeaders(rawHeaders).bestAccepted(MediaType.APPLICATION_JSON, MediaType.TEXT_HTML);
+    }
+
+    /**
+     * Parses the {@code Content-Type} header of a fresh request.
+     *
+     * @return the content type
+     */
+    @Benchmark
+    public Optional<MediaType> contentType() {
+        return new HashRequestHeaders(rawHeaders).contentType();
+    }
+
+    /**
+     * Parses the cookies of a fresh request.
+     *
+     * @return the cookies
+     */
+    @Benchmark
+    public Parameters cookies() {
+        return new HashRequestHeaders(rawHeaders).cookies();
+    }
+
+    /**
+     * Builds parameters, as done for response headers.
+     *
+     * @return the parameters
+     */
+    @Benchmark
+    public Parameters putAndAdd() {
+        HashParameters result = new HashParameters();
+        result.put("Content-Type", "text/plain");
+        result.put("Content-Length", "13");
+        result.add("Set-Cookie", "a=b");
+        result.add("Set-Cookie", "c=d");
+        result.putIfAbsent("Date", "Mon, 1 Jan 2018 00:00:00 GMT");
+        return result;
+    }
+
+    /**
+     * Concatenates parameters, as done for the path parameters of nested routes.
+     *
+     * @return the parameters
+     */
+    @Benchmark
+    public Parameters concat() {
+        return HashParameters.concat(parameters, headers);
+    }
+
+    /**
+     * Parses a simple media type.
+     *
+     * @return the media type
+     */
+    @Benchmark
+    public MediaType parseSimple() {
+        return MediaType.parse("application/json");
+    }
+
+    /**
+     * Parses a media type with parameters.
+     *
+     * @return the media type
+     */
+    @Benchmark
+    public MediaType parseWithParameters() {
+        return MediaType.parse("text/plain; charset=UTF-8; q=0.9");
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PathPattern} compilation and matching of the typical kinds of patterns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathPatternBenchmark {
+
+    @Param({"literal", "parameter", "regexp", "optional"})
+    private String patternKind;
+
+    private String pattern;
+    private String path;
+    private String prefixPath;
+    private PathMatcher matcher;
+
+    /**
+     * Compiles the pattern.
+     */
+    @Setup
+    public void setup() {
+        switch (patternKind) {
+        case "literal":
+            pattern = "/greet/hello/world";
+            path = "/greet/hello/world";
+            break;
+        case "parameter":
+            pattern = "/greet/{name}/orders/{id}";
+            path = "/greet/joe/orders/42";
+            break;
+        case "regexp":
+            pattern = "/greet/{name:[a-z]+}/orders/{id:\\d+}";
+            path = "/greet/joe/orders/42";
+            break;
+        case "optional":
+            pattern = "/greet[/{name}]/orders";
+            path = "/greet/joe/orders";
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown pattern kind: " + patternKind);
+        }
+        prefixPath = path + "/items/7";
+        matcher = PathPattern.compile(pattern);
+        if (!matcher.match(path).matches() || !matcher.prefixMatch(prefixPath).matches()) {
+            throw new IllegalStateException("The pattern " + pattern + " doesn't match " + path);
+        }
+    }
+
+    /**
+     * Compiles the pattern, as done once for each registered route.
+     *
+     * @return the matcher
+     */
+    @Benchmark
+    public PathMatcher compile() {
+        return PathPattern.compile(pattern);
+    }
+
+    /**
+     * Matches the whole path, as done by routes.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public PathMatcher.Result match() {
+        return matcher.match(path);
+    }
+
+    /**
+     * Matches a prefix of the path, as done by registered services.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public PathMatcher.PrefixResult prefixMatch() {
+        return matcher.prefixMatch(prefixPath);
+    }
+
+    /**
+     * A path which doesn't match, as tried for each route before the matching one.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public PathMatcher.Result mismatch() {
+        return matcher.match("/other/path/of/the/application");
+    }
+}
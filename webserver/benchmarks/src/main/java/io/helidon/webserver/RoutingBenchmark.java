@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.webserver.testsupport.TestClient;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the crawl of {@link RequestRouting} through a number of routes. The requested route is the last one,
+ * so each request tries to match all the routes before it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int routes;
+
+    private TestClient flatClient;
+    private TestClient nestedClient;
+    private String path;
+    private String nestedPath;
+
+    /**
+     * Creates the routings.
+     */
+    @Setup
+    public void setup() {
+        Routing.Builder flat = Routing.builder();
+        Routing.Builder nested = Routing.builder();
+        for (int i = 0; i < routes; i++) {
+            String route = "/resource" + i + "/{id}";
+            flat.get(route, (req, res) -> res.send(req.path().param("id")));
+            nested.register("/service" + i, rules -> rules.get(route, (req, res) -> res.send(req.path().param("id"))));
+        }
+        flatClient = TestClient.create(flat);
+        nestedClient = TestClient.create(nested);
+        path = "/resource" + (routes - 1) + "/42";
+        nestedPath = "/service" + (routes - 1) + path;
+    }
+
+    /**
+     * A request matching a route registered directly on the routing.
+     *
+     * @return the response
+     * @throws Exception if the request fails
+     */
+    @Benchmark
+    public Object flat() throws Exception {
+        return flatClient.path(path).get().status();
+    }
+
+    /**
+     * A request matching a route of a registered service.
+     *
+     * @return the response
+     * @throws Exception if the request fails
+     */
+    @Benchmark
+    public Object nested() throws Exception {
+        return nestedClient.path(nestedPath).get().status();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.Parameters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link UriComponent#decodeQuery(String, boolean)} of plain and percent-encoded queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UriComponentBenchmark {
+
+    @Param({"plain", "encoded", "long"})
+    private String queryKind;
+
+    private String query;
+
+    /**
+     * Creates the query.
+     */
+    @Setup
+    public void setup() {
+        switch (queryKind) {
+        case "plain":
+            query = "page=2&size=20&sort=name";
+            break;
+        case "encoded":
+            query = "name=J%C3%BCrgen+M%C3%BCller&q=hello%20world&redirect=%2Fhome%3Fa%3Db";
+            break;
+        case "long":
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < 32; i++) {
+                builder.append(i == 0 ? "" : "&").append("param").append(i).append("=value%20").append(i);
+            }
+            query = builder.toString();
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown query kind: " + queryKind);
+        }
+    }
+
+    /**
+     * Decodes both names and values, as done for {@code request.queryParams()}.
+     *
+     * @return the parameters
+     */
+    @Benchmark
+    public Parameters decode() {
+        return UriComponent.decodeQuery(query, true);
+    }
+
+    /**
+     * Decodes only the names.
+     *
+     * @return the parameters
+     */
+    @Benchmark
+    public Parameters decodeNames() {
+        return UriComponent.decodeQuery(query, false);
+    }
+}
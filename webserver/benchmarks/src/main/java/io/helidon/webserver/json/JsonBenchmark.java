@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+import javax.json.JsonStructure;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow;
+import io.helidon.webserver.ContentReaders;
+import io.helidon.webserver.ContentWriters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares binding of application objects by {@link JsonSupport#objectWriter()} and
+ * {@link JsonSupport#objectReader()} with building and reading a {@link JsonStructure} by hand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private static final JsonBuilderFactory JSON = Json.createBuilderFactory(Collections.emptyMap());
+
+    private JsonSupport jsonSupport;
+    private Order order;
+    private byte[] orderJson;
+
+    /**
+     * Creates the order.
+     *
+     * @throws Exception if the order cannot be written
+     */
+    @Setup
+    public void setup() throws Exception {
+        jsonSupport = JsonSupport.get();
+        order = new Order();
+        order.setId(42);
+        order.setCustomer("Joe");
+        order.setPaid(true);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Item item = new Item();
+            item.setName("item" + i);
+            item.setCount(i);
+            item.setPrice(i * 1.5);
+            items.add(item);
+        }
+        order.setItems(items);
+        orderJson = drain(jsonSupport.objectWriter().apply(order));
+    }
+
+    /**
+     * Writes the order by the object binding.
+     *
+     * @return the written bytes
+     * @throws Exception if writing fails
+     */
+    @Benchmark
+    public byte[] writeObject() throws Exception {
+        return drain(jsonSupport.objectWriter().apply(order));
+    }
+
+    /**
+     * Builds a {@link JsonObject} of the order and writes it.
+     *
+     * @return the written bytes
+     * @throws Exception if writing fails
+     */
+    @Benchmark
+    public byte[] writeJsonObject() throws Exception {
+        JsonArrayBuilder items = JSON.createArrayBuilder();
+        for (Item item : order.getItems()) {
+            items.add(JSON.createObjectBuilder()
+                          .add("name", item.getName())
+                          .add("count", item.getCount())
+                          .add("price", item.getPrice()));
+        }
+        JsonObject json = JSON.createObjectBuilder()
+                              .add("id", order.getId())
+                              .add("customer", order.getCustomer())
+                              .add("paid", order.isPaid())
+                              .add("items", items)
+                              .build();
+        return drain(jsonSupport.writer().apply(json));
+    }
+
+    /**
+     * Reads the order by the object binding.
+     *
+     * @return the order
+     * @throws Exception if reading fails
+     */
+    @Benchmark
+    public Order readObject() throws Exception {
+        return jsonSupport.objectReader()
+                          .applyAndCast(ContentWriters.byteArrayWriter(false).apply(orderJson), Order.class)
+                          .toCompletableFuture()
+                          .get();
+    }
+
+    /**
+     * Reads a {@link JsonObject} and creates the order of it.
+     *
+     * @return the order
+     * @throws Exception if reading fails
+     */
+    @Benchmark
+    public Order readJsonObject() throws Exception {
+        JsonObject json = (JsonObject) jsonSupport.reader()
+                                                  .apply(ContentWriters.byteArrayWriter(false).apply(orderJson))
+                                                  .toCompletableFuture()
+                                                  .get();
+        Order result = new Order();
+        result.setId(json.getJsonNumber("id").longValue());
+        result.setCustomer(json.getString("customer"));
+        result.setPaid(json.getBoolean("paid"));
+        JsonArray jsonItems = json.getJsonArray("items");
+        List<Item> items = new ArrayList<>(jsonItems.size());
+        for (JsonObject jsonItem : jsonItems.getValuesAs(JsonObject.class)) {
+            Item item = new Item();
+            item.setName(jsonItem.getString("name"));
+            item.setCount(jsonItem.getInt("count"));
+            item.setPrice(jsonItem.getJsonNumber("price").doubleValue());
+            items.add(item);
+        }
+        result.setItems(items);
+        return result;
+    }
+
+    private static byte[] drain(Flow.Publisher<DataChunk> publisher) throws Exception {
+        return ContentReaders.byteArrayReader().apply(publisher).toCompletableFuture().get();
+    }
+
+    /**
+     * An order.
+     */
+    public static final class Order {
+
+        private long id;
+        private String customer;
+        private boolean paid;
+        private List<Item> items;
+
+        /**
+         * Returns the id.
+         *
+         * @return the id
+         */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * Sets the id.
+         *
+         * @param id the id
+         */
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        /**
+         * Returns the customer.
+         *
+         * @return the customer
+         */
+        public String getCustomer() {
+            return customer;
+        }
+
+        /**
+         * Sets the customer.
+         *
+         * @param customer the customer
+         */
+        public void setCustomer(String customer) {
+            this.customer = customer;
+        }
+
+        /**
+         * Returns whether the order is paid.
+         *
+         * @return whether paid
+         */
+        public boolean isPaid() {
+            return paid;
+        }
+
+        /**
+         * Sets whether the order is paid.
+         *
+         * @param paid whether paid
+         */
+        public void setPaid(boolean paid) {
+            this.paid = paid;
+        }
+
+        /**
+         * Returns the items.
+         *
+         * @return the items
+         */
+        public List<Item> getItems() {
+            return items;
+        }
+
+        /**
+         * Sets the items.
+         *
+         * @param items the items
+         */
+        public void setItems(List<Item> items) {
+            this.items = items;
+        }
+    }
+
+    /**
+     * An item of the order.
+     */
+    public static final class Item {
+
+        private String name;
+        private int count;
+        private double price;
+
+        /**
+         * Returns the name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Sets the name.
+         *
+         * @param name the name
+         */
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the count.
+         *
+         * @return the count
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Sets the count.
+         *
+         * @param count the count
+         */
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        /**
+         * Returns the price.
+         *
+         * @return the price
+         */
+        public double getPrice() {
+            return price;
+        }
+
+        /**
+         * Sets the price.
+         *
+         * @param price the price
+         */
+        public void setPrice(double price) {
+            this.price = price;
+        }
+    }
+}
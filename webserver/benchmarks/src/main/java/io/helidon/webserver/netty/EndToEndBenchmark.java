@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.netty;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.Json;
+import javax.json.JsonBuilderFactory;
+
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.ServerConfiguration;
+import io.helidon.webserver.json.JsonSupport;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpRequestDecoder;
+import io.netty.handler.codec.http.HttpResponseEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the whole request processing of the Netty based server in process: HTTP decoding, routing, the handler
+ * and HTTP encoding. Requests are written to an {@link EmbeddedChannel} with the server pipeline, so the results
+ * contain no network and no thread hand-off.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    private static final String MESSAGE = "Hello, World!";
+    private static final JsonBuilderFactory JSON = Json.createBuilderFactory(Collections.emptyMap());
+
+    private NettyWebServer webServer;
+    private EmbeddedChannel channel;
+    private ByteBuf plaintext;
+    private ByteBuf json;
+    private ByteBuf jsonObject;
+
+    /**
+     * Creates the server pipeline.
+     */
+    @Setup
+    public void setup() {
+        Routing routing = Routing.builder()
+                                 .register(JsonSupport.builder().bind(Message.class).build())
+                                 .get("/plaintext", (req, res) -> res.send(MESSAGE))
+                                 .get("/json", (req, res) -> res.send(JSON.createObjectBuilder()
+                                                                          .add("message", MESSAGE)
+                                                                          .build()))
+                                 .get("/json-object", (req, res) -> res.send(new Message(MESSAGE)))
+                                 .build();
+        webServer = new NettyWebServer(ServerConfiguration.builder().build(), routing, Collections.emptyMap());
+        channel = new EmbeddedChannel(new HttpRequestDecoder(),
+                                      new HttpResponseEncoder(),
+                                      new ForwardingHandler(routing, webServer, null, new ConcurrentLinkedQueue<>()));
+        plaintext = request("/plaintext");
+        json = request("/json");
+        jsonObject = request("/json-object");
+
+        verify(plaintext, MESSAGE);
+        verify(json, "{\"message\":\"" + MESSAGE + "\"}");
+        verify(jsonObject, "{\"message\":\"" + MESSAGE + "\"}");
+    }
+
+    /**
+     * Closes the channel and releases the server threads.
+     */
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+        plaintext.release();
+        json.release();
+        jsonObject.release();
+        webServer.shutdown();
+    }
+
+    /**
+     * A plain text response.
+     *
+     * @return number of response bytes
+     */
+    @Benchmark
+    public int plaintext() {
+        return exchange(plaintext);
+    }
+
+    /**
+     * A JSON response of a {@link javax.json.JsonObject}.
+     *
+     * @return number of response bytes
+     */
+    @Benchmark
+    public int json() {
+        return exchange(json);
+    }
+
+    /**
+     * A JSON response of an application object bound by {@link JsonSupport}.
+     *
+     * @return number of response bytes
+     */
+    @Benchmark
+    public int jsonObject() {
+        return exchange(jsonObject);
+    }
+
+    private int exchange(ByteBuf request) {
+        channel.writeInbound(request.retainedDuplicate());
+        channel.runPendingTasks();
+        int bytes = 0;
+        for (ByteBuf response = channel.readOutbound(); response != null; response = channel.readOutbound()) {
+            bytes += response.readableBytes();
+            response.release();
+        }
+        return bytes;
+    }
+
+    private void verify(ByteBuf request, String expectedEntity) {
+        channel.writeInbound(request.retainedDuplicate());
+        channel.runPendingTasks();
+        StringBuilder response = new StringBuilder();
+        for (ByteBuf buf = channel.readOutbound(); buf != null; buf = channel.readOutbound()) {
+            response.append(buf.toString(StandardCharsets.UTF_8));
+            buf.release();
+        }
+        if (!response.toString().startsWith("HTTP/1.1 200") || !response.toString().contains(expectedEntity)) {
+            throw new IllegalStateException("Unexpected response: " + response);
+        }
+    }
+
+    private static ByteBuf request(String path) {
+        String request = "GET " + path + " HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Accept: */*\r\n"
+                + "\r\n";
+        return Unpooled.directBuffer().writeBytes(request.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * An application object.
+     */
+    public static final class Message {
+
+        private String message;
+
+        /**
+         * Creates an empty message.
+         */
+        public Message() {
+        }
+
+        private Message(String message) {
+            this.message = message;
+        }
+
+        /**
+         * Returns the message.
+         *
+         * @return the message
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Sets the message.
+         *
+         * @param message the message
+         */
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.netty;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+
+import io.helidon.common.configurable.Resource;
+import io.helidon.common.pki.KeyConfig;
+import io.helidon.webserver.SSLContextBuilder;
+import io.helidon.webserver.SocketConfiguration;
+import io.helidon.webserver.SslConfiguration;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslProvider;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the TLS engines created by {@link SslContextFactory}: full and resumed handshakes and the encryption and
+ * decryption of 16KB records. Engines exchange records in memory, so the results contain only the TLS processing.
+ * <p>
+ * Only the JDK engine is measured by default, run with {@code -p provider=JDK,OPENSSL} if
+ * {@code netty-tcnative-boringssl-static} is on the class path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SslEngineBenchmark {
+
+    private static final int RECORD_SIZE = 16 * 1024;
+
+    @Param({"JDK"})
+    private SslConfiguration.Provider provider;
+
+    private SslContext server;
+    private SslContext client;
+    private Pair connected;
+    private ByteBuffer data;
+
+    /**
+     * Creates the server and client contexts and a connected pair of engines.
+     *
+     * @throws SSLException if the contexts cannot be created
+     */
+    @Setup
+    public void setup() throws SSLException {
+        if (provider == SslConfiguration.Provider.OPENSSL && !OpenSsl.isAvailable()) {
+            throw new IllegalStateException("OpenSSL is not available!", OpenSsl.unavailabilityCause());
+        }
+        KeyConfig keys = KeyConfig.pemBuilder()
+                                  .key(Resource.from("ssl/key.pkcs8.pem"))
+                                  .certChain(Resource.from("ssl/certificate.pem"))
+                                  .build();
+        SocketConfiguration soConfig = SocketConfiguration.builder()
+                                                          .ssl(SSLContextBuilder.create(keys))
+                                                          .sslConfiguration(SslConfiguration.builder()
+                                                                                    .provider(provider)
+                                                                                    .sessionCacheSize(10_000))
+                                                          .build();
+        server = SslContextFactory.create(soConfig);
+        client = SslContextBuilder.forClient()
+                                  .sslProvider(provider == SslConfiguration.Provider.OPENSSL
+                                                       ? SslProvider.OPENSSL
+                                                       : SslProvider.JDK)
+                                  .trustManager(InsecureTrustManagerFactory.INSTANCE)
+                                  .build();
+        connected = handshake(false);
+        data = ByteBuffer.allocate(RECORD_SIZE);
+    }
+
+    /**
+     * A full handshake.
+     *
+     * @return the connected engines
+     * @throws SSLException if the handshake fails
+     */
+    @Benchmark
+    public Pair fullHandshake() throws SSLException {
+        return handshake(false);
+    }
+
+    /**
+     * A handshake resuming a cached session.
+     *
+     * @return the connected engines
+     * @throws SSLException if the handshake fails
+     */
+    @Benchmark
+    public Pair resumedHandshake() throws SSLException {
+        return handshake(true);
+    }
+
+    /**
+     * Encrypts a 16KB record on the server and decrypts it on the client.
+     *
+     * @throws SSLException if the transfer fails
+     */
+    @Benchmark
+    public void transfer() throws SSLException {
+        connected.transfer(data);
+    }
+
+    private Pair handshake(boolean resume) throws SSLException {
+        // a client engine with the peer host and port can resume a cached session
+        SSLEngine clientEngine = resume
+                ? client.newEngine(ByteBufAllocator.DEFAULT, "localhost", 8443)
+                : client.newEngine(ByteBufAllocator.DEFAULT);
+        Pair pair = new Pair(server.newEngine(ByteBufAllocator.DEFAULT), clientEngine);
+        pair.handshake();
+        return pair;
+    }
+
+    /**
+     * A server and client engine connected in memory.
+     */
+    public static final class Pair {
+
+        private final SSLEngine server;
+        private final SSLEngine client;
+        private final ByteBuffer serverToClient;
+        private final ByteBuffer clientToServer;
+        private final ByteBuffer serverApp;
+        private final ByteBuffer clientApp;
+
+        private Pair(SSLEngine server, SSLEngine client) {
+            this.server = server;
+            this.client = client;
+            int packetSize = Math.max(server.getSession().getPacketBufferSize(), client.getSession().getPacketBufferSize());
+            int appSize = Math.max(server.getSession().getApplicationBufferSize(),
+                                   client.getSession().getApplicationBufferSize());
+            this.serverToClient = ByteBuffer.allocate(packetSize);
+            this.clientToServer = ByteBuffer.allocate(packetSize);
+            this.serverApp = ByteBuffer.allocate(appSize + RECORD_SIZE);
+            this.clientApp = ByteBuffer.allocate(appSize + RECORD_SIZE);
+        }
+
+        private void handshake() throws SSLException {
+            ByteBuffer empty = ByteBuffer.allocate(0);
+            client.beginHandshake();
+            server.beginHandshake();
+            while (!isFinished(client) || !isFinished(server)) {
+                step(client, empty, clientToServer, serverToClient, clientApp);
+                step(server, empty, serverToClient, clientToServer, serverApp);
+            }
+        }
+
+        private static void step(SSLEngine engine, ByteBuffer empty, ByteBuffer out, ByteBuffer in, ByteBuffer app)
+                throws SSLException {
+            engine.wrap(empty, out);
+            in.flip();
+            SSLEngineResult result = engine.unwrap(in, app);
+            in.compact();
+            app.clear();
+            if (result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK) {
+                Runnable task;
+                while ((task = engine.getDelegatedTask()) != null) {
+                    task.run();
+                }
+            }
+        }
+
+        private static boolean isFinished(SSLEngine engine) {
+            SSLEngineResult.HandshakeStatus status = engine.getHandshakeStatus();
+            return status == SSLEngineResult.HandshakeStatus.FINISHED
+                    || status == SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING;
+        }
+
+        private void transfer(ByteBuffer data) throws SSLException {
+            data.clear();
+            while (data.hasRemaining()) {
+                server.wrap(data, serverToClient);
+                serverToClient.flip();
+                while (serverToClient.hasRemaining()) {
+                    SSLEngineResult result = client.unwrap(serverToClient, clientApp);
+                    if (result.bytesConsumed() == 0) {
+                        break;
+                    }
+                }
+                serverToClient.compact();
+                clientApp.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.client;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.reactive.Flow;
+import io.helidon.webserver.Deadline;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+import io.opentracing.Tracer;
+import io.opentracing.propagation.Format;
+import io.opentracing.propagation.TextMapInjectAdapter;
+import io.opentracing.tag.Tags;
+
+/**
+ * A request of the {@link WebClient}. It is configured fluently and sent by one of the {@code request} or
+ * {@code submit} methods.
+ */
+public final class ClientRequest {
+
+    private static final Set<String> PIPELINABLE_METHODS = new HashSet<>(Arrays.asList("GET", "HEAD", "OPTIONS",
+                                                                                         "TRACE", "DELETE"));
+
+    private final WebClient client;
+    private final Http.RequestMethod method;
+    private final URI uri;
+    private final HttpHeaders headers = new DefaultHttpHeaders();
+    private SpanContext parentSpan;
+    private Duration responseTimeout;
+    private Deadline deadline;
+
+    ClientRequest(WebClient client, Http.RequestMethod method, URI uri) {
+        String scheme = uri.getScheme();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme) || uri.getHost() == null) {
+            throw new IllegalArgumentException("Not an absolute http or https URI: " + uri);
+        }
+        this.client = client;
+        this.method = method;
+        this.uri = uri;
+        this.responseTimeout = client.responseTimeout();
+    }
+
+    /**
+     * Sets a request header, replacing existing values.
+     *
+     * @param name   a header name
+     * @param values header values
+     * @return updated request
+     */
+    public ClientRequest header(String name, String... values) {
+        Objects.requireNonNull(name, "Parameter 'name' is null!");
+        headers.set(name, Arrays.asList(values));
+        return this;
+    }
+
+    /**
+     * Sets a parent of the client span. By default it is the active span of the tracer.
+     *
+     * @param parentSpan a parent span context
+     * @return updated request
+     */
+    public ClientRequest parentSpan(SpanContext parentSpan) {
+        this.parentSpan = parentSpan;
+        return this;
+    }
+
+    /**
+     * Sets the time to wait for the response status and headers. Overrides the default of the client.
+     *
+     * @param responseTimeout a timeout
+     * @return updated request
+     */
+    public ClientRequest responseTimeout(Duration responseTimeout) {
+        this.responseTimeout = Objects.requireNonNull(responseTimeout, "Parameter 'responseTimeout' is null!");
+        return this;
+    }
+
+    /**
+     * Sets the deadline of the request, usually the {@link io.helidon.webserver.ServerRequest#deadline() deadline} of
+     * the server request this request is made for. The response timeout is limited by the remaining time, which is
+     * also propagated in the {@value Deadline#TIMEOUT_HEADER} header. An expired request is not sent at all.
+     *
+     * @param deadline a deadline, can be {@code null}
+     * @return updated request
+     */
+    public ClientRequest deadline(Deadline deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
+    /**
+     * Sends the request without a content.
+     *
+     * @return a completion stage of the response, completed when the response status and headers are received
+     */
+    public CompletionStage<ClientResponse> request() {
+        return send(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, nettyMethod(), path(), Unpooled.EMPTY_BUFFER),
+                    null);
+    }
+
+    /**
+     * Sends the request with a string content encoded in {@code UTF-8}. The {@code Content-Type} is
+     * {@code text/plain; charset=UTF-8} unless set explicitly.
+     *
+     * @param content a content
+     * @return a completion stage of the response, completed when the response status and headers are received
+     */
+    public CompletionStage<ClientResponse> submit(String content) {
+        Objects.requireNonNull(content, "Parameter 'content' is null!");
+        if (!headers.contains(Http.Header.CONTENT_TYPE)) {
+            headers.set(Http.Header.CONTENT_TYPE, "text/plain; charset=UTF-8");
+        }
+        ByteBuf buffer = Unpooled.copiedBuffer(content, StandardCharsets.UTF_8);
+        headers.set(Http.Header.CONTENT_LENGTH, buffer.readableBytes());
+        return send(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, nettyMethod(), path(), buffer), null);
+    }
+
+    /**
+     * Sends the request with a content. Chunks are requested only when the connection can write them. The content is
+     * sent using the chunked transfer encoding unless the {@code Content-Length} header is set.
+     *
+     * @param content a content publisher
+     * @return a completion stage of the response, completed when the response status and headers are received
+     */
+    public CompletionStage<ClientResponse> submit(Flow.Publisher<DataChunk> content) {
+        Objects.requireNonNull(content, "Parameter 'content' is null!");
+        if (!headers.contains(Http.Header.CONTENT_LENGTH)) {
+            headers.set(Http.Header.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
+        }
+        return send(new DefaultHttpRequest(HttpVersion.HTTP_1_1, nettyMethod(), path()), content);
+    }
+
+    private CompletionStage<ClientResponse> send(HttpRequest request, Flow.Publisher<DataChunk> content) {
+        HostPool hostPool = client.pool().hostPool(uri);
+        Span span = startSpan();
+        request.headers().set(headers);
+        request.headers().set(Http.Header.HOST, uri.getPort() > 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost());
+
+        long timeoutMillis = responseTimeout.toMillis();
+        boolean pipelinable = content == null && PIPELINABLE_METHODS.contains(method.name());
+        CompletableFuture<ClientResponse> result = new CompletableFuture<>();
+        if (deadline != null) {
+            long remaining = deadline.remaining(TimeUnit.MILLISECONDS);
+            if (remaining <= 0) {
+                new Exchange(request, content, pipelinable, timeoutMillis, span, result)
+                        .fail(new TimeoutException("Request deadline expired before sending the request!"));
+                return result;
+            }
+            timeoutMillis = timeoutMillis > 0 ? Math.min(timeoutMillis, remaining) : remaining;
+            request.headers().set(Deadline.TIMEOUT_HEADER, remaining);
+        }
+        long exchangeTimeoutMillis = timeoutMillis;
+        hostPool.acquire(pipelinable).whenComplete((connection, throwable) -> {
+            Exchange exchange = new Exchange(request, content, pipelinable, exchangeTimeoutMillis, span, result);
+            if (throwable == null) {
+                connection.send(exchange);
+            } else {
+                exchange.fail(throwable);
+            }
+        });
+        return result;
+    }
+
+    private Span startSpan() {
+        Tracer tracer = client.tracer();
+        Tracer.SpanBuilder builder = tracer.buildSpan(method.name())
+                                           .withTag(Tags.SPAN_KIND.getKey(), Tags.SPAN_KIND_CLIENT)
+                                           .withTag(Tags.HTTP_METHOD.getKey(), method.name())
+                                           .withTag(Tags.HTTP_URL.getKey(), uri.toString());
+        if (parentSpan != null) {
+            builder.asChildOf(parentSpan);
+        }
+        Span span = builder.start();
+        Map<String, String> tracingHeaders = new HashMap<>();
+        tracer.inject(span.context(), Format.Builtin.HTTP_HEADERS, new TextMapInjectAdapter(tracingHeaders));
+        tracingHeaders.forEach(headers::set);
+        return span;
+    }
+
+    private HttpMethod nettyMethod() {
+        return HttpMethod.valueOf(method.name());
+    }
+
+    private String path() {
+        String path = uri.getRawPath();
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        }
+        String query = uri.getRawQuery();
+        return query == null ? path : path + "?" + query;
+    }
+
+    @Override
+    public String toString() {
+        return method.name() + " " + uri;
+    }
+}
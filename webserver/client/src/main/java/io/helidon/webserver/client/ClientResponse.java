@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.client;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.http.Parameters;
+import io.helidon.common.reactive.Flow;
+
+/**
+ * A response received by the {@link WebClient}. The response content must be consumed, or its subscription
+ * cancelled, before the connection can be used by another request.
+ */
+public final class ClientResponse {
+
+    private final Http.ResponseStatus status;
+    private final Parameters headers;
+    private final Flow.Publisher<DataChunk> content;
+
+    ClientResponse(Http.ResponseStatus status, Parameters headers, Flow.Publisher<DataChunk> content) {
+        this.status = status;
+        this.headers = headers;
+        this.content = content;
+    }
+
+    /**
+     * Returns the response status.
+     *
+     * @return the response status
+     */
+    public Http.ResponseStatus status() {
+        return status;
+    }
+
+    /**
+     * Returns read-only case insensitive response headers.
+     *
+     * @return the response headers
+     */
+    public Parameters headers() {
+        return headers;
+    }
+
+    /**
+     * Returns the response content. It can be subscribed only once. Each chunk must be
+     * {@link DataChunk#release() released} after it is processed.
+     *
+     * @return the response content publisher
+     */
+    public Flow.Publisher<DataChunk> content() {
+        return content;
+    }
+
+    /**
+     * Reads the whole response content as a string, decoded by the charset of the {@code Content-Type} header
+     * or {@code UTF-8}.
+     *
+     * @return a completion stage of the content
+     */
+    public CompletionStage<String> asString() {
+        Charset charset = headers.first(Http.Header.CONTENT_TYPE)
+                                 .map(MediaType::parse)
+                                 .flatMap(MediaType::getCharset)
+                                 .map(Charset::forName)
+                                 .orElse(StandardCharsets.UTF_8);
+        CompletableFuture<String> result = new CompletableFuture<>();
+        content.subscribe(new Flow.Subscriber<DataChunk>() {
+            private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(DataChunk chunk) {
+                ByteBuffer data = chunk.data();
+                byte[] array = new byte[data.remaining()];
+                data.get(array);
+                bytes.write(array, 0, array.length);
+                chunk.release();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(new String(bytes.toByteArray(), charset));
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ClientResponse{" + status.code() + " " + status.reasonPhrase() + "}";
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.client;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpStatusClass;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * A pooled connection, the last handler of the channel pipeline. Exchanges are processed in the order in which they
+ * were sent, responses of pipelined requests arrive in the same order.
+ * <p>
+ * The channel does not read automatically. It reads when it is idle, to detect that the server closed the connection,
+ * or when the current exchange has a demand for the response.
+ * <p>
+ * Exchanges are confined to the event loop of the channel. Counters of requests are guarded by the {@link HostPool}.
+ */
+final class Connection extends ChannelInboundHandlerAdapter {
+
+    private final HostPool pool;
+    private final long idleTimeoutNanos;
+    private final Deque<Exchange> exchanges = new ArrayDeque<>();
+
+    // event loop confined
+    private volatile ChannelHandlerContext ctx;
+    private boolean reading;
+    private boolean interimResponse;
+    private long lastActivity;
+    private ScheduledFuture<?> idleTimer;
+
+    // guarded by the host pool
+    private int inflight;
+    private int nonPipelinable;
+    private boolean reusable = true;
+
+    Connection(HostPool pool, long idleTimeoutMillis) {
+        this.pool = pool;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+    }
+
+    /**
+     * Sends the request of the exchange. Must be called exactly once for each connection acquired from the pool.
+     *
+     * @param exchange an exchange
+     */
+    void send(Exchange exchange) {
+        ChannelHandlerContext context = ctx;
+        context.executor().execute(() -> {
+            if (!context.channel().isActive()) {
+                exchange.fail(new IOException("Connection closed!"));
+                pool.released(this, exchange.pipelinable(), false);
+                return;
+            }
+            exchanges.add(exchange);
+            exchange.start(this, context);
+            readIfNeeded();
+        });
+    }
+
+    /**
+     * Reads from the channel if it is not reading and the connection is idle or the current exchange
+     * has a demand for the response.
+     */
+    void readIfNeeded() {
+        ChannelHandlerContext context = ctx;
+        if (!context.executor().inEventLoop()) {
+            context.executor().execute(this::readIfNeeded);
+            return;
+        }
+        if (reading || !context.channel().isActive()) {
+            return;
+        }
+        Exchange exchange = exchanges.peek();
+        if (exchange == null || exchange.wantsResponse()) {
+            reading = true;
+            context.read();
+        }
+    }
+
+    /**
+     * Closes the connection and fails all exchanges.
+     */
+    void close() {
+        ChannelHandlerContext context = ctx;
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    boolean isActive() {
+        ChannelHandlerContext context = ctx;
+        return context != null && context.channel().isActive();
+    }
+
+    void acquired(boolean pipelinable) {
+        inflight++;
+        if (!pipelinable) {
+            nonPipelinable++;
+        }
+    }
+
+    void released(boolean pipelinable) {
+        inflight--;
+        if (!pipelinable) {
+            nonPipelinable--;
+        }
+    }
+
+    void discard() {
+        reusable = false;
+    }
+
+    int inflight() {
+        return inflight;
+    }
+
+    boolean pipelinable() {
+        return nonPipelinable == 0;
+    }
+
+    boolean reusable() {
+        return reusable;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) {
+        lastActivity = System.nanoTime();
+        scheduleIdleTimer(idleTimeoutNanos);
+        readIfNeeded();
+        ctx.fireChannelActive();
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        Exchange exchange = exchanges.peek();
+        if (exchange == null) {
+            // unexpected data on an idle connection
+            ReferenceCountUtil.release(msg);
+            ctx.close();
+            return;
+        }
+        if (msg instanceof HttpObject && ((HttpObject) msg).decoderResult().isFailure()) {
+            ReferenceCountUtil.release(msg);
+            exceptionCaught(ctx, ((HttpObject) msg).decoderResult().cause());
+            return;
+        }
+        if (msg instanceof HttpResponse) {
+            HttpResponse response = (HttpResponse) msg;
+            if (response.status().codeClass() == HttpStatusClass.INFORMATIONAL) {
+                // e.g. 100-continue, followed by the final response
+                interimResponse = true;
+            } else {
+                exchange.keepAlive(HttpUtil.isKeepAlive(response));
+                exchange.onResponse(response);
+            }
+        }
+        if (msg instanceof HttpContent) {
+            if (interimResponse) {
+                interimResponse = !(msg instanceof LastHttpContent);
+                ReferenceCountUtil.release(msg);
+                return;
+            }
+            exchange.onContent((HttpContent) msg);
+            if (msg instanceof LastHttpContent) {
+                exchanges.poll();
+                lastActivity = System.nanoTime();
+                boolean keepAlive = exchange.keepAlive();
+                pool.released(this, exchange.pipelinable(), keepAlive);
+                if (!keepAlive) {
+                    ctx.close();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) {
+        reading = false;
+        readIfNeeded();
+        ctx.fireChannelReadComplete();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable()) {
+            for (Exchange exchange : exchanges) {
+                exchange.writable();
+            }
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        if (idleTimer != null) {
+            idleTimer.cancel(false);
+        }
+        failAll(new IOException("Connection closed by the server!"));
+        pool.closed(this);
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        failAll(cause);
+        ctx.close();
+    }
+
+    private void failAll(Throwable cause) {
+        List<Exchange> failed = new ArrayList<>(exchanges);
+        exchanges.clear();
+        for (Exchange exchange : failed) {
+            exchange.fail(cause);
+            pool.released(this, exchange.pipelinable(), false);
+        }
+    }
+
+    private void scheduleIdleTimer(long delayNanos) {
+        idleTimer = ctx.executor().schedule(this::idleTimeout, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void idleTimeout() {
+        if (!ctx.channel().isActive()) {
+            return;
+        }
+        long remaining = idleTimeoutNanos - (System.nanoTime() - lastActivity);
+        if (exchanges.isEmpty() && remaining <= 0 && pool.closeIfIdle(this)) {
+            ctx.close();
+        } else {
+            scheduleIdleTimer(remaining > 0 ? remaining : idleTimeoutNanos);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.client;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLException;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslProvider;
+
+/**
+ * Pools of keep-alive connections, one {@link HostPool} per scheme, host and port.
+ */
+final class ConnectionPool {
+
+    private final Bootstrap bootstrap;
+    private final SSLContext sslContext;
+    private final int maxConnectionsPerHost;
+    private final int maxPipelinedRequests;
+    private final long idleTimeoutMillis;
+    private final ConcurrentMap<String, HostPool> hostPools = new ConcurrentHashMap<>();
+
+    private volatile SslContext nettySslContext;
+    private volatile boolean closed;
+
+    ConnectionPool(EventLoopGroup group,
+                   SSLContext sslContext,
+                   int maxConnectionsPerHost,
+                   int maxPipelinedRequests,
+                   Duration connectTimeout,
+                   Duration idleTimeout) {
+        this.bootstrap = new Bootstrap().group(group)
+                                        .channel(NioSocketChannel.class)
+                                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                                        .option(ChannelOption.TCP_NODELAY, true)
+                                        // connections read only when there is a demand for the response content
+                                        .option(ChannelOption.AUTO_READ, false);
+        this.sslContext = sslContext;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.maxPipelinedRequests = maxPipelinedRequests;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+    }
+
+    /**
+     * Returns a pool of connections to the host of the URI.
+     *
+     * @param uri an absolute URI
+     * @return the host pool
+     * @throws IllegalStateException if the pool is closed
+     */
+    HostPool hostPool(URI uri) {
+        if (closed) {
+            throw new IllegalStateException("Web client is closed!");
+        }
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() > 0 ? uri.getPort() : (secure ? 443 : 80);
+        String key = (secure ? "https://" : "http://") + uri.getHost() + ":" + port;
+        return hostPools.computeIfAbsent(key, k -> new HostPool(this, uri.getHost(), port, secure));
+    }
+
+    /**
+     * Closes all connections of all hosts.
+     */
+    void close() {
+        closed = true;
+        hostPools.values().forEach(HostPool::close);
+        hostPools.clear();
+    }
+
+    Bootstrap bootstrap() {
+        return bootstrap;
+    }
+
+    int maxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    int maxPipelinedRequests() {
+        return maxPipelinedRequests;
+    }
+
+    long idleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    SslContext sslContext() {
+        SslContext result = nettySslContext;
+        if (result == null) {
+            synchronized (this) {
+                result = nettySslContext;
+                if (result == null) {
+                    result = createSslContext();
+                    nettySslContext = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private SslContext createSslContext() {
+        if (sslContext != null) {
+            return new JdkSslContext(sslContext, true, ClientAuth.NONE);
+        }
+        try {
+            return SslContextBuilder.forClient().sslProvider(SslProvider.JDK).build();
+        } catch (SSLException e) {
+            throw new IllegalStateException("Cannot create the default SSL context!", e);
+        }
+    }
+}
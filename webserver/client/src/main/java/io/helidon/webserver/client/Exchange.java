@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.ReadOnlyParameters;
+import io.helidon.common.reactive.Flow;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+import io.opentracing.Span;
+import io.opentracing.tag.Tags;
+
+/**
+ * A single request and its response on a {@link Connection}. All methods but the constructor are called on the event
+ * loop of the connection.
+ */
+final class Exchange {
+
+    private final HttpRequest request;
+    private final Flow.Publisher<DataChunk> content;
+    private final boolean pipelinable;
+    private final long responseTimeoutMillis;
+    private final Span span;
+    private final CompletableFuture<ClientResponse> result;
+
+    private Connection connection;
+    private ChannelHandlerContext ctx;
+    private ScheduledFuture<?> timeout;
+    private ContentSubscriber contentSubscriber;
+    private ResponseContent responseContent;
+    private boolean keepAlive;
+
+    Exchange(HttpRequest request,
+             Flow.Publisher<DataChunk> content,
+             boolean pipelinable,
+             long responseTimeoutMillis,
+             Span span,
+             CompletableFuture<ClientResponse> result) {
+        this.request = request;
+        this.content = content;
+        this.pipelinable = pipelinable;
+        this.responseTimeoutMillis = responseTimeoutMillis;
+        this.span = span;
+        this.result = result;
+    }
+
+    void start(Connection connection, ChannelHandlerContext ctx) {
+        this.connection = connection;
+        this.ctx = ctx;
+        if (responseTimeoutMillis > 0) {
+            timeout = ctx.executor().schedule(this::timeout, responseTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        if (content == null) {
+            ctx.writeAndFlush(request).addListener(this::written);
+        } else {
+            ctx.write(request).addListener(this::written);
+            contentSubscriber = new ContentSubscriber();
+            content.subscribe(contentSubscriber);
+        }
+    }
+
+    boolean pipelinable() {
+        return pipelinable;
+    }
+
+    boolean keepAlive() {
+        return keepAlive && HttpUtil.isKeepAlive(request);
+    }
+
+    void keepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Whether the connection should read for this exchange.
+     *
+     * @return {@code true} if the response was not received yet or the response content has a demand
+     */
+    boolean wantsResponse() {
+        return responseContent == null || responseContent.wantsData();
+    }
+
+    void writable() {
+        if (contentSubscriber != null) {
+            contentSubscriber.requestIfWritable();
+        }
+    }
+
+    void onResponse(HttpResponse response) {
+        cancelTimeout();
+        Map<String, List<String>> headers = new HashMap<>();
+        for (String name : response.headers().names()) {
+            headers.put(name, new ArrayList<>(response.headers().getAll(name)));
+        }
+        responseContent = new ResponseContent(connection, ctx.executor());
+        int status = response.status().code();
+        span.setTag(Tags.HTTP_STATUS.getKey(), status);
+        if (status >= Http.Status.INTERNAL_SERVER_ERROR_500.code()) {
+            span.setTag(Tags.ERROR.getKey(), true);
+        }
+        span.finish();
+        result.complete(new ClientResponse(Http.ResponseStatus.from(status, response.status().reasonPhrase()),
+                                           new ReadOnlyParameters(headers),
+                                           responseContent));
+    }
+
+    void onContent(HttpContent httpContent) {
+        if (responseContent == null) {
+            httpContent.release();
+            return;
+        }
+        responseContent.offer(httpContent);
+    }
+
+    void fail(Throwable cause) {
+        if (ctx == null) {
+            // never sent
+            ReferenceCountUtil.release(request);
+        }
+        cancelTimeout();
+        if (contentSubscriber != null) {
+            contentSubscriber.cancel();
+        }
+        if (result.completeExceptionally(cause)) {
+            span.setTag(Tags.ERROR.getKey(), true);
+            Map<String, Object> log = new HashMap<>();
+            log.put("event", Tags.ERROR.getKey());
+            log.put("error.object", cause);
+            span.log(log);
+            span.finish();
+        } else if (responseContent != null) {
+            responseContent.fail(cause);
+        }
+    }
+
+    private void timeout() {
+        if (responseContent == null) {
+            ctx.pipeline().fireExceptionCaught(new TimeoutException("No response received within "
+                                                                            + responseTimeoutMillis + " ms!"));
+        }
+    }
+
+    private void cancelTimeout() {
+        if (timeout != null) {
+            timeout.cancel(false);
+            timeout = null;
+        }
+    }
+
+    private void written(io.netty.util.concurrent.Future<? super Void> future) {
+        if (!future.isSuccess() && ctx.channel().isActive()) {
+            ctx.pipeline().fireExceptionCaught(future.cause());
+        }
+    }
+
+    /**
+     * Writes the request content as chunks, requests a next chunk only when the channel is writable.
+     */
+    private final class ContentSubscriber implements Flow.Subscriber<DataChunk> {
+
+        private Flow.Subscription subscription;
+        private boolean requested;
+        private boolean done;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            ctx.executor().execute(() -> {
+                if (done) {
+                    subscription.cancel();
+                    return;
+                }
+                this.subscription = subscription;
+                requestIfWritable();
+            });
+        }
+
+        @Override
+        public void onNext(DataChunk chunk) {
+            ctx.executor().execute(() -> {
+                requested = false;
+                if (done) {
+                    chunk.release();
+                    return;
+                }
+                ChannelFuture future = ctx.writeAndFlush(new DefaultHttpContent(Unpooled.wrappedBuffer(chunk.data())));
+                future.addListener(f -> chunk.release());
+                future.addListener(Exchange.this::written);
+                requestIfWritable();
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            ctx.executor().execute(() -> {
+                if (!done) {
+                    done = true;
+                    ctx.pipeline().fireExceptionCaught(throwable);
+                }
+            });
+        }
+
+        @Override
+        public void onComplete() {
+            ctx.executor().execute(() -> {
+                if (!done) {
+                    done = true;
+                    ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(Exchange.this::written);
+                }
+            });
+        }
+
+        private void requestIfWritable() {
+            if (subscription != null && !requested && !done && ctx.channel().isWritable()) {
+                requested = true;
+                subscription.request(1);
+            }
+        }
+
+        private void cancel() {
+            if (!done) {
+                done = true;
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+            }
+        }
+    }
+}
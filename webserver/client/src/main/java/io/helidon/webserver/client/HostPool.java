@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.ssl.SslHandler;
+
+/**
+ * Connections to a single host. A request waits until a connection which can accept it is available, new connections
+ * are opened up to the configured maximum.
+ * <p>
+ * All state is guarded by the monitor of this instance; futures are completed outside of it.
+ */
+final class HostPool {
+
+    private final ConnectionPool parent;
+    private final String host;
+    private final int port;
+    private final boolean secure;
+
+    private final List<Connection> connections = new ArrayList<>();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private int connecting;
+    private boolean closed;
+
+    HostPool(ConnectionPool parent, String host, int port, boolean secure) {
+        this.parent = parent;
+        this.host = host;
+        this.port = port;
+        this.secure = secure;
+    }
+
+    /**
+     * Acquires a connection for a single request. The request must be sent by {@link Connection#send(Exchange)}
+     * which eventually releases the connection.
+     *
+     * @param pipelinable whether the request can be pipelined with other requests
+     * @return a completion stage of the connection
+     */
+    CompletableFuture<Connection> acquire(boolean pipelinable) {
+        Waiter waiter = new Waiter(pipelinable);
+        synchronized (this) {
+            if (closed) {
+                waiter.future.completeExceptionally(new IllegalStateException("Web client is closed!"));
+                return waiter.future;
+            }
+            waiters.add(waiter);
+        }
+        dispatch();
+        return waiter.future;
+    }
+
+    /**
+     * Called when a response was fully received.
+     *
+     * @param connection  the connection
+     * @param pipelinable whether the request was pipelinable
+     * @param keepAlive   whether the connection can be reused
+     */
+    void released(Connection connection, boolean pipelinable, boolean keepAlive) {
+        synchronized (this) {
+            connection.released(pipelinable);
+            if (!keepAlive) {
+                connection.discard();
+                connections.remove(connection);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Called when a connection was closed.
+     *
+     * @param connection the connection
+     */
+    void closed(Connection connection) {
+        synchronized (this) {
+            connection.discard();
+            connections.remove(connection);
+        }
+        dispatch();
+    }
+
+    /**
+     * Removes the connection from the pool if it is not used.
+     *
+     * @param connection the connection
+     * @return {@code true} if the connection was removed and should be closed
+     */
+    synchronized boolean closeIfIdle(Connection connection) {
+        if (connection.inflight() > 0) {
+            return false;
+        }
+        connection.discard();
+        connections.remove(connection);
+        return true;
+    }
+
+    /**
+     * Closes all connections and fails all waiting requests.
+     */
+    void close() {
+        List<Connection> toClose;
+        List<Waiter> toFail;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayList<>(connections);
+            toFail = new ArrayList<>(waiters);
+            connections.clear();
+            waiters.clear();
+        }
+        IllegalStateException cause = new IllegalStateException("Web client is closed!");
+        toFail.forEach(waiter -> waiter.future.completeExceptionally(cause));
+        toClose.forEach(Connection::close);
+    }
+
+    private void dispatch() {
+        List<Runnable> actions = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            for (Iterator<Waiter> it = waiters.iterator(); it.hasNext();) {
+                Waiter waiter = it.next();
+                if (waiter.future.isDone()) {
+                    it.remove();
+                    continue;
+                }
+                Connection connection = select(waiter.pipelinable);
+                if (connection != null) {
+                    it.remove();
+                    connection.acquired(waiter.pipelinable);
+                    actions.add(() -> complete(waiter, connection));
+                }
+            }
+            int toOpen = Math.min(waiters.size() - connecting, parent.maxConnectionsPerHost() - connections.size() - connecting);
+            for (int i = 0; i < toOpen; i++) {
+                connecting++;
+                actions.add(this::connect);
+            }
+        }
+        actions.forEach(Runnable::run);
+    }
+
+    private Connection select(boolean pipelinable) {
+        Connection result = null;
+        for (Connection connection : connections) {
+            if (!connection.reusable()) {
+                continue;
+            }
+            if (connection.inflight() == 0) {
+                return connection;
+            }
+            if (pipelinable
+                    && connection.pipelinable()
+                    && connection.inflight() < parent.maxPipelinedRequests()
+                    && (result == null || connection.inflight() < result.inflight())) {
+                result = connection;
+            }
+        }
+        return result;
+    }
+
+    private void complete(Waiter waiter, Connection connection) {
+        if (!waiter.future.complete(connection)) {
+            // cancelled meanwhile
+            released(connection, waiter.pipelinable, true);
+        }
+    }
+
+    private void connect() {
+        Connection connection = new Connection(this, parent.idleTimeoutMillis());
+        ChannelFuture connectFuture = parent.bootstrap()
+                                            .clone()
+                                            .handler(new ChannelInitializer<Channel>() {
+                                                @Override
+                                                protected void initChannel(Channel ch) {
+                                                    ChannelPipeline pipeline = ch.pipeline();
+                                                    if (secure) {
+                                                        pipeline.addLast(parent.sslContext().newHandler(ch.alloc(), host, port));
+                                                    }
+                                                    pipeline.addLast(new HttpClientCodec());
+                                                    pipeline.addLast(connection);
+                                                }
+                                            })
+                                            .connect(host, port);
+        connectFuture.addListener(future -> {
+            if (!future.isSuccess()) {
+                connectFailed(future.cause());
+            } else if (secure) {
+                connectFuture.channel().pipeline().get(SslHandler.class).handshakeFuture().addListener(handshake -> {
+                    if (handshake.isSuccess()) {
+                        connected(connection);
+                    } else {
+                        connectFuture.channel().close();
+                        connectFailed(handshake.cause());
+                    }
+                });
+            } else {
+                connected(connection);
+            }
+        });
+    }
+
+    private void connected(Connection connection) {
+        boolean close = false;
+        synchronized (this) {
+            connecting--;
+            if (closed) {
+                close = true;
+            } else if (connection.isActive()) {
+                connections.add(connection);
+            }
+        }
+        if (close) {
+            connection.close();
+        } else {
+            dispatch();
+        }
+    }
+
+    private void connectFailed(Throwable cause) {
+        Waiter waiter;
+        synchronized (this) {
+            connecting--;
+            waiter = waiters.poll();
+        }
+        if (waiter != null) {
+            waiter.future.completeExceptionally(cause);
+        }
+        dispatch();
+    }
+
+    @Override
+    public String toString() {
+        return (secure ? "https://" : "http://") + host + ":" + port;
+    }
+
+    private static final class Waiter {
+        private final boolean pipelinable;
+        private final CompletableFuture<Connection> future = new CompletableFuture<>();
+
+        private Waiter(boolean pipelinable) {
+            this.pipelinable = pipelinable;
+        }
+    }
+}
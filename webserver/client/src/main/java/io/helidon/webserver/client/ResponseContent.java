@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * Publisher of the response content. Chunks are buffered only until the subscriber requests them, the connection does
+ * not read more data until there is a demand. A cancelled subscription discards the rest of the response, so
+ * the connection can be reused.
+ * <p>
+ * State is confined to the event loop of the connection, subscription signals are passed to it.
+ */
+final class ResponseContent implements Flow.Publisher<DataChunk> {
+
+    private final Connection connection;
+    private final EventExecutor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final Deque<DataChunk> chunks = new ArrayDeque<>();
+
+    private Flow.Subscriber<? super DataChunk> subscriber;
+    private long demand;
+    private boolean completed;
+    private boolean cancelled;
+    private boolean terminated;
+    private Throwable error;
+
+    ResponseContent(Connection connection, EventExecutor executor) {
+        this.connection = connection;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Response content can be subscribed only once!"));
+            return;
+        }
+        executor.execute(() -> {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    executor.execute(() -> onRequest(n));
+                }
+
+                @Override
+                public void cancel() {
+                    executor.execute(ResponseContent.this::onCancel);
+                }
+            });
+            drain();
+        });
+    }
+
+    /**
+     * Whether the connection should read more of the response.
+     *
+     * @return {@code true} if the subscriber has a demand or the subscription was cancelled
+     */
+    boolean wantsData() {
+        return !completed && (cancelled || demand > 0);
+    }
+
+    void offer(HttpContent content) {
+        ByteBuf buffer = content.content();
+        if (cancelled || terminated || !buffer.isReadable()) {
+            content.release();
+        } else {
+            chunks.add(DataChunk.create(false, buffer.nioBuffer(), content::release));
+        }
+        if (content instanceof LastHttpContent) {
+            completed = true;
+        }
+        drain();
+    }
+
+    void fail(Throwable cause) {
+        if (!completed) {
+            completed = true;
+            error = cause;
+            drain();
+        }
+    }
+
+    private void onRequest(long n) {
+        if (terminated) {
+            return;
+        }
+        if (n <= 0) {
+            fail(new IllegalArgumentException("Requested non-positive number of chunks: " + n));
+            return;
+        }
+        demand = Long.MAX_VALUE - demand < n ? Long.MAX_VALUE : demand + n;
+        drain();
+        connection.readIfNeeded();
+    }
+
+    private void onCancel() {
+        cancelled = true;
+        terminated = true;
+        releaseChunks();
+        connection.readIfNeeded();
+    }
+
+    private void drain() {
+        if (subscriber == null || terminated) {
+            return;
+        }
+        if (error != null) {
+            terminated = true;
+            releaseChunks();
+            subscriber.onError(error);
+            return;
+        }
+        while (demand > 0 && !chunks.isEmpty()) {
+            demand--;
+            subscriber.onNext(chunks.poll());
+        }
+        if (completed && chunks.isEmpty()) {
+            terminated = true;
+            subscriber.onComplete();
+        }
+    }
+
+    private void releaseChunks() {
+        DataChunk chunk;
+        while ((chunk = chunks.poll()) != null) {
+            chunk.release();
+        }
+    }
+}
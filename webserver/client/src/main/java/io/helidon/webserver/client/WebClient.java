@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.client;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Objects;
+
+import javax.net.ssl.SSLContext;
+
+import io.helidon.common.http.Http;
+import io.helidon.webserver.WebServer;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.opentracing.Tracer;
+import io.opentracing.util.GlobalTracer;
+
+/**
+ * Reactive non-blocking HTTP/1.1 client. Requests are sent over pooled keep-alive connections and the response
+ * content is published as {@link io.helidon.common.http.DataChunk DataChunks} with a backpressure, so no thread
+ * waits for a remote server.
+ * <pre>{@code
+ * WebClient client = WebClient.builder()
+ *                             .webServer(server)
+ *                             .build();
+ * client.get("http://localhost:8080/greet")
+ *       .request()
+ *       .thenCompose(ClientResponse::asString)
+ *       .thenAccept(System.out::println);
+ * }</pre>
+ * A client is thread safe and should be shared, each instance has own connection pools.
+ */
+public final class WebClient implements AutoCloseable {
+
+    /**
+     * Default maximal number of connections to a single host.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 16;
+
+    private static final class DefaultEventLoopGroupHolder {
+        private static final EventLoopGroup INSTANCE = new NioEventLoopGroup(0, new DefaultThreadFactory("helidon-webclient",
+                                                                                                          true));
+    }
+
+    private final ConnectionPool pool;
+    private final Tracer tracer;
+    private final Duration responseTimeout;
+
+    private WebClient(Builder builder) {
+        EventLoopGroup group = builder.eventLoopGroup != null ? builder.eventLoopGroup : DefaultEventLoopGroupHolder.INSTANCE;
+        this.pool = new ConnectionPool(group,
+                                       builder.sslContext,
+                                       builder.maxConnectionsPerHost,
+                                       builder.maxPipelinedRequests,
+                                       builder.connectTimeout,
+                                       builder.idleTimeout);
+        this.tracer = builder.tracer;
+        this.responseTimeout = builder.responseTimeout;
+    }
+
+    /**
+     * Creates new client with default configuration which uses own daemon event loops.
+     *
+     * @return new client
+     */
+    public static WebClient create() {
+        return builder().build();
+    }
+
+    /**
+     * Creates new builder.
+     *
+     * @return a builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a request.
+     *
+     * @param method a request method
+     * @param uri    an absolute {@code http} or {@code https} URI
+     * @return new request
+     * @throws NullPointerException     if a parameter is {@code null}
+     * @throws IllegalArgumentException if the URI is not an absolute {@code http} or {@code https} URI
+     */
+    public ClientRequest method(Http.RequestMethod method, URI uri) {
+        Objects.requireNonNull(method, "Parameter 'method' is null!");
+        Objects.requireNonNull(uri, "Parameter 'uri' is null!");
+        return new ClientRequest(this, method, uri);
+    }
+
+    /**
+     * Creates a {@code GET} request.
+     *
+     * @param uri an absolute {@code http} or {@code https} URI
+     * @return new request
+     * @throws IllegalArgumentException if the URI is not valid
+     */
+    public ClientRequest get(String uri) {
+        return method(Http.Method.GET, URI.create(uri));
+    }
+
+    /**
+     * Creates a {@code POST} request.
+     *
+     * @param uri an absolute {@code http} or {@code https} URI
+     * @return new request
+     * @throws IllegalArgumentException if the URI is not valid
+     */
+    public ClientRequest post(String uri) {
+        return method(Http.Method.POST, URI.create(uri));
+    }
+
+    /**
+     * Creates a {@code PUT} request.
+     *
+     * @param uri an absolute {@code http} or {@code https} URI
+     * @return new request
+     * @throws IllegalArgumentException if the URI is not valid
+     */
+    public ClientRequest put(String uri) {
+        return method(Http.Method.PUT, URI.create(uri));
+    }
+
+    /**
+     * Creates a {@code DELETE} request.
+     *
+     * @param uri an absolute {@code http} or {@code https} URI
+     * @return new request
+     * @throws IllegalArgumentException if the URI is not valid
+     */
+    public ClientRequest delete(String uri) {
+        return method(Http.Method.DELETE, URI.create(uri));
+    }
+
+    /**
+     * Closes all pooled connections. Requests in progress fail.
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    ConnectionPool pool() {
+        return pool;
+    }
+
+    Tracer tracer() {
+        return tracer;
+    }
+
+    Duration responseTimeout() {
+        return responseTimeout;
+    }
+
+    /**
+     * Fluent builder of {@link WebClient}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<WebClient> {
+
+        private EventLoopGroup eventLoopGroup;
+        private SSLContext sslContext;
+        private int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+        private int maxPipelinedRequests = 1;
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration responseTimeout = Duration.ofSeconds(30);
+        private Duration idleTimeout = Duration.ofSeconds(60);
+        private Tracer tracer = GlobalTracer.get();
+
+        private Builder() {
+        }
+
+        /**
+         * Shares the worker event loops of a Netty based web server, so outbound calls run on the same threads
+         * as the request processing. The connections are closed when the server stops.
+         *
+         * @param webServer a web server
+         * @return updated builder
+         * @throws IllegalArgumentException if the server does not provide its event loops
+         */
+        public Builder webServer(WebServer webServer) {
+            Objects.requireNonNull(webServer, "Parameter 'webServer' is null!");
+            EventLoopGroup group = webServer.context().get(EventLoopGroup.class).orElse(null);
+            if (!(group instanceof NioEventLoopGroup)) {
+                throw new IllegalArgumentException("Web server does not provide NIO event loops: " + webServer);
+            }
+            this.eventLoopGroup = group;
+            return this;
+        }
+
+        /**
+         * Sets an SSL context of {@code https} connections. Default is the JDK default context.
+         *
+         * @param sslContext an SSL context
+         * @return updated builder
+         */
+        public Builder ssl(SSLContext sslContext) {
+            this.sslContext = sslContext;
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of connections to a single host. Requests wait for a connection if all are busy.
+         * Default is {@value WebClient#DEFAULT_MAX_CONNECTIONS_PER_HOST}.
+         *
+         * @param maxConnectionsPerHost number of connections
+         * @return updated builder
+         * @throws IllegalArgumentException if the number is not positive
+         */
+        public Builder maxConnectionsPerHost(int maxConnectionsPerHost) {
+            if (maxConnectionsPerHost <= 0) {
+                throw new IllegalArgumentException("Parameter 'maxConnectionsPerHost' must be positive!");
+            }
+            this.maxConnectionsPerHost = maxConnectionsPerHost;
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of requests sent on a connection before their responses are received. Only
+         * requests without a content and with an idempotent method are pipelined. Default is {@code 1},
+         * no pipelining.
+         *
+         * @param maxPipelinedRequests number of requests
+         * @return updated builder
+         * @throws IllegalArgumentException if the number is not positive
+         */
+        public Builder maxPipelinedRequests(int maxPipelinedRequests) {
+            if (maxPipelinedRequests <= 0) {
+                throw new IllegalArgumentException("Parameter 'maxPipelinedRequests' must be positive!");
+            }
+            this.maxPipelinedRequests = maxPipelinedRequests;
+            return this;
+        }
+
+        /**
+         * Sets the connect timeout. Default is 10 seconds.
+         *
+         * @param connectTimeout a timeout
+         * @return updated builder
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = Objects.requireNonNull(connectTimeout, "Parameter 'connectTimeout' is null!");
+            return this;
+        }
+
+        /**
+         * Sets the default time to wait for the response status and headers after the request is sent. The connection
+         * is closed after the timeout. Default is 30 seconds.
+         *
+         * @param responseTimeout a timeout
+         * @return updated builder
+         */
+        public Builder responseTimeout(Duration responseTimeout) {
+            this.responseTimeout = Objects.requireNonNull(responseTimeout, "Parameter 'responseTimeout' is null!");
+            return this;
+        }
+
+        /**
+         * Sets the time after which an unused pooled connection is closed. Default is 60 seconds.
+         *
+         * @param idleTimeout a timeout
+         * @return updated builder
+         */
+        public Builder idleTimeout(Duration idleTimeout) {
+            this.idleTimeout = Objects.requireNonNull(idleTimeout, "Parameter 'idleTimeout' is null!");
+            return this;
+        }
+
+        /**
+         * Sets a tracer. Each request is traced by a client span propagated in the request headers. Default is
+         * the {@link GlobalTracer}.
+         *
+         * @param tracer a tracer
+         * @return updated builder
+         */
+        public Builder tracer(Tracer tracer) {
+            this.tracer = Objects.requireNonNull(tracer, "Parameter 'tracer' is null!");
+            return this;
+        }
+
+        @Override
+        public WebClient build() {
+            return new WebClient(this);
+        }
+    }
+}
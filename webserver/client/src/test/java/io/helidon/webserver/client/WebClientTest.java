@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.client;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.reactive.Flow;
+import io.helidon.webserver.Deadline;
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.WebServer;
+
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link WebClient} against the Netty web server.
+ */
+public class WebClientTest {
+
+    private static WebServer server;
+    private static MockTracer tracer;
+    private static WebClient client;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        server = WebServer.create(Routing.builder()
+                                         .get("/greet", (req, res) -> res.send("Hello"))
+                                         .post("/echo", (req, res) -> req.content()
+                                                                         .as(String.class)
+                                                                         .thenAccept(res::send))
+                                         .get("/port", (req, res) -> res.send(String.valueOf(req.remotePort())))
+                                         .get("/trace", (req, res) -> res.send(req.headers().first("traceid").orElse("")))
+                                         .get("/timeout", (req, res) -> res.send(req.headers()
+                                                                                      .first(Deadline.TIMEOUT_HEADER)
+                                                                                      .orElse("")))
+                                         .get("/slow", (req, res) -> {
+                                             // never responds in time
+                                         })
+                                         .build())
+                          .start()
+                          .toCompletableFuture()
+                          .get(10, TimeUnit.SECONDS);
+        tracer = new MockTracer(MockTracer.Propagator.TEXT_MAP);
+        client = WebClient.builder()
+                          .webServer(server)
+                          .maxConnectionsPerHost(1)
+                          .tracer(tracer)
+                          .build();
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        client.close();
+        server.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void getString() throws Exception {
+        ClientResponse response = client.get(url("/greet")).request().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        assertThat(response.status(), is(Http.Status.OK_200));
+        assertThat(response.asString().toCompletableFuture().get(10, TimeUnit.SECONDS), is("Hello"));
+    }
+
+    @Test
+    public void postPublisher() throws Exception {
+        String content = client.post(url("/echo"))
+                               .submit(new ChunksPublisher("a", "b", "c"))
+                               .thenCompose(ClientResponse::asString)
+                               .toCompletableFuture()
+                               .get(10, TimeUnit.SECONDS);
+
+        assertThat(content, is("abc"));
+    }
+
+    @Test
+    public void postString() throws Exception {
+        String content = client.post(url("/echo"))
+                               .submit("Žluťoučký kůň")
+                               .thenCompose(ClientResponse::asString)
+                               .toCompletableFuture()
+                               .get(10, TimeUnit.SECONDS);
+
+        assertThat(content, is("Žluťoučký kůň"));
+    }
+
+    @Test
+    public void connectionIsReused() throws Exception {
+        List<CompletableFuture<String>> ports = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ports.add(client.get(url("/port"))
+                            .request()
+                            .thenCompose(ClientResponse::asString)
+                            .toCompletableFuture());
+        }
+        Set<String> distinct = new HashSet<>();
+        for (CompletableFuture<String> port : ports) {
+            distinct.add(port.get(10, TimeUnit.SECONDS));
+        }
+
+        assertThat(distinct.size(), is(1));
+    }
+
+    @Test
+    public void deadline() throws Exception {
+        String timeout = client.get(url("/timeout"))
+                               .deadline(Deadline.after(Duration.ofSeconds(30)))
+                               .request()
+                               .thenCompose(ClientResponse::asString)
+                               .toCompletableFuture()
+                               .get(10, TimeUnit.SECONDS);
+        long millis = Long.parseLong(timeout);
+        assertThat(millis > 0 && millis <= 30_000, is(true));
+
+        CompletableFuture<ClientResponse> expired = client.get(url("/greet"))
+                                                          .deadline(Deadline.after(0, TimeUnit.MILLISECONDS))
+                                                          .request()
+                                                          .toCompletableFuture();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> expired.get(10, TimeUnit.SECONDS));
+        assertThat(e.getCause(), instanceOf(TimeoutException.class));
+    }
+
+    @Test
+    public void responseTimeout() {
+        CompletableFuture<ClientResponse> response = client.get(url("/slow"))
+                                                           .responseTimeout(Duration.ofMillis(200))
+                                                           .request()
+                                                           .toCompletableFuture();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(10, TimeUnit.SECONDS));
+        assertThat(e.getCause(), instanceOf(TimeoutException.class));
+    }
+
+    @Test
+    public void tracingHeadersArePropagated() throws Exception {
+        tracer.reset();
+        String traceId = client.get(url("/trace"))
+                               .request()
+                               .thenCompose(ClientResponse::asString)
+                               .toCompletableFuture()
+                               .get(10, TimeUnit.SECONDS);
+
+        List<MockSpan> spans = tracer.finishedSpans();
+        assertThat(spans.size(), is(1));
+        assertThat(traceId, is(String.valueOf(spans.get(0).context().traceId())));
+        assertThat(spans.get(0).tags().get("http.status_code"), is(200));
+        assertThat(spans.get(0).tags().get("span.kind"), is("client"));
+    }
+
+    private static String url(String path) {
+        return "http://localhost:" + server.port() + path;
+    }
+
+    private static final class ChunksPublisher implements Flow.Publisher<DataChunk> {
+        private final String[] chunks;
+
+        private ChunksPublisher(String... chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private int index;
+                private boolean done;
+
+                @Override
+                public synchronized void request(long n) {
+                    for (long i = 0; i < n && index < chunks.length; i++) {
+                        subscriber.onNext(DataChunk.create(chunks[index++].getBytes(StandardCharsets.UTF_8)));
+                    }
+                    if (index == chunks.length && !done) {
+                        done = true;
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    index = chunks.length;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.jersey;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs Jersey requests on an executor service and measures it: the number of queued and running requests, rejections
+ * and the time requests wait in the queue. The number of submitted requests which have not completed yet can be limited,
+ * which bounds executor services without a queue, such as the one of virtual threads.
+ */
+class JerseyExecutor {
+
+    private final ExecutorService executor;
+    private final int limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Creates new instance.
+     *
+     * @param executor an executor service to run requests on
+     * @param limit    the maximal number of submitted requests which have not completed yet
+     */
+    JerseyExecutor(ExecutorService executor, int limit) {
+        this.executor = executor;
+        this.limit = limit;
+    }
+
+    /**
+     * Submits the task to the executor service.
+     *
+     * @param task a task
+     * @return {@code false} if the executor service rejected the task or the limit was reached
+     */
+    boolean submit(Runnable task) {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        long submitted = System.nanoTime();
+        queued.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                long wait = System.nanoTime() - submitted;
+                queued.decrementAndGet();
+                waited.increment();
+                waitNanos.add(wait);
+                maxWaitNanos.accumulateAndGet(wait, Math::max);
+                try {
+                    run(task);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            queued.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Runs the task in the calling thread.
+     *
+     * @param task a task
+     */
+    void runInline(Runnable task) {
+        run(task);
+    }
+
+    private void run(Runnable task) {
+        active.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            active.decrementAndGet();
+            completed.increment();
+        }
+    }
+
+    /**
+     * Returns current statistics.
+     *
+     * @return statistics
+     */
+    JerseySupport.ExecutorStatistics statistics() {
+        long count = waited.sum();
+        return new JerseySupport.ExecutorStatistics(queued.get(),
+                                                    active.get(),
+                                                    rejected.sum(),
+                                                    completed.sum(),
+                                                    count == 0 ? 0 : waitNanos.sum() / count,
+                                                    maxWaitNanos.get());
+    }
+}
@@ -16,24 +16,34 @@
 
 package io.helidon.webserver.jersey;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.ws.rs.Path;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.Configurable;
 import javax.ws.rs.core.Configuration;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.SecurityContext;
 
+import io.helidon.common.http.Http;
+import io.helidon.webserver.Deadline;
 import io.helidon.webserver.Handler;
 import io.helidon.webserver.Routing;
 import io.helidon.webserver.ServerRequest;
@@ -48,6 +58,7 @@ import org.glassfish.jersey.server.ApplicationHandler;
 import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.uri.PathPattern;
 
 /**
  * The Jersey Support integrates Jersey (JAX-RS RI) into the Web Server.
@@ -65,7 +76,13 @@ import org.glassfish.jersey.server.model.Resource;
  * and handles all requests made to {@code /jersey} context root.
  * <p>
  * Note that due to a blocking IO approach, each request handling is forwarded to a dedicated
- * thread pool which can be configured by one of the JerseySupport constructor.
+ * thread pool which can be configured by one of the JerseySupport constructor. Its queue can be bounded by
+ * {@link Builder#queueCapacity(int)}, requests over the capacity are rejected with {@code 503 Service Unavailable}.
+ * Requests without an entity for root resources marked by {@link NonBlocking} skip the thread pool. Resources waiting
+ * for other services should release the thread by a {@code @Suspended AsyncResponse}, with or without a timeout.
+ * <p>
+ * On Java runtimes with virtual threads, {@link Builder#virtualThreads(boolean)} dispatches each request onto a new
+ * virtual thread instead, so blocking resources no longer occupy platform threads.
  */
 public class JerseySupport implements Service {
 
@@ -98,20 +115,116 @@ public class JerseySupport implements Service {
     private final Type spanContextType = (new GenericType<Ref<SpanContext>>() { }).getType();
 
     private final ApplicationHandler appHandler;
-    private final ExecutorService service;
+    private final JerseyExecutor executor;
+    private final List<PathPattern> nonBlockingPaths = new ArrayList<>();
+    private final List<PathPattern> blockingPaths = new ArrayList<>();
     private final JerseyHandler handler = new JerseyHandler();
 
     /**
      * Creates a Jersey Support based on the provided JAX-RS application.
      *
      * @param application the JAX-RS application to build the Jersey Support from
-     * @param service     the executor service that is used for a request handling. If {@code null},
-     *                    a thread pool of size
-     *                    {@link Runtime#availableProcessors()} {@code * 2} is used.
+     * @param builder     the builder with the executor service configuration. If it has no executor service,
+     *                    virtual threads or a thread pool of size {@link Runtime#availableProcessors()} {@code * 2}
+     *                    are used.
      */
-    private JerseySupport(Application application, ExecutorService service) {
+    private JerseySupport(Application application, Builder builder) {
         this.appHandler = new ApplicationHandler(application, new WebServerBinder());
-        this.service = service != null ? service : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        this.executor = createExecutor(builder);
+        collectRootPaths(appHandler.getConfiguration());
+    }
+
+    private static JerseyExecutor createExecutor(Builder builder) {
+        if (builder.executorService != null) {
+            return new JerseyExecutor(builder.executorService, Integer.MAX_VALUE);
+        }
+        if (builder.virtualThreads) {
+            Optional<ExecutorService> virtualThreads = VirtualThreads.executorService();
+            if (virtualThreads.isPresent()) {
+                LOGGER.fine("Jersey requests are handled by virtual threads.");
+                // virtual threads have no queue, the capacity limits the number of requests in progress
+                return new JerseyExecutor(virtualThreads.get(), builder.queueCapacity);
+            }
+            LOGGER.warning("Virtual threads are not supported by this Java runtime, using a thread pool.");
+        }
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+        return new JerseyExecutor(new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                                                         new LinkedBlockingQueue<>(builder.queueCapacity)),
+                                  Integer.MAX_VALUE);
+    }
+
+    /**
+     * Sorts paths of root resources to the ones marked by {@link NonBlocking} and the others.
+     *
+     * @param configuration the runtime configuration of the application
+     */
+    private void collectRootPaths(ResourceConfig configuration) {
+        for (Class<?> resourceClass : configuration.getClasses()) {
+            addRootPath(resourceClass);
+        }
+        for (Object instance : configuration.getInstances()) {
+            addRootPath(instance.getClass());
+        }
+        for (Resource resource : configuration.getResources()) {
+            blockingPaths.add(new PathPattern(resource.getPath()));
+        }
+    }
+
+    private void addRootPath(Class<?> resourceClass) {
+        Path path = resourceClass.getAnnotation(Path.class);
+        if (path != null) {
+            PathPattern pattern = new PathPattern(path.value());
+            if (resourceClass.isAnnotationPresent(NonBlocking.class)) {
+                nonBlockingPaths.add(pattern);
+            } else {
+                blockingPaths.add(pattern);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the request can be handled by the calling thread - it has no entity and matches only
+     * {@link NonBlocking} root resources.
+     *
+     * @param req a request
+     * @return {@code true} if the request doesn't block
+     */
+    private boolean isNonBlocking(ServerRequest req) {
+        if (nonBlockingPaths.isEmpty()
+                || req.headers().contentLength().orElse(0) > 0
+                || req.headers().first(Http.Header.TRANSFER_ENCODING).isPresent()) {
+            return false;
+        }
+        String path = req.path().toString();
+        return matches(nonBlockingPaths, path) && !matches(blockingPaths, path);
+    }
+
+    private static boolean matches(List<PathPattern> patterns, String path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.match(path) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if the Java runtime supports virtual threads, see {@link Builder#virtualThreads(boolean)}.
+     *
+     * @return whether virtual threads are supported
+     */
+    public static boolean virtualThreadsSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    /**
+     * Returns current statistics of the executor service handling requests: the number of queued and running requests,
+     * rejected requests and the time requests wait in the queue. Use them to export metrics.
+     *
+     * @return statistics of the executor service
+     */
+    public ExecutorStatistics executorStatistics() {
+        return executor.statistics();
     }
 
     @Override
@@ -177,7 +290,7 @@ public class JerseySupport implements Service {
         @Override
         public void accept(ServerRequest req, ServerResponse res) {
             CompletableFuture<Void> whenHandleFinishes = new CompletableFuture<>();
-            ResponseWriter responseWriter = new ResponseWriter(res, req, whenHandleFinishes);
+            ResponseWriter responseWriter = new ResponseWriter(res, req, whenHandleFinishes, executor);
             ContainerRequest requestContext = new ContainerRequest(baseUri(req),
                                                                    requestUri(req),
                                                                    req.method().name(),
@@ -193,7 +306,14 @@ public class JerseySupport implements Service {
                .thenAccept(is -> {
                    requestContext.setEntityStream(is);
 
-                   service.submit(() -> {
+                   Runnable task = () -> {
+                       if (req.deadline().map(Deadline::isExpired).orElse(false)) {
+                           // DeadlineSupport already responded, nobody waits for the result
+                           LOGGER.finer("Request deadline expired before handling in Jersey.");
+                           closeQuietly(is);
+                           whenHandleFinishes.complete(null);
+                           return;
+                       }
                        try {
                            LOGGER.finer("Handling in Jersey started.");
 
@@ -211,8 +331,16 @@ public class JerseySupport implements Service {
                            // than to propagate the exception
                            req.next(e);
                        }
-                   });
-
+                   };
+
+                   if (isNonBlocking(req)) {
+                       executor.runInline(task);
+                   } else if (!executor.submit(task)) {
+                       // overloaded - fail fast rather than queue requests nobody waits for
+                       LOGGER.finer("Jersey executor rejected the request.");
+                       closeQuietly(is);
+                       res.status(Http.Status.SERVICE_UNAVAILABLE_503).send();
+                   }
                })
                .exceptionally(throwable -> {
                    // this should not happen; but for the sake of completeness ..
@@ -222,6 +350,14 @@ public class JerseySupport implements Service {
         }
     }
 
+    private static void closeQuietly(InputStream is) {
+        try {
+            is.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINEST, "Cannot close the entity stream of an unhandled request.", e);
+        }
+    }
+
     /**
      * A limited implementation of {@link PropertiesDelegate} that doesn't support
      * a significant set of operations due to the Web Server design.
@@ -346,6 +482,87 @@ public class JerseySupport implements Service {
         return new Builder(application);
     }
 
+    /**
+     * Statistics of the executor service handling requests of {@link JerseySupport}.
+     */
+    public static final class ExecutorStatistics {
+
+        private final int queueDepth;
+        private final int activeThreads;
+        private final long rejectedRequests;
+        private final long completedRequests;
+        private final long averageWaitNanos;
+        private final long maxWaitNanos;
+
+        ExecutorStatistics(int queueDepth,
+                           int activeThreads,
+                           long rejectedRequests,
+                           long completedRequests,
+                           long averageWaitNanos,
+                           long maxWaitNanos) {
+            this.queueDepth = queueDepth;
+            this.activeThreads = activeThreads;
+            this.rejectedRequests = rejectedRequests;
+            this.completedRequests = completedRequests;
+            this.averageWaitNanos = averageWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        /**
+         * Returns the number of requests waiting for a thread.
+         *
+         * @return the number of queued requests
+         */
+        public int queueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * Returns the number of threads handling requests.
+         *
+         * @return the number of active threads
+         */
+        public int activeThreads() {
+            return activeThreads;
+        }
+
+        /**
+         * Returns the number of requests rejected with {@code 503 Service Unavailable}.
+         *
+         * @return the number of rejected requests
+         */
+        public long rejectedRequests() {
+            return rejectedRequests;
+        }
+
+        /**
+         * Returns the number of handled requests.
+         *
+         * @return the number of completed requests
+         */
+        public long completedRequests() {
+            return completedRequests;
+        }
+
+        /**
+         * Returns the average time requests waited for a thread.
+         *
+         * @return the average wait time in nanoseconds
+         */
+        public long averageWaitNanos() {
+            return averageWaitNanos;
+        }
+
+        /**
+         * Returns the longest time a request waited for a thread.
+         *
+         * @return the maximal wait time in nanoseconds
+         */
+        public long maxWaitNanos() {
+            return maxWaitNanos;
+        }
+    }
+
     /**
      * Builder for convenient way to create {@link JerseySupport}.
      */
@@ -353,6 +570,8 @@ public class JerseySupport implements Service {
 
         private ResourceConfig resourceConfig;
         private ExecutorService executorService;
+        private int queueCapacity = Integer.MAX_VALUE;
+        private boolean virtualThreads;
 
         private Builder() {
             this(null);
@@ -371,7 +590,7 @@ public class JerseySupport implements Service {
          * @return built module
          */
         public JerseySupport build() {
-            return new JerseySupport(resourceConfig, executorService);
+            return new JerseySupport(resourceConfig, this);
         }
 
         @Override
@@ -456,5 +675,43 @@ public class JerseySupport implements Service {
             this.executorService = executorService;
             return this;
         }
+
+        /**
+         * Sets the capacity of the queue of the default executor service. When the queue is full, requests are
+         * rejected with {@code 503 Service Unavailable} instead of waiting. With {@link #virtualThreads(boolean) virtual
+         * threads}, it limits the number of requests in progress instead. It is ignored if the
+         * {@link #executorService(ExecutorService) executor service} is set, a custom executor service
+         * rejecting requests by {@link java.util.concurrent.RejectedExecutionException} has the same effect.
+         * Default is unbounded.
+         *
+         * @param queueCapacity the maximal number of requests waiting for a thread
+         * @return an updated instance
+         * @throws IllegalArgumentException if {@code queueCapacity} is not positive
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("Parameter 'queueCapacity' must be positive!");
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Sets whether each request is handled by a new virtual thread instead of a thread pool. Blocking resources then
+         * don't occupy platform threads while they wait. Virtual threads require a newer Java runtime, they are
+         * detected at runtime and the default thread pool is used (and a warning logged) if they are not available.
+         * It is ignored if the {@link #executorService(ExecutorService) executor service} is set. Default is
+         * {@code false}.
+         * <p>
+         * Resources should not block while holding a monitor ({@code synchronized}), a blocked virtual thread would
+         * pin its carrier thread. Run with {@code -Djdk.tracePinnedThreads=short} to find such places.
+         *
+         * @param virtualThreads {@code true} to handle requests by virtual threads
+         * @return an updated instance
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
     }
 }
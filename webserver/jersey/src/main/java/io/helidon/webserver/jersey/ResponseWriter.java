@@ -26,6 +26,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Logger;
 
 import javax.ws.rs.core.MediaType;
@@ -37,13 +39,16 @@ import io.helidon.common.reactive.ReactiveStreamsAdapter;
 import io.helidon.webserver.ConnectionClosedException;
 import io.helidon.webserver.ServerRequest;
 import io.helidon.webserver.ServerResponse;
+import io.helidon.webserver.Timeouts;
 
 import org.glassfish.jersey.server.ContainerException;
 import org.glassfish.jersey.server.ContainerResponse;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 
 /**
- * The ResponseWriter.
+ * The ResponseWriter. Time limited suspension of {@code @Suspended AsyncResponse} is driven by the
+ * {@link Timeouts shared timer}, the timer thread only hands the timeout handler over to the
+ * {@link JerseyExecutor executor} because the handler may resume the response and block writing its entity.
  */
 class ResponseWriter implements ContainerResponseWriter {
 
@@ -99,17 +104,24 @@ class ResponseWriter implements ContainerResponseWriter {
     private final ServerResponse res;
     private final ServerRequest req;
     private final CompletableFuture<Void> whenHandleFinishes;
+    private final JerseyExecutor executor;
+    private final AtomicBoolean suspended = new AtomicBoolean();
+    private final AtomicReference<Timeouts.Timeout> suspendTimeout = new AtomicReference<>();
+    private volatile TimeoutHandler timeoutHandler;
 
-    ResponseWriter(ServerResponse res, ServerRequest req, CompletableFuture<Void> whenHandleFinishes) {
+    ResponseWriter(ServerResponse res, ServerRequest req, CompletableFuture<Void> whenHandleFinishes, JerseyExecutor executor) {
         this.res = res;
         this.req = req;
         this.whenHandleFinishes = whenHandleFinishes;
+        this.executor = executor;
     }
 
     @Override
     public OutputStream writeResponseStatusAndHeaders(long contentLength, ContainerResponse context)
             throws ContainerException {
 
+        cancelSuspendTimeout();
+
         //
         // TODO also check that nothing was written an nothing was read
         //
@@ -170,15 +182,48 @@ class ResponseWriter implements ContainerResponseWriter {
 
     @Override
     public boolean suspend(long timeOut, TimeUnit timeUnit, TimeoutHandler timeoutHandler) {
-        if (timeOut != 0) {
-            throw new UnsupportedOperationException("Currently, time limited suspension is not supported!");
+        if (!suspended.compareAndSet(false, true)) {
+            return false;
+        }
+        this.timeoutHandler = timeoutHandler;
+        if (timeOut > 0) {
+            replaceSuspendTimeout(scheduleTimeout(timeOut, timeUnit));
         }
         return true;
     }
 
     @Override
     public void setSuspendTimeout(long timeOut, TimeUnit timeUnit) throws IllegalStateException {
-        throw new UnsupportedOperationException("Currently, extending the suspension time is not supported!");
+        if (!suspended.get()) {
+            throw new IllegalStateException("The request is not suspended!");
+        }
+        replaceSuspendTimeout(timeOut > 0 ? scheduleTimeout(timeOut, timeUnit) : null);
+    }
+
+    private Timeouts.Timeout scheduleTimeout(long timeOut, TimeUnit timeUnit) {
+        return Timeouts.schedule(this::onTimeout, timeOut, timeUnit);
+    }
+
+    private void replaceSuspendTimeout(Timeouts.Timeout timeout) {
+        Timeouts.Timeout previous = suspendTimeout.getAndSet(timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void cancelSuspendTimeout() {
+        if (suspended.get()) {
+            replaceSuspendTimeout(null);
+        }
+    }
+
+    private void onTimeout() {
+        LOGGER.finer("Suspended request timed out.");
+        if (!executor.submit(() -> timeoutHandler.onTimeout(this))) {
+            // overloaded - the same as for requests, nobody may wait for the timeout handler
+            LOGGER.finer("Jersey executor rejected the timeout handler.");
+            res.status(Http.Status.SERVICE_UNAVAILABLE_503).send();
+        }
     }
 
     @Override
@@ -198,6 +243,8 @@ class ResponseWriter implements ContainerResponseWriter {
     public void failure(Throwable error) {
         LOGGER.finer(() -> "Jersey handling finished with an exception; message: " + error.getMessage());
 
+        cancelSuspendTimeout();
+
         req.next(error);
     }
 
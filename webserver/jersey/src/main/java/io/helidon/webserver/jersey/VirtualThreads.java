@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.jersey;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Access to virtual threads of newer Java runtimes. The project is built for Java 8, so the executor service is
+ * looked up by reflection: {@code Executors.newVirtualThreadPerTaskExecutor()}. The method exists but fails on
+ * runtimes with virtual threads as a preview feature which is not enabled, so it is probed once by creating an executor.
+ */
+final class VirtualThreads {
+
+    private static final Logger LOGGER = Logger.getLogger(VirtualThreads.class.getName());
+    private static final Method FACTORY = findFactory();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Returns {@code true} if the runtime supports virtual threads.
+     *
+     * @return whether virtual threads are supported
+     */
+    static boolean isSupported() {
+        return FACTORY != null;
+    }
+
+    /**
+     * Creates new executor service which starts a new virtual thread for each task.
+     *
+     * @return the executor service or empty if the runtime doesn't support virtual threads
+     */
+    static Optional<ExecutorService> executorService() {
+        if (FACTORY == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ExecutorService) FACTORY.invoke(null));
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            LOGGER.log(Level.WARNING, "Cannot create an executor service of virtual threads.", e);
+            return Optional.empty();
+        }
+    }
+
+    private static Method findFactory() {
+        Method factory;
+        try {
+            factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        try {
+            ((ExecutorService) factory.invoke(null)).shutdown();
+            return factory;
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            // UnsupportedOperationException of a preview feature which is not enabled
+            LOGGER.log(Level.FINE, "Virtual threads are not available.", e);
+            return null;
+        }
+    }
+}
@@ -18,6 +18,11 @@ package io.helidon.webserver.jersey;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -28,9 +33,12 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import io.helidon.common.InputStreamHelper;
@@ -54,6 +62,10 @@ public class JerseyExampleResource {
      */
     static volatile Throwable streamException;
 
+    /** Started and released writing of the entity resumed by a timeout handler. */
+    static volatile CountDownLatch largeEntityStarted = new CountDownLatch(0);
+    static volatile CountDownLatch largeEntityRelease = new CountDownLatch(0);
+
     @Inject
     private ServerRequest request;
 
@@ -193,4 +205,65 @@ public class JerseyExampleResource {
     public String getRequestUri(@Context UriInfo uriInfo) {
         return uriInfo.getRequestUri().getPath();
     }
+
+    @GET
+    @Path("async/timeout")
+    public void asyncTimeout(@Suspended AsyncResponse asyncResponse) {
+        asyncResponse.setTimeout(100, TimeUnit.MILLISECONDS);
+    }
+
+    @GET
+    @Path("async/timeouthandler")
+    public void asyncTimeoutHandler(@Suspended AsyncResponse asyncResponse) {
+        asyncResponse.setTimeoutHandler(response -> response.resume("timeout handled"));
+        asyncResponse.setTimeout(100, TimeUnit.MILLISECONDS);
+    }
+
+    @GET
+    @Path("async/extended")
+    public void asyncExtended(@Suspended AsyncResponse asyncResponse) {
+        AtomicInteger timeouts = new AtomicInteger();
+        asyncResponse.setTimeoutHandler(response -> {
+            if (timeouts.incrementAndGet() < 3) {
+                response.setTimeout(50, TimeUnit.MILLISECONDS);
+            } else {
+                response.resume("timeouts=" + timeouts.get());
+            }
+        });
+        asyncResponse.setTimeout(50, TimeUnit.MILLISECONDS);
+    }
+
+    @GET
+    @Path("async/resume")
+    public void asyncResume(@Suspended AsyncResponse asyncResponse) {
+        asyncResponse.setTimeout(10, TimeUnit.SECONDS);
+        CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            asyncResponse.resume("resumed");
+        });
+    }
+
+    @GET
+    @Path("async/timeoutlarge")
+    public void asyncTimeoutLarge(@Suspended AsyncResponse asyncResponse) {
+        CountDownLatch started = largeEntityStarted;
+        CountDownLatch release = largeEntityRelease;
+        asyncResponse.setTimeoutHandler(response -> response.resume((StreamingOutput) output -> {
+            byte[] data = JerseySupportTest.longData(LARGE_DATA_SIZE_BYTES).toString().getBytes(StandardCharsets.UTF_8);
+            output.write(data, 0, 1024);
+            output.flush();
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            output.write(data, 1024, data.length - 1024);
+        }));
+        asyncResponse.setTimeout(50, TimeUnit.MILLISECONDS);
+    }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.jersey;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.ServerConfiguration;
+import io.helidon.webserver.WebServer;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the executor service of {@link JerseySupport}: rejection, statistics and {@link NonBlocking} resources.
+ */
+public class JerseyExecutorTest {
+
+    private static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+    private static ExecutorService executor;
+    private static JerseySupport jersey;
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                                          runnable -> new Thread(runnable, "jersey-test"));
+        jersey = JerseySupport.builder()
+                              .register(BlockingResource.class)
+                              .register(NonBlockingResource.class)
+                              .executorService(executor)
+                              .build();
+        webServer = WebServer.create(ServerConfiguration.builder().bindAddress(InetAddress.getLoopbackAddress()).build(),
+                                     Routing.builder().register("/jersey", jersey))
+                             .start()
+                             .toCompletableFuture()
+                             .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        RELEASE.countDown();
+        webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void overloadIsRejected() throws Exception {
+        // separate connections, the client connection pool would queue the requests itself
+        Future<String> running = CompletableFuture.supplyAsync(() -> get("blocking"));
+        Future<String> queued = CompletableFuture.supplyAsync(() -> get("blocking"));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((jersey.executorStatistics().queueDepth() < 1 || jersey.executorStatistics().activeThreads() < 1)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(get("blocking"), is("503"));
+
+        RELEASE.countDown();
+        assertThat(running.get(10, TimeUnit.SECONDS), is("200 jersey-test"));
+        assertThat(queued.get(10, TimeUnit.SECONDS), is("200 jersey-test"));
+
+        JerseySupport.ExecutorStatistics statistics = jersey.executorStatistics();
+        assertThat(statistics.rejectedRequests(), is(1L));
+        assertThat(statistics.queueDepth(), is(0));
+        assertThat(statistics.maxWaitNanos() > 0, is(true));
+    }
+
+    @Test
+    public void nonBlockingResourceSkipsExecutor() throws Exception {
+        String response = get("nonblocking");
+
+        assertThat(response, startsWith("200 "));
+        assertThat(response, not(startsWith("200 jersey-test")));
+    }
+
+    private static String get(String path) {
+        try {
+            URL url = new URL("http://localhost:" + webServer.port() + "/jersey/" + path);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setReadTimeout(10_000);
+            int status = connection.getResponseCode();
+            if (status != 200) {
+                return String.valueOf(status);
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(),
+                                                                                   StandardCharsets.UTF_8))) {
+                return status + " " + reader.readLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Path("blocking")
+    public static class BlockingResource {
+        @GET
+        public String get() throws InterruptedException {
+            RELEASE.await(10, TimeUnit.SECONDS);
+            return Thread.currentThread().getName();
+        }
+    }
+
+    @NonBlocking
+    @Path("nonblocking")
+    public static class NonBlockingResource {
+        @GET
+        public String get() {
+            return Thread.currentThread().getName();
+        }
+    }
+}
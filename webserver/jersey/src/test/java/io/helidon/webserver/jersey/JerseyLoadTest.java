@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.jersey;
+
+import java.time.Duration;
+
+import io.helidon.webserver.testsupport.LoadGenerator;
+import io.helidon.webserver.testsupport.LoadResult;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Runs sustained load against a Jersey resource with {@link LoadGenerator}. Run it with {@code -Pload-tests}.
+ */
+@Tag("load")
+public class JerseyLoadTest {
+
+    @Test
+    public void openModel() throws Exception {
+        LoadResult result = LoadGenerator.builder(JerseyExampleMain.INSTANCE.webServer(true))
+                                         .path("/jersey/first/hello")
+                                         .rate(200)
+                                         .warmup(Duration.ofSeconds(1))
+                                         .duration(Duration.ofSeconds(1))
+                                         .build()
+                                         .run();
+        System.out.println(result);
+
+        assertThat(result.errors(), is(0L));
+        assertThat(result.requests(), is(200L));
+        assertThat(result.percentile(99), lessThan(Duration.ofMillis(500)));
+    }
+}
@@ -21,6 +21,9 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URLConnection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Entity;
@@ -273,6 +276,57 @@ public class JerseySupportTest {
         assertThat(s, endsWith("/requestUri"));
     }
 
+    @Test
+    public void asyncTimeout() throws Exception {
+        Response response = get("jersey/first/async/timeout");
+
+        doAssert(response, "", Response.Status.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    public void asyncTimeoutHandler() throws Exception {
+        Response response = get("jersey/first/async/timeouthandler");
+
+        doAssert(response, "timeout handled");
+    }
+
+    @Test
+    public void asyncTimeoutExtended() throws Exception {
+        Response response = get("jersey/first/async/extended");
+
+        doAssert(response, "timeouts=3");
+    }
+
+    @Test
+    public void asyncResumeBeforeTimeout() throws Exception {
+        Response response = get("jersey/first/async/resume");
+
+        doAssert(response, "resumed");
+    }
+
+    @Test
+    public void asyncTimeoutHandlerWritingLargeEntity() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        JerseyExampleResource.largeEntityStarted = started;
+        JerseyExampleResource.largeEntityRelease = release;
+        try {
+            Future<Response> large = webTarget.path("jersey/first/async/timeoutlarge").request().async().get();
+            assertTrue(started.await(10, TimeUnit.SECONDS), "The timeout handler didn't start writing the entity.");
+
+            // the first handler still writes its entity, the timeouts of other requests must not wait for it
+            Response response = webTarget.path("jersey/first/async/timeouthandler").request().async().get()
+                                         .get(5, TimeUnit.SECONDS);
+            doAssert(response, "timeout handled");
+
+            release.countDown();
+            doAssert(large.get(10, TimeUnit.SECONDS),
+                     longData(JerseyExampleResource.LARGE_DATA_SIZE_BYTES).toString());
+        } finally {
+            release.countDown();
+        }
+    }
+
     static StringBuilder longData(int bytes) {
         StringBuilder data = new StringBuilder(bytes);
         int i = 0;
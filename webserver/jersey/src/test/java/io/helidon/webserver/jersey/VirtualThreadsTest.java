@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.jersey;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.ServerConfiguration;
+import io.helidon.webserver.WebServer;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests {@link JerseySupport.Builder#virtualThreads(boolean)}.
+ */
+public class VirtualThreadsTest {
+
+    private static final int CONCURRENCY = 1000;
+    private static final long BACKEND_MILLIS = 100;
+
+    @Test
+    public void virtualThreadsOrFallback() throws Exception {
+        JerseySupport jersey = JerseySupport.builder()
+                                            .register(SlowBackendResource.class)
+                                            .virtualThreads(true)
+                                            .build();
+        WebServer webServer = start(jersey);
+        try {
+            String thread = get(webServer, "thread");
+            if (JerseySupport.virtualThreadsSupported()) {
+                assertThat(thread, containsString("VirtualThread"));
+            } else {
+                // the default thread pool
+                assertThat(thread, containsString("pool-"));
+                assertThat(thread, not(containsString("VirtualThread")));
+            }
+        } finally {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @Tag("load")
+    public void slowBackendsThroughput() throws Exception {
+        assumeTrue(JerseySupport.virtualThreadsSupported(), "Virtual threads are not supported by this Java runtime");
+
+        // the default maximal size of the MP server thread pool
+        ExecutorService pool = Executors.newFixedThreadPool(50);
+        try {
+            long platformNanos = load(JerseySupport.builder()
+                                                   .register(SlowBackendResource.class)
+                                                   .executorService(pool)
+                                                   .build());
+            long virtualNanos = load(JerseySupport.builder()
+                                                  .register(SlowBackendResource.class)
+                                                  .virtualThreads(true)
+                                                  .build());
+            System.out.printf("%d requests with %d ms backends: thread pool %.0f req/s, virtual threads %.0f req/s%n",
+                              CONCURRENCY, BACKEND_MILLIS, throughput(platformNanos), throughput(virtualNanos));
+
+            assertThat(virtualNanos < platformNanos, is(true));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long load(JerseySupport jersey) throws Exception {
+        WebServer webServer = start(jersey);
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<String>> responses = new ArrayList<>(CONCURRENCY);
+            for (int i = 0; i < CONCURRENCY; i++) {
+                responses.add(CompletableFuture.supplyAsync(() -> get(webServer, "backend"), clients));
+            }
+            for (CompletableFuture<String> response : responses) {
+                assertThat(response.get(60, TimeUnit.SECONDS), is("done"));
+            }
+            return System.nanoTime() - start;
+        } finally {
+            clients.shutdownNow();
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static double throughput(long nanos) {
+        return CONCURRENCY * 1_000_000_000.0 / nanos;
+    }
+
+    private static WebServer start(JerseySupport jersey) throws Exception {
+        return WebServer.create(ServerConfiguration.builder().bindAddress(InetAddress.getLoopbackAddress()).build(),
+                                Routing.builder().register("/jersey", jersey))
+                        .start()
+                        .toCompletableFuture()
+                        .get(10, TimeUnit.SECONDS);
+    }
+
+    private static String get(WebServer webServer, String path) {
+        try {
+            URL url = new URL("http://localhost:" + webServer.port() + "/jersey/slow/" + path);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setReadTimeout(60_000);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(),
+                                                                                   StandardCharsets.UTF_8))) {
+                return reader.readLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Path("slow")
+    public static class SlowBackendResource {
+        @GET
+        @Path("thread")
+        public String thread() {
+            return Thread.currentThread().toString();
+        }
+
+        @GET
+        @Path("backend")
+        public String backend() throws InterruptedException {
+            // a blocking call of a slow backend service
+            Thread.sleep(BACKEND_MILLIS);
+            return "done";
+        }
+    }
+}
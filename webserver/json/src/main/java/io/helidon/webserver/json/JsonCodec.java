@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.json;
+
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+/**
+ * Binds a single Java type directly to the JSON-P streaming API, without an intermediate
+ * {@link javax.json.JsonStructure JsonStructure} tree.
+ *
+ * @param <T> the bound type
+ */
+interface JsonCodec<T> {
+
+    /**
+     * Writes a non-null value. The generator is either in an array context or right after
+     * {@link JsonGenerator#writeKey(String)}.
+     *
+     * @param generator a generator to write to
+     * @param value     a value to write, never {@code null}
+     */
+    void write(JsonGenerator generator, T value);
+
+    /**
+     * Reads a value which starts with the provided (already consumed) parser event.
+     * If the event is {@link JsonParser.Event#START_OBJECT START_OBJECT} or
+     * {@link JsonParser.Event#START_ARRAY START_ARRAY} the implementation must consume the whole structure
+     * including the corresponding end event.
+     *
+     * @param parser a parser to read from
+     * @param event  the first event of the value
+     * @return the read value, might be {@code null} for {@link JsonParser.Event#VALUE_NULL VALUE_NULL}
+     * @throws javax.json.JsonException if the value cannot be bound to the type
+     */
+    T read(JsonParser parser, JsonParser.Event event);
+}
@@ -0,0 +1,646 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.json;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import javax.json.JsonException;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import io.helidon.common.reactive.Flow;
+
+/**
+ * A class-keyed registry of {@link JsonCodec}s.
+ * <p>
+ * Codecs of bean-like classes ({@link ObjectCodec}) are computed once per class and cached. Codecs of nested
+ * bean-like types are resolved lazily on first use, so recursive types are supported.
+ */
+final class JsonCodecs {
+
+    private static final Map<Class<?>, JsonCodec<?>> SCALAR_CODECS = new HashMap<>();
+
+    static {
+        JsonCodec<String> stringCodec = scalar((g, v) -> g.write(v), JsonParser::getString);
+        SCALAR_CODECS.put(String.class, stringCodec);
+        registerScalar(Boolean.class, boolean.class, new BooleanCodec());
+        registerScalar(Integer.class, int.class, number((g, v) -> g.write(v), JsonParser::getInt));
+        registerScalar(Long.class, long.class, number((g, v) -> g.write(v), JsonParser::getLong));
+        registerScalar(Short.class, short.class, number((g, v) -> g.write(v), p -> (short) p.getInt()));
+        registerScalar(Byte.class, byte.class, number((g, v) -> g.write(v), p -> (byte) p.getInt()));
+        registerScalar(Double.class, double.class, number((g, v) -> g.write(v), p -> p.getBigDecimal().doubleValue()));
+        registerScalar(Float.class, float.class, number((g, v) -> g.write(v), p -> p.getBigDecimal().floatValue()));
+        registerScalar(Character.class, char.class, scalar((g, v) -> g.write(String.valueOf(v)), p -> {
+            String s = p.getString();
+            if (s.length() != 1) {
+                throw new JsonException("Cannot bind string '" + s + "' to a character!");
+            }
+            return s.charAt(0);
+        }));
+        SCALAR_CODECS.put(BigDecimal.class, number((g, v) -> g.write(v), JsonParser::getBigDecimal));
+        SCALAR_CODECS.put(BigInteger.class, number((g, v) -> g.write(v), p -> p.getBigDecimal().toBigIntegerExact()));
+    }
+
+    /**
+     * Types with writers of the web server. Implementation classes of these are outside of {@code java.*}.
+     */
+    private static final Class<?>[] WRITTEN_TYPES = {
+            CharSequence.class, File.class, Path.class, ReadableByteChannel.class, Flow.Publisher.class};
+
+    private final Map<Class<?>, ObjectCodec<?>> objectCodecs = new ConcurrentHashMap<>();
+    private final Map<Class<?>, JsonCodec<Object>> runtimeCodecs = new ConcurrentHashMap<>();
+    private final JsonCodec<Object> dynamicCodec = new DynamicCodec();
+
+    /**
+     * Returns {@code true} if the class can be bound as a bean-like JSON object. It is {@code false} for JDK and
+     * JSON-P types (including implementations of {@link JsonValue}), arrays, primitives and enums which are either handled
+     * by other readers and writers or bound as JSON values. It is also {@code false} for types the web server writes
+     * itself, such as {@link Path} or {@link ReadableByteChannel}, whatever their implementation class is.
+     *
+     * @param type a class to test
+     * @return {@code true} if instances of the class are bound as JSON objects
+     */
+    static boolean isBindable(Class<?> type) {
+        if (type.isArray() || type.isPrimitive() || type.isEnum() || type.isAnnotation() || type.isInterface()
+                || JsonValue.class.isAssignableFrom(type)) {
+            return false;
+        }
+        for (Class<?> written : WRITTEN_TYPES) {
+            if (written.isAssignableFrom(type)) {
+                return false;
+            }
+        }
+        String name = type.getName();
+        return !(name.startsWith("java.")
+                || name.startsWith("javax.")
+                || name.startsWith("sun.")
+                || name.startsWith("com.sun.")
+                || name.startsWith("jdk.")
+                || name.startsWith("io.helidon.common."));
+    }
+
+    /**
+     * Returns a cached codec for a bean-like class.
+     *
+     * @param type a bean-like class
+     * @param <T>  the bound type
+     * @return a codec, never {@code null}
+     * @throws JsonException if the class cannot be introspected
+     */
+    @SuppressWarnings("unchecked")
+    <T> ObjectCodec<T> objectCodec(Class<T> type) {
+        ObjectCodec<T> result = (ObjectCodec<T>) objectCodecs.get(type);
+        if (result == null) {
+            // not computeIfAbsent - creation of a codec must not hold the bin lock
+            result = ObjectCodec.create(type, this);
+            ObjectCodec<T> previous = (ObjectCodec<T>) objectCodecs.putIfAbsent(type, result);
+            if (previous != null) {
+                result = previous;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a codec for a (possibly generic) property type.
+     *
+     * @param type a type
+     * @return a codec
+     */
+    @SuppressWarnings("unchecked")
+    JsonCodec<Object> codec(Type type) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            JsonCodec<?> scalar = SCALAR_CODECS.get(clazz);
+            if (scalar != null) {
+                return (JsonCodec<Object>) scalar;
+            }
+            if (clazz == Object.class) {
+                return dynamicCodec;
+            }
+            if (clazz.isEnum()) {
+                return new EnumCodec(clazz);
+            }
+            if (JsonValue.class.isAssignableFrom(clazz)) {
+                return new JsonValueCodec(clazz);
+            }
+            if (clazz.isArray()) {
+                return new ArrayCodec(clazz.getComponentType(), codec(clazz.getComponentType()));
+            }
+            if (Collection.class.isAssignableFrom(clazz)) {
+                return new CollectionCodec(collectionFactory(clazz), dynamicCodec);
+            }
+            if (Map.class.isAssignableFrom(clazz)) {
+                return new MapCodec(mapFactory(clazz), dynamicCodec);
+            }
+            if (isBindable(clazz)) {
+                return new LazyObjectCodec(clazz);
+            }
+            return new ToStringCodec(clazz);
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType pType = (ParameterizedType) type;
+            Class<?> raw = (Class<?>) pType.getRawType();
+            Type[] args = pType.getActualTypeArguments();
+            if (Collection.class.isAssignableFrom(raw) && args.length == 1) {
+                return new CollectionCodec(collectionFactory(raw), codec(args[0]));
+            }
+            if (Map.class.isAssignableFrom(raw) && args.length == 2) {
+                return new MapCodec(mapFactory(raw), codec(args[1]));
+            }
+            return codec(raw);
+        }
+        if (type instanceof GenericArrayType) {
+            Type component = ((GenericArrayType) type).getGenericComponentType();
+            Class<?> rawComponent = component instanceof ParameterizedType
+                    ? (Class<?>) ((ParameterizedType) component).getRawType()
+                    : Object.class;
+            return new ArrayCodec(rawComponent, codec(component));
+        }
+        // type variables and wildcards
+        return dynamicCodec;
+    }
+
+    /**
+     * Writes a value which might be {@code null}.
+     */
+    static void writeValue(JsonGenerator generator, JsonCodec<Object> codec, Object value) {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            codec.write(generator, value);
+        }
+    }
+
+    /**
+     * Skips the value which starts with the provided (already consumed) event.
+     */
+    static void skip(JsonParser parser, JsonParser.Event event) {
+        if (event != JsonParser.Event.START_OBJECT && event != JsonParser.Event.START_ARRAY) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            switch (parser.next()) {
+            case START_OBJECT:
+            case START_ARRAY:
+                depth++;
+                break;
+            case END_OBJECT:
+            case END_ARRAY:
+                depth--;
+                break;
+            default:
+                // scalar value or key
+            }
+        }
+    }
+
+    private static void registerScalar(Class<?> boxed, Class<?> primitive, JsonCodec<?> codec) {
+        SCALAR_CODECS.put(boxed, codec);
+        SCALAR_CODECS.put(primitive, codec);
+    }
+
+    private static <T> JsonCodec<T> scalar(ScalarWriter<T> writer, ScalarReader<T> reader) {
+        return new ScalarCodec<>(JsonParser.Event.VALUE_STRING, writer, reader);
+    }
+
+    private static <T> JsonCodec<T> number(ScalarWriter<T> writer, ScalarReader<T> reader) {
+        return new ScalarCodec<>(JsonParser.Event.VALUE_NUMBER, writer, reader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Collection<Object>> collectionFactory(Class<?> type) {
+        if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+            return (Supplier<Collection<Object>>) (Supplier<?>) constructor(type);
+        }
+        if (SortedSet.class.isAssignableFrom(type)) {
+            return TreeSet::new;
+        }
+        if (Set.class.isAssignableFrom(type)) {
+            return LinkedHashSet::new;
+        }
+        if (Queue.class.isAssignableFrom(type)) {
+            return ArrayDeque::new;
+        }
+        return ArrayList::new;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Map<String, Object>> mapFactory(Class<?> type) {
+        if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+            return (Supplier<Map<String, Object>>) (Supplier<?>) constructor(type);
+        }
+        if (SortedMap.class.isAssignableFrom(type)) {
+            return TreeMap::new;
+        }
+        return LinkedHashMap::new;
+    }
+
+    private static Supplier<Object> constructor(Class<?> type) {
+        MethodHandle constructor;
+        try {
+            constructor = MethodHandles.publicLookup()
+                    .findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new JsonException("Type " + type.getName() + " has no accessible no-arg constructor!", e);
+        }
+        return () -> {
+            try {
+                return (Object) constructor.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new JsonException("Cannot create an instance of " + type.getName(), t);
+            }
+        };
+    }
+
+    private static JsonException unexpected(JsonParser.Event event, String expected) {
+        return new JsonException("Unexpected JSON event " + event + ", expected " + expected + "!");
+    }
+
+    @FunctionalInterface
+    private interface ScalarWriter<T> {
+        void write(JsonGenerator generator, T value);
+    }
+
+    @FunctionalInterface
+    private interface ScalarReader<T> {
+        T read(JsonParser parser);
+    }
+
+    private static final class ScalarCodec<T> implements JsonCodec<T> {
+
+        private final JsonParser.Event expectedEvent;
+        private final ScalarWriter<T> writer;
+        private final ScalarReader<T> reader;
+
+        ScalarCodec(JsonParser.Event expectedEvent, ScalarWriter<T> writer, ScalarReader<T> reader) {
+            this.expectedEvent = expectedEvent;
+            this.writer = writer;
+            this.reader = reader;
+        }
+
+        @Override
+        public void write(JsonGenerator generator, T value) {
+            writer.write(generator, value);
+        }
+
+        @Override
+        public T read(JsonParser parser, JsonParser.Event event) {
+            if (event == JsonParser.Event.VALUE_NULL) {
+                return null;
+            }
+            if (event != expectedEvent) {
+                throw unexpected(event, expectedEvent.toString());
+            }
+            return reader.read(parser);
+        }
+    }
+
+    private static final class BooleanCodec implements JsonCodec<Boolean> {
+
+        @Override
+        public void write(JsonGenerator generator, Boolean value) {
+            generator.write(value);
+        }
+
+        @Override
+        public Boolean read(JsonParser parser, JsonParser.Event event) {
+            switch (event) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            default:
+                throw unexpected(event, "a boolean value");
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final class EnumCodec implements JsonCodec<Object> {
+
+        private final Class<? extends Enum> type;
+
+        EnumCodec(Class<?> type) {
+            this.type = (Class<? extends Enum>) type;
+        }
+
+        @Override
+        public void write(JsonGenerator generator, Object value) {
+            generator.write(((Enum<?>) value).name());
+        }
+
+        @Override
+        public Object read(JsonParser parser, JsonParser.Event event) {
+            if (event == JsonParser.Event.VALUE_NULL) {
+                return null;
+            }
+            if (event != JsonParser.Event.VALUE_STRING) {
+                throw unexpected(event, "an enum constant name");
+            }
+            try {
+                return Enum.valueOf(type, parser.getString());
+            } catch (IllegalArgumentException e) {
+                throw new JsonException("Cannot bind '" + parser.getString() + "' to " + type.getName(), e);
+            }
+        }
+    }
+
+    private static final class JsonValueCodec implements JsonCodec<Object> {
+
+        private final Class<?> type;
+
+        JsonValueCodec(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public void write(JsonGenerator generator, Object value) {
+            generator.write((JsonValue) value);
+        }
+
+        @Override
+        public Object read(JsonParser parser, JsonParser.Event event) {
+            // JSON-P structure is explicitly requested, so a partial tree is what the user wants
+            JsonValue value = parser.getValue();
+            if (!type.isInstance(value)) {
+                throw new JsonException("Cannot bind " + value.getValueType() + " to " + type.getName());
+            }
+            return value;
+        }
+    }
+
+    private static final class ArrayCodec implements JsonCodec<Object> {
+
+        private final Class<?> componentType;
+        private final JsonCodec<Object> componentCodec;
+
+        ArrayCodec(Class<?> componentType, JsonCodec<Object> componentCodec) {
+            this.componentType = componentType;
+            this.componentCodec = componentCodec;
+        }
+
+        @Override
+        public void write(JsonGenerator generator, Object value) {
+            generator.writeStartArray();
+            for (int i = 0, length = Array.getLength(value); i < length; i++) {
+                writeValue(generator, componentCodec, Array.get(value, i));
+            }
+            generator.writeEnd();
+        }
+
+        @Override
+        public Object read(JsonParser parser, JsonParser.Event event) {
+            if (event == JsonParser.Event.VALUE_NULL) {
+                return null;
+            }
+            if (event != JsonParser.Event.START_ARRAY) {
+                throw unexpected(event, "an array");
+            }
+            List<Object> items = new ArrayList<>();
+            while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+                items.add(componentCodec.read(parser, event));
+            }
+            Object result = Array.newInstance(componentType, items.size());
+            for (int i = 0; i < items.size(); i++) {
+                Array.set(result, i, items.get(i));
+            }
+            return result;
+        }
+    }
+
+    private static final class CollectionCodec implements JsonCodec<Object> {
+
+        private final Supplier<Collection<Object>> factory;
+        private final JsonCodec<Object> elementCodec;
+
+        CollectionCodec(Supplier<Collection<Object>> factory, JsonCodec<Object> elementCodec) {
+            this.factory = factory;
+            this.elementCodec = elementCodec;
+        }
+
+        @Override
+        public void write(JsonGenerator generator, Object value) {
+            generator.writeStartArray();
+            for (Object item : (Collection<?>) value) {
+                writeValue(generator, elementCodec, item);
+            }
+            generator.writeEnd();
+        }
+
+        @Override
+        public Object read(JsonParser parser, JsonParser.Event event) {
+            if (event == JsonParser.Event.VALUE_NULL) {
+                return null;
+            }
+            if (event != JsonParser.Event.START_ARRAY) {
+                throw unexpected(event, "an array");
+            }
+            Collection<Object> result = factory.get();
+            while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+                result.add(elementCodec.read(parser, event));
+            }
+            return result;
+        }
+    }
+
+    private static final class MapCodec implements JsonCodec<Object> {
+
+        private final Supplier<Map<String, Object>> factory;
+        private final JsonCodec<Object> valueCodec;
+
+        MapCodec(Supplier<Map<String, Object>> factory, JsonCodec<Object> valueCodec) {
+            this.factory = factory;
+            this.valueCodec = valueCodec;
+        }
+
+        @Override
+        public void write(JsonGenerator generator, Object value) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                generator.writeKey(String.valueOf(entry.getKey()));
+                writeValue(generator, valueCodec, entry.getValue());
+            }
+            generator.writeEnd();
+        }
+
+        @Override
+        public Object read(JsonParser parser, JsonParser.Event event) {
+            if (event == JsonParser.Event.VALUE_NULL) {
+                return null;
+            }
+            if (event != JsonParser.Event.START_OBJECT) {
+                throw unexpected(event, "an object");
+            }
+            Map<String, Object> result = factory.get();
+            while (parser.next() != JsonParser.Event.END_OBJECT) {
+                String key = parser.getString();
+                result.put(key, valueCodec.read(parser, parser.next()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Binds values of unknown static type. Writes use the runtime type; reads produce {@link String}, {@link Long},
+     * {@link BigDecimal}, {@link Boolean}, {@link List} and {@link Map} instances.
+     */
+    private final class DynamicCodec implements JsonCodec<Object> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(JsonGenerator generator, Object value) {
+            Class<?> type = value.getClass();
+            if (type == Object.class) {
+                generator.writeStartObject().writeEnd();
+            } else if (isBindable(type)) {
+                ((JsonCodec<Object>) (JsonCodec<?>) objectCodec(type)).write(generator, value);
+            } else {
+                runtimeCodecs.computeIfAbsent(type, JsonCodecs.this::codec).write(generator, value);
+            }
+        }
+
+        @Override
+        public Object read(JsonParser parser, JsonParser.Event event) {
+            switch (event) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_STRING:
+                return parser.getString();
+            case VALUE_NUMBER:
+                return parser.isIntegralNumber() ? (Object) parser.getLong() : parser.getBigDecimal();
+            case START_ARRAY:
+                List<Object> list = new ArrayList<>();
+                while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+                    list.add(read(parser, event));
+                }
+                return list;
+            case START_OBJECT:
+                Map<String, Object> map = new LinkedHashMap<>();
+                while (parser.next() != JsonParser.Event.END_OBJECT) {
+                    String key = parser.getString();
+                    map.put(key, read(parser, parser.next()));
+                }
+                return map;
+            default:
+                throw unexpected(event, "a value");
+            }
+        }
+    }
+
+    /**
+     * Resolves the cached {@link ObjectCodec} on first use. It breaks creation cycles of recursive types.
+     */
+    private final class LazyObjectCodec implements JsonCodec<Object> {
+
+        private final Class<?> type;
+        private volatile ObjectCodec<Object> delegate;
+
+        LazyObjectCodec(Class<?> type) {
+            this.type = type;
+        }
+
+        @SuppressWarnings("unchecked")
+        private ObjectCodec<Object> delegate() {
+            ObjectCodec<Object> result = delegate;
+            if (result == null) {
+                result = (ObjectCodec<Object>) objectCodec(type);
+                delegate = result;
+            }
+            return result;
+        }
+
+        @Override
+        public void write(JsonGenerator generator, Object value) {
+            if (value.getClass() == type) {
+                delegate().write(generator, value);
+            } else {
+                // subtype
+                dynamicCodec.write(generator, value);
+            }
+        }
+
+        @Override
+        public Object read(JsonParser parser, JsonParser.Event event) {
+            return delegate().read(parser, event);
+        }
+    }
+
+    /**
+     * Types without a specific binding are written as their {@code toString()} and cannot be read.
+     */
+    private static final class ToStringCodec implements JsonCodec<Object> {
+
+        private final Class<?> type;
+
+        ToStringCodec(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public void write(JsonGenerator generator, Object value) {
+            generator.write(value.toString());
+        }
+
+        @Override
+        public Object read(JsonParser parser, JsonParser.Event event) {
+            if (event == JsonParser.Event.VALUE_NULL) {
+                return null;
+            }
+            throw new JsonException("Cannot bind JSON to unsupported type " + type.getName());
+        }
+    }
+}
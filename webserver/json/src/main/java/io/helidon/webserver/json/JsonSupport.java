@@ -18,19 +18,29 @@ package io.helidon.webserver.json;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import javax.json.Json;
+import javax.json.JsonException;
 import javax.json.JsonReader;
 import javax.json.JsonReaderFactory;
 import javax.json.JsonStructure;
 import javax.json.JsonWriter;
 import javax.json.JsonWriterFactory;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
 
 import io.helidon.common.http.Content;
 import io.helidon.common.http.DataChunk;
@@ -58,9 +68,22 @@ import io.helidon.webserver.WebServer;
  * {@link Content#as(java.lang.Class) as(...)} and
  * {@code ServerResponse.}{@link ServerResponse#send(Object) send()}
  * with {@link JsonStructure JSON} objects.
+ * <p>
+ * Application classes (for example DTOs) can be bound directly to the JSON stream using
+ * {@link JsonParser}/{@link JsonGenerator}, without building an intermediate {@link JsonStructure}. The binding is
+ * opt-in, classes are selected by {@link Builder#bind(Class[])} or {@link Builder#bind(Predicate)}. It uses
+ * public getters, setters and fields of the class. Accessors are resolved once per class and cached by
+ * the {@code JsonSupport} instance. Reading requires a public no-arg constructor. Types written by the web server
+ * itself, such as {@link java.nio.file.Path} or {@link java.nio.channels.ReadableByteChannel}, are never bound.
  *
  * <h3>Get Instance</h3>
- * Use factory methods {@link #get()} or {@link #create(Map)} to acquire an instance.
+ * Use factory methods {@link #get()} or {@link #create(Map)} to acquire an instance, or {@link #builder()} to bind
+ * application classes.
+ * <pre>{@code
+ * JsonSupport.builder()
+ *            .bind(Order.class, Item.class)
+ *            .build();
+ * }</pre>
  *
  * <h3>Usage with Routing</h3>
  * {@code JsonSupport} should be registered on the routing before any business logic handlers.
@@ -95,20 +118,29 @@ public final class JsonSupport implements Service, Handler {
      * A singleton holder for JsonSupport with default (empty) configuration.
      */
     private static final class DefaultJsonSupportHolder {
-        private static final JsonSupport INTANCE = new JsonSupport(null);
+        private static final JsonSupport INTANCE = new JsonSupport(null, type -> false);
     }
 
     private final JsonReaderFactory jsonReaderFactory;
     private final JsonWriterFactory jsonWriterFactory;
+    private final JsonParserFactory jsonParserFactory;
+    private final JsonGeneratorFactory jsonGeneratorFactory;
+    private final JsonCodecs codecs;
+    private final Predicate<Class<?>> bound;
 
     /**
      * Creates new instance on top of {@link JsonReader} and {@link javax.json.JsonWriter} created with provided configuration.
      *
      * @param config a configuration for {@link Json} factory methods
+     * @param bound  selects application classes bound by the registered reader and writer
      */
-    private JsonSupport(Map<String, ?> config) {
+    private JsonSupport(Map<String, ?> config, Predicate<Class<?>> bound) {
+        this.bound = bound;
         this.jsonReaderFactory = Json.createReaderFactory(config);
         this.jsonWriterFactory = Json.createWriterFactory(config);
+        this.jsonParserFactory = Json.createParserFactory(config);
+        this.jsonGeneratorFactory = Json.createGeneratorFactory(config);
+        this.codecs = new JsonCodecs();
     }
 
     /**
@@ -149,25 +181,45 @@ public final class JsonSupport implements Service, Handler {
                    Charset charset = determineCharset(request.headers());
                    return reader(charset).apply(publisher);
                });
+        request.content()
+               .registerReader(this::isBound, (publisher, type) -> {
+                   Charset charset = determineCharset(request.headers());
+                   return objectReader(charset).apply(publisher, type);
+               });
         // Writer
-        response.registerWriter(json -> (json instanceof JsonStructure) && testOrSetContentType(request, response),
+        response.registerWriter(json -> (json instanceof JsonStructure) && contentType(request, response) != null,
                                 json -> {
+                                    setContentType(request, response);
                                     Charset charset = determineCharset(response.headers());
                                     return writer(charset).apply((JsonStructure) json);
                                 });
+        response.registerWriter(o -> isBound(o.getClass()) && contentType(request, response) != null,
+                                o -> {
+                                    setContentType(request, response);
+                                    Charset charset = determineCharset(response.headers());
+                                    return objectWriter(charset).apply(o);
+                                });
         request.next();
     }
 
+    private boolean isBound(Class<?> type) {
+        return bound.test(type) && JsonCodecs.isBindable(type);
+    }
+
+    private void setContentType(ServerRequest request, ServerResponse response) {
+        if (!response.headers().contentType().isPresent()) {
+            response.headers().contentType(contentType(request, response));
+        }
+    }
+
     /**
      * Deals with request {@code Accept} and response {@code Content-Type} headers to determine if writer can be used.
-     * <p>
-     * If response has no {@code Content-Type} header then it is set to the response.
      *
      * @param request a server request
      * @param response a server response
-     * @return {@code true} if JSON writer can be used
+     * @return the response content type or {@code null} if JSON writer cannot be used
      */
-    private boolean testOrSetContentType(ServerRequest request, ServerResponse response) {
+    private MediaType contentType(ServerRequest request, ServerResponse response) {
         MediaType mt = response.headers().contentType().orElse(null);
         if (mt == null) {
             // Find if accepts any JSON compatible type
@@ -176,31 +228,24 @@ public final class JsonSupport implements Service, Handler {
             if (acceptedTypes.isEmpty()) {
                 preferredType = MediaType.APPLICATION_JSON;
             } else {
-                preferredType = acceptedTypes
-                        .stream()
-                        .map(type -> {
-                            if (type.test(MediaType.APPLICATION_JSON)) {
-                                return MediaType.APPLICATION_JSON;
-                            } else if (type.test(APPLICATION_JAVASCRIPT)) {
-                                return APPLICATION_JAVASCRIPT;
-                            } else if (type.hasSuffix("json")) {
-                                return new MediaType(type.getType(), type.getSubtype());
-                            } else {
-                                return null;
-                            }
-                        })
-                        .filter(Objects::nonNull)
-                        .findFirst()
-                        .orElse(null);
-            }
-            if (preferredType == null) {
-                return false;
-            } else {
-                response.headers().contentType(preferredType);
-                return true;
+                // accepted types are sorted by quality, the first JSON compatible one is preferred
+                preferredType = null;
+                for (MediaType type : acceptedTypes) {
+                    if (type.test(MediaType.APPLICATION_JSON)) {
+                        preferredType = MediaType.APPLICATION_JSON;
+                    } else if (type.test(APPLICATION_JAVASCRIPT)) {
+                        preferredType = APPLICATION_JAVASCRIPT;
+                    } else if (type.hasSuffix("json")) {
+                        preferredType = new MediaType(type.getType(), type.getSubtype());
+                    }
+                    if (preferredType != null) {
+                        break;
+                    }
+                }
             }
+            return preferredType;
         } else {
-            return MediaType.JSON_PREDICATE.test(mt);
+            return MediaType.JSON_PREDICATE.test(mt) ? mt : null;
         }
     }
 
@@ -295,6 +340,82 @@ public final class JsonSupport implements Service, Handler {
         return writer(null);
     }
 
+    /**
+     * Returns a function (reader) binding {@link Flow.Publisher Publisher} of {@link ByteBuffer}s directly to an instance
+     * of the requested class. No intermediate {@link JsonStructure} is created.
+     * <p>
+     * The requested class must be public and must have a public no-arg constructor. JSON properties are bound
+     * to public setters or fields, unknown properties are ignored.
+     *
+     * @param charset a charset to use or {@code null} for default charset
+     * @return the reader that transforms a publisher of byte buffers to a completion stage that
+     *         might end exceptionally with a {@link IllegalArgumentException} in case of I/O error or
+     *         a {@link javax.json.JsonException}
+     */
+    public Reader<Object> objectReader(Charset charset) {
+        return (publisher, clazz) ->
+                ContentReaders.byteArrayReader()
+                              .apply(publisher)
+                              .thenApply(bytes -> {
+                                  ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+                                  try (JsonParser parser = (charset == null)
+                                                           ? jsonParserFactory.createParser(is)
+                                                           : jsonParserFactory.createParser(is, charset)) {
+                                      if (!parser.hasNext()) {
+                                          throw new JsonException("Cannot bind an empty content to " + clazz.getName());
+                                      }
+                                      return codecs.objectCodec(clazz).read(parser, parser.next());
+                                  }
+                              });
+    }
+
+    /**
+     * Returns a function (reader) binding {@link Flow.Publisher Publisher} of {@link ByteBuffer}s directly to an instance
+     * of the requested class.
+     *
+     * @return created reader
+     * @see #objectReader(Charset)
+     */
+    public Reader<Object> objectReader() {
+        return objectReader(null);
+    }
+
+    /**
+     * Returns a function (writer) generating JSON from public getters and fields of an object directly to
+     * the {@link Flow.Publisher Publisher} of {@link DataChunk}s. No intermediate {@link JsonStructure} is created.
+     *
+     * @param charset a charset to use or {@code null} for default charset
+     * @return created function
+     */
+    public Function<Object, Flow.Publisher<DataChunk>> objectWriter(Charset charset) {
+        return o -> {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            writeObject(o, baos, charset);
+            return ContentWriters.byteArrayWriter(false)
+                                 .apply(baos.toByteArray());
+        };
+    }
+
+    /**
+     * Returns a function (writer) generating JSON from public getters and fields of an object directly to
+     * the {@link Flow.Publisher Publisher} of {@link DataChunk}s.
+     *
+     * @return created function
+     * @see #objectWriter(Charset)
+     */
+    public Function<Object, Flow.Publisher<DataChunk>> objectWriter() {
+        return objectWriter(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeObject(Object o, OutputStream os, Charset charset) {
+        try (JsonGenerator generator = (charset == null)
+                                       ? jsonGeneratorFactory.createGenerator(os)
+                                       : jsonGeneratorFactory.createGenerator(os, charset)) {
+            ((JsonCodec<Object>) codecs.objectCodec(o.getClass())).write(generator, o);
+        }
+    }
+
     /**
      * Returns a singleton instance of JsonSupport with default configuration.
      * <p>
@@ -317,7 +438,72 @@ public final class JsonSupport implements Service, Handler {
         if (config == null || config.isEmpty()) {
             return get();
         } else {
-            return new JsonSupport(config);
+            return new JsonSupport(config, type -> false);
+        }
+    }
+
+    /**
+     * Returns a builder of JsonSupport, which can bind application classes.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A builder of {@link JsonSupport}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<JsonSupport> {
+
+        private final Set<Class<?>> classes = new HashSet<>();
+        private Map<String, ?> config;
+        private Predicate<Class<?>> predicate = type -> false;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets a configuration for {@link Json} factory methods.
+         *
+         * @param config a configuration
+         * @return this builder
+         */
+        public Builder config(Map<String, ?> config) {
+            this.config = config;
+            return this;
+        }
+
+        /**
+         * Binds the classes by the registered reader and writer. Types written by the web server itself are never bound.
+         *
+         * @param classes application classes to bind
+         * @return this builder
+         */
+        public Builder bind(Class<?>... classes) {
+            this.classes.addAll(Arrays.asList(classes));
+            return this;
+        }
+
+        /**
+         * Binds classes matching the predicate by the registered reader and writer. Types written by the web server
+         * itself are never bound.
+         *
+         * @param predicate selects application classes to bind
+         * @return this builder
+         * @throws NullPointerException if {@code predicate} is {@code null}
+         */
+        public Builder bind(Predicate<Class<?>> predicate) {
+            Objects.requireNonNull(predicate, "Parameter 'predicate' is null!");
+            this.predicate = this.predicate.or(predicate);
+            return this;
+        }
+
+        @Override
+        public JsonSupport build() {
+            Set<Class<?>> bound = new HashSet<>(classes);
+            Predicate<Class<?>> p = predicate;
+            return new JsonSupport(config, type -> bound.contains(type) || p.test(type));
         }
     }
 
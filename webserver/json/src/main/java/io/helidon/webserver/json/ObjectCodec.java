@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.json;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.json.JsonException;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+/**
+ * A {@link JsonCodec} of a bean-like class.
+ * <p>
+ * Properties are public getters ({@code getX()}, {@code isX()}), setters ({@code setX(x)}) and public non-static
+ * non-transient fields. Accessors are resolved once into {@link MethodHandle}s. Properties are written in
+ * lexicographical order and {@code null} values are omitted. Unknown JSON properties are ignored on read.
+ *
+ * @param <T> the bound type
+ */
+final class ObjectCodec<T> implements JsonCodec<T> {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final Property[] readableProperties;
+    private final Map<String, Property> writableProperties;
+
+    private ObjectCodec(Class<T> type, MethodHandle constructor, List<Property> properties) {
+        this.type = type;
+        this.constructor = constructor;
+        List<Property> readable = new ArrayList<>(properties.size());
+        this.writableProperties = new HashMap<>();
+        for (Property property : properties) {
+            if (property.getter != null) {
+                readable.add(property);
+            }
+            if (property.setter != null) {
+                writableProperties.put(property.name, property);
+            }
+        }
+        this.readableProperties = readable.toArray(new Property[0]);
+    }
+
+    /**
+     * Introspects the class and creates a new codec.
+     *
+     * @param type  a bean-like class
+     * @param codecs a registry to resolve property codecs
+     * @param <T>   the bound type
+     * @return a new codec
+     * @throws JsonException if the class is not accessible
+     */
+    static <T> ObjectCodec<T> create(Class<T> type, JsonCodecs codecs) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            throw new JsonException("Cannot bind non-public class " + type.getName());
+        }
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodHandle constructor = null;
+        if (!Modifier.isAbstract(type.getModifiers())) {
+            try {
+                constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                // write only
+            }
+        }
+
+        Map<String, PropertyBuilder> builders = new TreeMap<>();
+        try {
+            for (Field field : type.getFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                    continue;
+                }
+                PropertyBuilder builder = builders.computeIfAbsent(field.getName(), PropertyBuilder::new);
+                builder.type = field.getGenericType();
+                builder.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                if (!Modifier.isFinal(modifiers)) {
+                    builder.setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+                }
+            }
+            // accessor methods take precedence over fields of the same name
+            for (Method method : type.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.isSynthetic()) {
+                    continue;
+                }
+                String name = method.getName();
+                int paramCount = method.getParameterCount();
+                if (paramCount == 0 && method.getReturnType() != void.class) {
+                    String propertyName;
+                    if (name.startsWith("get") && name.length() > 3 && !"getClass".equals(name)) {
+                        propertyName = decapitalize(name.substring(3));
+                    } else if (name.startsWith("is") && name.length() > 2
+                            && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+                        propertyName = decapitalize(name.substring(2));
+                    } else {
+                        continue;
+                    }
+                    PropertyBuilder builder = builders.computeIfAbsent(propertyName, PropertyBuilder::new);
+                    builder.type = method.getGenericReturnType();
+                    builder.getter = lookup.unreflect(method).asType(GETTER_TYPE);
+                } else if (paramCount == 1 && name.startsWith("set") && name.length() > 3) {
+                    PropertyBuilder builder = builders.computeIfAbsent(decapitalize(name.substring(3)), PropertyBuilder::new);
+                    if (builder.type == null) {
+                        builder.type = method.getGenericParameterTypes()[0];
+                    }
+                    builder.setter = lookup.unreflect(method).asType(SETTER_TYPE);
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new JsonException("Cannot access properties of " + type.getName(), e);
+        }
+
+        List<Property> properties = new ArrayList<>(builders.size());
+        for (PropertyBuilder builder : builders.values()) {
+            Class<?> rawType = builder.type instanceof Class ? (Class<?>) builder.type : Object.class;
+            properties.add(new Property(builder.name,
+                                        codecs.codec(builder.type),
+                                        rawType.isPrimitive(),
+                                        builder.getter,
+                                        builder.setter));
+        }
+        return new ObjectCodec<>(type, constructor, properties);
+    }
+
+    @Override
+    public void write(JsonGenerator generator, T value) {
+        generator.writeStartObject();
+        for (Property property : readableProperties) {
+            Object propertyValue = property.get(value);
+            if (propertyValue != null) {
+                generator.writeKey(property.name);
+                property.codec.write(generator, propertyValue);
+            }
+        }
+        generator.writeEnd();
+    }
+
+    @Override
+    public T read(JsonParser parser, JsonParser.Event event) {
+        if (event == JsonParser.Event.VALUE_NULL) {
+            return null;
+        }
+        if (event != JsonParser.Event.START_OBJECT) {
+            throw new JsonException("Cannot bind " + event + " to " + type.getName() + ", expected an object!");
+        }
+        T result = newInstance();
+        while (parser.next() != JsonParser.Event.END_OBJECT) {
+            Property property = writableProperties.get(parser.getString());
+            event = parser.next();
+            if (property == null) {
+                JsonCodecs.skip(parser, event);
+            } else {
+                Object propertyValue = property.codec.read(parser, event);
+                if (propertyValue != null || !property.primitive) {
+                    property.set(result, propertyValue);
+                }
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T newInstance() {
+        if (constructor == null) {
+            throw new JsonException("Cannot create an instance of " + type.getName()
+                                            + ", a public no-arg constructor is required!");
+        }
+        try {
+            return (T) (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new JsonException("Cannot create an instance of " + type.getName(), t);
+        }
+    }
+
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            // URL -> URL, same as java.beans.Introspector
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static final class PropertyBuilder {
+        private final String name;
+        private Type type;
+        private MethodHandle getter;
+        private MethodHandle setter;
+
+        PropertyBuilder(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class Property {
+        private final String name;
+        private final JsonCodec<Object> codec;
+        private final boolean primitive;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        Property(String name, JsonCodec<Object> codec, boolean primitive, MethodHandle getter, MethodHandle setter) {
+            this.name = name;
+            this.codec = codec;
+            this.primitive = primitive;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        Object get(Object instance) {
+            try {
+                return (Object) getter.invokeExact(instance);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new JsonException("Cannot get property '" + name + "'", t);
+            }
+        }
+
+        void set(Object instance, Object value) {
+            try {
+                setter.invokeExact(instance, value);
+            } catch (ClassCastException e) {
+                throw new JsonException("Cannot set property '" + name + "'", e);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new JsonException("Cannot set property '" + name + "'", t);
+            }
+        }
+    }
+}
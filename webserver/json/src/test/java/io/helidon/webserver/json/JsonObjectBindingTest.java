@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.ReactiveStreamsAdapter;
+import io.helidon.webserver.ContentReaders;
+import io.helidon.webserver.Handler;
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.testsupport.MediaPublisher;
+import io.helidon.webserver.testsupport.TestClient;
+import io.helidon.webserver.testsupport.TestResponse;
+
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Tests binding of application classes by {@link JsonSupport#objectReader()} and {@link JsonSupport#objectWriter()}.
+ */
+public class JsonObjectBindingTest {
+
+    private static final String ORDER_JSON = "{\"customer\":{\"name\":\"Joe\",\"vip\":true},"
+            + "\"id\":42,"
+            + "\"items\":[{\"name\":\"apple\",\"count\":3},{\"name\":\"pear\",\"count\":1}],"
+            + "\"note\":null,"
+            + "\"unknown\":{\"a\":[1,2,{\"b\":3}]},"
+            + "\"state\":\"SHIPPED\","
+            + "\"tags\":{\"x\":\"y\"},"
+            + "\"price\":10.5}";
+
+    private static <T> T read(String json, Class<T> type) throws Exception {
+        Flux<DataChunk> flux = Flux.just(json).map(s -> DataChunk.create(s.getBytes(StandardCharsets.UTF_8)));
+        CompletionStage<? extends T> stage = JsonSupport.get()
+                                                        .objectReader()
+                                                        .applyAndCast(ReactiveStreamsAdapter.publisherToFlow(flux), type);
+        return stage.toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    private static JsonObject write(Object o) throws Exception {
+        byte[] bytes = ContentReaders.byteArrayReader()
+                                     .apply(JsonSupport.get().objectWriter().apply(o))
+                                     .toCompletableFuture()
+                                     .get(10, TimeUnit.SECONDS);
+        return Json.createReader(new ByteArrayInputStream(bytes)).readObject();
+    }
+
+    @Test
+    public void readNestedObject() throws Exception {
+        Order order = read(ORDER_JSON, Order.class);
+
+        assertThat(order.getId(), is(42L));
+        assertThat(order.getCustomer().name, is("Joe"));
+        assertThat(order.getCustomer().isVip(), is(true));
+        assertThat(order.getItems().size(), is(2));
+        assertThat(order.getItems().get(0).getName(), is("apple"));
+        assertThat(order.getItems().get(1).getCount(), is(1));
+        assertThat(order.getNote(), nullValue());
+        assertThat(order.getState(), is(State.SHIPPED));
+        assertThat(order.getTags().get("x"), is("y"));
+        assertThat(order.price, is(10.5));
+    }
+
+    @Test
+    public void writeNestedObject() throws Exception {
+        Order order = new Order();
+        order.setId(7);
+        order.setCustomer(new Customer());
+        order.getCustomer().name = "Ann";
+        order.setItems(Arrays.asList(new Item("plum", 5)));
+        order.setState(State.NEW);
+        order.price = 1.25;
+
+        JsonObject json = write(order);
+
+        assertThat(json.getJsonNumber("id").longValue(), is(7L));
+        assertThat(json.getJsonObject("customer").getString("name"), is("Ann"));
+        assertThat(json.getJsonObject("customer").getBoolean("vip"), is(false));
+        assertThat(json.getJsonArray("items").getJsonObject(0).getString("name"), is("plum"));
+        assertThat(json.getString("state"), is("NEW"));
+        assertThat(json.getJsonNumber("price").doubleValue(), is(1.25));
+        // null properties are omitted
+        assertThat(json.containsKey("note"), is(false));
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        Order order = read(ORDER_JSON, Order.class);
+        Order copy = read(write(order).toString(), Order.class);
+
+        assertThat(copy.getId(), is(order.getId()));
+        assertThat(copy.getCustomer().name, is(order.getCustomer().name));
+        assertThat(copy.getItems().get(1).getName(), is("pear"));
+        assertThat(copy.getTags(), is(order.getTags()));
+    }
+
+    @Test
+    public void recursiveType() throws Exception {
+        Node node = read("{\"value\":\"a\",\"children\":[{\"value\":\"b\",\"children\":[]}]}", Node.class);
+
+        assertThat(node.getChildren().get(0).getValue(), is("b"));
+        assertThat(write(node).getJsonArray("children").getJsonObject(0).getString("value"), is("b"));
+    }
+
+    @Test
+    public void typeMismatch() throws Exception {
+        try {
+            read("{\"id\":\"not a number\"}", Order.class);
+            fail("Should have failed on a string bound to a long");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), IsInstanceOf.instanceOf(JsonException.class));
+        }
+    }
+
+    @Test
+    public void codecIsCached() throws Exception {
+        JsonCodecs codecs = new JsonCodecs();
+
+        assertThat(codecs.objectCodec(Order.class), sameInstance(codecs.objectCodec(Order.class)));
+    }
+
+    @Test
+    public void bindableTypes() throws Exception {
+        assertThat(JsonCodecs.isBindable(Order.class), is(true));
+        assertThat(JsonCodecs.isBindable(String.class), is(false));
+        assertThat(JsonCodecs.isBindable(JsonObject.class), is(false));
+        assertThat(JsonCodecs.isBindable(byte[].class), is(false));
+        assertThat(JsonCodecs.isBindable(State.class), is(false));
+        // implementations of types with web server writers
+        assertThat(JsonCodecs.isBindable(Paths.get("foo").getClass()), is(false));
+        assertThat(JsonCodecs.isBindable(Channels.newChannel(new ByteArrayInputStream(new byte[0])).getClass()), is(false));
+        assertThat(JsonCodecs.isBindable(StringBuilder.class), is(false));
+    }
+
+    @Test
+    public void bindingIsOptIn() throws Exception {
+        Routing routing = Routing.builder()
+                                 .register(JsonSupport.get())
+                                 .get("/foo", (req, res) -> res.send(new Order()))
+                                 .build();
+        TestResponse response = TestClient.create(routing).path("/foo").get();
+
+        assertThat(response.status(), is(Http.Status.INTERNAL_SERVER_ERROR_500));
+        assertThat(response.headers().first(Http.Header.CONTENT_TYPE).isPresent(), is(false));
+    }
+
+    @Test
+    public void writtenTypesAreNotBound() throws Exception {
+        Path file = Files.createTempFile("json-support", ".txt");
+        Files.write(file, "file content".getBytes(StandardCharsets.UTF_8));
+        try {
+            Routing routing = Routing.builder()
+                                     .register(JsonSupport.builder().bind(type -> true).build())
+                                     .get("/path", (req, res) -> res.send(file))
+                                     .get("/channel", (req, res) -> {
+                                         try {
+                                             res.send(FileChannel.open(file));
+                                         } catch (IOException e) {
+                                             req.next(e);
+                                         }
+                                     })
+                                     .build();
+            for (String path : Arrays.asList("/path", "/channel")) {
+                TestResponse response = TestClient.create(routing)
+                                                  .path(path)
+                                                  .header("Accept", "*/*")
+                                                  .get();
+
+                assertThat(response.status(), is(Http.Status.OK_200));
+                assertThat(response.asString().get(10, TimeUnit.SECONDS), is("file content"));
+                assertThat(response.headers().first(Http.Header.CONTENT_TYPE).orElse(null),
+                           not(MediaType.APPLICATION_JSON.toString()));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void pingPong() throws Exception {
+        Routing routing = Routing.builder()
+                                 .register(JsonSupport.builder().bind(Order.class).build())
+                                 .post("/foo", Handler.of(Order.class, (req, res, order) -> {
+                                     order.setId(order.getId() + 1);
+                                     res.send(order);
+                                 }))
+                                 .build();
+        TestResponse response = TestClient.create(routing)
+                                          .path("/foo")
+                                          .post(MediaPublisher.of(MediaType.APPLICATION_JSON.withCharset("UTF-8"),
+                                                                  ORDER_JSON));
+
+        assertThat(response.status(), is(Http.Status.OK_200));
+        assertThat(response.headers().first(Http.Header.CONTENT_TYPE).orElse(null),
+                   is(MediaType.APPLICATION_JSON.toString()));
+        byte[] bytes = response.asBytes().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        JsonObject json = Json.createReader(new ByteArrayInputStream(bytes)).readObject();
+        assertThat(json.getJsonNumber("id").longValue(), is(43L));
+    }
+
+    @Test
+    public void stringIsNotBound() throws Exception {
+        Routing routing = Routing.builder()
+                                 .register(JsonSupport.get())
+                                 .post("/foo", Handler.of(String.class, (req, res, s) -> res.send(s)))
+                                 .build();
+        TestResponse response = TestClient.create(routing)
+                                          .path("/foo")
+                                          .post(MediaPublisher.of(MediaType.TEXT_PLAIN, "plain"));
+
+        assertThat(response.asString().get(10, TimeUnit.SECONDS), is("plain"));
+    }
+
+    public enum State {
+        NEW, SHIPPED
+    }
+
+    public static class Customer {
+        public String name;
+        private boolean vip;
+
+        public boolean isVip() {
+            return vip;
+        }
+
+        public void setVip(boolean vip) {
+            this.vip = vip;
+        }
+    }
+
+    public static class Item {
+        private String name;
+        private int count;
+
+        public Item() {
+        }
+
+        Item(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    public static class Order {
+        public double price;
+        private long id;
+        private Customer customer;
+        private List<Item> items;
+        private String note;
+        private State state;
+        private Map<String, String> tags = new LinkedHashMap<>();
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(Customer customer) {
+            this.customer = customer;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+
+        public void setItems(List<Item> items) {
+            this.items = items;
+        }
+
+        public String getNote() {
+            return note;
+        }
+
+        public void setNote(String note) {
+            this.note = note;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public void setState(State state) {
+            this.state = state;
+        }
+
+        public Map<String, String> getTags() {
+            return tags;
+        }
+
+        public void setTags(Map<String, String> tags) {
+            this.tags = tags;
+        }
+    }
+
+    public static class Node {
+        private String value;
+        private List<Node> children = new ArrayList<>();
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        public void setChildren(List<Node> children) {
+            this.children = children;
+        }
+    }
+}
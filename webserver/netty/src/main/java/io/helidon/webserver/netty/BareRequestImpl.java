@@ -46,6 +46,7 @@ class BareRequestImpl implements BareRequest {
     private final ChannelHandlerContext ctx;
     private final SSLEngine sslEngine;
     private final long requestId;
+    private final long receivedNanos = System.nanoTime();
 
     BareRequestImpl(HttpRequest request,
                     Flow.Publisher<DataChunk> publisher,
@@ -134,4 +135,9 @@ class BareRequestImpl implements BareRequest {
     public long requestId() {
         return requestId;
     }
+
+    @Override
+    public long receivedNanos() {
+        return receivedNanos;
+    }
 }
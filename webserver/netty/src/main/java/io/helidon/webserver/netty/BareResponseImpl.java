@@ -33,6 +33,8 @@ import io.helidon.common.http.Http;
 import io.helidon.common.reactive.Flow;
 import io.helidon.webserver.ConnectionClosedException;
 import io.helidon.webserver.SocketClosedException;
+import io.helidon.webserver.WebSocket;
+import io.helidon.webserver.WebSocketSupport;
 import io.helidon.webserver.spi.BareResponse;
 
 import io.netty.buffer.Unpooled;
@@ -40,13 +42,21 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandler;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketServerHandshaker;
+import io.netty.handler.codec.http.websocketx.WebSocketServerHandshakerFactory;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandler;
 import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
@@ -70,6 +80,7 @@ class BareResponseImpl implements BareResponse {
     private final BooleanSupplier requestContentConsumed;
     private final Thread thread;
     private final long requestId;
+    private final HttpRequest request;
 
     private volatile Flow.Subscription subscription;
 
@@ -97,6 +108,7 @@ class BareResponseImpl implements BareResponse {
                 });
         this.ctx = ctx;
         this.requestId = requestId;
+        this.request = request;
         ctx.channel()
            .closeFuture()
            // to make this work, when programmatically closing the channel, the responseFuture must be closed beforehand!
@@ -113,9 +125,7 @@ class BareResponseImpl implements BareResponse {
         }
 
         DefaultHttpResponse response = new DefaultHttpResponse(HTTP_1_1, valueOf(status.code()));
-        for (Map.Entry<String, List<String>> headerEntry : headers.entrySet()) {
-            response.headers().add(headerEntry.getKey(), headerEntry.getValue());
-        }
+        PreEncodedHeaders.addAll(response.headers(), headers);
 
         if (keepAlive) {
             if (status.code() != Http.Status.NO_CONTENT_204.code()) {
@@ -335,6 +345,73 @@ class BareResponseImpl implements BareResponse {
         return headersFuture;
     }
 
+    @Override
+    public CompletionStage<WebSocket> upgradeToWebSocket(WebSocketSupport support) {
+        if (!statusHeadersSent.compareAndSet(false, true) || !internallyClosed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Response is already sent!");
+        }
+        CompletableFuture<WebSocket> result = new CompletableFuture<>();
+        if (ctx.executor().inEventLoop()) {
+            handshake(support, result);
+        } else {
+            ctx.executor().execute(() -> handshake(support, result));
+        }
+        return result;
+    }
+
+    private void handshake(WebSocketSupport support, CompletableFuture<WebSocket> result) {
+        ChannelPipeline pipeline = ctx.pipeline();
+        String subprotocols = support.subprotocols().isEmpty() ? null : String.join(",", support.subprotocols());
+        WebSocketServerHandshaker handshaker = new WebSocketServerHandshakerFactory(request.uri(),
+                                                                                    subprotocols,
+                                                                                    support.compression(),
+                                                                                    support.maxFrameSize())
+                .newHandshaker(request);
+        if (handshaker == null) {
+            WebSocketServerHandshakerFactory.sendUnsupportedVersionResponse(ctx.channel())
+                                            .addListener(ChannelFutureListener.CLOSE);
+            completeResponseFuture(null);
+            result.completeExceptionally(new IllegalStateException("Unsupported WebSocket version!"));
+            return;
+        }
+
+        NettyWebSocket webSocket = new NettyWebSocket();
+        pipeline.addBefore(ctx.name(), "wsaggregator", new WebSocketFrameAggregator(support.maxMessageSize()));
+        pipeline.replace(ctx.name(), "websocket", webSocket);
+        if (support.compression()) {
+            // negotiates permessage-deflate from the upgrade request, it removes itself once the response is written
+            WebSocketServerExtensionHandler extensions = new WebSocketServerExtensionHandler(DeflateExtensionHandshaker.INSTANCE);
+            pipeline.addBefore("wsaggregator", "wsextensions", extensions);
+            try {
+                extensions.channelRead(pipeline.context(extensions), request);
+            } catch (Exception e) {
+                completeResponseFuture(e);
+                result.completeExceptionally(e);
+                ctx.channel().close();
+                return;
+            }
+        }
+        FullHttpRequest handshakeRequest = new DefaultFullHttpRequest(request.protocolVersion(),
+                                                                      request.method(),
+                                                                      request.uri(),
+                                                                      Unpooled.EMPTY_BUFFER,
+                                                                      request.headers(),
+                                                                      EmptyHttpHeaders.INSTANCE);
+        handshaker.handshake(ctx.channel(), handshakeRequest, null, ctx.channel().newPromise())
+                  .addListener(future -> {
+                      if (future.isSuccess()) {
+                          LOGGER.finest(() -> log("WebSocket handshake completed."));
+                          completeResponseFuture(null);
+                          webSocket.start(handshaker.selectedSubprotocol());
+                          result.complete(webSocket);
+                      } else {
+                          completeResponseFuture(future.cause());
+                          result.completeExceptionally(future.cause());
+                          ctx.channel().close();
+                      }
+                  });
+    }
+
     @Override
     public long requestId() {
         return requestId;
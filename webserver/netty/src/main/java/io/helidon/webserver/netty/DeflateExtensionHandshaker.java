@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2017, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.netty;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandshaker;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
+
+/**
+ * Negotiates the {@code permessage-deflate} extension without context takeover of both the server and the client,
+ * even if the client doesn't offer it. A compression context is then held only while a message is compressed or
+ * decompressed, instead of hundreds of kilobytes for the whole life of the connection.
+ */
+final class DeflateExtensionHandshaker implements WebSocketServerExtensionHandshaker {
+
+    static final DeflateExtensionHandshaker INSTANCE = new DeflateExtensionHandshaker();
+
+    private static final String SERVER_NO_CONTEXT = "server_no_context_takeover";
+    private static final String CLIENT_NO_CONTEXT = "client_no_context_takeover";
+    private static final int COMPRESSION_LEVEL = 6;
+
+    private final PerMessageDeflateServerExtensionHandshaker delegate =
+            new PerMessageDeflateServerExtensionHandshaker(COMPRESSION_LEVEL,
+                                                           false,
+                                                           PerMessageDeflateServerExtensionHandshaker.MAX_WINDOW_SIZE,
+                                                           true,
+                                                           true);
+
+    private DeflateExtensionHandshaker() {
+    }
+
+    @Override
+    public WebSocketServerExtension handshakeExtension(WebSocketExtensionData extensionData) {
+        // the server may add both parameters to the response even if the client didn't request them
+        Map<String, String> parameters = new HashMap<>(extensionData.parameters());
+        parameters.put(SERVER_NO_CONTEXT, null);
+        parameters.put(CLIENT_NO_CONTEXT, null);
+        return delegate.handshakeExtension(new WebSocketExtensionData(extensionData.name(), parameters));
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.netty;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ConnectException;
+import java.net.SocketAddress;
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+
+/**
+ * The Linux epoll transport of Netty, which supports {@code SO_REUSEPORT} and Unix domain sockets. The
+ * {@code netty-transport-native-epoll} library is optional, so it is accessed reflectively.
+ */
+final class NativeTransport {
+
+    private static final Logger LOGGER = Logger.getLogger(NativeTransport.class.getName());
+
+    private static final String EPOLL_PACKAGE = "io.netty.channel.epoll.";
+    private static final String UNIX_PACKAGE = "io.netty.channel.unix.";
+    private static final NativeTransport INSTANCE = load();
+
+    private final Constructor<? extends EventLoopGroup> groupConstructor;
+    private final Class<? extends ServerChannel> serverChannelClass;
+    private final ChannelOption<Boolean> reusePort;
+    private final Class<? extends ServerChannel> domainServerChannelClass;
+    private final Constructor<? extends SocketAddress> domainAddressConstructor;
+    private final Class<?> socketClass;
+
+    private NativeTransport(Constructor<? extends EventLoopGroup> groupConstructor,
+                            Class<? extends ServerChannel> serverChannelClass,
+                            ChannelOption<Boolean> reusePort,
+                            Class<? extends ServerChannel> domainServerChannelClass,
+                            Constructor<? extends SocketAddress> domainAddressConstructor,
+                            Class<?> socketClass) {
+        this.groupConstructor = groupConstructor;
+        this.serverChannelClass = serverChannelClass;
+        this.reusePort = reusePort;
+        this.domainServerChannelClass = domainServerChannelClass;
+        this.domainAddressConstructor = domainAddressConstructor;
+        this.socketClass = socketClass;
+    }
+
+    /**
+     * Returns the native transport if it is available on this platform.
+     *
+     * @return the native transport or {@code null}
+     */
+    static NativeTransport get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates new event loop group.
+     *
+     * @param threads a number of threads or {@code 0} for the Netty default
+     * @return new event loop group
+     */
+    EventLoopGroup newEventLoopGroup(int threads) {
+        try {
+            return groupConstructor.newInstance(threads);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create epoll event loop group!", e);
+        }
+    }
+
+    /**
+     * Returns the server channel class.
+     *
+     * @return the server channel class
+     */
+    Class<? extends ServerChannel> serverChannelClass() {
+        return serverChannelClass;
+    }
+
+    /**
+     * Returns the {@code SO_REUSEPORT} channel option.
+     *
+     * @return the channel option
+     */
+    ChannelOption<Boolean> reusePort() {
+        return reusePort;
+    }
+
+    /**
+     * Returns the server channel class of Unix domain sockets.
+     *
+     * @return the domain socket server channel class
+     */
+    Class<? extends ServerChannel> domainServerChannelClass() {
+        return domainServerChannelClass;
+    }
+
+    /**
+     * Creates an address of a Unix domain socket.
+     *
+     * @param path a path of the socket file
+     * @return the socket address
+     */
+    SocketAddress domainSocketAddress(Path path) {
+        try {
+            return domainAddressConstructor.newInstance(path.toString());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create domain socket address!", e);
+        }
+    }
+
+    /**
+     * Tries to connect to a Unix domain socket to find out whether anybody listens on it.
+     *
+     * @param path a path of the socket file
+     * @return {@code true} if the connection was refused, so the socket file is left by a process which is gone
+     * @throws IOException if the connection attempt fails for another reason
+     */
+    boolean domainSocketRefused(Path path) throws IOException {
+        Object socket;
+        try {
+            socket = socketClass.getMethod("newSocketDomain").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create domain socket!", e);
+        }
+        try {
+            Method connect = socketClass.getMethod("connect", SocketAddress.class);
+            connect.invoke(socket, domainSocketAddress(path));
+            return false;
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ConnectException && String.valueOf(cause.getMessage()).endsWith("Connection refused")) {
+                return true;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException("Cannot connect to domain socket!", cause);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot connect to domain socket!", e);
+        } finally {
+            try {
+                socketClass.getMethod("close").invoke(socket);
+            } catch (ReflectiveOperationException e) {
+                LOGGER.log(Level.FINE, "Cannot close domain socket.", e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NativeTransport load() {
+        try {
+            Class<?> epoll = Class.forName(EPOLL_PACKAGE + "Epoll");
+            if (!(Boolean) epoll.getMethod("isAvailable").invoke(null)) {
+                LOGGER.fine("Epoll transport is not available on this platform.");
+                return null;
+            }
+            Class<? extends EventLoopGroup> groupClass =
+                    (Class<? extends EventLoopGroup>) Class.forName(EPOLL_PACKAGE + "EpollEventLoopGroup");
+            Class<? extends ServerChannel> channelClass =
+                    (Class<? extends ServerChannel>) Class.forName(EPOLL_PACKAGE + "EpollServerSocketChannel");
+            ChannelOption<Boolean> reusePort = (ChannelOption<Boolean>) Class.forName(EPOLL_PACKAGE + "EpollChannelOption")
+                                                                             .getField("SO_REUSEPORT")
+                                                                             .get(null);
+            Class<? extends ServerChannel> domainChannelClass =
+                    (Class<? extends ServerChannel>) Class.forName(EPOLL_PACKAGE + "EpollServerDomainSocketChannel");
+            Class<? extends SocketAddress> domainAddressClass =
+                    (Class<? extends SocketAddress>) Class.forName(UNIX_PACKAGE + "DomainSocketAddress");
+            return new NativeTransport(groupClass.getConstructor(int.class),
+                                       channelClass,
+                                       reusePort,
+                                       domainChannelClass,
+                                       domainAddressClass.getConstructor(String.class),
+                                       Class.forName(UNIX_PACKAGE + "Socket"));
+        } catch (ClassNotFoundException e) {
+            LOGGER.finest("Epoll transport is not on the class path.");
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            LOGGER.log(Level.FINE, "Epoll transport cannot be loaded.", e);
+            return null;
+        }
+    }
+}
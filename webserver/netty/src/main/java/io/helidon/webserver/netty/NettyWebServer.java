@@ -16,8 +16,14 @@
 
 package io.helidon.webserver.netty;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -48,8 +54,7 @@ import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
-import io.netty.handler.ssl.ClientAuth;
-import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.SslContext;
 import io.netty.util.concurrent.Future;
 
 /**
@@ -58,6 +63,9 @@ import io.netty.util.concurrent.Future;
 class NettyWebServer implements WebServer {
 
     private static final Logger LOGGER = Logger.getLogger(NettyWebServer.class.getName());
+    // file type bits of the unix:mode attribute
+    private static final int S_IFMT = 0170000;
+    private static final int S_IFSOCK = 0140000;
 
     private final EventLoopGroup bossGroup;
     private final EventLoopGroup workerGroup;
@@ -71,6 +79,8 @@ class NettyWebServer implements WebServer {
     private final ContextualRegistry contextualRegistry = ContextualRegistry.create();
     private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
     private final List<HttpInitializer> initializers = new LinkedList<>();
+    private final List<EventLoopGroup> socketGroups = new LinkedList<>();
+    private final Map<String, Integer> acceptors = new HashMap<>();
 
     private volatile boolean started;
     private final AtomicBoolean shutdownThreadGroupsInitiated = new AtomicBoolean(false);
@@ -79,9 +89,18 @@ class NettyWebServer implements WebServer {
                    Routing routing,
                    Map<String, Routing> namedRoutings) {
         Set<Map.Entry<String, SocketConfiguration>> sockets = config.sockets().entrySet();
+        NativeTransport nativeTransport = NativeTransport.get();
+        for (Map.Entry<String, SocketConfiguration> entry : sockets) {
+            if (entry.getValue().domainSocket() != null && nativeTransport == null) {
+                throw new IllegalStateException("Socket '" + entry.getKey() + "' listens on a Unix domain socket, which "
+                                                        + "requires the native epoll transport (netty-transport-native-epoll).");
+            }
+        }
 
         this.bossGroup = new NioEventLoopGroup(sockets.size());
         this.workerGroup = config.workersCount() <= 0 ? new NioEventLoopGroup() : new NioEventLoopGroup(config.workersCount());
+        // allows clients to share the worker threads of the server
+        this.contextualRegistry.register(workerGroup);
 
         this.configuration = config;
 
@@ -90,12 +109,7 @@ class NettyWebServer implements WebServer {
             SocketConfiguration soConfig = entry.getValue();
             ServerBootstrap bootstrap = new ServerBootstrap();
             // Transform java SSLContext into Netty SslContext
-            JdkSslContext sslContext = null;
-            if (soConfig.ssl() != null) {
-                // TODO configuration support for CLIENT AUTH (btw, ClientAuth.REQUIRE doesn't seem to work with curl nor with
-                // Chrome)
-                sslContext = new JdkSslContext(soConfig.ssl(), false, ClientAuth.NONE);
-            }
+            SslContext sslContext = SslContextFactory.create(soConfig);
 
             if (soConfig.backlog() > 0) {
                 bootstrap.option(ChannelOption.SO_BACKLOG, soConfig.backlog());
@@ -109,10 +123,43 @@ class NettyWebServer implements WebServer {
 
             HttpInitializer childHandler = new HttpInitializer(sslContext, namedRoutings.getOrDefault(name, routing), this);
             initializers.add(childHandler);
-            bootstrap.group(bossGroup, workerGroup)
-                     .channel(NioServerSocketChannel.class)
-                     .handler(new LoggingHandler(LogLevel.DEBUG))
+            int socketAcceptors = soConfig.domainSocket() != null ? 1 : soConfig.acceptors();
+            if (socketAcceptors > 1 && nativeTransport == null) {
+                LOGGER.warning(() -> "Socket '" + name + "' uses a single acceptor, multiple acceptors require "
+                        + "SO_REUSEPORT of the native epoll transport.");
+                socketAcceptors = 1;
+            }
+            if (soConfig.domainSocket() != null) {
+                // channels of the native transport need own event loops
+                EventLoopGroup socketBossGroup = nativeTransport.newEventLoopGroup(1);
+                EventLoopGroup socketWorkerGroup = nativeTransport.newEventLoopGroup(
+                        soConfig.dedicatedWorkersCount() > 0 ? soConfig.dedicatedWorkersCount() : config.workersCount());
+                socketGroups.add(socketBossGroup);
+                socketGroups.add(socketWorkerGroup);
+                bootstrap.group(socketBossGroup, socketWorkerGroup)
+                         .channel(nativeTransport.domainServerChannelClass());
+            } else if (socketAcceptors > 1) {
+                // channels of the native transport need own event loops
+                EventLoopGroup socketBossGroup = nativeTransport.newEventLoopGroup(socketAcceptors);
+                EventLoopGroup socketWorkerGroup = nativeTransport.newEventLoopGroup(
+                        soConfig.dedicatedWorkersCount() > 0 ? soConfig.dedicatedWorkersCount() : config.workersCount());
+                socketGroups.add(socketBossGroup);
+                socketGroups.add(socketWorkerGroup);
+                bootstrap.group(socketBossGroup, socketWorkerGroup)
+                         .channel(nativeTransport.serverChannelClass())
+                         .option(nativeTransport.reusePort(), true);
+            } else if (soConfig.dedicatedWorkersCount() > 0) {
+                EventLoopGroup socketWorkerGroup = new NioEventLoopGroup(soConfig.dedicatedWorkersCount());
+                socketGroups.add(socketWorkerGroup);
+                bootstrap.group(bossGroup, socketWorkerGroup)
+                         .channel(NioServerSocketChannel.class);
+            } else {
+                bootstrap.group(bossGroup, workerGroup)
+                         .channel(NioServerSocketChannel.class);
+            }
+            bootstrap.handler(new LoggingHandler(LogLevel.DEBUG))
                      .childHandler(childHandler);
+            acceptors.put(name, socketAcceptors);
 
             bootstraps.put(name, bootstrap);
         }
@@ -142,6 +189,7 @@ class NettyWebServer implements WebServer {
 
             Set<Map.Entry<String, ServerBootstrap>> bootstrapEntries = bootstraps.entrySet();
             int bootstrapsSize = bootstrapEntries.size();
+            int channelsCount = acceptors.values().stream().mapToInt(Integer::intValue).sum();
             for (Map.Entry<String, ServerBootstrap> entry : bootstrapEntries) {
                 ServerBootstrap bootstrap = entry.getValue();
                 String name = entry.getKey();
@@ -157,52 +205,7 @@ class NettyWebServer implements WebServer {
                 }
 
                 try {
-                    bootstrap.bind(configuration.bindAddress(), port).addListener(channelFuture -> {
-                        if (!channelFuture.isSuccess()) {
-                            LOGGER.info(() -> "Channel '" + name + "' startup failed with message '"
-                                    + channelFuture.cause().getMessage() + "'.");
-                            channelsUpFuture.completeExceptionally(new IllegalStateException("Channel startup failed: " + name,
-                                                                                             channelFuture.cause()));
-                            return;
-                        }
-
-                        Channel channel = ((ChannelFuture) channelFuture).channel();
-                        LOGGER.info(() -> "Channel '" + name + "' started: " + channel);
-                        channels.put(name, channel);
-
-                        channel.closeFuture().addListener(future -> {
-                            LOGGER.info(() -> "Channel '" + name + "' closed: " + channel);
-                            channels.remove(name);
-                            if (channelsUpFuture.isCompletedExceptionally()) {
-                                // we're in a startup failure handler
-                                if (channels.isEmpty()) {
-                                    channelsUpFuture.exceptionally(this::startFailureHandler);
-                                    // all the channels are down
-                                } else if (future.cause() != null) {
-                                    LOGGER.log(Level.WARNING,
-                                               "Startup failure channel close failure",
-                                               new IllegalStateException(future.cause()));
-                                }
-                            } else {
-                                if (!future.isSuccess()) {
-                                    channelsCloseFuture.completeExceptionally(new IllegalStateException("Channel stop failure.",
-                                                                                                        future.cause()));
-                                } else if (channels.isEmpty()) {
-                                    channelsCloseFuture.complete(this);
-                                }
-                                // else we're waiting for the rest of the channels to start, successful branch
-                            }
-                        });
-
-                        if (channelsUpFuture.isCompletedExceptionally()) {
-                            channel.close();
-                        }
-
-                        if (channels.size() >= bootstrapsSize) {
-                            LOGGER.finer(() -> "All channels started: " + channels.size());
-                            channelsUpFuture.complete(this);
-                        }
-                    });
+                    bind(bootstrap, name, 0, port, channelsCount);
                 } catch (RejectedExecutionException e) {
                     if (shutdownThreadGroupsInitiated.get()) {
                         // a rejected exception is expected and we shall stop starting the rest of the sockets
@@ -219,6 +222,131 @@ class NettyWebServer implements WebServer {
         return startFuture;
     }
 
+    /**
+     * Binds a channel of the socket. Once the first channel is bound, additional acceptor channels are bound
+     * to the same port.
+     *
+     * @param bootstrap     the socket bootstrap
+     * @param name          the socket name
+     * @param acceptor      the index of the acceptor channel
+     * @param port          the port to bind
+     * @param channelsCount the number of channels of all sockets
+     */
+    private void bind(ServerBootstrap bootstrap, String name, int acceptor, int port, int channelsCount) {
+        String channelName = acceptor == 0 ? name : name + "#" + acceptor;
+        Path domainSocket = configuration.socket(name).domainSocket();
+        ChannelFuture bindFuture;
+        if (domainSocket == null) {
+            bindFuture = bootstrap.bind(configuration.bindAddress(), port);
+        } else {
+            try {
+                deleteStaleDomainSocket(domainSocket);
+            } catch (IOException e) {
+                channelsUpFuture.completeExceptionally(new IllegalStateException("Channel startup failed: " + channelName, e));
+                return;
+            }
+            bindFuture = bootstrap.bind(NativeTransport.get().domainSocketAddress(domainSocket));
+        }
+        bindFuture.addListener(channelFuture -> {
+            if (!channelFuture.isSuccess()) {
+                LOGGER.info(() -> "Channel '" + channelName + "' startup failed with message '"
+                        + channelFuture.cause().getMessage() + "'.");
+                channelsUpFuture.completeExceptionally(new IllegalStateException("Channel startup failed: " + channelName,
+                                                                                 channelFuture.cause()));
+                return;
+            }
+
+            Channel channel = ((ChannelFuture) channelFuture).channel();
+            LOGGER.info(() -> "Channel '" + channelName + "' started: " + channel);
+            channels.put(channelName, channel);
+
+            channel.closeFuture().addListener(future -> {
+                LOGGER.info(() -> "Channel '" + channelName + "' closed: " + channel);
+                if (domainSocket != null) {
+                    deleteDomainSocket(domainSocket);
+                }
+                channels.remove(channelName);
+                if (channelsUpFuture.isCompletedExceptionally()) {
+                    // we're in a startup failure handler
+                    if (channels.isEmpty()) {
+                        channelsUpFuture.exceptionally(this::startFailureHandler);
+                        // all the channels are down
+                    } else if (future.cause() != null) {
+                        LOGGER.log(Level.WARNING,
+                                   "Startup failure channel close failure",
+                                   new IllegalStateException(future.cause()));
+                    }
+                } else {
+                    if (!future.isSuccess()) {
+                        channelsCloseFuture.completeExceptionally(new IllegalStateException("Channel stop failure.",
+                                                                                            future.cause()));
+                    } else if (channels.isEmpty()) {
+                        channelsCloseFuture.complete(this);
+                    }
+                    // else we're waiting for the rest of the channels to start, successful branch
+                }
+            });
+
+            if (channelsUpFuture.isCompletedExceptionally()) {
+                channel.close();
+                return;
+            }
+
+            if (acceptor == 0 && acceptors.get(name) > 1) {
+                // the additional acceptors share the port of the first one, which may be ephemeral
+                int boundPort = ((InetSocketAddress) channel.localAddress()).getPort();
+                for (int i = 1; i < acceptors.get(name); i++) {
+                    bind(bootstrap, name, i, boundPort, channelsCount);
+                }
+            }
+
+            if (channels.size() >= channelsCount) {
+                LOGGER.finer(() -> "All channels started: " + channels.size());
+                channelsUpFuture.complete(this);
+            }
+        });
+    }
+
+    /**
+     * Deletes a socket file left by a previous process, which would fail the bind. Any other file and a socket another
+     * process listens on are kept and fail the startup.
+     *
+     * @param domainSocket a path of the domain socket
+     * @throws IOException if the path cannot be used for the domain socket
+     */
+    private static void deleteStaleDomainSocket(Path domainSocket) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(domainSocket, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (!isSocket(domainSocket, attributes)) {
+            throw new IOException("The domain socket path exists and it is not a socket: " + domainSocket);
+        }
+        if (!NativeTransport.get().domainSocketRefused(domainSocket)) {
+            throw new IOException("The domain socket is used by another process: " + domainSocket);
+        }
+        Files.delete(domainSocket);
+    }
+
+    private static boolean isSocket(Path path, BasicFileAttributes attributes) throws IOException {
+        try {
+            int mode = (Integer) Files.getAttribute(path, "unix:mode", LinkOption.NOFOLLOW_LINKS);
+            return (mode & S_IFMT) == S_IFSOCK;
+        } catch (UnsupportedOperationException e) {
+            return attributes.isOther();
+        }
+    }
+
+    private static void deleteDomainSocket(Path domainSocket) {
+        try {
+            Files.deleteIfExists(domainSocket);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Cannot delete the domain socket file: " + domainSocket, e);
+        }
+    }
+
     private WebServer startFailureHandler(Throwable throwable) {
         shutdownThreadGroups()
                 .whenComplete((webServer, t) -> {
@@ -260,18 +388,37 @@ class NettyWebServer implements WebServer {
         // there's no need for a quiet time as the channel is not expected to be used from now on
         Future<?> bossGroupFuture = bossGroup.shutdownGracefully(0, 10, TimeUnit.SECONDS);
         Future<?> workerGroupFuture = workerGroup.shutdownGracefully(0, 10, TimeUnit.SECONDS);
+        CompletableFuture<?> socketGroupsFuture = CompletableFuture.allOf(
+                socketGroups.stream()
+                            .map(group -> {
+                                CompletableFuture<Void> groupFuture = new CompletableFuture<>();
+                                group.shutdownGracefully(0, 10, TimeUnit.SECONDS).addListener(future -> {
+                                    if (future.isSuccess()) {
+                                        groupFuture.complete(null);
+                                    } else {
+                                        groupFuture.completeExceptionally(future.cause());
+                                    }
+                                });
+                                return groupFuture;
+                            })
+                            .toArray(CompletableFuture[]::new));
 
         workerGroupFuture.addListener(workerFuture -> {
             bossGroupFuture.addListener(bossFuture -> {
-                if (workerFuture.isSuccess() && bossFuture.isSuccess()) {
-                    threadGroupsShutdownFuture.complete(this);
-                } else {
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(workerFuture.cause() != null ? "Worker Group problem: " + workerFuture.cause().getMessage() : "")
-                      .append(bossFuture.cause() != null ? "Boss Group problem: " + bossFuture.cause().getMessage() : "");
-                    threadGroupsShutdownFuture
-                            .completeExceptionally(new IllegalStateException("Unable to shutdown Netty thread groups: " + sb));
-                }
+                socketGroupsFuture.whenComplete((result, socketGroupsCause) -> {
+                    if (workerFuture.isSuccess() && bossFuture.isSuccess() && socketGroupsCause == null) {
+                        threadGroupsShutdownFuture.complete(this);
+                    } else {
+                        StringBuilder sb = new StringBuilder();
+                        sb.append(workerFuture.cause() != null
+                                          ? "Worker Group problem: " + workerFuture.cause().getMessage()
+                                          : "")
+                          .append(bossFuture.cause() != null ? "Boss Group problem: " + bossFuture.cause().getMessage() : "")
+                          .append(socketGroupsCause != null ? "Socket Group problem: " + socketGroupsCause.getMessage() : "");
+                        threadGroupsShutdownFuture.completeExceptionally(
+                                new IllegalStateException("Unable to shutdown Netty thread groups: " + sb));
+                    }
+                });
             });
         });
         return threadGroupsShutdownFuture;
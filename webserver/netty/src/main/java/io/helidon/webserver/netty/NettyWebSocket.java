@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.netty;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.reactive.Flow;
+import io.helidon.webserver.SocketClosedException;
+import io.helidon.webserver.WebSocket;
+import io.helidon.webserver.WebSocketMessage;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * Netty implementation of the {@link WebSocket}. It replaces the {@link ForwardingHandler} in the pipeline of
+ * the upgraded connection.
+ * <p>
+ * All state is confined to the event loop of the channel. The channel is read only if no received message waits
+ * for a demand, so an idle connection holds no buffers.
+ */
+class NettyWebSocket extends ChannelInboundHandlerAdapter implements WebSocket {
+
+    private static final Logger LOGGER = Logger.getLogger(NettyWebSocket.class.getName());
+
+    private static final int MESSAGE_TOO_BIG = 1009;
+    private static final int PROTOCOL_ERROR = 1002;
+    private static final int INTERNAL_ERROR = 1011;
+
+    private final CompletableFuture<WebSocket> closeFuture = new CompletableFuture<>();
+    private final Inbound inbound = new Inbound();
+    private final List<Outbound> waitingForWritability = new ArrayList<>();
+
+    private volatile ChannelHandlerContext ctx;
+    private volatile String subprotocol;
+    private boolean closeSent;
+    private boolean closed;
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+        ctx.channel().config().setAutoRead(false);
+    }
+
+    /**
+     * Starts reading the connection, called once the handshake response is sent.
+     *
+     * @param subprotocol the negotiated subprotocol or {@code null}
+     */
+    void start(String subprotocol) {
+        this.subprotocol = subprotocol;
+        inbound.readIfNeeded();
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        try {
+            if (msg instanceof TextWebSocketFrame) {
+                inbound.received(WebSocketMessage.text(((TextWebSocketFrame) msg).text()));
+            } else if (msg instanceof BinaryWebSocketFrame) {
+                ByteBuf content = ((BinaryWebSocketFrame) msg).content();
+                byte[] bytes = new byte[content.readableBytes()];
+                content.readBytes(bytes);
+                inbound.received(WebSocketMessage.binary(bytes));
+            } else if (msg instanceof PingWebSocketFrame) {
+                ctx.writeAndFlush(new PongWebSocketFrame(((PingWebSocketFrame) msg).content().retain()));
+            } else if (msg instanceof CloseWebSocketFrame) {
+                CloseWebSocketFrame frame = (CloseWebSocketFrame) msg;
+                // echo the status code and close
+                sendClose(frame.statusCode() < 0 ? NORMAL_CLOSURE : frame.statusCode(), null);
+            } else if (!(msg instanceof HttpObject || msg instanceof WebSocketFrame)) {
+                LOGGER.fine(() -> "Unexpected message on WebSocket connection: " + msg.getClass());
+            }
+            // pong frames and the rest of the handshake request are ignored
+        } finally {
+            ReferenceCountUtil.release(msg);
+        }
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) {
+        inbound.reading = false;
+        inbound.readIfNeeded();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable() && !waitingForWritability.isEmpty()) {
+            List<Outbound> writable = new ArrayList<>(waitingForWritability);
+            waitingForWritability.clear();
+            writable.forEach(Outbound::requestNext);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        closed = true;
+        inbound.closed(null);
+        List<Outbound> waiting = new ArrayList<>(waitingForWritability);
+        waitingForWritability.clear();
+        waiting.forEach(outbound -> outbound.fail(new SocketClosedException("WebSocket is closed!")));
+        closeFuture.complete(this);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        LOGGER.log(Level.FINE, "WebSocket connection failed.", cause);
+        int statusCode = INTERNAL_ERROR;
+        if (cause instanceof TooLongFrameException) {
+            statusCode = MESSAGE_TOO_BIG;
+        } else if (cause instanceof CorruptedFrameException) {
+            statusCode = PROTOCOL_ERROR;
+        }
+        inbound.closed(cause);
+        sendClose(statusCode, null);
+    }
+
+    @Override
+    public Flow.Publisher<WebSocketMessage> receive() {
+        return inbound;
+    }
+
+    @Override
+    public CompletionStage<WebSocket> send(Flow.Publisher<WebSocketMessage> messages) {
+        Outbound outbound = new Outbound();
+        messages.subscribe(outbound);
+        return outbound.future;
+    }
+
+    @Override
+    public void close(int statusCode, String reason) {
+        execute(() -> sendClose(statusCode, reason));
+    }
+
+    @Override
+    public CompletionStage<WebSocket> whenClosed() {
+        return closeFuture;
+    }
+
+    @Override
+    public Optional<String> subprotocol() {
+        return Optional.ofNullable(subprotocol);
+    }
+
+    private void sendClose(int statusCode, String reason) {
+        if (closeSent) {
+            return;
+        }
+        closeSent = true;
+        ctx.writeAndFlush(new CloseWebSocketFrame(statusCode, reason)).addListener(ChannelFutureListener.CLOSE);
+    }
+
+    private void execute(Runnable runnable) {
+        if (ctx.executor().inEventLoop()) {
+            runnable.run();
+        } else {
+            ctx.executor().execute(runnable);
+        }
+    }
+
+    /**
+     * Publishes received messages. At most one message waits for a demand.
+     */
+    private final class Inbound implements Flow.Publisher<WebSocketMessage> {
+
+        private final Deque<WebSocketMessage> received = new ArrayDeque<>(1);
+        private Flow.Subscriber<? super WebSocketMessage> subscriber;
+        private long requested;
+        private boolean reading;
+        private boolean done;
+        private Throwable error;
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super WebSocketMessage> subscriberParam) {
+            execute(() -> {
+                if (subscriber != null) {
+                    subscriberParam.onSubscribe(new Flow.Subscription() {
+                        @Override
+                        public void request(long n) {
+                        }
+
+                        @Override
+                        public void cancel() {
+                        }
+                    });
+                    subscriberParam.onError(new IllegalStateException("Only single subscriber is allowed!"));
+                    return;
+                }
+                subscriber = subscriberParam;
+                subscriberParam.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                        execute(() -> {
+                            if (n <= 0) {
+                                closed(new IllegalArgumentException("Requested number must be positive: " + n));
+                            } else {
+                                requested = (requested + n < 0) ? Long.MAX_VALUE : requested + n;
+                            }
+                            deliver();
+                        });
+                    }
+
+                    @Override
+                    public void cancel() {
+                        execute(() -> {
+                            // messages are read and dropped to keep the connection alive
+                            subscriber = CanceledSubscriber.INSTANCE;
+                            received.clear();
+                            readIfNeeded();
+                        });
+                    }
+                });
+                deliver();
+            });
+        }
+
+        private void received(WebSocketMessage message) {
+            received.addLast(message);
+            deliver();
+        }
+
+        private void closed(Throwable throwable) {
+            if (!done) {
+                done = true;
+                error = throwable;
+            }
+            deliver();
+        }
+
+        private void deliver() {
+            if (subscriber == null) {
+                return;
+            }
+            if (subscriber == CanceledSubscriber.INSTANCE) {
+                received.clear();
+            }
+            while (requested > 0 && !received.isEmpty()) {
+                requested--;
+                subscriber.onNext(received.pollFirst());
+            }
+            if (done && received.isEmpty()) {
+                Flow.Subscriber<? super WebSocketMessage> s = subscriber;
+                subscriber = CanceledSubscriber.INSTANCE;
+                if (error == null) {
+                    s.onComplete();
+                } else {
+                    s.onError(error);
+                }
+                return;
+            }
+            readIfNeeded();
+        }
+
+        private void readIfNeeded() {
+            if (received.isEmpty() && !done && !closed && !reading && ctx != null) {
+                reading = true;
+                ctx.read();
+            }
+        }
+    }
+
+    /**
+     * Writes published messages while the channel is writable.
+     */
+    private final class Outbound implements Flow.Subscriber<WebSocketMessage> {
+
+        private final CompletableFuture<WebSocket> future = new CompletableFuture<>();
+        private volatile Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            execute(this::requestNext);
+        }
+
+        @Override
+        public void onNext(WebSocketMessage item) {
+            execute(() -> {
+                if (closed || closeSent) {
+                    subscription.cancel();
+                    fail(new SocketClosedException("WebSocket is closed!"));
+                    return;
+                }
+                WebSocketFrame frame;
+                if (item.isText()) {
+                    frame = new TextWebSocketFrame(item.text());
+                } else {
+                    ByteBuffer data = item.data();
+                    frame = new BinaryWebSocketFrame(Unpooled.wrappedBuffer(data));
+                }
+                ctx.writeAndFlush(frame).addListener(f -> {
+                    if (!f.isSuccess()) {
+                        subscription.cancel();
+                        fail(f.cause());
+                    }
+                });
+                requestNext();
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            future.complete(NettyWebSocket.this);
+        }
+
+        private void requestNext() {
+            if (future.isDone()) {
+                return;
+            }
+            if (closed) {
+                subscription.cancel();
+                fail(new SocketClosedException("WebSocket is closed!"));
+            } else if (ctx.channel().isWritable()) {
+                subscription.request(1);
+            } else {
+                waitingForWritability.add(this);
+            }
+        }
+
+        private void fail(Throwable throwable) {
+            future.completeExceptionally(throwable);
+        }
+    }
+
+    /**
+     * A placeholder of a canceled or completed inbound subscriber.
+     */
+    private static final class CanceledSubscriber implements Flow.Subscriber<WebSocketMessage> {
+
+        private static final CanceledSubscriber INSTANCE = new CanceledSubscriber();
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+        }
+
+        @Override
+        public void onNext(WebSocketMessage item) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.netty;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.util.AsciiString;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * Pre-encoded response header names and common values. Netty copies an {@link AsciiString} to the wire as is,
+ * while a {@link String} is encoded character by character for every response.
+ * <p>
+ * Names are registered for all {@link Http.Header} constants with their original case. The {@code Date} value
+ * changes once a second and the webserver shares the same {@link String} instance within the second, so it is
+ * encoded once per second and thread (once per event loop for responses written by the event loop).
+ */
+final class PreEncodedHeaders {
+
+    private static final Map<String, AsciiString> NAMES = names();
+    private static final Map<String, AsciiString> VALUES = values(MediaType.APPLICATION_JSON.toString(),
+                                                                  MediaType.APPLICATION_OCTET_STREAM.toString(),
+                                                                  MediaType.TEXT_PLAIN.toString(),
+                                                                  MediaType.TEXT_PLAIN.withCharset("UTF-8").toString(),
+                                                                  MediaType.TEXT_HTML.toString(),
+                                                                  MediaType.TEXT_HTML.withCharset("UTF-8").toString(),
+                                                                  MediaType.APPLICATION_JSON.withCharset("UTF-8").toString(),
+                                                                  "chunked",
+                                                                  "keep-alive",
+                                                                  "close",
+                                                                  "gzip",
+                                                                  "deflate",
+                                                                  "bytes",
+                                                                  "no-cache",
+                                                                  "no-store",
+                                                                  "Accept-Encoding",
+                                                                  "0");
+    private static final AsciiString DATE = NAMES.get(Http.Header.DATE);
+    private static final FastThreadLocal<CachedValue> CACHED_DATE = new FastThreadLocal<CachedValue>() {
+        @Override
+        protected CachedValue initialValue() {
+            return new CachedValue();
+        }
+    };
+
+    private PreEncodedHeaders() {
+    }
+
+    /**
+     * Adds all headers to the Netty headers using pre-encoded names and values where possible.
+     *
+     * @param target  Netty headers
+     * @param headers headers to add
+     */
+    static void addAll(HttpHeaders target, Map<String, List<String>> headers) {
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            CharSequence name = name(entry.getKey());
+            List<String> values = entry.getValue();
+            if (values.size() == 1) {
+                target.add(name, value(name, values.get(0)));
+            } else {
+                target.add(name, values);
+            }
+        }
+    }
+
+    /**
+     * Returns the pre-encoded name of the header or the name itself.
+     *
+     * @param name a header name
+     * @return an encoded name
+     */
+    static CharSequence name(String name) {
+        AsciiString encoded = NAMES.get(name);
+        return encoded == null ? name : encoded;
+    }
+
+    /**
+     * Returns the pre-encoded value of the header or the value itself.
+     *
+     * @param name  a header name returned by {@link #name(String)}
+     * @param value a header value
+     * @return an encoded value
+     */
+    static CharSequence value(CharSequence name, String value) {
+        if (name == DATE) {
+            CachedValue cached = CACHED_DATE.get();
+            if (cached.source != value) {
+                cached.source = value;
+                cached.encoded = new AsciiString(value);
+            }
+            return cached.encoded;
+        }
+        AsciiString encoded = VALUES.get(value);
+        return encoded == null ? value : encoded;
+    }
+
+    private static Map<String, AsciiString> names() {
+        Map<String, AsciiString> result = new HashMap<>();
+        for (Field field : Http.Header.class.getFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers) && field.getType() == String.class) {
+                try {
+                    String name = (String) field.get(null);
+                    result.put(name, AsciiString.cached(name));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Cannot read header name: " + field.getName(), e);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, AsciiString> values(String... values) {
+        Map<String, AsciiString> result = new HashMap<>();
+        for (String value : values) {
+            result.put(value, AsciiString.cached(value));
+        }
+        return result;
+    }
+
+    private static final class CachedValue {
+        private String source;
+        private AsciiString encoded;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.netty;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSessionContext;
+
+import io.helidon.webserver.SocketConfiguration;
+import io.helidon.webserver.SslConfiguration;
+
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.DelegatingSslContext;
+import io.netty.handler.ssl.IdentityCipherSuiteFilter;
+import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.OpenSslSessionTicketKey;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslProvider;
+
+/**
+ * Creates Netty {@link SslContext} of a server socket according to its {@link SslConfiguration}.
+ */
+final class SslContextFactory {
+
+    private static final Logger LOGGER = Logger.getLogger(SslContextFactory.class.getName());
+
+    private SslContextFactory() {
+    }
+
+    /**
+     * Creates the SSL context of the socket.
+     *
+     * @param soConfig a socket configuration
+     * @return the SSL context or {@code null} if the socket does not use SSL
+     * @throws IllegalStateException if the context cannot be created
+     */
+    static SslContext create(SocketConfiguration soConfig) {
+        if (soConfig.ssl() == null) {
+            return null;
+        }
+        SslConfiguration config = soConfig.sslConfiguration();
+        if (config.provider() == SslConfiguration.Provider.OPENSSL) {
+            if (!OpenSsl.isAvailable()) {
+                LOGGER.log(Level.WARNING, "OpenSSL is not available, falling back to the JDK SSL engine.",
+                           OpenSsl.unavailabilityCause());
+            } else if (config.keyManagerFactory() == null) {
+                LOGGER.warning("OpenSSL requires a key manager factory, falling back to the JDK SSL engine.");
+            } else {
+                return openSsl(config);
+            }
+        }
+        return jdk(soConfig, config);
+    }
+
+    private static SslContext jdk(SocketConfiguration soConfig, SslConfiguration config) {
+        JdkSslContext context = new JdkSslContext(soConfig.ssl(),
+                                                  false,
+                                                  config.cipherSuites().isEmpty() ? null : config.cipherSuites(),
+                                                  IdentityCipherSuiteFilter.INSTANCE,
+                                                  null,
+                                                  clientAuth(config));
+        configureSessions(context.sessionContext(), config);
+        if (!config.sessionTicketKeys().isEmpty()) {
+            LOGGER.fine("Session ticket keys are not supported by the JDK SSL engine.");
+        }
+        List<String> protocols = config.protocols();
+        if (protocols.isEmpty()) {
+            return context;
+        }
+        String[] enabledProtocols = protocols.toArray(new String[0]);
+        return new DelegatingSslContext(context) {
+            @Override
+            protected void initEngine(SSLEngine engine) {
+                engine.setEnabledProtocols(enabledProtocols);
+            }
+        };
+    }
+
+    private static SslContext openSsl(SslConfiguration config) {
+        SslContextBuilder builder = SslContextBuilder.forServer(config.keyManagerFactory())
+                                                     .sslProvider(SslProvider.OPENSSL)
+                                                     .clientAuth(clientAuth(config))
+                                                     .sessionCacheSize(config.sessionCacheSize())
+                                                     .sessionTimeout(config.sessionTimeoutSeconds());
+        if (config.trustManagerFactory() != null) {
+            builder.trustManager(config.trustManagerFactory());
+        }
+        if (!config.cipherSuites().isEmpty()) {
+            builder.ciphers(config.cipherSuites());
+        }
+        if (!config.protocols().isEmpty()) {
+            builder.protocols(config.protocols().toArray(new String[0]));
+        }
+        try {
+            SslContext context = builder.build();
+            if (!config.sessionTicketKeys().isEmpty()) {
+                ((OpenSslSessionContext) context.sessionContext()).setTicketKeys(ticketKeys(config.sessionTicketKeys()));
+            }
+            LOGGER.fine(() -> "Using OpenSSL engine: " + OpenSsl.versionString());
+            return context;
+        } catch (SSLException e) {
+            throw new IllegalStateException("Cannot create OpenSSL context!", e);
+        }
+    }
+
+    private static OpenSslSessionTicketKey[] ticketKeys(List<byte[]> keys) {
+        OpenSslSessionTicketKey[] result = new OpenSslSessionTicketKey[keys.size()];
+        for (int i = 0; i < result.length; i++) {
+            byte[] key = keys.get(i);
+            int hmacStart = OpenSslSessionTicketKey.NAME_SIZE;
+            int aesStart = hmacStart + OpenSslSessionTicketKey.HMAC_KEY_SIZE;
+            result[i] = new OpenSslSessionTicketKey(Arrays.copyOfRange(key, 0, hmacStart),
+                                                    Arrays.copyOfRange(key, hmacStart, aesStart),
+                                                    Arrays.copyOfRange(key, aesStart, key.length));
+        }
+        return result;
+    }
+
+    private static void configureSessions(SSLSessionContext sessionContext, SslConfiguration config) {
+        if (config.sessionCacheSize() > 0) {
+            sessionContext.setSessionCacheSize(config.sessionCacheSize());
+        }
+        if (config.sessionTimeoutSeconds() > 0) {
+            sessionContext.setSessionTimeout(config.sessionTimeoutSeconds());
+        }
+    }
+
+    private static ClientAuth clientAuth(SslConfiguration config) {
+        switch (config.clientAuth()) {
+        case OPTIONAL:
+            return ClientAuth.OPTIONAL;
+        case REQUIRE:
+            return ClientAuth.REQUIRE;
+        default:
+            return ClientAuth.NONE;
+        }
+    }
+}
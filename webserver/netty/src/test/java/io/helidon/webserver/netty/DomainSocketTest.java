@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.netty;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.ServerConfiguration;
+import io.helidon.webserver.SocketConfiguration;
+import io.helidon.webserver.WebServer;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests sockets listening on a Unix domain socket. Requires the native epoll transport, without it only the failure
+ * is tested.
+ */
+public class DomainSocketTest {
+
+    private static final int REQUESTS = 2000;
+
+    @Test
+    public void requiresNativeTransport() throws Exception {
+        assumeTrue(NativeTransport.get() == null, "The native transport is available");
+
+        Path path = Files.createTempDirectory("helidon").resolve("sidecar.sock");
+        assertThrows(IllegalStateException.class, () -> createServer(path));
+    }
+
+    @Test
+    public void lifecycle() throws Exception {
+        assumeTrue(NativeTransport.get() != null, "The native transport is not available");
+
+        Path path = Files.createTempDirectory("helidon").resolve("sidecar.sock");
+        createStaleSocket(path);
+        WebServer server = createServer(path).start().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        try {
+            assertThat(Files.exists(path), is(true));
+            assertThat(server.port("sidecar"), is(-1));
+
+            EventLoopGroup group = NativeTransport.get().newEventLoopGroup(1);
+            try {
+                HttpConnection connection = new HttpConnection(group,
+                                                               domainSocketChannelClass(),
+                                                               NativeTransport.get().domainSocketAddress(path));
+                assertThat(connection.get("/"), is("sidecar"));
+                connection.close();
+            } finally {
+                group.shutdownGracefully(0, 10, TimeUnit.SECONDS);
+            }
+        } finally {
+            server.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+        assertThat(Files.exists(path), is(false));
+    }
+
+    @Test
+    public void otherFileIsKept() throws Exception {
+        assumeTrue(NativeTransport.get() != null, "The native transport is not available");
+
+        Path path = Files.createTempDirectory("helidon").resolve("sidecar.sock");
+        Files.createFile(path);
+        ExecutionException e = assertThrows(ExecutionException.class,
+                                            () -> createServer(path).start().toCompletableFuture().get(10, TimeUnit.SECONDS));
+        assertThat(messages(e), containsString("is not a socket"));
+        assertThat(Files.isRegularFile(path), is(true));
+    }
+
+    @Test
+    public void socketInUseIsKept() throws Exception {
+        assumeTrue(NativeTransport.get() != null, "The native transport is not available");
+
+        Path path = Files.createTempDirectory("helidon").resolve("sidecar.sock");
+        WebServer server = createServer(path).start().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        try {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                                                () -> createServer(path).start().toCompletableFuture()
+                                                                        .get(10, TimeUnit.SECONDS));
+            assertThat(messages(e), containsString("is used by another process"));
+            assertThat(Files.exists(path), is(true));
+        } finally {
+            server.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @Tag("load")
+    public void latencyComparedToLoopback() throws Exception {
+        assumeTrue(NativeTransport.get() != null, "The native transport is not available");
+
+        Path path = Files.createTempDirectory("helidon").resolve("sidecar.sock");
+        WebServer server = createServer(path).start().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        EventLoopGroup domainGroup = NativeTransport.get().newEventLoopGroup(1);
+        EventLoopGroup tcpGroup = new NioEventLoopGroup(1);
+        try {
+            HttpConnection domain = new HttpConnection(domainGroup,
+                                                       domainSocketChannelClass(),
+                                                       NativeTransport.get().domainSocketAddress(path));
+            HttpConnection tcp = new HttpConnection(tcpGroup,
+                                                    NioSocketChannel.class,
+                                                    new InetSocketAddress("127.0.0.1", server.port()));
+            // warm up both paths
+            measure(domain, REQUESTS);
+            measure(tcp, REQUESTS);
+
+            long domainNanos = measure(domain, REQUESTS);
+            long tcpNanos = measure(tcp, REQUESTS);
+            System.out.printf("Average latency of %d requests: domain socket %d us, loopback TCP %d us%n",
+                              REQUESTS,
+                              TimeUnit.NANOSECONDS.toMicros(domainNanos / REQUESTS),
+                              TimeUnit.NANOSECONDS.toMicros(tcpNanos / REQUESTS));
+            domain.close();
+            tcp.close();
+        } finally {
+            domainGroup.shutdownGracefully(0, 10, TimeUnit.SECONDS);
+            tcpGroup.shutdownGracefully(0, 10, TimeUnit.SECONDS);
+            server.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static long measure(HttpConnection connection, int requests) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            connection.get("/");
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static WebServer createServer(Path path) {
+        return WebServer.builder(Routing.builder().get((req, res) -> res.send("default")))
+                        .configuration(ServerConfiguration.builder()
+                                                          .addSocket("sidecar", SocketConfiguration.builder()
+                                                                                                   .domainSocket(path)))
+                        .addNamedRouting("sidecar", Routing.builder().get((req, res) -> res.send("sidecar")))
+                        .build();
+    }
+
+    private static String messages(Throwable throwable) {
+        StringBuilder messages = new StringBuilder();
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            messages.append(t.getMessage()).append('\n');
+        }
+        return messages.toString();
+    }
+
+    /**
+     * Creates a socket file as left by a process which is gone.
+     */
+    private static void createStaleSocket(Path path) throws Exception {
+        Class<?> socketClass = Class.forName("io.netty.channel.unix.Socket");
+        Object socket = socketClass.getMethod("newSocketDomain").invoke(null);
+        socketClass.getMethod("bind", SocketAddress.class).invoke(socket, NativeTransport.get().domainSocketAddress(path));
+        socketClass.getMethod("listen", int.class).invoke(socket, 1);
+        socketClass.getMethod("close").invoke(socket);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Channel> domainSocketChannelClass() throws ClassNotFoundException {
+        return (Class<? extends Channel>) Class.forName("io.netty.channel.epoll.EpollDomainSocketChannel");
+    }
+
+    /**
+     * A keep-alive HTTP connection sending one request at a time.
+     */
+    private static final class HttpConnection {
+
+        private final BlockingQueue<String> responses = new LinkedBlockingQueue<>();
+        private final Channel channel;
+
+        private HttpConnection(EventLoopGroup group,
+                               Class<? extends Channel> channelClass,
+                               SocketAddress address) throws InterruptedException {
+            this.channel = new Bootstrap()
+                    .group(group)
+                    .channel(channelClass)
+                    .handler(new ChannelInitializer<Channel>() {
+                        @Override
+                        protected void initChannel(Channel ch) {
+                            ch.pipeline()
+                              .addLast(new HttpClientCodec())
+                              .addLast(new HttpObjectAggregator(1024))
+                              .addLast(new SimpleChannelInboundHandler<FullHttpResponse>() {
+                                  @Override
+                                  protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse msg) {
+                                      responses.add(msg.content().toString(StandardCharsets.UTF_8));
+                                  }
+                              });
+                        }
+                    })
+                    .connect(address)
+                    .sync()
+                    .channel();
+        }
+
+        private String get(String path) throws InterruptedException {
+            DefaultFullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, path);
+            request.headers().set(HttpHeaderNames.HOST, "localhost");
+            channel.writeAndFlush(request);
+            String response = responses.poll(10, TimeUnit.SECONDS);
+            if (response == null) {
+                throw new IllegalStateException("No response received!");
+            }
+            return response;
+        }
+
+        private void close() throws InterruptedException {
+            channel.close().sync();
+        }
+    }
+}
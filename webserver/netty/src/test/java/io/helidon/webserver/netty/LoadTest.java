@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.netty;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.StaticContentSupport;
+import io.helidon.webserver.WebServer;
+import io.helidon.webserver.testsupport.LoadGenerator;
+import io.helidon.webserver.testsupport.LoadResult;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Runs sustained load against the server with {@link LoadGenerator}. The budgets are generous, so the test only fails
+ * if something is badly broken; the measured numbers are printed. It is excluded from the default build, run it with
+ * {@code -Pload-tests}.
+ */
+@Tag("load")
+public class LoadTest {
+
+    private static final Duration P99_BUDGET = Duration.ofMillis(500);
+
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        Path root = Files.createTempDirectory("helidon-static");
+        byte[] content = new byte[16 * 1024];
+        Arrays.fill(content, (byte) 'a');
+        Files.write(root.resolve("index.html"), content);
+
+        webServer = WebServer.create(Routing.builder()
+                                            .get("/plaintext", (req, res) -> res.send("Hello, World!"))
+                                            .get("/chunked", (req, res) -> {
+                                                res.headers().put("Transfer-Encoding", "chunked");
+                                                res.send("Hello, chunked World!");
+                                            })
+                                            .register("/static", StaticContentSupport.create(root))
+                                            .build())
+                             .start()
+                             .toCompletableFuture()
+                             .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void routingClosedModel() throws Exception {
+        LoadResult result = run(LoadGenerator.builder(webServer)
+                                             .path("/plaintext")
+                                             .connections(8)
+                                             .pipelineDepth(4));
+
+        assertThat(result.errors(), is(0L));
+        assertThat(result.throughput(), greaterThan(100.0));
+    }
+
+    @Test
+    public void routingOpenModel() throws Exception {
+        LoadResult result = run(LoadGenerator.builder(webServer)
+                                             .path("/plaintext")
+                                             .rate(2000));
+
+        assertThat(result.errors(), is(0L));
+        assertThat(result.requests(), is(2000L));
+        assertThat(result.percentile(99), lessThan(P99_BUDGET));
+    }
+
+    @Test
+    public void chunkedOpenModel() throws Exception {
+        LoadResult result = run(LoadGenerator.builder(webServer)
+                                             .path("/chunked")
+                                             .pipelineDepth(2)
+                                             .rate(1000));
+
+        assertThat(result.errors(), is(0L));
+        assertThat(result.percentile(99), lessThan(P99_BUDGET));
+    }
+
+    @Test
+    public void staticContentOpenModel() throws Exception {
+        LoadResult result = run(LoadGenerator.builder(webServer)
+                                             .path("/static/index.html")
+                                             .rate(200));
+
+        assertThat(result.errors(), is(0L));
+        assertThat(result.percentile(99), lessThan(P99_BUDGET));
+    }
+
+    private static LoadResult run(LoadGenerator.Builder builder) throws Exception {
+        LoadResult result = builder.warmup(Duration.ofMillis(500))
+                                   .duration(Duration.ofSeconds(1))
+                                   .build()
+                                   .run();
+        System.out.println(result);
+        return result;
+    }
+}
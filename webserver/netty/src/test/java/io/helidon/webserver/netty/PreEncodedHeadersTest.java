@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.netty;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.helidon.common.http.Http;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.util.AsciiString;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link PreEncodedHeaders}.
+ */
+public class PreEncodedHeadersTest {
+
+    @Test
+    public void knownNamesAndValuesArePreEncoded() {
+        CharSequence name = PreEncodedHeaders.name(Http.Header.CONTENT_TYPE);
+        assertTrue(name instanceof AsciiString);
+        assertSame(name, PreEncodedHeaders.name(Http.Header.CONTENT_TYPE));
+        assertEquals("Content-Type", name.toString());
+        assertTrue(PreEncodedHeaders.value(name, "application/json") instanceof AsciiString);
+
+        assertSame("X-Custom", PreEncodedHeaders.name("X-Custom"));
+        assertSame("custom/value", PreEncodedHeaders.value(name, "custom/value"));
+    }
+
+    @Test
+    public void dateIsEncodedOncePerInstance() {
+        CharSequence name = PreEncodedHeaders.name(Http.Header.DATE);
+        String date = new String("Fri, 19 Oct 2018 12:00:00 GMT");
+        CharSequence encoded = PreEncodedHeaders.value(name, date);
+        assertSame(encoded, PreEncodedHeaders.value(name, date));
+
+        CharSequence next = PreEncodedHeaders.value(name, new String("Fri, 19 Oct 2018 12:00:01 GMT"));
+        assertNotSame(encoded, next);
+        assertEquals("Fri, 19 Oct 2018 12:00:01 GMT", next.toString());
+    }
+
+    @Test
+    public void addAll() {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put(Http.Header.CONTENT_TYPE, Collections.singletonList("text/plain"));
+        headers.put("X-Values", Arrays.asList("a", "b"));
+        HttpHeaders target = new DefaultHttpHeaders();
+
+        PreEncodedHeaders.addAll(target, headers);
+
+        assertEquals("text/plain", target.get("content-type"));
+        assertEquals(Arrays.asList("a", "b"), target.getAll("X-Values"));
+    }
+}
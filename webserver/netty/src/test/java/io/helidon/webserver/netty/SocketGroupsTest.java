@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.netty;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.ServerConfiguration;
+import io.helidon.webserver.SocketConfiguration;
+import io.helidon.webserver.WebServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Tests sockets with dedicated worker groups and multiple acceptors.
+ */
+public class SocketGroupsTest {
+
+    private WebServer server;
+    private Client client;
+
+    @BeforeEach
+    public void createAndStartServer() throws Exception {
+        Routing threadName = Routing.builder()
+                                    .get((req, res) -> res.send(Thread.currentThread().getName()))
+                                    .build();
+        this.server = WebServer.builder(threadName)
+                               .configuration(ServerConfiguration.builder()
+                                                                 .acceptors(4)
+                                                                 .addSocket("admin", SocketConfiguration.builder()
+                                                                                                        .dedicatedWorkersCount(1)))
+                               .addNamedRouting("admin", threadName)
+                               .build();
+        this.server.start().toCompletableFuture().get();
+        this.client = ClientBuilder.newClient();
+    }
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        client.close();
+        this.server.shutdown().toCompletableFuture().get();
+    }
+
+    @Test
+    public void dedicatedWorkerGroup() {
+        String defaultThread = get(server.port());
+        String adminThread = get(server.port("admin"));
+
+        assertNotEquals(group(defaultThread), group(adminThread));
+        // a single dedicated thread serves all admin requests
+        assertEquals(adminThread, get(server.port("admin")));
+    }
+
+    @Test
+    public void acceptorsServeTheConfiguredPort() {
+        for (int i = 0; i < 8; i++) {
+            get(server.port());
+        }
+        assertEquals(4, server.configuration().acceptors());
+    }
+
+    private String get(int port) {
+        return client.target("http://localhost:" + port).request().get(String.class);
+    }
+
+    private static String group(String threadName) {
+        // event loop threads are named <group>-<thread index>
+        return threadName.substring(0, threadName.lastIndexOf('-'));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.netty;
+
+import javax.net.ssl.SSLEngine;
+
+import io.helidon.common.configurable.Resource;
+import io.helidon.common.pki.KeyConfig;
+import io.helidon.webserver.SSLContextBuilder;
+import io.helidon.webserver.SocketConfiguration;
+import io.helidon.webserver.SslConfiguration;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.SslContext;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link SslContextFactory}.
+ */
+public class SslContextFactoryTest {
+
+    static SSLContextBuilder sslContextBuilder() {
+        return SSLContextBuilder.create(KeyConfig.pemBuilder()
+                                                 .key(Resource.from("ssl/key.pkcs8.pem"))
+                                                 .certChain(Resource.from("ssl/certificate.pem"))
+                                                 .build());
+    }
+
+    @Test
+    public void noSsl() {
+        assertNull(SslContextFactory.create(SocketConfiguration.DEFAULT));
+    }
+
+    @Test
+    public void jdkEngineIsConfigured() {
+        SocketConfiguration soConfig = SocketConfiguration.builder()
+                                                          .ssl(sslContextBuilder())
+                                                          .sslConfiguration(SslConfiguration.builder()
+                                                                                    .addProtocol("TLSv1.2")
+                                                                                    .clientAuth(SslConfiguration
+                                                                                                        .ClientAuthentication
+                                                                                                        .REQUIRE))
+                                                          .build();
+        // key material is kept only for the OpenSSL engine
+        assertNull(soConfig.sslConfiguration().keyManagerFactory());
+
+        SslContext context = SslContextFactory.create(soConfig);
+        SSLEngine engine = context.newEngine(ByteBufAllocator.DEFAULT);
+
+        assertTrue(context.isServer());
+        assertThat(engine.getEnabledProtocols(), arrayContaining("TLSv1.2"));
+        assertTrue(engine.getNeedClientAuth());
+    }
+
+    @Test
+    public void openSslEngineFallsBackWithoutLibrary() {
+        SocketConfiguration soConfig = SocketConfiguration.builder()
+                                                          .ssl(sslContextBuilder())
+                                                          .sslConfiguration(SslConfiguration.builder()
+                                                                                    .provider(SslConfiguration.Provider.OPENSSL)
+                                                                                    .clientAuth(SslConfiguration
+                                                                                                        .ClientAuthentication
+                                                                                                        .OPTIONAL))
+                                                          .build();
+        SslContext context = SslContextFactory.create(soConfig);
+        SSLEngine engine = context.newEngine(ByteBufAllocator.DEFAULT);
+
+        assertTrue(context.isServer());
+        assertTrue(engine.getWantClientAuth());
+        assertFalse(engine.getNeedClientAuth());
+        if (!OpenSsl.isAvailable()) {
+            assertFalse(engine.getClass().getName().contains("OpenSsl"));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.netty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Inflater;
+
+import io.helidon.common.reactive.ReactiveStreamsAdapter;
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.WebServer;
+import io.helidon.webserver.WebSocketMessage;
+import io.helidon.webserver.WebSocketSupport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the WebSocket upgrade with a raw socket client.
+ */
+public class WebSocketTest {
+
+    private WebServer server;
+
+    @BeforeEach
+    public void createAndStartServer() throws Exception {
+        WebSocketSupport echo = WebSocketSupport.builder(ws -> ws.send(ReactiveStreamsAdapter.publisherToFlow(
+                ReactiveStreamsAdapter.publisherFromFlow(ws.receive())
+                                      .map(message -> WebSocketMessage.text(message.text().toUpperCase())))))
+                                                .compression(false)
+                                                .build();
+        WebSocketSupport compressedEcho = WebSocketSupport.builder(ws -> ws.send(ReactiveStreamsAdapter.publisherToFlow(
+                ReactiveStreamsAdapter.publisherFromFlow(ws.receive())
+                                      .map(message -> WebSocketMessage.text(message.text().toUpperCase())))))
+                                                          .build();
+        this.server = Routing.builder()
+                             .get("/echo", echo, (req, res) -> res.send("not a websocket"))
+                             .get("/compressed", compressedEcho)
+                             .createServer();
+        this.server.start().toCompletableFuture().get();
+    }
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        this.server.shutdown().toCompletableFuture().get();
+    }
+
+    @Test
+    public void echo() throws Exception {
+        try (Socket socket = new Socket("localhost", server.port())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            out.write(("GET /echo HTTP/1.1\r\n"
+                    + "Host: localhost:" + server.port() + "\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+                    + "Sec-WebSocket-Version: 13\r\n"
+                    + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            String head = readHead(in);
+            assertThat(head, startsWith("HTTP/1.1 101"));
+            assertThat(head, containsString("s3pPLMBiTxaQ9kYGzzhZRbK+xOo="));
+
+            writeTextFrame(out, "hello");
+            assertEquals("HELLO", readTextFrame(in));
+            writeTextFrame(out, "again");
+            assertEquals("AGAIN", readTextFrame(in));
+        }
+    }
+
+    @Test
+    public void compressionWithoutContextTakeover() throws Exception {
+        try (Socket socket = new Socket("localhost", server.port())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            out.write(("GET /compressed HTTP/1.1\r\n"
+                    + "Host: localhost:" + server.port() + "\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+                    + "Sec-WebSocket-Version: 13\r\n"
+                    + "Sec-WebSocket-Extensions: permessage-deflate\r\n"
+                    + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            String head = readHead(in);
+            assertThat(head, startsWith("HTTP/1.1 101"));
+            assertThat(head, containsString("permessage-deflate"));
+            assertThat(head, containsString("server_no_context_takeover"));
+            assertThat(head, containsString("client_no_context_takeover"));
+
+            // without context takeover every message is decompressed on its own
+            writeTextFrame(out, "hello");
+            assertEquals("HELLO", readCompressedTextFrame(in));
+            writeTextFrame(out, "hello");
+            assertEquals("HELLO", readCompressedTextFrame(in));
+        }
+    }
+
+    @Test
+    public void plainRequestIsForwarded() throws Exception {
+        try (Socket socket = new Socket("localhost", server.port())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            out.write(("GET /echo HTTP/1.1\r\n"
+                    + "Host: localhost:" + server.port() + "\r\n"
+                    + "Connection: close\r\n"
+                    + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            assertThat(readHead(in), startsWith("HTTP/1.1 200"));
+        }
+    }
+
+    private static String readHead(InputStream in) throws IOException {
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        int matched = 0;
+        while (matched < 4) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Unexpected end of stream: " + head);
+            }
+            head.write(b);
+            matched = (b == (matched % 2 == 0 ? '\r' : '\n')) ? matched + 1 : 0;
+        }
+        return new String(head.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    private static void writeTextFrame(OutputStream out, String text) throws IOException {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        byte[] mask = {1, 2, 3, 4};
+        out.write(0x81);
+        out.write(0x80 | payload.length);
+        out.write(mask);
+        for (int i = 0; i < payload.length; i++) {
+            out.write(payload[i] ^ mask[i % 4]);
+        }
+        out.flush();
+    }
+
+    private static String readCompressedTextFrame(DataInputStream in) throws Exception {
+        // FIN, RSV1 of a compressed message and the text opcode
+        assertEquals(0xC1, in.readUnsignedByte());
+        int length = in.readUnsignedByte();
+        byte[] payload = new byte[length + 4];
+        in.readFully(payload, 0, length);
+        // the tail of the flushed deflate block removed by the sender
+        payload[length + 2] = (byte) 0xff;
+        payload[length + 3] = (byte) 0xff;
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(payload);
+            byte[] text = new byte[1024];
+            int count = inflater.inflate(text);
+            return new String(text, 0, count, StandardCharsets.UTF_8);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static String readTextFrame(DataInputStream in) throws IOException {
+        assertEquals(0x81, in.readUnsignedByte());
+        int length = in.readUnsignedByte();
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.testsupport;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of latencies in nanoseconds with a fixed relative precision, organized the same way as
+ * <a href="http://hdrhistogram.org">HdrHistogram</a>: values are counted in buckets of exponentially growing size,
+ * each of them split to linear sub-buckets. Recording is {@code O(1)} and doesn't allocate.
+ * <p>
+ * Values above the highest trackable value are counted as the highest trackable value. The histogram is not thread
+ * safe.
+ */
+public final class LatencyHistogram {
+
+    private final long highestTrackableValue;
+    private final int significantDigits;
+    private final int subBucketHalfCountMagnitude;
+    private final int subBucketHalfCount;
+    private final long subBucketMask;
+    private final int leadingZeroCountBase;
+    private final long[] counts;
+
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+
+    /**
+     * Creates new histogram.
+     *
+     * @param highestTrackableValue the highest value to track, at least {@code 2}
+     * @param significantDigits     number of significant decimal digits of the recorded values, {@code 1} to {@code 5}
+     * @throws IllegalArgumentException if a parameter is out of its range
+     */
+    public LatencyHistogram(long highestTrackableValue, int significantDigits) {
+        if (highestTrackableValue < 2) {
+            throw new IllegalArgumentException("Highest trackable value must be at least 2!");
+        }
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException("Number of significant digits must be between 1 and 5!");
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        this.significantDigits = significantDigits;
+
+        long largestSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+        int subBucketCountMagnitude = 64 - Long.numberOfLeadingZeros(largestSingleUnitResolution - 1);
+        this.subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        int subBucketCount = 1 << subBucketCountMagnitude;
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.subBucketMask = subBucketCount - 1;
+        this.leadingZeroCountBase = 64 - subBucketHalfCountMagnitude - 1;
+
+        int bucketCount = 1;
+        long smallestUntrackableValue = subBucketCount;
+        while (smallestUntrackableValue <= highestTrackableValue) {
+            if (smallestUntrackableValue > Long.MAX_VALUE / 2) {
+                bucketCount++;
+                break;
+            }
+            smallestUntrackableValue <<= 1;
+            bucketCount++;
+        }
+        this.counts = new long[(bucketCount + 1) * subBucketHalfCount];
+    }
+
+    /**
+     * Creates new histogram with the same range and precision.
+     *
+     * @return an empty copy of this histogram
+     */
+    public LatencyHistogram copyEmpty() {
+        return new LatencyHistogram(highestTrackableValue, significantDigits);
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value a value, negative values are recorded as {@code 0}
+     */
+    public void record(long value) {
+        long v = Math.min(Math.max(0, value), highestTrackableValue);
+        counts[countsIndex(v)]++;
+        totalCount++;
+        sum += v;
+        min = Math.min(min, v);
+        max = Math.max(max, v);
+    }
+
+    /**
+     * Records a value measured by a client which waits for each response before it sends the next request, and
+     * corrects the coordinated omission: the requests which the client would have sent every
+     * {@code expectedInterval} while it was blocked by this one are recorded too, with linearly decreasing values.
+     *
+     * @param value            a value
+     * @param expectedInterval the expected interval between requests, no correction if not positive
+     */
+    public void recordCorrected(long value, long expectedInterval) {
+        record(value);
+        if (expectedInterval <= 0) {
+            return;
+        }
+        for (long missing = value - expectedInterval; missing >= expectedInterval; missing -= expectedInterval) {
+            record(missing);
+        }
+    }
+
+    /**
+     * Adds all values of other histogram.
+     *
+     * @param other a histogram of the same range and precision
+     * @throws IllegalArgumentException if the other histogram has different range or precision
+     */
+    public void add(LatencyHistogram other) {
+        if (other.counts.length != counts.length || other.significantDigits != significantDigits) {
+            throw new IllegalArgumentException("Cannot add a histogram of a different range or precision!");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Returns number of recorded values.
+     *
+     * @return the count
+     */
+    public long count() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the lowest recorded value.
+     *
+     * @return the lowest value or {@code 0} if empty
+     */
+    public long min() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * Returns the highest recorded value.
+     *
+     * @return the highest value or {@code 0} if empty
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return the mean or {@code 0} if empty
+     */
+    public double mean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    /**
+     * Returns the value at the given percentile: the highest value, which is equivalent at the histogram precision to
+     * the value that given percentage of the recorded values doesn't exceed.
+     *
+     * @param percentile a percentile, {@code 0} to {@code 100}
+     * @return the value or {@code 0} if empty
+     * @throws IllegalArgumentException if percentile is out of range
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100!");
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        long countAtPercentile = Math.max(1, (long) (percentile / 100 * totalCount + 0.5));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= countAtPercentile) {
+                return Math.min(max, highestEquivalentValue(valueFromIndex(i)));
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count=" + totalCount
+                + ", min=" + min()
+                + ", p50=" + percentile(50)
+                + ", p99=" + percentile(99)
+                + ", max=" + max
+                + "}";
+    }
+
+    private int countsIndex(long value) {
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+        return ((bucketIndex + 1) << subBucketHalfCountMagnitude) + (subBucketIndex - subBucketHalfCount);
+    }
+
+    private long valueFromIndex(int index) {
+        int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+        int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucketIndex < 0) {
+            subBucketIndex -= subBucketHalfCount;
+            bucketIndex = 0;
+        }
+        return ((long) subBucketIndex) << bucketIndex;
+    }
+
+    private long highestEquivalentValue(long value) {
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+        int adjustedBucket = (subBucketIndex > subBucketMask) ? bucketIndex + 1 : bucketIndex;
+        long lowestEquivalentValue = ((long) subBucketIndex) << bucketIndex;
+        return lowestEquivalentValue + (1L << adjustedBucket) - 1;
+    }
+}
@@ -0,0 +1,790 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.testsupport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.Http;
+import io.helidon.webserver.WebServer;
+
+/**
+ * Generates HTTP load on a running {@link WebServer} and measures latencies, so tests can assert throughput and
+ * latency percentiles.
+ * <p>
+ * The generator sends the same request over a number of keep-alive connections, each of them with up to
+ * {@link Builder#pipelineDepth(int) pipeline depth} requests in flight. It works in one of two models:
+ * <ul>
+ *     <li><b>closed</b> (default) - each connection sends a new request as soon as it receives a response. It measures
+ *     the maximal throughput, but latencies are only correct if corrected by
+ *     {@link Builder#expectedInterval(Duration) expected interval}, since a slow response delays the requests which
+ *     would have been sent meanwhile (coordinated omission).</li>
+ *     <li><b>open</b> - requests are scheduled at the {@link Builder#rate(int) given rate} no matter how fast
+ *     the server responds and the latency is measured from the scheduled time. A request waits for a connection with
+ *     free pipeline capacity, so a stalled server increases the latencies of all the requests scheduled meanwhile.</li>
+ * </ul>
+ * All the connections are served by non-blocking sockets in the calling thread. Only requests scheduled after the
+ * {@link Builder#warmup(Duration) warm-up} are counted.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * LoadResult result = LoadGenerator.builder(webServer)
+ *                                  .path("/greet")
+ *                                  .rate(5000)
+ *                                  .duration(Duration.ofSeconds(5))
+ *                                  .build()
+ *                                  .run();
+ * assertThat(result.percentile(99), lessThan(Duration.ofMillis(10)));
+ * }</pre>
+ */
+public final class LoadGenerator {
+
+    private static final Logger LOGGER = Logger.getLogger(LoadGenerator.class.getName());
+
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toNanos(1);
+    private static final long DRAIN_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InetSocketAddress address;
+    private final byte[] request;
+    private final boolean headRequest;
+    private final int connectionCount;
+    private final int pipelineDepth;
+    private final int rate;
+    private final long expectedInterval;
+    private final long warmup;
+    private final long duration;
+
+    private LoadGenerator(Builder builder) {
+        this.address = new InetSocketAddress(builder.host, builder.port);
+        this.request = builder.request();
+        this.headRequest = builder.method == Http.Method.HEAD;
+        this.connectionCount = builder.connections;
+        this.pipelineDepth = builder.pipelineDepth;
+        this.rate = builder.rate;
+        this.expectedInterval = builder.expectedInterval.toNanos();
+        this.warmup = builder.warmup.toNanos();
+        this.duration = builder.duration.toNanos();
+    }
+
+    /**
+     * Creates new builder.
+     *
+     * @return new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates new builder of a generator for a running web server.
+     *
+     * @param webServer a started web server
+     * @return new builder
+     */
+    public static Builder builder(WebServer webServer) {
+        return new Builder().port(webServer.port());
+    }
+
+    /**
+     * Generates the load. Blocks for the warm-up and the duration and then until the responses of all sent requests
+     * are received.
+     *
+     * @return the result
+     * @throws IOException if a connection cannot be opened
+     */
+    public LoadResult run() throws IOException {
+        try {
+            return new Run().execute();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A single run of the generator.
+     */
+    private final class Run {
+
+        private final LatencyHistogram histogram = new LatencyHistogram(HIGHEST_LATENCY, 3);
+        private final List<Connection> connections = new ArrayList<>(connectionCount);
+
+        private Selector selector;
+        private long warmupEnd;
+        private long end;
+        private long requests;
+        private long errors;
+        private int nextConnection;
+
+        LoadResult execute() throws IOException {
+            try (Selector s = Selector.open()) {
+                selector = s;
+                for (int i = 0; i < connectionCount; i++) {
+                    Connection connection = new Connection();
+                    connection.open();
+                    connections.add(connection);
+                }
+                long start = System.nanoTime();
+                warmupEnd = start + warmup;
+                end = warmupEnd + duration;
+                if (rate > 0) {
+                    runOpen(start);
+                } else {
+                    runClosed(start);
+                }
+                drain();
+                return new LoadResult(requests, errors, Duration.ofNanos(duration), histogram);
+            } finally {
+                connections.forEach(Connection::close);
+            }
+        }
+
+        private void runClosed(long start) throws IOException {
+            for (Connection connection : connections) {
+                connection.tryFill(start);
+            }
+            while (System.nanoTime() < end) {
+                select(TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()) + 1);
+            }
+        }
+
+        private void runOpen(long start) throws IOException {
+            long scheduled = 0;
+            long intended = start;
+            while (intended < end) {
+                long now = System.nanoTime();
+                boolean backlog = false;
+                while (intended <= now && intended < end) {
+                    Connection connection = nextAvailable();
+                    if (connection == null) {
+                        // the request waits and its latency grows
+                        backlog = true;
+                        break;
+                    }
+                    connection.trySend(intended);
+                    scheduled++;
+                    intended = start + (long) (scheduled * 1_000_000_000.0 / rate);
+                }
+                long waitMillis = TimeUnit.NANOSECONDS.toMillis(intended - now);
+                select(backlog ? 1 : waitMillis);
+            }
+        }
+
+        private void drain() throws IOException {
+            long deadline = System.nanoTime() + DRAIN_TIMEOUT;
+            while (inFlight() > 0 && System.nanoTime() < deadline) {
+                select(10);
+            }
+            for (Connection connection : connections) {
+                connection.abandon();
+            }
+        }
+
+        private int inFlight() {
+            int result = 0;
+            for (Connection connection : connections) {
+                result += connection.inFlight;
+            }
+            return result;
+        }
+
+        private Connection nextAvailable() {
+            for (int i = 0; i < connections.size(); i++) {
+                Connection connection = connections.get(nextConnection);
+                nextConnection = (nextConnection + 1) % connections.size();
+                if (connection.inFlight < pipelineDepth) {
+                    return connection;
+                }
+            }
+            return null;
+        }
+
+        private void select(long timeoutMillis) throws IOException {
+            if (timeoutMillis <= 0) {
+                selector.selectNow();
+            } else {
+                selector.select(timeoutMillis);
+            }
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Connection connection = (Connection) key.attachment();
+                if (!key.isValid()) {
+                    continue;
+                }
+                try {
+                    if (key.isWritable()) {
+                        connection.flush();
+                    }
+                    if (key.isReadable()) {
+                        connection.read();
+                    }
+                } catch (IOException e) {
+                    connection.fail(e);
+                }
+            }
+        }
+
+        private void recordResponse(long intended, long now, boolean error) {
+            if (intended < warmupEnd || intended >= end) {
+                return;
+            }
+            requests++;
+            if (error) {
+                errors++;
+            }
+            histogram.recordCorrected(now - intended, rate == 0 ? expectedInterval : 0);
+        }
+
+        private void recordFailure(long intended) {
+            if (intended < warmupEnd || intended >= end) {
+                return;
+            }
+            requests++;
+            errors++;
+        }
+
+        /**
+         * A keep-alive connection with pipelined requests.
+         */
+        private final class Connection {
+
+            private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            private final ByteBuffer out = ByteBuffer.allocateDirect(request.length * pipelineDepth);
+            private final ResponseParser parser = new ResponseParser(headRequest);
+            // intended start times of the requests in flight, in the order of their responses
+            private final long[] intended = new long[pipelineDepth];
+
+            private SocketChannel channel;
+            private SelectionKey key;
+            private int first;
+            private int inFlight;
+
+            private void open() throws IOException {
+                channel = SocketChannel.open(address);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.configureBlocking(false);
+                key = channel.register(selector, SelectionKey.OP_READ, this);
+            }
+
+            private void tryFill(long now) {
+                try {
+                    fill(now);
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+
+            private void trySend(long intendedStart) {
+                try {
+                    send(intendedStart);
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+
+            private void fill(long now) throws IOException {
+                while (inFlight < pipelineDepth) {
+                    send(now);
+                }
+            }
+
+            private void send(long intendedStart) throws IOException {
+                intended[(first + inFlight) % pipelineDepth] = intendedStart;
+                inFlight++;
+                out.put(request);
+                flush();
+            }
+
+            private void flush() throws IOException {
+                out.flip();
+                channel.write(out);
+                boolean pending = out.hasRemaining();
+                out.compact();
+                key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+            }
+
+            private void read() throws IOException {
+                if (channel.read(in) < 0) {
+                    throw new EOFException("The connection was closed by the server.");
+                }
+                in.flip();
+                boolean closed = false;
+                while (!closed && parser.parse(in)) {
+                    closed = parser.connectionClose();
+                    complete(parser.status());
+                }
+                in.compact();
+                if (closed) {
+                    fail(new EOFException("The server closed the connection."));
+                } else if (!in.hasRemaining()) {
+                    throw new IOException("A response head is longer than " + BUFFER_SIZE + " bytes.");
+                }
+            }
+
+            private void complete(int status) throws IOException {
+                long now = System.nanoTime();
+                long start = intended[first];
+                first = (first + 1) % pipelineDepth;
+                inFlight--;
+                recordResponse(start, now, status >= 400);
+                if (rate == 0 && now < end) {
+                    send(now);
+                }
+            }
+
+            private void fail(IOException cause) {
+                LOGGER.log(Level.FINE, "Connection failed, reconnecting.", cause);
+                abandon();
+                close();
+                in.clear();
+                out.clear();
+                parser.reset();
+                try {
+                    open();
+                    long now = System.nanoTime();
+                    if (rate == 0 && now < end) {
+                        fill(now);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            private void abandon() {
+                for (int i = 0; i < inFlight; i++) {
+                    recordFailure(intended[(first + i) % pipelineDepth]);
+                }
+                first = 0;
+                inFlight = 0;
+            }
+
+            private void close() {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Cannot close a connection.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * An incremental parser of HTTP/1.1 responses with a content length or chunked content.
+     */
+    private static final class ResponseParser {
+
+        private static final int HEAD = 0;
+        private static final int CONTENT = 1;
+        private static final int CHUNK_SIZE = 2;
+        private static final int CHUNK_DATA = 3;
+        private static final int CHUNK_END = 4;
+        private static final int TRAILER = 5;
+
+        private final boolean headRequest;
+
+        private int state = HEAD;
+        private long remaining;
+        private int status;
+        private boolean connectionClose;
+
+        private ResponseParser(boolean headRequest) {
+            this.headRequest = headRequest;
+        }
+
+        /**
+         * Consumes the bytes of a response.
+         *
+         * @param buffer a buffer in read mode
+         * @return {@code true} if a whole response was consumed
+         * @throws IOException if the response is malformed
+         */
+        private boolean parse(ByteBuffer buffer) throws IOException {
+            while (true) {
+                switch (state) {
+                case HEAD:
+                    int headEnd = indexOf(buffer, "\r\n\r\n");
+                    if (headEnd < 0) {
+                        return false;
+                    }
+                    String head = ascii(buffer, headEnd);
+                    buffer.position(headEnd + 4);
+                    parseHead(head);
+                    break;
+                case CONTENT:
+                    skip(buffer);
+                    if (remaining > 0) {
+                        return false;
+                    }
+                    state = HEAD;
+                    return true;
+                case CHUNK_SIZE:
+                    String sizeLine = line(buffer);
+                    if (sizeLine == null) {
+                        return false;
+                    }
+                    int extension = sizeLine.indexOf(';');
+                    remaining = parseLong(extension < 0 ? sizeLine : sizeLine.substring(0, extension), 16);
+                    state = (remaining == 0) ? TRAILER : CHUNK_DATA;
+                    break;
+                case CHUNK_DATA:
+                    skip(buffer);
+                    if (remaining > 0) {
+                        return false;
+                    }
+                    state = CHUNK_END;
+                    break;
+                case CHUNK_END:
+                    if (line(buffer) == null) {
+                        return false;
+                    }
+                    state = CHUNK_SIZE;
+                    break;
+                case TRAILER:
+                    String trailer = line(buffer);
+                    if (trailer == null) {
+                        return false;
+                    }
+                    if (trailer.isEmpty()) {
+                        state = HEAD;
+                        return true;
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown state: " + state);
+                }
+            }
+        }
+
+        private int status() {
+            return status;
+        }
+
+        private boolean connectionClose() {
+            return connectionClose;
+        }
+
+        private void reset() {
+            state = HEAD;
+            remaining = 0;
+        }
+
+        private void parseHead(String head) throws IOException {
+            String[] lines = head.split("\r\n");
+            if (lines[0].length() < 12 || !lines[0].startsWith("HTTP/1.")) {
+                throw new IOException("Not an HTTP response: " + lines[0]);
+            }
+            int code = (int) parseLong(lines[0].substring(9, 12), 10);
+            long contentLength = 0;
+            boolean chunked = false;
+            boolean close = false;
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon < 0) {
+                    continue;
+                }
+                String name = lines[i].substring(0, colon).trim();
+                String value = lines[i].substring(colon + 1).trim();
+                if (Http.Header.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                    contentLength = parseLong(value, 10);
+                } else if (Http.Header.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+                    chunked = value.toLowerCase().contains("chunked");
+                } else if (Http.Header.CONNECTION.equalsIgnoreCase(name)) {
+                    close = "close".equalsIgnoreCase(value);
+                }
+            }
+            if (code / 100 == 1) {
+                // an interim response, the final one follows
+                return;
+            }
+            status = code;
+            connectionClose = close;
+            if (headRequest || code == Http.Status.NO_CONTENT_204.code() || code == Http.Status.NOT_MODIFIED_304.code()) {
+                remaining = 0;
+                state = CONTENT;
+            } else if (chunked) {
+                state = CHUNK_SIZE;
+            } else {
+                remaining = contentLength;
+                state = CONTENT;
+            }
+        }
+
+        private void skip(ByteBuffer buffer) {
+            int skipped = (int) Math.min(remaining, buffer.remaining());
+            buffer.position(buffer.position() + skipped);
+            remaining -= skipped;
+        }
+
+        private static String line(ByteBuffer buffer) {
+            int lineEnd = indexOf(buffer, "\r\n");
+            if (lineEnd < 0) {
+                return null;
+            }
+            String line = ascii(buffer, lineEnd);
+            buffer.position(lineEnd + 2);
+            return line;
+        }
+
+        private static int indexOf(ByteBuffer buffer, String delimiter) {
+            int last = buffer.limit() - delimiter.length();
+            for (int i = buffer.position(); i <= last; i++) {
+                int j = 0;
+                while (j < delimiter.length() && buffer.get(i + j) == delimiter.charAt(j)) {
+                    j++;
+                }
+                if (j == delimiter.length()) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static String ascii(ByteBuffer buffer, int end) {
+            byte[] bytes = new byte[end - buffer.position()];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(buffer.position() + i);
+            }
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+
+        private static long parseLong(String value, int radix) throws IOException {
+            try {
+                return Long.parseLong(value.trim(), radix);
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed response: " + value, e);
+            }
+        }
+    }
+
+    /**
+     * A fluent API builder of {@link LoadGenerator}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<LoadGenerator> {
+
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private String host = "localhost";
+        private int port;
+        private Http.RequestMethod method = Http.Method.GET;
+        private String path = "/";
+        private byte[] entity;
+        private int connections = 16;
+        private int pipelineDepth = 1;
+        private int rate;
+        private Duration expectedInterval = Duration.ZERO;
+        private Duration warmup = Duration.ofSeconds(1);
+        private Duration duration = Duration.ofSeconds(5);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the host of the server. Default is {@code localhost}.
+         *
+         * @param host a host name or address
+         * @return updated builder
+         */
+        public Builder host(String host) {
+            this.host = Objects.requireNonNull(host, "Parameter 'host' is null!");
+            return this;
+        }
+
+        /**
+         * Sets the port of the server.
+         *
+         * @param port a port
+         * @return updated builder
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Sets the method of the request. Default is {@code GET}.
+         *
+         * @param method an HTTP method
+         * @return updated builder
+         */
+        public Builder method(Http.RequestMethod method) {
+            this.method = Objects.requireNonNull(method, "Parameter 'method' is null!");
+            return this;
+        }
+
+        /**
+         * Sets the path and query of the request. Default is {@code /}.
+         *
+         * @param path an encoded path, optionally with a query
+         * @return updated builder
+         */
+        public Builder path(String path) {
+            this.path = Objects.requireNonNull(path, "Parameter 'path' is null!");
+            return this;
+        }
+
+        /**
+         * Adds a header of the request.
+         *
+         * @param name  a header name
+         * @param value a header value
+         * @return updated builder
+         */
+        public Builder header(String name, String value) {
+            headers.put(Objects.requireNonNull(name, "Parameter 'name' is null!"),
+                        Objects.requireNonNull(value, "Parameter 'value' is null!"));
+            return this;
+        }
+
+        /**
+         * Sets the entity of the request, sent with a {@code Content-Length} header.
+         *
+         * @param entity the entity
+         * @return updated builder
+         */
+        public Builder entity(byte[] entity) {
+            this.entity = Objects.requireNonNull(entity, "Parameter 'entity' is null!").clone();
+            return this;
+        }
+
+        /**
+         * Sets the number of connections. Default is {@code 16}.
+         *
+         * @param connections number of connections
+         * @return updated builder
+         */
+        public Builder connections(int connections) {
+            if (connections < 1) {
+                throw new IllegalArgumentException("Number of connections must be positive!");
+            }
+            this.connections = connections;
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of requests in flight on a connection. Default is {@code 1}, which means no
+         * pipelining.
+         *
+         * @param pipelineDepth number of pipelined requests
+         * @return updated builder
+         */
+        public Builder pipelineDepth(int pipelineDepth) {
+            if (pipelineDepth < 1) {
+                throw new IllegalArgumentException("Pipeline depth must be positive!");
+            }
+            this.pipelineDepth = pipelineDepth;
+            return this;
+        }
+
+        /**
+         * Switches to the open model with the given rate of requests. Default is {@code 0}, the closed model.
+         *
+         * @param requestsPerSecond the rate
+         * @return updated builder
+         */
+        public Builder rate(int requestsPerSecond) {
+            if (requestsPerSecond < 0) {
+                throw new IllegalArgumentException("Rate must not be negative!");
+            }
+            this.rate = requestsPerSecond;
+            return this;
+        }
+
+        /**
+         * Sets the interval in which a client of the closed model is expected to send requests, used to correct
+         * the coordinated omission. Default is zero, no correction.
+         *
+         * @param expectedInterval the expected interval
+         * @return updated builder
+         * @see LatencyHistogram#recordCorrected(long, long)
+         */
+        public Builder expectedInterval(Duration expectedInterval) {
+            this.expectedInterval = Objects.requireNonNull(expectedInterval, "Parameter 'expectedInterval' is null!");
+            return this;
+        }
+
+        /**
+         * Sets the duration of the warm-up, which is not measured. Default is one second.
+         *
+         * @param warmup the warm-up duration
+         * @return updated builder
+         */
+        public Builder warmup(Duration warmup) {
+            this.warmup = Objects.requireNonNull(warmup, "Parameter 'warmup' is null!");
+            return this;
+        }
+
+        /**
+         * Sets the measured duration. Default is five seconds.
+         *
+         * @param duration the duration
+         * @return updated builder
+         */
+        public Builder duration(Duration duration) {
+            this.duration = Objects.requireNonNull(duration, "Parameter 'duration' is null!");
+            return this;
+        }
+
+        @Override
+        public LoadGenerator build() {
+            if (port <= 0) {
+                throw new IllegalStateException("Port of the server is not set!");
+            }
+            if (duration.isZero() || duration.isNegative()) {
+                throw new IllegalStateException("Duration must be positive!");
+            }
+            return new LoadGenerator(this);
+        }
+
+        private byte[] request() {
+            StringBuilder head = new StringBuilder();
+            head.append(method.name()).append(' ').append(path).append(" HTTP/1.1\r\n")
+                .append(Http.Header.HOST).append(": ").append(host).append(':').append(port).append("\r\n");
+            headers.forEach((name, value) -> head.append(name).append(": ").append(value).append("\r\n"));
+            if (entity != null) {
+                head.append(Http.Header.CONTENT_LENGTH).append(": ").append(entity.length).append("\r\n");
+            }
+            head.append("\r\n");
+            byte[] headBytes = head.toString().getBytes(StandardCharsets.US_ASCII);
+            if (entity == null) {
+                return headBytes;
+            }
+            byte[] result = new byte[headBytes.length + entity.length];
+            System.arraycopy(headBytes, 0, result, 0, headBytes.length);
+            System.arraycopy(entity, 0, result, headBytes.length, entity.length);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.testsupport;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * The result of a {@link LoadGenerator} run. Only the requests scheduled after the warm-up are counted.
+ */
+public final class LoadResult {
+
+    private final long requests;
+    private final long errors;
+    private final Duration duration;
+    private final LatencyHistogram histogram;
+
+    LoadResult(long requests, long errors, Duration duration, LatencyHistogram histogram) {
+        this.requests = requests;
+        this.errors = errors;
+        this.duration = duration;
+        this.histogram = histogram;
+    }
+
+    /**
+     * Returns number of completed requests, including the failed ones.
+     *
+     * @return number of requests
+     */
+    public long requests() {
+        return requests;
+    }
+
+    /**
+     * Returns number of failed requests: responses with a {@code 4xx} or {@code 5xx} status and requests without
+     * a response because the connection failed.
+     *
+     * @return number of errors
+     */
+    public long errors() {
+        return errors;
+    }
+
+    /**
+     * Returns the measured duration.
+     *
+     * @return the duration
+     */
+    public Duration duration() {
+        return duration;
+    }
+
+    /**
+     * Returns the throughput.
+     *
+     * @return completed requests per second
+     */
+    public double throughput() {
+        return requests * 1_000_000_000.0 / Math.max(1, duration.toNanos());
+    }
+
+    /**
+     * Returns the latency at the given percentile.
+     *
+     * @param percentile a percentile, {@code 0} to {@code 100}
+     * @return the latency
+     */
+    public Duration percentile(double percentile) {
+        return Duration.ofNanos(histogram.percentile(percentile));
+    }
+
+    /**
+     * Returns the histogram of latencies in nanoseconds.
+     *
+     * @return the histogram
+     */
+    public LatencyHistogram histogram() {
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                             "%d requests in %.1f s (%.0f req/s), %d errors, latency p50 %s, p90 %s, p99 %s, p99.9 %s, max %s",
+                             requests,
+                             duration.toNanos() / 1_000_000_000.0,
+                             throughput(),
+                             errors,
+                             millis(histogram.percentile(50)),
+                             millis(histogram.percentile(90)),
+                             millis(histogram.percentile(99)),
+                             millis(histogram.percentile(99.9)),
+                             millis(histogram.max()));
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f ms", nanos / 1_000_000.0);
+    }
+}
@@ -284,6 +284,8 @@ public class TestClient {
                 }
             } catch (IOException e) {
                 onError(new IllegalStateException("Cannot write data into the ByteArrayOutputStream!", e));
+            } finally {
+                data.release();
             }
         }
 
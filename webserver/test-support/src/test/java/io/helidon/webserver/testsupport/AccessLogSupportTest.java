@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.testsupport;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.webserver.AccessLogSupport;
+import io.helidon.webserver.Routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link AccessLogSupport}.
+ */
+public class AccessLogSupportTest {
+
+    @Test
+    public void responsesAreLogged() throws Exception {
+        Path file = Files.createTempDirectory("access-log").resolve("access.log");
+        AccessLogSupport accessLog = AccessLogSupport.builder().file(file).build();
+        Routing routing = Routing.builder()
+                                 .register(accessLog)
+                                 .get("/greet", (req, res) -> res.send("Hello"))
+                                 .build();
+        TestClient.create(routing).path("/greet").queryParameter("name", "Joe").get().asString().get(10, TimeUnit.SECONDS);
+        TestClient.create(routing).path("/missing").get().asString().get(10, TimeUnit.SECONDS);
+        accessLog.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).matches(".+ - - \\[.+] \"GET /greet\\?name=Joe HTTP/1.1\" 200 5 \\d+"), lines.get(0));
+        assertTrue(lines.get(1).matches(".+ - - \\[.+] \"GET /missing HTTP/1.1\" 404 \\S+ \\d+"), lines.get(1));
+    }
+
+    @Test
+    public void fileIsRotated() throws Exception {
+        Path file = Files.createTempDirectory("access-log").resolve("access.log");
+        AccessLogSupport accessLog = AccessLogSupport.builder()
+                                                     .file(file)
+                                                     .maxFileSize(1)
+                                                     .maxFiles(2)
+                                                     .blockWhenFull(true)
+                                                     .build();
+        Routing routing = Routing.builder()
+                                 .register(accessLog)
+                                 .any((req, res) -> res.send("Hello"))
+                                 .build();
+        for (int i = 0; i < 5; i++) {
+            TestClient.create(routing).path("/" + i).get().asString().get(10, TimeUnit.SECONDS);
+            // let the writer write and rotate each line separately
+            Thread.sleep(20);
+        }
+        accessLog.close();
+
+        assertTrue(Files.exists(file.resolveSibling("access.log.1")));
+        assertTrue(Files.exists(file.resolveSibling("access.log.2")));
+        assertTrue(!Files.exists(file.resolveSibling("access.log.3")));
+        assertTrue(Files.readAllLines(file.resolveSibling("access.log.1"), StandardCharsets.UTF_8).get(0).contains("/4 "));
+    }
+}
@@ -16,11 +16,18 @@
 
 package io.helidon.webserver.testsupport;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 import java.util.stream.Collectors;
 
 import io.helidon.common.http.Http;
@@ -31,6 +38,7 @@ import io.helidon.webserver.StaticContentSupport;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 /**
  * Tests {@link io.helidon.webserver.ClassPathContentHandler}.
@@ -177,4 +185,54 @@ public class ClassPathContentHandlerTest {
                 .get();
         assertEquals(Http.Status.NOT_FOUND_404, response.status());
     }
+
+    @Test
+    public void serveFromJarCache() throws Exception {
+        Path jar = Files.createTempFile("static-content", ".jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("cached/hello.txt"));
+            out.write("Hello TXT".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, null)) {
+            StaticContentSupport support = StaticContentSupport.create("cached", classLoader);
+            Routing routing = Routing.builder()
+                    .register(support)
+                    .build();
+            TestResponse response = TestClient.create(routing)
+                    .path("/hello.txt")
+                    .get();
+            assertEquals(Http.Status.OK_200, response.status());
+            String etag = response.headers().first(Http.Header.ETAG).orElse(null);
+            assertEquals(1, support.cacheStatistics().map(StaticContentSupport.CacheStatistics::size).orElse(-1).intValue());
+            // served from the cache
+            response = TestClient.create(routing)
+                    .path("/hello.txt")
+                    .get();
+            assertEquals(Http.Status.OK_200, response.status());
+            assertEquals("Hello TXT", filterResponse(response));
+            assertEquals(MediaType.TEXT_PLAIN.toString(), response.headers().first(Http.Header.CONTENT_TYPE).orElse(null));
+            assertEquals(etag, response.headers().first(Http.Header.ETAG).orElse(null));
+            // validators are checked for cached resources as well
+            response = TestClient.create(routing)
+                    .path("/hello.txt")
+                    .header(Http.Header.IF_NONE_MATCH, etag)
+                    .get();
+            assertEquals(Http.Status.NOT_MODIFIED_304, response.status());
+            StaticContentSupport.CacheStatistics statistics = support.cacheStatistics().orElse(null);
+            assertEquals(2L, statistics.hits());
+            assertEquals(1L, statistics.misses());
+            // disabled cache
+            support = StaticContentSupport.builder("cached", classLoader)
+                    .cache(0, 0, 0)
+                    .build();
+            response = TestClient.create(Routing.builder().register(support).build())
+                    .path("/hello.txt")
+                    .get();
+            assertEquals("Hello TXT", filterResponse(response));
+            assertFalse(support.cacheStatistics().isPresent());
+        } finally {
+            Files.deleteIfExists(jar);
+        }
+    }
 }
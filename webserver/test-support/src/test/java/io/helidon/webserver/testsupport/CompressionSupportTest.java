@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.testsupport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+import io.helidon.webserver.CompressionSupport;
+import io.helidon.webserver.Routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Tests {@link CompressionSupport}.
+ */
+public class CompressionSupportTest {
+
+    private static final String TEXT;
+
+    static {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append("{\"line\":").append(i).append("}\n");
+        }
+        TEXT = text.toString();
+    }
+
+    private static Routing routing() {
+        return Routing.builder()
+                      .register(CompressionSupport.create())
+                      .get("/skip", CompressionSupport.skip())
+                      .get("/small", (req, res) -> {
+                          res.headers().contentType(MediaType.APPLICATION_JSON);
+                          res.send("{}");
+                      })
+                      .get("/binary", (req, res) -> {
+                          res.headers().contentType(MediaType.APPLICATION_OCTET_STREAM);
+                          res.send(TEXT.getBytes(StandardCharsets.UTF_8));
+                      })
+                      .get("/range", (req, res) -> {
+                          res.status(Http.Status.PARTIAL_CONTENT_206);
+                          res.headers().contentType(MediaType.APPLICATION_JSON);
+                          res.headers().put(Http.Header.CONTENT_RANGE, "bytes 0-" + (TEXT.length() - 1) + "/100000");
+                          res.send(TEXT);
+                      })
+                      .get("/unsatisfiable", (req, res) -> {
+                          res.status(Http.Status.REQUESTED_RANGE_NOT_SATISFIABLE_416);
+                          res.headers().contentType(MediaType.APPLICATION_JSON);
+                          res.headers().put(Http.Header.CONTENT_RANGE, "bytes */100000");
+                          res.send(TEXT);
+                      })
+                      .any((req, res) -> {
+                          res.headers().contentType(MediaType.APPLICATION_JSON);
+                          res.headers().put(Http.Header.ETAG, "\"abc\"");
+                          res.send(TEXT);
+                      })
+                      .build();
+    }
+
+    private static byte[] bytes(TestResponse response) throws Exception {
+        return response.asBytes().get(10, TimeUnit.SECONDS);
+    }
+
+    private static String read(InputStream is) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int count;
+        while ((count = is.read(buffer)) >= 0) {
+            result.write(buffer, 0, count);
+        }
+        return new String(result.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void gzip() throws Exception {
+        TestResponse response = TestClient.create(routing())
+                                          .path("/data")
+                                          .header(Http.Header.ACCEPT_ENCODING, "deflate;q=0.5, gzip")
+                                          .get();
+
+        assertEquals("gzip", response.headers().first(Http.Header.CONTENT_ENCODING).orElse(null));
+        assertEquals(Http.Header.ACCEPT_ENCODING, response.headers().first(Http.Header.VARY).orElse(null));
+        assertEquals("W/\"abc\"", response.headers().first(Http.Header.ETAG).orElse(null));
+        assertFalse(response.headers().first(Http.Header.CONTENT_LENGTH).isPresent());
+        assertEquals(TEXT, read(new GZIPInputStream(new ByteArrayInputStream(bytes(response)))));
+    }
+
+    @Test
+    public void deflate() throws Exception {
+        TestResponse response = TestClient.create(routing())
+                                          .path("/data")
+                                          .header(Http.Header.ACCEPT_ENCODING, "gzip;q=0.1, deflate")
+                                          .get();
+
+        assertEquals("deflate", response.headers().first(Http.Header.CONTENT_ENCODING).orElse(null));
+        assertEquals(TEXT, read(new InflaterInputStream(new ByteArrayInputStream(bytes(response)))));
+    }
+
+    @Test
+    public void notCompressed() throws Exception {
+        // not accepted
+        TestResponse response = TestClient.create(routing())
+                                          .path("/data")
+                                          .header(Http.Header.ACCEPT_ENCODING, "br, gzip;q=0")
+                                          .get();
+        assertFalse(response.headers().first(Http.Header.CONTENT_ENCODING).isPresent());
+        assertEquals(TEXT, new String(bytes(response), StandardCharsets.UTF_8));
+        // opted out
+        response = TestClient.create(routing())
+                             .path("/skip")
+                             .header(Http.Header.ACCEPT_ENCODING, "gzip")
+                             .get();
+        assertFalse(response.headers().first(Http.Header.CONTENT_ENCODING).isPresent());
+        assertEquals(TEXT, new String(bytes(response), StandardCharsets.UTF_8));
+        // too small
+        response = TestClient.create(routing())
+                             .path("/small")
+                             .header(Http.Header.ACCEPT_ENCODING, "gzip")
+                             .get();
+        assertFalse(response.headers().first(Http.Header.CONTENT_ENCODING).isPresent());
+        assertEquals("{}", new String(bytes(response), StandardCharsets.UTF_8));
+        // not compressible type
+        response = TestClient.create(routing())
+                             .path("/binary")
+                             .header(Http.Header.ACCEPT_ENCODING, "gzip")
+                             .get();
+        assertFalse(response.headers().first(Http.Header.CONTENT_ENCODING).isPresent());
+        assertFalse(response.headers().first(Http.Header.VARY).isPresent());
+    }
+
+    @Test
+    public void partialContentNotCompressed() throws Exception {
+        TestResponse response = TestClient.create(routing())
+                                          .path("/range")
+                                          .header(Http.Header.ACCEPT_ENCODING, "gzip")
+                                          .get();
+        assertEquals(Http.Status.PARTIAL_CONTENT_206, response.status());
+        assertFalse(response.headers().first(Http.Header.CONTENT_ENCODING).isPresent());
+        assertEquals(TEXT, new String(bytes(response), StandardCharsets.UTF_8));
+        // any response with Content-Range
+        response = TestClient.create(routing())
+                             .path("/unsatisfiable")
+                             .header(Http.Header.ACCEPT_ENCODING, "gzip")
+                             .get();
+        assertFalse(response.headers().first(Http.Header.CONTENT_ENCODING).isPresent());
+        assertEquals(TEXT, new String(bytes(response), StandardCharsets.UTF_8));
+    }
+}
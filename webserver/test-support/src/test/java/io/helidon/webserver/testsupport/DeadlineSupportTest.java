@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.testsupport;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.reactive.Flow;
+import io.helidon.webserver.Deadline;
+import io.helidon.webserver.DeadlineSupport;
+import io.helidon.webserver.Routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link DeadlineSupport}.
+ */
+public class DeadlineSupportTest {
+
+    private final CountDownLatch canceled = new CountDownLatch(1);
+    private final Routing routing = Routing.builder()
+                                           .register(DeadlineSupport.create(Duration.ofMillis(200)))
+                                           .get("/fast", (req, res) -> res.send("fast"))
+                                           .get("/never", (req, res) -> { })
+                                           .get("/remaining", (req, res) -> {
+                                               long remaining = req.deadline()
+                                                                  .map(d -> d.remaining(TimeUnit.MILLISECONDS))
+                                                                  .orElse(-1L);
+                                               res.send(remaining <= 50 && remaining > 0 ? "short" : "long");
+                                           })
+                                           .get("/stream", (req, res) -> res.send(new EndlessPublisher()))
+                                           .build();
+
+    @Test
+    public void fastResponse() throws Exception {
+        TestResponse response = TestClient.create(routing).path("/fast").get();
+
+        assertEquals(Http.Status.OK_200, response.status());
+        assertEquals("fast", response.asString().get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void expiredResponse() throws Exception {
+        long start = System.nanoTime();
+        TestResponse response = TestClient.create(routing).path("/never").get();
+
+        assertEquals(Http.Status.SERVICE_UNAVAILABLE_503, response.status());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void headerShortensDeadline() throws Exception {
+        assertEquals("short", TestClient.create(routing)
+                                        .path("/remaining")
+                                        .header(Deadline.TIMEOUT_HEADER, "50")
+                                        .get()
+                                        .asString()
+                                        .get(10, TimeUnit.SECONDS));
+        assertEquals("long", TestClient.create(routing)
+                                       .path("/remaining")
+                                       .header(Deadline.TIMEOUT_HEADER, "60000")
+                                       .get()
+                                       .asString()
+                                       .get(10, TimeUnit.SECONDS));
+        assertEquals(Http.Status.SERVICE_UNAVAILABLE_503, TestClient.create(routing)
+                                                                    .path("/never")
+                                                                    .header(Deadline.TIMEOUT_HEADER, "0")
+                                                                    .get()
+                                                                    .status());
+    }
+
+    @Test
+    public void streamIsCanceled() throws Exception {
+        TestResponse response = TestClient.create(routing).path("/stream").get();
+
+        assertEquals(Http.Status.OK_200, response.status());
+        assertTrue(canceled.await(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Publishes a single chunk and never completes.
+     */
+    private class EndlessPublisher implements Flow.Publisher<DataChunk> {
+        @Override
+        public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private boolean sent;
+
+                @Override
+                public void request(long n) {
+                    if (!sent) {
+                        sent = true;
+                        subscriber.onNext(DataChunk.create("chunk".getBytes()));
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    canceled.countDown();
+                }
+            });
+        }
+    }
+}
@@ -34,6 +34,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 /**
  * Tests {@link io.helidon.webserver.FileSystemContentHandler}.
@@ -147,4 +149,116 @@ public class FileSystemContentHandlerTest {
         assertEquals("A CSS", responseToString(response));
         assertEquals(MediaType.TEXT_PLAIN.toString(), response.headers().first(Http.Header.CONTENT_TYPE).orElse(null));
     }
+
+    @Test
+    public void rangeRequests() throws Exception {
+        Routing routing = Routing.builder()
+                                 .register(StaticContentSupport.create(folder.getRoot().toPath()))
+                                 .build();
+        // single range
+        TestResponse response = TestClient.create(routing)
+                                          .path("/foo.txt")
+                                          .header(Http.Header.RANGE, "bytes=1-2")
+                                          .get();
+        assertEquals(Http.Status.PARTIAL_CONTENT_206, response.status());
+        assertEquals("oo", responseToString(response));
+        assertEquals("bytes 1-2/7", response.headers().first(Http.Header.CONTENT_RANGE).orElse(null));
+        assertEquals("2", response.headers().first(Http.Header.CONTENT_LENGTH).orElse(null));
+        assertEquals("bytes", response.headers().first(Http.Header.ACCEPT_RANGES).orElse(null));
+        // multiple ranges
+        response = TestClient.create(routing)
+                             .path("/foo.txt")
+                             .header(Http.Header.RANGE, "bytes=0-0,-3")
+                             .get();
+        assertEquals(Http.Status.PARTIAL_CONTENT_206, response.status());
+        String contentType = response.headers().first(Http.Header.CONTENT_TYPE).orElse("");
+        MediaType multipart = MediaType.parse(contentType);
+        assertEquals("byteranges", multipart.getSubtype());
+        String boundary = multipart.getParameters().get("boundary");
+        assertEquals("\r\n--" + boundary + "\r\n"
+                             + "Content-Type: text/plain\r\n"
+                             + "Content-Range: bytes 0-0/7\r\n\r\n"
+                             + "F"
+                             + "\r\n--" + boundary + "\r\n"
+                             + "Content-Type: text/plain\r\n"
+                             + "Content-Range: bytes 4-6/7\r\n\r\n"
+                             + "TXT"
+                             + "\r\n--" + boundary + "--\r\n",
+                     responseToString(response));
+        // unsatisfiable
+        response = TestClient.create(routing)
+                             .path("/foo.txt")
+                             .header(Http.Header.RANGE, "bytes=10-")
+                             .get();
+        assertEquals(Http.Status.REQUESTED_RANGE_NOT_SATISFIABLE_416, response.status());
+        assertEquals("bytes */7", response.headers().first(Http.Header.CONTENT_RANGE).orElse(null));
+    }
+
+    @Test
+    public void ifRange() throws Exception {
+        Routing routing = Routing.builder()
+                                 .register(StaticContentSupport.create(folder.getRoot().toPath()))
+                                 .build();
+        String etag = TestClient.create(routing)
+                                .path("/foo.txt")
+                                .get()
+                                .headers()
+                                .first(Http.Header.ETAG)
+                                .orElse(null);
+        // matching validator
+        TestResponse response = TestClient.create(routing)
+                                          .path("/foo.txt")
+                                          .header(Http.Header.RANGE, "bytes=4-")
+                                          .header(Http.Header.IF_RANGE, etag)
+                                          .get();
+        assertEquals(Http.Status.PARTIAL_CONTENT_206, response.status());
+        assertEquals("TXT", responseToString(response));
+        // changed representation - the whole content is sent
+        response = TestClient.create(routing)
+                             .path("/foo.txt")
+                             .header(Http.Header.RANGE, "bytes=4-")
+                             .header(Http.Header.IF_RANGE, "\"other\"")
+                             .get();
+        assertEquals(Http.Status.OK_200, response.status());
+        assertEquals("Foo TXT", responseToString(response));
+    }
+
+    @Test
+    public void precompressedVariants() throws Exception {
+        Path root = folder.getRoot().toPath();
+        Files.write(root.resolve("app.js"), "plain".getBytes(StandardCharsets.UTF_8));
+        Files.write(root.resolve("app.js.gz"), "gzipped".getBytes(StandardCharsets.UTF_8));
+        Files.write(root.resolve("app.js.br"), "brotli".getBytes(StandardCharsets.UTF_8));
+        Routing routing = Routing.builder()
+                                 .register(StaticContentSupport.create(root))
+                                 .build();
+        // brotli is preferred
+        TestResponse response = TestClient.create(routing)
+                                          .path("/app.js")
+                                          .header(Http.Header.ACCEPT_ENCODING, "gzip, deflate, br")
+                                          .get();
+        assertEquals("brotli", responseToString(response));
+        assertEquals("br", response.headers().first(Http.Header.CONTENT_ENCODING).orElse(null));
+        assertEquals(Http.Header.ACCEPT_ENCODING, response.headers().first(Http.Header.VARY).orElse(null));
+        String brEtag = response.headers().first(Http.Header.ETAG).orElse(null);
+        // explicit quality
+        response = TestClient.create(routing)
+                              .path("/app.js")
+                              .header(Http.Header.ACCEPT_ENCODING, "br;q=0.5, gzip")
+                              .get();
+        assertEquals("gzipped", responseToString(response));
+        assertEquals("gzip", response.headers().first(Http.Header.CONTENT_ENCODING).orElse(null));
+        assertNotEquals(brEtag, response.headers().first(Http.Header.ETAG).orElse(null));
+        // no acceptable encoding
+        response = TestClient.create(routing)
+                             .path("/app.js")
+                             .header(Http.Header.ACCEPT_ENCODING, "identity, *;q=0")
+                             .get();
+        assertEquals("plain", responseToString(response));
+        assertFalse(response.headers().first(Http.Header.CONTENT_ENCODING).isPresent());
+        assertEquals(Http.Header.ACCEPT_ENCODING, response.headers().first(Http.Header.VARY).orElse(null));
+        // content type of the original file
+        assertEquals("text/javascript",
+                     response.headers().first(Http.Header.CONTENT_TYPE).orElse(null));
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.testsupport;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    public void empty() {
+        LatencyHistogram histogram = new LatencyHistogram(HOUR, 3);
+
+        assertThat(histogram.count(), is(0L));
+        assertThat(histogram.min(), is(0L));
+        assertThat(histogram.max(), is(0L));
+        assertThat(histogram.percentile(99), is(0L));
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram(HOUR, 3);
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        assertThat(histogram.count(), is(1000L));
+        assertThat(histogram.min(), is(1L));
+        assertThat(histogram.max(), is(1000L));
+        assertThat(histogram.mean(), is(500.5));
+        assertThat(histogram.percentile(50), is(500L));
+        assertThat(histogram.percentile(99), is(990L));
+        assertThat(histogram.percentile(100), is(1000L));
+    }
+
+    @Test
+    public void largeValuesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram(HOUR, 3);
+        // 1 to 10 000 microseconds
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+
+        assertPercentile(histogram, 50, TimeUnit.MICROSECONDS.toNanos(5_000));
+        assertPercentile(histogram, 90, TimeUnit.MICROSECONDS.toNanos(9_000));
+        assertPercentile(histogram, 99.9, TimeUnit.MICROSECONDS.toNanos(9_990));
+        assertThat(histogram.max(), is(TimeUnit.MICROSECONDS.toNanos(10_000)));
+    }
+
+    @Test
+    public void valuesOutOfRangeAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram(1000, 2);
+        histogram.record(-5);
+        histogram.record(5000);
+
+        assertThat(histogram.min(), is(0L));
+        assertThat(histogram.max(), is(1000L));
+        assertThat(histogram.percentile(100), is(1000L));
+    }
+
+    @Test
+    public void coordinatedOmissionCorrection() {
+        LatencyHistogram histogram = new LatencyHistogram(HOUR, 3);
+        // a client sending a request every 10 ms was blocked by a single response for 1 s
+        for (int i = 0; i < 100; i++) {
+            histogram.recordCorrected(TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        histogram.recordCorrected(TimeUnit.SECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(10));
+
+        // the response and the 99 requests which would have been sent meanwhile
+        assertThat(histogram.count(), is(200L));
+        assertPercentile(histogram, 75, TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(histogram.max(), is(TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    public void add() {
+        LatencyHistogram first = new LatencyHistogram(HOUR, 3);
+        LatencyHistogram second = first.copyEmpty();
+        first.record(10);
+        second.record(20);
+        second.record(30);
+        first.add(second);
+
+        assertThat(first.count(), is(3L));
+        assertThat(first.min(), is(10L));
+        assertThat(first.max(), is(30L));
+
+        first.reset();
+        assertThat(first.count(), is(0L));
+        assertThrows(IllegalArgumentException.class, () -> first.add(new LatencyHistogram(HOUR, 2)));
+    }
+
+    private static void assertPercentile(LatencyHistogram histogram, double percentile, long expected) {
+        // three significant digits
+        assertThat((double) histogram.percentile(percentile), closeTo(expected, expected / 1000.0));
+    }
+}
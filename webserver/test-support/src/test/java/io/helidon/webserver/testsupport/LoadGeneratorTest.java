@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.testsupport;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Tests {@link LoadGenerator} against a minimal blocking HTTP server.
+ */
+public class LoadGeneratorTest {
+
+    private static final Duration STALL = Duration.ofMillis(500);
+
+    private final AtomicLong stallAt = new AtomicLong(Long.MAX_VALUE);
+    private ServerSocket serverSocket;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "load-test-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @AfterEach
+    public void stopServer() throws IOException {
+        serverSocket.close();
+    }
+
+    @Test
+    @Tag("load")
+    public void closedModel() throws Exception {
+        LoadResult result = generator("/")
+                .connections(4)
+                .pipelineDepth(8)
+                .build()
+                .run();
+
+        assertThat(result.requests(), greaterThan(100L));
+        assertThat(result.errors(), is(0L));
+        assertThat(result.histogram().count(), is(result.requests()));
+    }
+
+    @Test
+    public void chunkedAndErrorResponses() throws Exception {
+        LoadResult chunked = generator("/chunked").pipelineDepth(4).build().run();
+        LoadResult errors = generator("/missing").build().run();
+
+        assertThat(chunked.requests(), greaterThan(100L));
+        assertThat(chunked.errors(), is(0L));
+        assertThat(errors.requests(), greaterThan(100L));
+        assertThat(errors.errors(), is(errors.requests()));
+    }
+
+    @Test
+    @Tag("load")
+    public void openModelRate() throws Exception {
+        LoadResult result = generator("/")
+                .rate(1000)
+                .duration(Duration.ofSeconds(1))
+                .build()
+                .run();
+
+        // 1000 requests scheduled in one second
+        assertThat(result.requests(), is(1000L));
+        assertThat(result.errors(), is(0L));
+    }
+
+    @Test
+    @Tag("load")
+    public void openModelMeasuresStall() throws Exception {
+        // a single connection stalls once, the closed model reports the stall of one request only
+        stallAfter(Duration.ofMillis(700));
+        LoadResult closed = generator("/stall").connections(1).duration(Duration.ofSeconds(2)).build().run();
+        assertThat(closed.requests(), greaterThan(1000L));
+        assertThat(closed.histogram().max(), greaterThanOrEqualTo(STALL.toNanos()));
+        assertThat(closed.percentile(99), lessThan(STALL.dividedBy(10)));
+
+        // the open model reports the requests scheduled while the server stalled
+        stallAfter(Duration.ofMillis(700));
+        LoadResult open = generator("/stall").connections(1).rate(1000).duration(Duration.ofSeconds(2)).build().run();
+        assertThat(open.errors(), is(0L));
+        assertThat(open.percentile(99), greaterThan(STALL.dividedBy(2)));
+    }
+
+    private void stallAfter(Duration delay) {
+        stallAt.set(System.nanoTime() + delay.toNanos());
+    }
+
+    private LoadGenerator.Builder generator(String path) {
+        return LoadGenerator.builder()
+                            .host(serverSocket.getInetAddress().getHostAddress())
+                            .port(serverSocket.getLocalPort())
+                            .path(path)
+                            .warmup(Duration.ofMillis(200))
+                            .duration(Duration.ofMillis(500));
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread thread = new Thread(() -> serve(socket), "load-test-connection");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+                InputStream in = new BufferedInputStream(s.getInputStream());
+                OutputStream out = s.getOutputStream()) {
+            String path;
+            while ((path = readRequest(in)) != null) {
+                String response;
+                switch (path) {
+                case "/":
+                    response = "HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\nhello";
+                    break;
+                case "/chunked":
+                    response = "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                            + "5\r\nhello\r\n6;ext=1\r\n world\r\n0\r\nTrailer: x\r\n\r\n";
+                    break;
+                case "/stall":
+                    long stall = stallAt.get();
+                    if (System.nanoTime() >= stall && stallAt.compareAndSet(stall, Long.MAX_VALUE)) {
+                        TimeUnit.NANOSECONDS.sleep(STALL.toNanos());
+                    }
+                    response = "HTTP/1.1 200 OK\r\nContent-Length: 0\r\n\r\n";
+                    break;
+                default:
+                    response = "HTTP/1.1 404 Not Found\r\ncontent-length: 9\r\n\r\nnot found";
+                }
+                out.write(response.getBytes(StandardCharsets.US_ASCII));
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // the client closed the connection
+        }
+    }
+
+    private static String readRequest(InputStream in) throws IOException {
+        StringBuilder head = new StringBuilder();
+        int length;
+        do {
+            int b = in.read();
+            if (b < 0) {
+                return null;
+            }
+            head.append((char) b);
+            length = head.length();
+        } while (length < 4 || head.charAt(length - 1) != '\n' || head.charAt(length - 3) != '\n');
+        String requestLine = head.substring(0, head.indexOf("\r\n"));
+        return requestLine.split(" ")[1];
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.testsupport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.common.http.Http;
+import io.helidon.webserver.ResponseCacheSupport;
+import io.helidon.webserver.Routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link ResponseCacheSupport}.
+ */
+public class ResponseCacheSupportTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CompletableFuture<Void> gate = new CompletableFuture<>();
+    private final ResponseCacheSupport cache = ResponseCacheSupport.create();
+    private final Routing routing = Routing.builder()
+                                           .register(cache)
+                                           .get("/catalog", (req, res) -> res.send("catalog " + calls.incrementAndGet()))
+                                           .get("/lang", (req, res) -> {
+                                               res.headers().put(Http.Header.VARY, "Accept-Language");
+                                               res.send(req.headers().first("Accept-Language").orElse("en")
+                                                                + " " + calls.incrementAndGet());
+                                           })
+                                           .get("/private", (req, res) -> {
+                                               res.headers().put(Http.Header.CACHE_CONTROL, "private, max-age=60");
+                                               res.send("private " + calls.incrementAndGet());
+                                           })
+                                           .get("/slow", (req, res) -> {
+                                               int call = calls.incrementAndGet();
+                                               gate.thenRun(() -> res.send("slow " + call));
+                                           })
+                                           .build();
+
+    private String get(String path) throws Exception {
+        return TestClient.create(routing).path(path).get().asString().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void responseIsCached() throws Exception {
+        assertEquals("catalog 1", get("/catalog"));
+        TestResponse response = TestClient.create(routing).path("/catalog").get();
+
+        assertEquals("catalog 1", response.asString().get(10, TimeUnit.SECONDS));
+        assertTrue(response.headers().first(Http.Header.AGE).isPresent());
+        assertEquals("catalog 2", TestClient.create(routing)
+                                            .path("/catalog")
+                                            .queryParameter("page", "2")
+                                            .get()
+                                            .asString()
+                                            .get(10, TimeUnit.SECONDS));
+        assertEquals(1, cache.statistics().hits());
+    }
+
+    @Test
+    public void conditionalRequest() throws Exception {
+        get("/catalog");
+        String etag = TestClient.create(routing).path("/catalog").get().headers().first(Http.Header.ETAG).orElse(null);
+
+        TestResponse response = TestClient.create(routing)
+                                          .path("/catalog")
+                                          .header(Http.Header.IF_NONE_MATCH, etag)
+                                          .get();
+        assertEquals(Http.Status.NOT_MODIFIED_304, response.status());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void varyHeaders() throws Exception {
+        assertEquals("en 1", get("/lang"));
+        assertEquals("cs 2", TestClient.create(routing)
+                                       .path("/lang")
+                                       .header("Accept-Language", "cs")
+                                       .get()
+                                       .asString()
+                                       .get(10, TimeUnit.SECONDS));
+        assertEquals("cs 2", TestClient.create(routing)
+                                       .path("/lang")
+                                       .header("Accept-Language", "cs")
+                                       .get()
+                                       .asString()
+                                       .get(10, TimeUnit.SECONDS));
+        assertEquals("en 1", get("/lang"));
+    }
+
+    @Test
+    public void selectedQueryParamsDoNotCollide() throws Exception {
+        Routing routing = Routing.builder()
+                                 .register(ResponseCacheSupport.builder().addQueryParam("a").addQueryParam("b"))
+                                 .get("/query", (req, res) -> res.send(req.queryParams().all("a")
+                                                                               + " " + calls.incrementAndGet()))
+                                 .build();
+
+        assertEquals("[1] 1", TestClient.create(routing)
+                                        .path("/query")
+                                        .queryParameter("a", "1")
+                                        .queryParameter("b", "2")
+                                        .get()
+                                        .asString()
+                                        .get(10, TimeUnit.SECONDS));
+        assertEquals("[1&b=2] 2", TestClient.create(routing)
+                                            .path("/query")
+                                            .queryParameter("a", "1&b=2")
+                                            .get()
+                                            .asString()
+                                            .get(10, TimeUnit.SECONDS));
+        assertEquals("[1] 1", TestClient.create(routing)
+                                        .path("/query")
+                                        .queryParameter("b", "2")
+                                        .queryParameter("a", "1")
+                                        .get()
+                                        .asString()
+                                        .get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void notCacheable() throws Exception {
+        assertEquals("private 1", get("/private"));
+        assertEquals("private 2", get("/private"));
+        assertEquals("catalog 3", get("/catalog"));
+        assertEquals("catalog 4", TestClient.create(routing)
+                                            .path("/catalog")
+                                            .header(Http.Header.CACHE_CONTROL, "no-cache")
+                                            .get()
+                                            .asString()
+                                            .get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void concurrentMissesAreCoalesced() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> get("/slow"));
+            Future<String> second = executor.submit(() -> get("/slow"));
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (cache.statistics().misses() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            gate.complete(null);
+
+            assertEquals("slow 1", first.get(10, TimeUnit.SECONDS));
+            assertEquals("slow 1", second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
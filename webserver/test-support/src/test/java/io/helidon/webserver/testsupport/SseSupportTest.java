@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.testsupport;
+
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.ReactiveStreamsAdapter;
+import io.helidon.webserver.CompressionSupport;
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.ServerSentEvent;
+import io.helidon.webserver.SseSupport;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Tests {@link SseSupport}.
+ */
+public class SseSupportTest {
+
+    @Test
+    public void eventStream() throws Exception {
+        Flow.Publisher<ServerSentEvent> events = ReactiveStreamsAdapter.publisherToFlow(
+                Flux.range(1, 3).map(i -> ServerSentEvent.builder().id(String.valueOf(i)).data("event " + i).build()));
+        Routing routing = Routing.builder()
+                                 .register(CompressionSupport.create())
+                                 .get("/events", SseSupport.create(), (req, res) -> res.send(events))
+                                 .build();
+
+        TestResponse response = TestClient.create(routing)
+                                          .path("/events")
+                                          .header(Http.Header.ACCEPT_ENCODING, "gzip")
+                                          .get();
+
+        assertEquals(Http.Status.OK_200, response.status());
+        assertEquals("text/event-stream",
+                     response.headers().first(Http.Header.CONTENT_TYPE).map(MediaType::parse).map(MediaType::toString)
+                             .orElse(null));
+        assertEquals("no-cache", response.headers().first(Http.Header.CACHE_CONTROL).orElse(null));
+        // event streams are not compressed
+        assertFalse(response.headers().first(Http.Header.CONTENT_ENCODING).isPresent());
+        assertEquals("id:1\ndata:event 1\n\nid:2\ndata:event 2\n\nid:3\ndata:event 3\n\n",
+                     response.asString().get(10, TimeUnit.SECONDS));
+    }
+}
@@ -274,6 +274,23 @@ public class TestClientTest {
         assertEquals(Http.Status.NOT_FOUND_404, response.status());
     }
 
+    @Test
+    public void implicitNotFoundIsStackless() throws Exception {
+        StringBuffer sb = new StringBuffer();
+        Routing routing = Routing.builder()
+                .error(NotFoundException.class, (req, res, ex) -> {
+                    sb.append(ex.getStackTrace().length);
+                    req.next();
+                })
+                .build();
+        TestResponse response = TestClient.create(routing)
+                .path("/nonexisting")
+                .get();
+
+        assertEquals(Http.Status.NOT_FOUND_404, response.status());
+        assertEquals("0", sb.toString());
+    }
+
     @Test
     public void advancingToDefaultErrorHandler() throws Exception {
         StringBuffer sb = new StringBuffer();
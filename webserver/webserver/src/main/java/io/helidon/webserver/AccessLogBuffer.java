@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * A lock-free bounded ring buffer of access log lines with many producers and a single consumer. Each slot owns
+ * a preallocated {@link StringBuilder}, so producers format lines without allocating new buffers.
+ * <p>
+ * A producer claims a sequence number by CAS on the tail, formats the line into the slot and publishes it by writing
+ * the sequence to the slot. The consumer reads published slots in order and advances the head, which releases slots
+ * for reuse. An idle consumer {@link #await(long) parks} and the next published line unparks it. A slot buffer grown by
+ * an exceptionally long line is replaced once the line is consumed, so the retained memory stays bounded.
+ */
+class AccessLogBuffer {
+
+    private final StringBuilder[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final boolean block;
+    private final int lineCapacity;
+    private final int maxLineCapacity;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile Thread waitingConsumer;
+
+    /**
+     * Creates new instance.
+     *
+     * @param capacity      minimal number of slots, rounded up to a power of two
+     * @param lineCapacity  initial capacity of the slot buffers, buffers grown above four times the capacity are replaced
+     * @param block         {@code true} to wait for a free slot, {@code false} to drop lines when the buffer is full
+     */
+    AccessLogBuffer(int capacity, int lineCapacity, boolean block) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new StringBuilder[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new StringBuilder(lineCapacity);
+        }
+        // sequence + 1 of the last line published in the slot
+        this.published = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.block = block;
+        this.lineCapacity = lineCapacity;
+        this.maxLineCapacity = lineCapacity * 4;
+    }
+
+    /**
+     * Formats a line into a free slot and publishes it.
+     *
+     * @param formatter writes the line into the given empty builder
+     * @return {@code false} if the line was dropped because the buffer was full
+     */
+    boolean offer(Consumer<StringBuilder> formatter) {
+        long sequence = claim();
+        if (sequence < 0) {
+            dropped.increment();
+            return false;
+        }
+        int index = (int) sequence & mask;
+        StringBuilder slot = slots[index];
+        slot.setLength(0);
+        try {
+            formatter.accept(slot);
+        } finally {
+            // a volatile write, so that either the consumer sees the line or this thread sees the waiting consumer
+            published.set(index, sequence + 1);
+        }
+        Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /**
+     * Passes all published lines to the consumer in order. Must be called by a single thread.
+     *
+     * @param consumer a consumer of lines, it must not keep a reference to the builder
+     * @return number of consumed lines
+     */
+    int drain(Consumer<StringBuilder> consumer) {
+        long current = head.get();
+        int count = 0;
+        while (true) {
+            int index = (int) current & mask;
+            if (published.get(index) != current + 1) {
+                break;
+            }
+            StringBuilder slot = slots[index];
+            consumer.accept(slot);
+            if (slot.capacity() > maxLineCapacity) {
+                // published to producers by the head update
+                slots[index] = new StringBuilder(lineCapacity);
+            }
+            current++;
+            count++;
+            head.lazySet(current);
+        }
+        return count;
+    }
+
+    /**
+     * Parks the consumer until a line is published, the timeout elapses or the consumer is unparked. Returns immediately
+     * if a line is already published. Must be called by the thread calling {@link #drain(Consumer)}.
+     *
+     * @param timeoutNanos maximal time to wait in nanoseconds
+     */
+    void await(long timeoutNanos) {
+        waitingConsumer = Thread.currentThread();
+        try {
+            // checked after the consumer is visible to producers, so that a wake up is not lost
+            long current = head.get();
+            if (published.get((int) current & mask) != current + 1) {
+                LockSupport.parkNanos(this, timeoutNanos);
+            }
+        } finally {
+            waitingConsumer = null;
+        }
+    }
+
+    /**
+     * Returns the number of dropped lines.
+     *
+     * @return number of dropped lines
+     */
+    long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return number of slots
+     */
+    int capacity() {
+        return slots.length;
+    }
+
+    private long claim() {
+        while (true) {
+            long current = tail.get();
+            if (current - head.get() >= slots.length) {
+                if (!block) {
+                    return -1;
+                }
+                LockSupport.parkNanos(1000);
+                continue;
+            }
+            if (tail.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+}
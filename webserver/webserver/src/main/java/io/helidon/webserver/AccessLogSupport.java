@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow;
+
+/**
+ * Access log of the {@link WebServer WebServer}'s {@link Routing}. Each completed response is logged in the Common Log
+ * Format extended by the processing time in microseconds (Apache {@code %h %l %u %t "%r" %>s %b %D}):
+ * <pre>
+ * 192.168.1.10 - - [19/Oct/2018:14:12:31 +0200] "GET /greet?name=Joe HTTP/1.1" 200 23 1548
+ * </pre>
+ * The time is measured from the receipt of the request headers to the completion of the response.
+ * <p>
+ * Request threads never write to the file. A line is formatted into a preallocated slot of a lock-free ring buffer,
+ * a single background thread writes the lines in batches to a file which is rotated by size. If the buffer is full,
+ * lines are dropped (the default) or the request thread waits for a free slot.
+ * <pre>{@code
+ * AccessLogSupport accessLog = AccessLogSupport.builder()
+ *                                              .file(Paths.get("logs/access.log"))
+ *                                              .build();
+ * Routing.builder()
+ *        .register(accessLog)
+ * }</pre>
+ * It must be registered first to log all requests and {@link #close() closed} when the server stops.
+ */
+public final class AccessLogSupport implements Service, Handler, AutoCloseable {
+
+    /**
+     * Default number of lines in the buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Default size of the log file which triggers rotation.
+     */
+    public static final long DEFAULT_MAX_FILE_SIZE = 100 * 1024 * 1024;
+
+    /**
+     * Default number of rotated files to keep.
+     */
+    public static final int DEFAULT_MAX_FILES = 10;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z",
+                                                                                          Locale.ENGLISH);
+    private static final int LINE_CAPACITY = 256;
+
+    private final AccessLogBuffer buffer;
+    private final AccessLogWriter writer;
+    private final ZoneId zone;
+    private volatile CachedTimestamp timestamp = new CachedTimestamp(Long.MIN_VALUE, "");
+
+    private AccessLogSupport(Builder builder) {
+        this.buffer = new AccessLogBuffer(builder.bufferSize, LINE_CAPACITY, builder.blockWhenFull);
+        this.writer = new AccessLogWriter(buffer, builder.file, builder.maxFileSize, builder.maxFiles);
+        this.zone = builder.zone;
+    }
+
+    @Override
+    public void update(Routing.Rules routingRules) {
+        routingRules.any(this);
+    }
+
+    /**
+     * Logs the response once it is sent and calls {@code ServerRequest.}{@link ServerRequest#next() next()}.
+     *
+     * @param request  a server request
+     * @param response a server response
+     */
+    @Override
+    public void accept(ServerRequest request, ServerResponse response) {
+        long now = System.nanoTime();
+        long received = request instanceof Request ? ((Request) request).receivedNanos() : -1;
+        long start = received < 0 ? now : received;
+        long startMillis = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(now - start);
+        CountingPublisher[] counter = new CountingPublisher[1];
+        response.registerFilter(publisher -> {
+            counter[0] = new CountingPublisher(publisher);
+            return counter[0];
+        });
+        response.whenSent().whenComplete((res, throwable) -> {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            long bytes = counter[0] == null ? 0 : counter[0].bytes;
+            buffer.offer(line -> format(line, request, response, startMillis, bytes, micros));
+        });
+        request.next();
+    }
+
+    /**
+     * Returns the number of lines dropped because the buffer was full.
+     *
+     * @return number of dropped lines
+     */
+    public long droppedLines() {
+        return buffer.dropped();
+    }
+
+    /**
+     * Writes pending lines, stops the background thread and closes the log file. Later responses are not logged.
+     */
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void format(StringBuilder line,
+                        ServerRequest request,
+                        ServerResponse response,
+                        long startMillis,
+                        long bytes,
+                        long micros) {
+        line.append(request.remoteAddress())
+            .append(" - - [")
+            .append(timestamp(startMillis))
+            .append("] \"")
+            .append(request.method().name())
+            .append(' ')
+            .append(request.uri().getRawPath());
+        String query = request.uri().getRawQuery();
+        if (query != null) {
+            line.append('?').append(query);
+        }
+        line.append(' ')
+            .append(request.version().value())
+            .append("\" ")
+            .append(response.status().code())
+            .append(' ');
+        if (bytes == 0) {
+            line.append('-');
+        } else {
+            line.append(bytes);
+        }
+        line.append(' ').append(micros);
+    }
+
+    private String timestamp(long millis) {
+        long second = millis / 1000;
+        CachedTimestamp cached = timestamp;
+        if (cached.second != second) {
+            cached = new CachedTimestamp(second, TIMESTAMP_FORMAT.format(Instant.ofEpochSecond(second).atZone(zone)));
+            timestamp = cached;
+        }
+        return cached.formatted;
+    }
+
+    /**
+     * Creates new builder.
+     *
+     * @return a builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static final class CachedTimestamp {
+        private final long second;
+        private final String formatted;
+
+        private CachedTimestamp(long second, String formatted) {
+            this.second = second;
+            this.formatted = formatted;
+        }
+    }
+
+    /**
+     * Counts bytes of the response content.
+     */
+    private static final class CountingPublisher implements Flow.Publisher<DataChunk> {
+
+        private final Flow.Publisher<DataChunk> content;
+        private volatile long bytes;
+
+        private CountingPublisher(Flow.Publisher<DataChunk> content) {
+            this.content = content;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+            content.subscribe(new Flow.Subscriber<DataChunk>() {
+                private long count;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscriber.onSubscribe(subscription);
+                }
+
+                @Override
+                public void onNext(DataChunk item) {
+                    count += item.data().remaining();
+                    subscriber.onNext(item);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    bytes = count;
+                    subscriber.onError(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    bytes = count;
+                    subscriber.onComplete();
+                }
+            });
+        }
+    }
+
+    /**
+     * Fluent builder of {@link AccessLogSupport}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<AccessLogSupport> {
+
+        private Path file = Paths.get("access.log");
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+        private int maxFiles = DEFAULT_MAX_FILES;
+        private boolean blockWhenFull;
+        private ZoneId zone = ZoneId.systemDefault();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the log file. Default is {@code access.log} in the working directory.
+         *
+         * @param file a log file
+         * @return updated builder
+         * @throws NullPointerException if {@code file} is {@code null}
+         */
+        public Builder file(Path file) {
+            this.file = Objects.requireNonNull(file, "Parameter 'file' is null!");
+            return this;
+        }
+
+        /**
+         * Sets the number of lines which can wait for the background thread. It is rounded up to a power of two.
+         * Default is {@value AccessLogSupport#DEFAULT_BUFFER_SIZE}.
+         *
+         * @param bufferSize number of lines
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code bufferSize} is not positive
+         */
+        public Builder bufferSize(int bufferSize) {
+            if (bufferSize <= 0) {
+                throw new IllegalArgumentException("Parameter 'bufferSize' must be positive!");
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the size of the log file which triggers rotation, {@code 0} disables rotation. Default is
+         * {@value AccessLogSupport#DEFAULT_MAX_FILE_SIZE}.
+         *
+         * @param maxFileSize number of bytes
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code maxFileSize} is negative
+         */
+        public Builder maxFileSize(long maxFileSize) {
+            if (maxFileSize < 0) {
+                throw new IllegalArgumentException("Parameter 'maxFileSize' cannot be negative!");
+            }
+            this.maxFileSize = maxFileSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of rotated files to keep. Default is {@value AccessLogSupport#DEFAULT_MAX_FILES}.
+         *
+         * @param maxFiles number of files
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code maxFiles} is negative
+         */
+        public Builder maxFiles(int maxFiles) {
+            if (maxFiles < 0) {
+                throw new IllegalArgumentException("Parameter 'maxFiles' cannot be negative!");
+            }
+            this.maxFiles = maxFiles;
+            return this;
+        }
+
+        /**
+         * Sets whether request threads wait for a free slot when the buffer is full. Default is {@code false} - lines
+         * are dropped and counted by {@link AccessLogSupport#droppedLines()}.
+         *
+         * @param blockWhenFull {@code true} to wait, {@code false} to drop lines
+         * @return updated builder
+         */
+        public Builder blockWhenFull(boolean blockWhenFull) {
+            this.blockWhenFull = blockWhenFull;
+            return this;
+        }
+
+        /**
+         * Sets the time zone of timestamps. Default is the system default zone.
+         *
+         * @param zone a time zone
+         * @return updated builder
+         * @throws NullPointerException if {@code zone} is {@code null}
+         */
+        public Builder zone(ZoneId zone) {
+            this.zone = Objects.requireNonNull(zone, "Parameter 'zone' is null!");
+            return this;
+        }
+
+        @Override
+        public AccessLogSupport build() {
+            return new AccessLogSupport(this);
+        }
+    }
+}
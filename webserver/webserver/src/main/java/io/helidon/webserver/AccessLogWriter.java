@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The single background thread of an access log. It drains the {@link AccessLogBuffer}, encodes lines into a
+ * preallocated byte buffer and writes them to the file in batches. The file is rotated when it reaches the maximal
+ * size: {@code access.log} is renamed to {@code access.log.1}, older files are shifted and the oldest one is deleted.
+ * The current file is closed only after the new one is opened, so a failed rotation doesn't stop the logging.
+ * <p>
+ * An idle writer parks until a line is published or the idle timeout elapses.
+ */
+class AccessLogWriter implements Runnable {
+
+    private static final Logger LOGGER = Logger.getLogger(AccessLogWriter.class.getName());
+    private static final long IDLE_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int BATCH_SIZE = 64 * 1024;
+    private static final int MAX_RETAINED_CHARS = 16 * 1024;
+
+    private final AccessLogBuffer buffer;
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final Thread thread;
+
+    // confined to the writer thread
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BATCH_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                                                                 .onMalformedInput(CodingErrorAction.REPLACE)
+                                                                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private char[] chars = new char[1024];
+    private FileChannel channel;
+    private long fileSize;
+
+    private volatile boolean running = true;
+
+    /**
+     * Creates and starts new writer.
+     *
+     * @param buffer      a buffer of lines
+     * @param file        a log file
+     * @param maxFileSize a size of the file which triggers rotation, {@code 0} for no rotation
+     * @param maxFiles    number of rotated files to keep
+     */
+    AccessLogWriter(AccessLogBuffer buffer, Path file, long maxFileSize, int maxFiles) {
+        this.buffer = buffer;
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the access log file: " + file, e);
+        }
+        this.thread = new Thread(this, "helidon-access-log");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            if (drain() == 0) {
+                buffer.await(IDLE_TIMEOUT_NANOS);
+            }
+        }
+        drain();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Cannot close the access log file: " + file, e);
+        }
+    }
+
+    /**
+     * Writes all pending lines, stops the thread and closes the file.
+     *
+     * @throws InterruptedException if interrupted while waiting for the thread
+     */
+    void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private int drain() {
+        int count = buffer.drain(this::encode);
+        if (count > 0) {
+            flush();
+        }
+        return count;
+    }
+
+    private void encode(StringBuilder line) {
+        int length = line.length();
+        char[] target = chars;
+        if (target.length < length + 1) {
+            target = new char[length + 1];
+            if (target.length <= MAX_RETAINED_CHARS) {
+                chars = target;
+            }
+        }
+        line.getChars(0, length, target, 0);
+        target[length] = '\n';
+        CharBuffer input = CharBuffer.wrap(target, 0, length + 1);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(input, bytes, true);
+            if (result.isOverflow()) {
+                flush();
+            } else {
+                break;
+            }
+        }
+    }
+
+    private void flush() {
+        bytes.flip();
+        try {
+            while (bytes.hasRemaining()) {
+                fileSize += channel.write(bytes);
+            }
+            if (maxFileSize > 0 && fileSize >= maxFileSize) {
+                rotate();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Cannot write to the access log file: " + file, e);
+        } finally {
+            bytes.clear();
+        }
+    }
+
+    private void rotate() throws IOException {
+        // an open file can be renamed, the current channel keeps working until the new one is opened; the file is
+        // missing if it was rotated but the new one could not be opened, then only the open is retried
+        if (Files.exists(file)) {
+            if (maxFiles <= 0) {
+                Files.delete(file);
+            } else {
+                Files.deleteIfExists(rotated(maxFiles));
+                for (int i = maxFiles - 1; i >= 1; i--) {
+                    Path source = rotated(i);
+                    if (Files.exists(source)) {
+                        Files.move(source, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        FileChannel previous = channel;
+        open();
+        try {
+            previous.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Cannot close the previous access log file: " + file, e);
+        }
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void open() throws IOException {
+        FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                              StandardOpenOption.APPEND);
+        try {
+            fileSize = opened.size();
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+        channel = opened;
+    }
+}
@@ -41,4 +41,16 @@ public class BadRequestException extends HttpException {
     public BadRequestException(String message, Throwable cause) {
         super(message, Http.Status.BAD_REQUEST_400, cause);
     }
+
+    /**
+     * Creates {@link BadRequestException} with or without the stack trace.
+     *
+     * @param message the message
+     * @param cause the cause of this exception, can be {@code null}
+     * @param writableStackTrace {@code false} to create a stackless exception
+     * @see HttpException#HttpException(String, Http.ResponseStatus, Throwable, boolean)
+     */
+    protected BadRequestException(String message, Throwable cause, boolean writableStackTrace) {
+        super(message, Http.Status.BAD_REQUEST_400, cause, writableStackTrace);
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Optional;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.http.Parameters;
+import io.helidon.common.reactive.Flow;
+
+/**
+ * A single part of a {@link MultiPart multipart} request body.
+ * <p>
+ * The part content is a single-subscriber {@link Flow.Publisher publisher} of {@link DataChunk}s. Each part should
+ * be either fully consumed or its content subscription canceled, otherwise a temporary file created for a large
+ * part is not deleted until JVM exit.
+ */
+public interface BodyPart {
+
+    /**
+     * Returns the part headers.
+     *
+     * @return read-only part headers
+     */
+    Parameters headers();
+
+    /**
+     * Returns the value of the {@code name} parameter of the {@code Content-Disposition} header.
+     *
+     * @return a form field name
+     */
+    Optional<String> name();
+
+    /**
+     * Returns the value of the {@code filename} parameter of the {@code Content-Disposition} header.
+     *
+     * @return a filename of an uploaded file
+     */
+    Optional<String> filename();
+
+    /**
+     * Returns the part {@code Content-Type}.
+     *
+     * @return a content type of the part
+     */
+    Optional<MediaType> contentType();
+
+    /**
+     * Returns the part content. Only the first subscriber is accepted.
+     *
+     * @return a publisher of the part content
+     */
+    Flow.Publisher<DataChunk> content();
+}
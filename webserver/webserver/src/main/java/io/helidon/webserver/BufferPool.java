@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of direct {@link ByteBuffer}s of a single capacity. Buffers are returned to the pool when
+ * the {@link io.helidon.common.http.DataChunk chunk} which holds them is released.
+ */
+class BufferPool {
+
+    private final int bufferSize;
+    private final int maxSize;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates new instance.
+     *
+     * @param bufferSize a capacity of the buffers
+     * @param maxSize    maximal number of pooled buffers
+     */
+    BufferPool(int bufferSize, int maxSize) {
+        this.bufferSize = bufferSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns a pooled or new buffer.
+     *
+     * @return a cleared buffer
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        size.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer to the pool. If the pool is full, the buffer is left to the garbage collector.
+     *
+     * @param buffer a buffer acquired from this pool
+     */
+    void release(ByteBuffer buffer) {
+        if (size.incrementAndGet() > maxSize) {
+            size.decrementAndGet();
+            return;
+        }
+        buffers.offer(buffer);
+    }
+
+    /**
+     * Returns the capacity of the buffers.
+     *
+     * @return the capacity
+     */
+    int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the number of pooled buffers.
+     *
+     * @return the number of buffers
+     */
+    int size() {
+        return size.get();
+    }
+}
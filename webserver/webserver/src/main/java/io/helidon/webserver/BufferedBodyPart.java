@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.http.Parameters;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.RequestedCounter;
+import io.helidon.common.reactive.SingleSubscriberHolder;
+
+/**
+ * A {@link BodyPart} which content is appended by the {@link MultiPartDecoder} and published to a single subscriber.
+ * <p>
+ * Appended chunks which are not yet requested by the subscriber are kept in memory (without copying) until their
+ * size reaches the memory threshold. Then all buffered and all following chunks are written to a temporary file
+ * and published from it.
+ */
+class BufferedBodyPart implements BodyPart, Flow.Publisher<DataChunk> {
+
+    private static final Logger LOGGER = Logger.getLogger(BufferedBodyPart.class.getName());
+
+    private static final int FILE_CHUNK_CAPACITY = 1024 * 8;
+
+    private final Parameters headers;
+    private final long memoryThreshold;
+    private final Path tempDirectory;
+
+    private final SingleSubscriberHolder<DataChunk> subscriber = new SingleSubscriberHolder<>();
+    private final RequestedCounter requested = new RequestedCounter();
+
+    // guarded by this
+    private final Deque<DataChunk> chunks = new ArrayDeque<>();
+    private Flow.Subscriber<? super DataChunk> sub;
+    private long bufferedBytes;
+    private FileChannel file;
+    private long writePosition;
+    private long readPosition;
+    private boolean complete;
+    private Throwable error;
+    private boolean released;
+    private final AtomicInteger wip = new AtomicInteger();
+
+    /**
+     * Creates new instance.
+     *
+     * @param headers         the part headers
+     * @param memoryThreshold maximal number of bytes kept in memory
+     * @param tempDirectory   a directory for temporary files or {@code null} for the default one
+     */
+    BufferedBodyPart(Parameters headers, long memoryThreshold, Path tempDirectory) {
+        this.headers = headers;
+        this.memoryThreshold = memoryThreshold;
+        this.tempDirectory = tempDirectory;
+    }
+
+    @Override
+    public Parameters headers() {
+        return headers;
+    }
+
+    @Override
+    public Optional<String> name() {
+        return dispositionParameter("name");
+    }
+
+    @Override
+    public Optional<String> filename() {
+        return dispositionParameter("filename");
+    }
+
+    @Override
+    public Optional<MediaType> contentType() {
+        return headers.first(Http.Header.CONTENT_TYPE).map(MediaType::parse);
+    }
+
+    @Override
+    public Flow.Publisher<DataChunk> content() {
+        return this;
+    }
+
+    private Optional<String> dispositionParameter(String name) {
+        return headers.first(Http.Header.CONTENT_DISPOSITION).map(value -> {
+            for (String token : value.split(";")) {
+                int index = token.indexOf('=');
+                if (index > 0 && token.substring(0, index).trim().equalsIgnoreCase(name)) {
+                    String result = token.substring(index + 1).trim();
+                    if (result.length() > 1 && result.startsWith("\"") && result.endsWith("\"")) {
+                        result = result.substring(1, result.length() - 1);
+                    }
+                    return result;
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DataChunk> subscriberParam) {
+        if (subscriber.register(subscriberParam)) {
+            synchronized (this) {
+                sub = subscriberParam;
+            }
+            subscriberParam.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested.increment(n, t -> fail(t));
+                    drain();
+                }
+
+                @Override
+                public void cancel() {
+                    subscriber.cancel();
+                    drain();
+                }
+            });
+            drain();
+        }
+    }
+
+    /**
+     * Appends a chunk of the part content. The chunk is released when it is consumed or written to a file.
+     *
+     * @param chunk a chunk to append
+     */
+    void append(DataChunk chunk) {
+        synchronized (this) {
+            if (released || complete) {
+                chunk.release();
+                return;
+            }
+            try {
+                if (file == null && bufferedBytes + chunk.data().remaining() > memoryThreshold) {
+                    spill();
+                }
+                if (file == null) {
+                    bufferedBytes += chunk.data().remaining();
+                    chunks.addLast(chunk);
+                } else {
+                    writeToFile(chunk);
+                }
+            } catch (IOException e) {
+                chunk.release();
+                error = new IllegalStateException("Cannot write multipart content to a temporary file!", e);
+                complete = true;
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Marks the part content as complete.
+     */
+    void complete() {
+        synchronized (this) {
+            complete = true;
+        }
+        drain();
+    }
+
+    /**
+     * Completes the part content exceptionally.
+     *
+     * @param throwable a cause
+     */
+    void fail(Throwable throwable) {
+        synchronized (this) {
+            if (error == null) {
+                error = throwable;
+            }
+            complete = true;
+        }
+        drain();
+    }
+
+    /**
+     * Returns the number of bytes currently held in memory.
+     *
+     * @return number of buffered bytes
+     */
+    synchronized long bufferedBytes() {
+        return bufferedBytes;
+    }
+
+    /**
+     * Returns {@code true} if the content was spilled over to a temporary file.
+     *
+     * @return whether a temporary file is used
+     */
+    synchronized boolean isSpilled() {
+        return file != null || writePosition > 0;
+    }
+
+    private void spill() throws IOException {
+        Path path = tempDirectory == null
+                ? Files.createTempFile("helidon-multipart", ".part")
+                : Files.createTempFile(tempDirectory, "helidon-multipart", ".part");
+        file = FileChannel.open(path,
+                                StandardOpenOption.READ,
+                                StandardOpenOption.WRITE,
+                                StandardOpenOption.DELETE_ON_CLOSE);
+        DataChunk chunk;
+        while ((chunk = chunks.pollFirst()) != null) {
+            writeToFile(chunk);
+        }
+        bufferedBytes = 0;
+    }
+
+    private void writeToFile(DataChunk chunk) throws IOException {
+        try {
+            ByteBuffer data = chunk.data();
+            while (data.hasRemaining()) {
+                writePosition += file.write(data, writePosition);
+            }
+        } finally {
+            chunk.release();
+        }
+    }
+
+    private DataChunk readFromFile() throws IOException {
+        int size = (int) Math.min(FILE_CHUNK_CAPACITY, writePosition - readPosition);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            int count = file.read(buffer, readPosition);
+            if (count < 0) {
+                throw new IOException("Unexpected end of a temporary file!");
+            }
+            readPosition += count;
+        }
+        buffer.flip();
+        return DataChunk.create(buffer);
+    }
+
+    /**
+     * Publishes available chunks and the terminal signal. Subscriber methods are never called while holding the
+     * monitor of this instance, a work-in-progress counter serializes the calls.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            try {
+                while (true) {
+                    DataChunk chunk = null;
+                    Throwable terminalError = null;
+                    boolean terminalComplete = false;
+                    Flow.Subscriber<? super DataChunk> s;
+                    synchronized (this) {
+                        s = sub;
+                        if (s == null || released) {
+                            break;
+                        }
+                        if (subscriber.isClosed()) {
+                            // canceled
+                            release();
+                            break;
+                        }
+                        if (!chunks.isEmpty() || readPosition < writePosition) {
+                            if (!requested.tryDecrement()) {
+                                break;
+                            }
+                            if (chunks.isEmpty()) {
+                                chunk = readFromFile();
+                            } else {
+                                chunk = chunks.pollFirst();
+                                bufferedBytes -= chunk.data().remaining();
+                            }
+                        } else if (error != null) {
+                            terminalError = error;
+                            release();
+                        } else if (complete) {
+                            terminalComplete = true;
+                            release();
+                        } else {
+                            break;
+                        }
+                    }
+                    if (chunk != null) {
+                        s.onNext(chunk);
+                    } else if (terminalComplete) {
+                        subscriber.close(Flow.Subscriber::onComplete);
+                        break;
+                    } else {
+                        Throwable t = terminalError;
+                        subscriber.close(sc -> sc.onError(t));
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    release();
+                }
+                subscriber.close(sc -> sc.onError(e));
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        DataChunk chunk;
+        while ((chunk = chunks.pollFirst()) != null) {
+            chunk.release();
+        }
+        bufferedBytes = 0;
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Cannot close a temporary file of a multipart body part!", e);
+            }
+            file = null;
+        }
+    }
+}
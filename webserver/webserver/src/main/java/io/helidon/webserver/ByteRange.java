@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A satisfiable range of bytes of a {@code Range} request header (RFC 7233).
+ */
+final class ByteRange {
+
+    /**
+     * More ranges than this are considered abusive and the whole {@code Range} header is ignored.
+     */
+    static final int MAX_RANGES = 64;
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long start;
+    private final long end;
+
+    /**
+     * Creates new instance.
+     *
+     * @param start the first byte position
+     * @param end   the last byte position (inclusive)
+     */
+    ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Parses the value of the {@code Range} header.
+     *
+     * @param value  a header value
+     * @param length a length of the representation
+     * @return {@code null} if the header should be ignored (syntactically invalid, unsupported unit, too many ranges,
+     * overlapping ranges exceeding the representation), an empty list if no range is satisfiable, otherwise
+     * satisfiable ranges in the requested order
+     */
+    static List<ByteRange> parse(String value, long length) {
+        if (value == null || !value.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            return null;
+        }
+        String[] specs = value.substring(BYTES_UNIT.length()).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        List<ByteRange> result = new ArrayList<>(specs.length);
+        long total = 0;
+        try {
+            for (String spec : specs) {
+                spec = spec.trim();
+                if (spec.isEmpty()) {
+                    continue;
+                }
+                int dash = spec.indexOf('-');
+                if (dash < 0) {
+                    return null;
+                }
+                String first = spec.substring(0, dash).trim();
+                String last = spec.substring(dash + 1).trim();
+                ByteRange range;
+                if (first.isEmpty()) {
+                    // suffix-byte-range-spec
+                    long suffix = parseNumber(last);
+                    if (suffix == 0 || length == 0) {
+                        continue;
+                    }
+                    range = new ByteRange(Math.max(0, length - suffix), length - 1);
+                } else {
+                    long start = parseNumber(first);
+                    long end = last.isEmpty() ? Long.MAX_VALUE : parseNumber(last);
+                    if (end < start) {
+                        return null;
+                    }
+                    if (start >= length) {
+                        continue;
+                    }
+                    range = new ByteRange(start, Math.min(end, length - 1));
+                }
+                total += range.length();
+                if (total > length) {
+                    // overlapping ranges - it is cheaper to send the whole representation
+                    return null;
+                }
+                result.add(range);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return result.isEmpty() ? Collections.emptyList() : result;
+    }
+
+    private static long parseNumber(String value) {
+        long result = Long.parseLong(value);
+        if (result < 0 || value.charAt(0) == '+') {
+            throw new NumberFormatException("Not a byte position: " + value);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first byte position.
+     *
+     * @return the first byte position
+     */
+    long start() {
+        return start;
+    }
+
+    /**
+     * Returns the last byte position (inclusive).
+     *
+     * @return the last byte position
+     */
+    long end() {
+        return end;
+    }
+
+    /**
+     * Returns the number of bytes in the range.
+     *
+     * @return the number of bytes
+     */
+    long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Returns the value of the {@code Content-Range} header for this range.
+     *
+     * @param completeLength a length of the representation
+     * @return the header value
+     */
+    String contentRange(long completeLength) {
+        return "bytes " + start + "-" + end + "/" + completeLength;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ByteRange)) {
+            return false;
+        }
+        ByteRange other = (ByteRange) o;
+        return start == other.start && end == other.end;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(start) * 31 + Long.hashCode(end);
+    }
+
+    @Override
+    public String toString() {
+        return start + "-" + end;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import io.helidon.common.http.Http;
+
+/**
+ * The value of the {@code Date} response header. It changes once a second, so it is formatted once per second
+ * and the same {@link String} instance is shared by all responses of that second. Transports can rely on the
+ * identity of the instance to cache its encoded form.
+ */
+final class CachedDate {
+
+    private static volatile CachedDate current = new CachedDate(Long.MIN_VALUE, "");
+
+    private final long second;
+    private final String value;
+
+    private CachedDate(long second, String value) {
+        this.second = second;
+        this.value = value;
+    }
+
+    /**
+     * Returns the current date in the RFC 1123 format in GMT.
+     *
+     * @return the current date
+     */
+    static String now() {
+        return of(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the date of the given time in the RFC 1123 format in GMT. Only the current second is cached.
+     *
+     * @param millis milliseconds since the epoch
+     * @return the formatted date
+     */
+    static String of(long millis) {
+        long second = Math.floorDiv(millis, 1000);
+        CachedDate cached = current;
+        if (cached.second != second) {
+            cached = new CachedDate(second, Http.DateTime.RFC_1123_DATE_TIME.format(Instant.ofEpochSecond(second)
+                                                                                           .atOffset(ZoneOffset.UTC)));
+            current = cached;
+        }
+        return cached.value;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Decodes a sequence of byte buffers into characters one buffer at a time. A multibyte character split between
+ * two buffers is decoded once its remaining bytes arrive. Malformed and unmappable input is replaced, the same way
+ * {@link String#String(byte[], Charset)} does it.
+ * <p>
+ * Not thread safe.
+ */
+final class ChunkDecoder {
+
+    /**
+     * Bytes of a single incomplete character; more than enough for every JDK charset.
+     */
+    private static final int PENDING_CAPACITY = 32;
+
+    private final CharsetDecoder decoder;
+    private final ByteBuffer pending = ByteBuffer.allocate(PENDING_CAPACITY);
+
+    /**
+     * Creates new instance.
+     *
+     * @param charset a charset of decoded bytes
+     */
+    ChunkDecoder(Charset charset) {
+        this.decoder = charset.newDecoder()
+                              .onMalformedInput(CodingErrorAction.REPLACE)
+                              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Decodes all remaining bytes of the buffer. Trailing bytes of an incomplete character are copied and decoded
+     * together with the next buffer.
+     *
+     * @param data a buffer to decode
+     * @return decoded characters ready to be read
+     */
+    CharBuffer decode(ByteBuffer data) {
+        CharBuffer out = CharBuffer.allocate(capacity(data.remaining() + pending.position()));
+        // complete a character started in the previous buffer
+        while (pending.position() > 0 && data.hasRemaining()) {
+            pending.put(data.get());
+            pending.flip();
+            out = decode(pending, out, false);
+            pending.compact();
+        }
+        out = decode(data, out, false);
+        if (data.hasRemaining()) {
+            pending.put(data);
+        }
+        out.flip();
+        return out;
+    }
+
+    /**
+     * Decodes bytes of an incomplete last character (as replacement) and flushes the decoder.
+     *
+     * @return decoded characters ready to be read
+     */
+    CharBuffer finish() {
+        CharBuffer out = CharBuffer.allocate(capacity(pending.position()) + 1);
+        pending.flip();
+        out = decode(pending, out, true);
+        pending.clear();
+        while (decoder.flush(out).isOverflow()) {
+            out = grow(out, 1);
+        }
+        out.flip();
+        return out;
+    }
+
+    private CharBuffer decode(ByteBuffer in, CharBuffer out, boolean endOfInput) {
+        CharBuffer result = out;
+        while (decoder.decode(in, result, endOfInput).isOverflow()) {
+            result = grow(result, in.remaining());
+        }
+        return result;
+    }
+
+    private int capacity(int bytes) {
+        return (int) Math.ceil(bytes * (double) decoder.averageCharsPerByte());
+    }
+
+    private CharBuffer grow(CharBuffer out, int remainingBytes) {
+        int increment = Math.max(capacity(remainingBytes), (int) Math.ceil(decoder.maxCharsPerByte()));
+        CharBuffer result = CharBuffer.allocate(out.capacity() + Math.max(increment, 16));
+        out.flip();
+        result.put(out);
+        return result;
+    }
+}
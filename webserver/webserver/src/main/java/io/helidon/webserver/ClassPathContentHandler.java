@@ -28,11 +28,16 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
+import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Http;
+import io.helidon.common.reactive.ReactiveStreamsAdapter;
+
+import reactor.core.publisher.Mono;
 
 /**
  * Handles static content from the classpath.
@@ -42,17 +47,60 @@ class ClassPathContentHandler extends FileSystemContentHandler {
     private final ClassLoader classLoader;
     // URL's hash code and equal are not suitable for map or set
     private final Map<Path, ExtractedJarEntry> extracted = new ConcurrentHashMap<>();
+    private final ContentTypeSelector contentTypeSelector;
+    private final ResourceCache cache;
 
     ClassPathContentHandler(String welcomeFilename,
                             ContentTypeSelector contentTypeSelector,
                             String root,
                             ClassLoader classLoader) {
+        this(welcomeFilename, contentTypeSelector, root, classLoader, null);
+    }
+
+    /**
+     * Creates new instance.
+     *
+     * @param welcomeFilename     a welcome filename
+     * @param contentTypeSelector a selector for content type
+     * @param root                static content root
+     * @param classLoader         a class-loader of the static content
+     * @param cache               a cache of resources from JAR files or {@code null} to not cache
+     */
+    ClassPathContentHandler(String welcomeFilename,
+                            ContentTypeSelector contentTypeSelector,
+                            String root,
+                            ClassLoader classLoader,
+                            ResourceCache cache) {
         super(welcomeFilename, contentTypeSelector, Paths.get(root));
         this.classLoader = classLoader == null ? this.getClass().getClassLoader() : classLoader;
+        this.contentTypeSelector = contentTypeSelector;
+        this.cache = cache;
+    }
+
+    @Override
+    void releaseCache() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    @Override
+    Optional<StaticContentSupport.CacheStatistics> cacheStatistics() {
+        return cache == null ? Optional.empty() : Optional.of(cache.statistics());
     }
 
     @Override
     boolean doHandle(Http.RequestMethod method, Path path, ServerRequest request, ServerResponse response) throws IOException {
+        // Range requests are served from the extracted file
+        boolean cacheable = cache != null && !request.headers().first(Http.Header.RANGE).isPresent();
+        if (cacheable) {
+            ResourceCache.CachedResource cached = cache.get(path);
+            if (cached != null) {
+                sendCached(method, cached, request, response);
+                return true;
+            }
+        }
+
         URL url = classLoader.getResource(path.toString());
         if (url == null) {
             return false;
@@ -88,20 +136,46 @@ class ClassPathContentHandler extends FileSystemContentHandler {
 
             String entryName = extrEntry.entryName == null ? getFileName(path) : extrEntry.entryName;
 
+            if (cacheable && cache.accepts(Files.size(extrEntry.tempFile))) {
+                // JAR entries don't change, cache them with all precomputed metadata
+                ResourceCache.CachedResource cached = new ResourceCache.CachedResource(
+                        Files.readAllBytes(extrEntry.tempFile),
+                        extrEntry.lastModified == null ? null : String.valueOf(extrEntry.lastModified.toEpochMilli()),
+                        extrEntry.lastModified,
+                        contentTypeSelector.get(entryName));
+                cache.put(path, cached);
+                sendCached(method, cached, request, response);
+                return true;
+            }
+
             processContentType(entryName,
                                request.headers(),
                                response.headers());
-            if (method == Http.Method.HEAD) {
-                response.send();
-            } else {
-                response.send(extrEntry.tempFile);
-            }
+            sendFile(method, extrEntry.tempFile, request, response);
             return true;
         } else {
             throw new HttpException("Static content supports only JAR and File!", Http.Status.INTERNAL_SERVER_ERROR_500);
         }
     }
 
+    private void sendCached(Http.RequestMethod method,
+                            ResourceCache.CachedResource cached,
+                            ServerRequest request,
+                            ServerResponse response) {
+        ResponseHeaders responseHeaders = response.headers();
+        processEtag(cached.etag(), request.headers(), responseHeaders);
+        processModifyHeaders(cached.lastModified(), request.headers(), responseHeaders);
+        responseHeaders.contentType(contentTypeSelector.determineFor(cached.mediaType(), request.headers()));
+        responseHeaders.put(Http.Header.ACCEPT_RANGES, "bytes");
+        responseHeaders.contentLength(cached.size());
+        if (method == Http.Method.HEAD) {
+            response.send();
+        } else {
+            // the shared direct buffer is written without copying
+            response.send(ReactiveStreamsAdapter.publisherToFlow(Mono.just(DataChunk.create(false, cached.content()))));
+        }
+    }
+
     private ExtractedJarEntry extractJarEntry(URL url) {
         try {
             JarURLConnection jarUrlConnection = (JarURLConnection) url.openConnection();
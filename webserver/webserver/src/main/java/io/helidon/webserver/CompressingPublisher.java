@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.RequestedCounter;
+import io.helidon.common.reactive.SingleSubscriberHolder;
+
+/**
+ * Compresses response content chunk by chunk using {@code gzip} or {@code deflate} content coding.
+ * <p>
+ * Chunks are held (without copying) until at least {@code minSize} bytes are received or a chunk is marked to be
+ * {@link DataChunk#flush() flushed}, so that streaming content is not held back. If the content completes before,
+ * it is published unchanged. Otherwise the compression callback is called - it updates the response headers and can
+ * refuse the compression if the headers were already sent. A chunk marked to be {@link DataChunk#flush() flushed}
+ * is compressed with {@link Deflater#SYNC_FLUSH}, so streaming content is not delayed by the compression.
+ */
+class CompressingPublisher implements Flow.Publisher<DataChunk>, Flow.Subscriber<DataChunk> {
+
+    private static final int BUFFER_SIZE = 1024 * 8;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private enum State {
+        UNDECIDED, COMPRESS, IDENTITY
+    }
+
+    private final Flow.Publisher<DataChunk> content;
+    private final DeflaterPool pool;
+    private final boolean gzip;
+    private final long minSize;
+    private final BooleanSupplier compressionCallback;
+
+    private final SingleSubscriberHolder<DataChunk> subscriber = new SingleSubscriberHolder<>();
+    private final RequestedCounter requested = new RequestedCounter();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    // guarded by this
+    private final Deque<DataChunk> held = new ArrayDeque<>();
+    private final Deque<DataChunk> output = new ArrayDeque<>();
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private Flow.Subscriber<? super DataChunk> sub;
+    private Flow.Subscription upstream;
+    private State state = State.UNDECIDED;
+    private long heldBytes;
+    private Deflater deflater;
+    private CRC32 crc;
+    private boolean upstreamRequested;
+    private boolean upstreamComplete;
+    private boolean upstreamCanceled;
+    private Throwable error;
+
+    /**
+     * Creates new instance.
+     *
+     * @param content             the response content
+     * @param pool                a pool of deflaters of the content coding
+     * @param gzip                {@code true} for {@code gzip}, {@code false} for {@code deflate} content coding
+     * @param minSize             minimal content size to compress
+     * @param compressionCallback called once the content is known to be large enough, returns {@code false} if it
+     *                            cannot be compressed anymore
+     */
+    CompressingPublisher(Flow.Publisher<DataChunk> content,
+                         DeflaterPool pool,
+                         boolean gzip,
+                         long minSize,
+                         BooleanSupplier compressionCallback) {
+        this.content = content;
+        this.pool = pool;
+        this.gzip = gzip;
+        this.minSize = minSize;
+        this.compressionCallback = compressionCallback;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DataChunk> subscriberParam) {
+        if (subscriber.register(subscriberParam)) {
+            synchronized (this) {
+                sub = subscriberParam;
+            }
+            subscriberParam.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested.increment(n, CompressingPublisher.this::onError);
+                    drain();
+                }
+
+                @Override
+                public void cancel() {
+                    subscriber.cancel();
+                    drain();
+                }
+            });
+            content.subscribe(this);
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            upstream = subscription;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(DataChunk item) {
+        synchronized (this) {
+            upstreamRequested = false;
+            if (error != null || upstreamCanceled) {
+                item.release();
+                return;
+            }
+            switch (state) {
+            case UNDECIDED:
+                held.addLast(item);
+                heldBytes += item.data().remaining();
+                if (heldBytes >= minSize || item.flush()) {
+                    decide();
+                }
+                break;
+            case COMPRESS:
+                compress(item);
+                break;
+            default:
+                output.addLast(item);
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (this) {
+            if (error == null) {
+                error = throwable;
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            if (state == State.UNDECIDED) {
+                // too small to compress
+                state = State.IDENTITY;
+                output.addAll(held);
+                held.clear();
+            } else if (state == State.COMPRESS && error == null && deflater != null) {
+                finish();
+            }
+            upstreamComplete = true;
+        }
+        drain();
+    }
+
+    private void decide() {
+        if (compressionCallback.getAsBoolean()) {
+            state = State.COMPRESS;
+            deflater = pool.acquire();
+            if (gzip) {
+                crc = new CRC32();
+            }
+            if (gzip) {
+                output.addLast(DataChunk.create(ByteBuffer.wrap(GZIP_HEADER.clone())));
+            }
+            DataChunk chunk;
+            while ((chunk = held.pollFirst()) != null) {
+                compress(chunk);
+            }
+        } else {
+            state = State.IDENTITY;
+            output.addAll(held);
+            held.clear();
+        }
+    }
+
+    private void compress(DataChunk chunk) {
+        try {
+            ByteBuffer data = chunk.data();
+            byte[] input;
+            int offset;
+            int length = data.remaining();
+            if (data.hasArray()) {
+                input = data.array();
+                offset = data.arrayOffset() + data.position();
+            } else {
+                input = chunk.bytes();
+                offset = 0;
+            }
+            if (crc != null) {
+                crc.update(input, offset, length);
+            }
+            deflater.setInput(input, offset, length);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            int mode = chunk.flush() ? Deflater.SYNC_FLUSH : Deflater.NO_FLUSH;
+            while (true) {
+                int count = deflater.deflate(buffer, 0, buffer.length, mode);
+                compressed.write(buffer, 0, count);
+                if (count < buffer.length && deflater.needsInput()) {
+                    break;
+                }
+            }
+            if (compressed.size() > 0) {
+                output.addLast(DataChunk.create(chunk.flush(), ByteBuffer.wrap(compressed.toByteArray())));
+            }
+        } finally {
+            chunk.release();
+        }
+    }
+
+    private void finish() {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        deflater.finish();
+        while (!deflater.finished()) {
+            int count = deflater.deflate(buffer, 0, buffer.length);
+            compressed.write(buffer, 0, count);
+        }
+        if (gzip) {
+            writeIntLe(compressed, crc.getValue());
+            writeIntLe(compressed, deflater.getBytesRead());
+        }
+        releaseDeflater();
+        output.addLast(DataChunk.create(true, ByteBuffer.wrap(compressed.toByteArray())));
+    }
+
+    private static void writeIntLe(ByteArrayOutputStream out, long value) {
+        out.write((int) (value & 0xff));
+        out.write((int) ((value >> 8) & 0xff));
+        out.write((int) ((value >> 16) & 0xff));
+        out.write((int) ((value >> 24) & 0xff));
+    }
+
+    private void releaseDeflater() {
+        if (deflater != null) {
+            pool.release(deflater);
+            deflater = null;
+        }
+    }
+
+    private void releaseAll() {
+        DataChunk chunk;
+        while ((chunk = held.pollFirst()) != null) {
+            chunk.release();
+        }
+        while ((chunk = output.pollFirst()) != null) {
+            chunk.release();
+        }
+        releaseDeflater();
+    }
+
+    /**
+     * Publishes available chunks and requests the next one when all of them were published. Subscriber methods
+     * are never called while holding the monitor of this instance, a work-in-progress counter serializes the calls.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Flow.Subscription requestFrom = null;
+            Flow.Subscription cancel = null;
+            while (true) {
+                DataChunk next = null;
+                Throwable terminalError = null;
+                Flow.Subscriber<? super DataChunk> s;
+                synchronized (this) {
+                    s = sub;
+                    if (s == null) {
+                        break;
+                    }
+                    if (subscriber.isClosed()) {
+                        if (!upstreamCanceled && !upstreamComplete && upstream != null) {
+                            upstreamCanceled = true;
+                            cancel = upstream;
+                        }
+                        releaseAll();
+                        break;
+                    }
+                    if (error != null) {
+                        terminalError = error;
+                        releaseAll();
+                    } else if (!output.isEmpty()) {
+                        if (!requested.tryDecrement()) {
+                            break;
+                        }
+                        next = output.pollFirst();
+                    } else if (!upstreamComplete) {
+                        if (!upstreamRequested && upstream != null && requested.get() > 0) {
+                            upstreamRequested = true;
+                            requestFrom = upstream;
+                        }
+                        break;
+                    }
+                }
+                if (next != null) {
+                    s.onNext(next);
+                } else if (terminalError != null) {
+                    // upstream is canceled in the next iteration
+                    Throwable t = terminalError;
+                    subscriber.close(sc -> sc.onError(t));
+                } else {
+                    subscriber.close(Flow.Subscriber::onComplete);
+                }
+            }
+            if (cancel != null) {
+                cancel.cancel();
+            } else if (requestFrom != null) {
+                // can deliver synchronously, the loop continues with the delivered chunk
+                requestFrom.request(1);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.zip.Deflater;
+
+import io.helidon.common.http.AlreadyCompletedException;
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.Flow;
+
+import static io.helidon.common.CollectionsHelper.listOf;
+
+/**
+ * Response content compression for the {@link WebServer WebServer}'s {@link Routing}. If registered, then responses of
+ * the compressible content types are compressed using {@code gzip} or {@code deflate} content coding negotiated by
+ * the {@code Accept-Encoding} request header.
+ * <p>
+ * The content is compressed chunk by chunk as it is written. Content smaller than the configured minimal size is
+ * sent unchanged. Partial content ({@code 206} or any response with the {@code Content-Range} header) is never
+ * compressed, because the ranges refer to the uncompressed representation. Compression can be disabled for particular
+ * routes using the {@link #skip()} handler.
+ * <pre>{@code
+ * Routing.builder()
+ *        .register(CompressionSupport.create())
+ *        .get("/events", CompressionSupport.skip(), (req, res) -> ...)
+ * }</pre>
+ */
+public final class CompressionSupport implements Service, Handler {
+
+    /**
+     * Default minimal size of the content to compress.
+     */
+    public static final int DEFAULT_MIN_SIZE = 1024;
+
+    /**
+     * Default maximal number of pooled {@link Deflater} instances per content coding.
+     */
+    public static final int DEFAULT_POOL_SIZE = 64;
+
+    // types with the +json or +xml suffix are always compressible
+    private static final List<MediaType> DEFAULT_CONTENT_TYPES = listOf(MediaType.parse("text/*"),
+                                                                        MediaType.APPLICATION_JSON,
+                                                                        MediaType.APPLICATION_XML,
+                                                                        MediaType.parse("application/javascript"));
+
+    private static final MediaType TEXT_EVENT_STREAM = MediaType.parse("text/event-stream");
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+    private static final Object SKIP = new Object();
+
+    private static final class DefaultCompressionSupportHolder {
+        private static final CompressionSupport INSTANCE = builder().build();
+    }
+
+    private final int minSize;
+    private final List<MediaType> contentTypes;
+    private final DeflaterPool gzipPool;
+    private final DeflaterPool deflatePool;
+
+    private CompressionSupport(Builder builder) {
+        this.minSize = builder.minSize;
+        this.contentTypes = builder.contentTypes == null ? DEFAULT_CONTENT_TYPES : new ArrayList<>(builder.contentTypes);
+        this.gzipPool = new DeflaterPool(builder.level, true, builder.poolSize);
+        this.deflatePool = new DeflaterPool(builder.level, false, builder.poolSize);
+    }
+
+    @Override
+    public void update(Routing.Rules routingRules) {
+        routingRules.any(this);
+    }
+
+    /**
+     * Registers the compressing response filter and calls {@code ServerRequest.}{@link ServerRequest#next() next()}.
+     *
+     * @param request  a server request
+     * @param response a server response
+     */
+    @Override
+    public void accept(ServerRequest request, ServerResponse response) {
+        response.registerFilter(publisher -> filter(publisher, request, response));
+        request.next();
+    }
+
+    /**
+     * Returns a handler which disables the compression of the response. It must be registered before the handler
+     * which sends the response.
+     *
+     * @return a handler which calls {@code ServerRequest.}{@link ServerRequest#next() next()}
+     */
+    public static Handler skip() {
+        return (request, response) -> {
+            request.context().register(SKIP, Boolean.TRUE);
+            request.next();
+        };
+    }
+
+    private Flow.Publisher<DataChunk> filter(Flow.Publisher<DataChunk> publisher,
+                                             ServerRequest request,
+                                             ServerResponse response) {
+        ResponseHeaders headers = response.headers();
+        if (request.context().get(SKIP, Boolean.class).isPresent()
+                || request.method() == Http.Method.HEAD
+                || headers.first(Http.Header.CONTENT_ENCODING).isPresent()) {
+            return null;
+        }
+        int status = response.status().code();
+        if (status < 200
+                || status == Http.Status.NO_CONTENT_204.code()
+                || status == Http.Status.PARTIAL_CONTENT_206.code()
+                || status == Http.Status.NOT_MODIFIED_304.code()
+                || headers.first(Http.Header.CONTENT_RANGE).isPresent()) {
+            return null;
+        }
+        Optional<MediaType> contentType = headers.contentType();
+        if (!contentType.isPresent() || !isCompressible(contentType.get())) {
+            return null;
+        }
+        headers.add(Http.Header.VARY, Http.Header.ACCEPT_ENCODING);
+        OptionalLong contentLength = headers.contentLength();
+        if (contentLength.isPresent() && contentLength.getAsLong() < minSize) {
+            return null;
+        }
+        double gzipQuality = StaticContentHandler.encodingQuality(GZIP, request.headers());
+        double deflateQuality = StaticContentHandler.encodingQuality(DEFLATE, request.headers());
+        if (gzipQuality <= 0 && deflateQuality <= 0) {
+            return null;
+        }
+        boolean gzip = gzipQuality >= deflateQuality;
+        return new CompressingPublisher(publisher, gzip ? gzipPool : deflatePool, gzip, minSize, () -> {
+            try {
+                headers.put(Http.Header.CONTENT_ENCODING, gzip ? GZIP : DEFLATE);
+                headers.remove(Http.Header.CONTENT_LENGTH);
+                headers.first(Http.Header.ETAG)
+                       .filter(etag -> !etag.startsWith("W/"))
+                       .ifPresent(etag -> headers.put(Http.Header.ETAG, "W/" + etag));
+                return true;
+            } catch (AlreadyCompletedException e) {
+                // headers were sent with the first chunk
+                return false;
+            }
+        });
+    }
+
+    private boolean isCompressible(MediaType mediaType) {
+        if (TEXT_EVENT_STREAM.test(mediaType)) {
+            // holding events until the minimal size is reached would delay them
+            return false;
+        }
+        if (mediaType.hasSuffix("json") || mediaType.hasSuffix("xml")) {
+            return true;
+        }
+        for (MediaType compressible : contentTypes) {
+            if (compressible.test(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a singleton instance with default configuration.
+     *
+     * @return a singleton instance
+     */
+    public static CompressionSupport create() {
+        return DefaultCompressionSupportHolder.INSTANCE;
+    }
+
+    /**
+     * Creates new builder.
+     *
+     * @return a builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Fluent builder of {@link CompressionSupport}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<CompressionSupport> {
+
+        private int minSize = DEFAULT_MIN_SIZE;
+        private int level = Deflater.DEFAULT_COMPRESSION;
+        private int poolSize = DEFAULT_POOL_SIZE;
+        private List<MediaType> contentTypes;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the minimal size of the content to compress. Default is {@value CompressionSupport#DEFAULT_MIN_SIZE}.
+         *
+         * @param minSize number of bytes
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code minSize} is negative
+         */
+        public Builder minSize(int minSize) {
+            if (minSize < 0) {
+                throw new IllegalArgumentException("Parameter 'minSize' cannot be negative!");
+            }
+            this.minSize = minSize;
+            return this;
+        }
+
+        /**
+         * Sets the compression level from {@code 0} to {@code 9}. Default is {@link Deflater#DEFAULT_COMPRESSION}.
+         *
+         * @param level a compression level
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code level} is not valid
+         */
+        public Builder level(int level) {
+            if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+                throw new IllegalArgumentException("Invalid compression level: " + level);
+            }
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of pooled {@link Deflater} instances per content coding.
+         * Default is {@value CompressionSupport#DEFAULT_POOL_SIZE}.
+         *
+         * @param poolSize maximal number of pooled instances
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code poolSize} is negative
+         */
+        public Builder poolSize(int poolSize) {
+            if (poolSize < 0) {
+                throw new IllegalArgumentException("Parameter 'poolSize' cannot be negative!");
+            }
+            this.poolSize = poolSize;
+            return this;
+        }
+
+        /**
+         * Adds a compressible content type. Wildcards are supported, for example {@code text/*}. If called, then
+         * the default content types are not used, except the {@code +json} and {@code +xml} suffixes.
+         *
+         * @param contentType a content type
+         * @return updated builder
+         * @throws NullPointerException if {@code contentType} is {@code null}
+         */
+        public Builder addContentType(MediaType contentType) {
+            Objects.requireNonNull(contentType, "Parameter 'contentType' is null!");
+            if (contentTypes == null) {
+                contentTypes = new ArrayList<>();
+            }
+            contentTypes.add(contentType);
+            return this;
+        }
+
+        @Override
+        public CompressionSupport build() {
+            return new CompressionSupport(this);
+        }
+    }
+}
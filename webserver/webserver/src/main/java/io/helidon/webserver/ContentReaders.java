@@ -24,6 +24,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
 import io.helidon.common.http.DataChunk;
@@ -144,6 +145,40 @@ public final class ContentReaders {
         };
     }
 
+    /**
+     * Creates a reader of a text content which publishes it line by line. Lines are terminated by {@code \n},
+     * {@code \r\n} or {@code \r} and published without the terminator. The resulting
+     * {@link java.util.concurrent.CompletionStage} is already completed, the content is decoded incrementally
+     * as the lines are requested.
+     *
+     * @param charset the charset of the content
+     * @return a line content reader
+     */
+    public static Reader<Flow.Publisher<CharSequence>> lineReader(Charset charset) {
+        return lineReader(charset, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a reader of a text content which publishes it line by line. Lines are terminated by {@code \n},
+     * {@code \r\n} or {@code \r} and published without the terminator. The resulting
+     * {@link java.util.concurrent.CompletionStage} is already completed, the content is decoded incrementally
+     * as the lines are requested. If a line is longer than {@code maxLineLength}, the publisher signals
+     * {@link BadRequestException}, so the memory used to read any content is bounded.
+     *
+     * @param charset       the charset of the content
+     * @param maxLineLength the maximal number of characters of a single line
+     * @return a line content reader
+     * @throws IllegalArgumentException if {@code maxLineLength} is not positive
+     */
+    public static Reader<Flow.Publisher<CharSequence>> lineReader(Charset charset, int maxLineLength) {
+        Objects.requireNonNull(charset, "Parameter 'charset' is null!");
+        if (maxLineLength <= 0) {
+            throw new IllegalArgumentException("Parameter 'maxLineLength' must be positive!");
+        }
+        return (publisher, clazz) -> CompletableFuture.completedFuture(
+                new LinePublisher(publisher, charset, maxLineLength));
+    }
+
     /**
      * Creates a reader that bridges Flow API IO to a blocking Java {@link InputStream}.
      * The resulting {@link java.util.concurrent.CompletionStage} is already completed;
@@ -28,6 +28,8 @@ import io.helidon.common.http.MediaType;
  */
 class ContentTypeSelector {
 
+    private static final HttpException NOT_ACCEPTED = StaticContentHandler.stackless("Not accepted media-type!",
+                                                                                     Http.Status.NOT_FOUND_404);
     private static final Map<String, MediaType> CONTENT_TYPES = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
     static {
         putSingle("abs", "audio/x-mpeg");
@@ -200,7 +202,13 @@ class ContentTypeSelector {
         CONTENT_TYPES.put(extension, MediaType.parse(contentTypeName));
     }
 
-    private MediaType get(String filename) {
+    /**
+     * Returns a media type mapped to the filename extension.
+     *
+     * @param filename a filename
+     * @return a mapped media type or {@code null}
+     */
+    MediaType get(String filename) {
         if (filename == null) {
             return null;
         }
@@ -219,7 +227,18 @@ class ContentTypeSelector {
     }
 
     MediaType determine(String filename, RequestHeaders requestHeaders) {
-        MediaType mediaType = get(filename);
+        return determineFor(get(filename), requestHeaders);
+    }
+
+    /**
+     * Determines a response content type.
+     *
+     * @param mediaType      a media type {@link #get(String) mapped} to the filename or {@code null}
+     * @param requestHeaders an HTTP request headers
+     * @return a content type
+     * @throws HttpException if the mapped media type is not accepted
+     */
+    MediaType determineFor(MediaType mediaType, RequestHeaders requestHeaders) {
         List<MediaType> accepted = requestHeaders.acceptedTypes();
         if (mediaType == null) {
             // First from Accepted
@@ -234,7 +253,7 @@ class ContentTypeSelector {
             if (requestHeaders.isAccepted(mediaType)) {
                 return mediaType;
             } else {
-                throw new HttpException("Not accepted media-type!", Http.Status.NOT_FOUND_404);
+                throw NOT_ACCEPTED;
             }
         }
     }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time after which nobody waits for the response of a request. It is registered in the request
+ * {@link ServerRequest#context() context} by {@link DeadlineSupport} and available using
+ * {@link ServerRequest#deadline()}.
+ * <p>
+ * Long running handlers should check the deadline before expensive work and limit timeouts of outbound calls
+ * by the {@link #remaining(TimeUnit) remaining time}, so work is abandoned rather than completed for nobody.
+ */
+public final class Deadline {
+
+    /**
+     * A header with the number of milliseconds the caller waits for the response. It is read by
+     * {@link DeadlineSupport} and propagated to outbound requests.
+     */
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a deadline which expires after the given timeout from now.
+     *
+     * @param timeout a timeout
+     * @return a deadline
+     * @throws NullPointerException if {@code timeout} is {@code null}
+     */
+    public static Deadline after(Duration timeout) {
+        Objects.requireNonNull(timeout, "Parameter 'timeout' is null!");
+        return after(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a deadline which expires after the given timeout from now.
+     *
+     * @param timeout a timeout
+     * @param unit    a time unit of the timeout
+     * @return a deadline
+     */
+    public static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * Returns the time remaining to the deadline, zero or negative if it is already expired.
+     *
+     * @param unit a time unit of the result
+     * @return the remaining time
+     */
+    public long remaining(TimeUnit unit) {
+        return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns {@code true} if the deadline is expired.
+     *
+     * @return {@code true} if expired
+     */
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Returns the earlier of this and the other deadline.
+     *
+     * @param other a deadline, can be {@code null}
+     * @return the earlier deadline
+     */
+    public Deadline min(Deadline other) {
+        if (other == null || deadlineNanos - other.deadlineNanos <= 0) {
+            return this;
+        }
+        return other;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{remaining=" + remaining(TimeUnit.MILLISECONDS) + "ms}";
+    }
+}
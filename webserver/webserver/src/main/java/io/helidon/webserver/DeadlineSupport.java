@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.AlreadyCompletedException;
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.ReactiveStreamsAdapter;
+import io.helidon.config.Config;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Request deadlines for the {@link WebServer WebServer}'s {@link Routing}. A {@link Deadline} is computed from the configured
+ * timeout and the optional {@value Deadline#TIMEOUT_HEADER} request header (the earlier one wins) and registered in
+ * the request {@link ServerRequest#context() context}, see {@link ServerRequest#deadline()}.
+ * <pre>{@code
+ * Routing.builder()
+ *        .register(DeadlineSupport.builder()
+ *                                 .timeout(Duration.ofSeconds(5))
+ *                                 .build())
+ * }</pre>
+ * When the deadline expires before the response is sent, a {@code 503 Service Unavailable} response is sent and
+ * a later attempt of the handler to send the response fails. When the content is being sent, its publisher is canceled
+ * and the response fails, so the client doesn't receive an incomplete response as a complete one. Expiries are driven
+ * by the {@link Timeouts shared timer}, so they are precise to its tick of ten milliseconds.
+ * <p>
+ * Handlers should check {@link Deadline#isExpired()} before expensive work and limit timeouts of outbound calls by
+ * the remaining time. The Jersey integration doesn't start expired requests and the security integration
+ * exposes the deadline as the {@code deadline} attribute of the security environment.
+ */
+public final class DeadlineSupport implements Service, Handler {
+
+    private static final Logger LOGGER = Logger.getLogger(DeadlineSupport.class.getName());
+
+    private final long timeoutNanos;
+    private final String header;
+    private final Http.ResponseStatus status;
+    private final HttpException expiredException;
+
+    private DeadlineSupport(Builder builder) {
+        this.timeoutNanos = builder.timeout == null ? 0 : builder.timeout.toNanos();
+        this.header = builder.header;
+        this.status = builder.status;
+        this.expiredException = new HttpException("Request deadline exceeded!", status, null, false);
+    }
+
+    @Override
+    public void update(Routing.Rules routingRules) {
+        routingRules.any(this);
+    }
+
+    /**
+     * Registers the deadline of the request, schedules its expiry and calls
+     * {@code ServerRequest.}{@link ServerRequest#next() next()}.
+     *
+     * @param request  a server request
+     * @param response a server response
+     */
+    @Override
+    public void accept(ServerRequest request, ServerResponse response) {
+        Deadline deadline = deadline(request);
+        if (deadline == null) {
+            request.next();
+            return;
+        }
+        request.context().register(deadline);
+        if (deadline.isExpired()) {
+            response.status(status).send();
+            return;
+        }
+        Expiry expiry = new Expiry(response);
+        response.registerFilter(expiry::filter);
+        // most requests complete before their deadline, cancelling a wheel timeout is cheap
+        HashedWheelTimer.Timeout timeout = HashedWheelTimer.shared().schedule(expiry::expire,
+                                                                              deadline.remaining(TimeUnit.NANOSECONDS),
+                                                                              TimeUnit.NANOSECONDS);
+        response.whenSent().whenComplete((res, throwable) -> timeout.cancel());
+        request.next();
+    }
+
+    private Deadline deadline(ServerRequest request) {
+        Deadline result = timeoutNanos > 0 ? Deadline.after(timeoutNanos, TimeUnit.NANOSECONDS) : null;
+        if (header != null) {
+            String value = request.headers().first(header).orElse(null);
+            if (value != null) {
+                try {
+                    long millis = Long.parseLong(value.trim());
+                    if (millis >= 0) {
+                        result = Deadline.after(millis, TimeUnit.MILLISECONDS).min(result);
+                    }
+                } catch (NumberFormatException e) {
+                    // invalid header is ignored
+                }
+            }
+        }
+        if (result != null) {
+            // a deadline registered earlier (another instance) is never extended
+            result = result.min(request.deadline().orElse(null));
+        }
+        return result;
+    }
+
+    /**
+     * Creates new instance with the given timeout.
+     *
+     * @param timeout a timeout of requests
+     * @return new instance
+     */
+    public static DeadlineSupport create(Duration timeout) {
+        return builder().timeout(timeout).build();
+    }
+
+    /**
+     * Creates new instance configured from the given config.
+     *
+     * @param config a config, see {@link Builder#config(Config)}
+     * @return new instance
+     */
+    public static DeadlineSupport create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Creates new builder.
+     *
+     * @return a builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The expiry of a single request. Whichever comes first - the expiry or the send of the handler - wins,
+     * the send lock of the response serializes them.
+     */
+    private final class Expiry {
+
+        private final ServerResponse response;
+        private volatile boolean expired;
+        private volatile DeadlinePublisher publisher;
+
+        private Expiry(ServerResponse response) {
+            this.response = response;
+        }
+
+        private Flow.Publisher<DataChunk> filter(Flow.Publisher<DataChunk> content) {
+            if (expired) {
+                try {
+                    response.status(status);
+                    response.headers().remove(Http.Header.CONTENT_LENGTH);
+                } catch (AlreadyCompletedException e) {
+                    // headers were sent explicitly, the response just ends
+                }
+                return ReactiveStreamsAdapter.publisherToFlow(Mono.empty());
+            }
+            DeadlinePublisher result = new DeadlinePublisher(content, expiredException);
+            publisher = result;
+            return result;
+        }
+
+        private void expire() {
+            expired = true;
+            try {
+                // ignored if the handler already sent the response
+                response.send();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.FINE, "Cannot send the response of an expired request.", e);
+            }
+            DeadlinePublisher current = publisher;
+            if (current != null) {
+                current.expire();
+            }
+        }
+    }
+
+    /**
+     * Cancels the content and fails the response when the deadline expires.
+     */
+    private static final class DeadlinePublisher implements Flow.Publisher<DataChunk> {
+
+        private final Flow.Publisher<DataChunk> content;
+        private final Throwable error;
+        private volatile DeadlineSubscriber subscriber;
+        private volatile boolean expired;
+
+        private DeadlinePublisher(Flow.Publisher<DataChunk> content, Throwable error) {
+            this.content = content;
+            this.error = error;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super DataChunk> downstream) {
+            DeadlineSubscriber result = new DeadlineSubscriber(downstream, error);
+            subscriber = result;
+            content.subscribe(result);
+            if (expired) {
+                result.expire();
+            }
+        }
+
+        private void expire() {
+            expired = true;
+            DeadlineSubscriber current = subscriber;
+            if (current != null) {
+                current.expire();
+            }
+        }
+    }
+
+    private static final class DeadlineSubscriber implements Flow.Subscriber<DataChunk> {
+
+        private final Flow.Subscriber<? super DataChunk> downstream;
+        private final Throwable error;
+        private volatile Flow.Subscription subscription;
+        private boolean done;
+
+        private DeadlineSubscriber(Flow.Subscriber<? super DataChunk> downstream, Throwable error) {
+            this.downstream = downstream;
+            this.error = error;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            downstream.onSubscribe(subscription);
+        }
+
+        @Override
+        public synchronized void onNext(DataChunk item) {
+            if (done) {
+                item.release();
+            } else {
+                downstream.onNext(item);
+            }
+        }
+
+        @Override
+        public synchronized void onError(Throwable throwable) {
+            if (!done) {
+                done = true;
+                downstream.onError(throwable);
+            }
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            if (!done) {
+                done = true;
+                downstream.onComplete();
+            }
+        }
+
+        private void expire() {
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+            onError(error);
+        }
+    }
+
+    /**
+     * Fluent builder of {@link DeadlineSupport}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<DeadlineSupport> {
+
+        private Duration timeout;
+        private String header = Deadline.TIMEOUT_HEADER;
+        private Http.ResponseStatus status = Http.Status.SERVICE_UNAVAILABLE_503;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the timeout of requests. Default is no timeout, only the request header sets the deadline.
+         *
+         * @param timeout a timeout, {@code null} or zero for no timeout
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code timeout} is negative
+         */
+        public Builder timeout(Duration timeout) {
+            if (timeout != null && timeout.isNegative()) {
+                throw new IllegalArgumentException("Parameter 'timeout' cannot be negative!");
+            }
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Sets the name of the request header with the number of milliseconds the caller waits for the response.
+         * The header can only shorten the configured timeout. Default is {@value Deadline#TIMEOUT_HEADER}.
+         *
+         * @param header a header name, {@code null} to ignore headers
+         * @return updated builder
+         */
+        public Builder header(String header) {
+            this.header = header;
+            return this;
+        }
+
+        /**
+         * Sets the status of responses of expired requests. Default is {@code 503 Service Unavailable}, proxies may
+         * prefer {@code 504 Gateway Timeout}.
+         *
+         * @param status a response status
+         * @return updated builder
+         * @throws NullPointerException if {@code status} is {@code null}
+         */
+        public Builder status(Http.ResponseStatus status) {
+            this.status = Objects.requireNonNull(status, "Parameter 'status' is null!");
+            return this;
+        }
+
+        /**
+         * Updates the builder from config. Keys:
+         * <ul>
+         *     <li>{@code timeout-millis} - the {@link #timeout(Duration) timeout} in milliseconds</li>
+         *     <li>{@code header} - the {@link #header(String) header} name</li>
+         *     <li>{@code status} - the {@link #status(Http.ResponseStatus) status} code</li>
+         * </ul>
+         *
+         * @param config a config
+         * @return updated builder
+         */
+        public Builder config(Config config) {
+            config.get("timeout-millis").asOptionalLong().ifPresent(millis -> timeout(Duration.ofMillis(millis)));
+            config.get("header").asOptionalString().ifPresent(this::header);
+            config.get("status").asOptionalInt().ifPresent(code -> status(Http.ResponseStatus.from(code)));
+            return this;
+        }
+
+        @Override
+        public DeadlineSupport build() {
+            return new DeadlineSupport(this);
+        }
+    }
+}
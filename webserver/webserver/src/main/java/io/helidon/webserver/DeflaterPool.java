@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * A bounded pool of {@link Deflater} instances of a single compression level and format. A {@code Deflater} allocates
+ * a large native state on creation, reusing it avoids both the allocation and the finalizer-based release.
+ */
+class DeflaterPool {
+
+    private final int level;
+    private final boolean nowrap;
+    private final int maxSize;
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates new instance.
+     *
+     * @param level   a compression level
+     * @param nowrap  if {@code true} then raw deflate data are produced (used by GZIP), otherwise ZLIB format
+     * @param maxSize maximal number of pooled instances
+     */
+    DeflaterPool(int level, boolean nowrap, int maxSize) {
+        this.level = level;
+        this.nowrap = nowrap;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns a pooled or new deflater.
+     *
+     * @return a deflater ready to use
+     */
+    Deflater acquire() {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            return new Deflater(level, nowrap);
+        }
+        size.decrementAndGet();
+        return deflater;
+    }
+
+    /**
+     * Resets the deflater and returns it to the pool. If the pool is full, the deflater is ended.
+     *
+     * @param deflater a deflater acquired from this pool
+     */
+    void release(Deflater deflater) {
+        if (size.incrementAndGet() > maxSize) {
+            size.decrementAndGet();
+            deflater.end();
+            return;
+        }
+        deflater.reset();
+        deflaters.offer(deflater);
+    }
+
+    /**
+     * Returns the number of pooled deflaters.
+     *
+     * @return the number of deflaters
+     */
+    int size() {
+        return size.get();
+    }
+}
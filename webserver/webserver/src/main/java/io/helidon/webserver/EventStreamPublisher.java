@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.RequestedCounter;
+import io.helidon.common.reactive.SingleSubscriberHolder;
+
+/**
+ * Encodes published events to the {@code text/event-stream} format. {@link ServerSentEvent} items are encoded as is,
+ * other items are sent as an unnamed event with {@link String#valueOf(Object)} data.
+ * <p>
+ * Events are encoded directly into pooled buffers. If the stream is idle, an event is flushed immediately. Under load,
+ * events are collected into a buffer which is flushed when full or after the maximal flush delay. Upstream is
+ * requested only when fewer than {@code maxPendingChunks} chunks are written but not yet released by the server,
+ * so a slow client slows down the event source. If nothing is sent for the heartbeat interval, a comment line
+ * is sent to keep the connection open. An idle stream holds no buffer.
+ */
+class EventStreamPublisher implements Flow.Publisher<DataChunk>, Flow.Subscriber<Object> {
+
+    private static final ByteBuffer HEARTBEAT = ByteBuffer.wrap(":\n".getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+
+    private final Flow.Publisher<?> events;
+    private final BufferPool pool;
+    private final ScheduledExecutorService scheduler;
+    private final long maxFlushDelayNanos;
+    private final long heartbeatNanos;
+    private final int maxPendingChunks;
+
+    private final SingleSubscriberHolder<DataChunk> subscriber = new SingleSubscriberHolder<>();
+    private final RequestedCounter requested = new RequestedCounter();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicInteger pendingChunks = new AtomicInteger();
+
+    // guarded by this
+    private final Deque<DataChunk> ready = new ArrayDeque<>();
+    private final StringBuilder text = new StringBuilder();
+    private CharsetEncoder encoder;
+    private ByteBuffer current;
+    private Flow.Subscriber<? super DataChunk> sub;
+    private Flow.Subscription upstream;
+    private ScheduledFuture<?> flushTask;
+    private ScheduledFuture<?> heartbeatTask;
+    private long lastFlush;
+    private boolean upstreamRequested;
+    private boolean upstreamComplete;
+    private boolean upstreamCanceled;
+    private boolean terminated;
+    private Throwable error;
+
+    /**
+     * Creates new instance.
+     *
+     * @param events             published events
+     * @param pool               a pool of buffers
+     * @param scheduler          a scheduler of delayed flushes and heartbeats
+     * @param maxFlushDelayNanos maximal time an encoded event waits for the flush, {@code 0} flushes every event
+     * @param heartbeatNanos     heartbeat interval, {@code 0} disables heartbeats
+     * @param maxPendingChunks   maximal number of written and not yet released chunks
+     */
+    EventStreamPublisher(Flow.Publisher<?> events,
+                         BufferPool pool,
+                         ScheduledExecutorService scheduler,
+                         long maxFlushDelayNanos,
+                         long heartbeatNanos,
+                         int maxPendingChunks) {
+        this.events = events;
+        this.pool = pool;
+        this.scheduler = scheduler;
+        this.maxFlushDelayNanos = maxFlushDelayNanos;
+        this.heartbeatNanos = heartbeatNanos;
+        this.maxPendingChunks = maxPendingChunks;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DataChunk> subscriberParam) {
+        if (subscriber.register(subscriberParam)) {
+            synchronized (this) {
+                sub = subscriberParam;
+                lastFlush = System.nanoTime() - maxFlushDelayNanos;
+                if (heartbeatNanos > 0) {
+                    heartbeatTask = scheduler.scheduleWithFixedDelay(this::heartbeat,
+                                                                     heartbeatNanos,
+                                                                     heartbeatNanos,
+                                                                     TimeUnit.NANOSECONDS);
+                }
+            }
+            subscriberParam.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested.increment(n, EventStreamPublisher.this::fail);
+                    drain();
+                }
+
+                @Override
+                public void cancel() {
+                    subscriber.cancel();
+                    drain();
+                }
+            });
+            events.subscribe(this);
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            upstream = subscription;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(Object item) {
+        synchronized (this) {
+            upstreamRequested = false;
+            if (terminated || upstreamCanceled || error != null) {
+                return;
+            }
+            encode(item);
+            long now = System.nanoTime();
+            if (maxFlushDelayNanos == 0 || (pendingChunks.get() == 0 && now - lastFlush >= maxFlushDelayNanos)) {
+                // idle stream, don't delay
+                emitCurrent();
+            } else if (flushTask == null) {
+                flushTask = scheduler.schedule(this::flush, maxFlushDelayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (this) {
+            upstreamComplete = true;
+        }
+        fail(throwable);
+    }
+
+    private void fail(Throwable throwable) {
+        synchronized (this) {
+            if (error == null) {
+                error = throwable;
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            upstreamComplete = true;
+            if (current != null) {
+                emitCurrent();
+            }
+        }
+        drain();
+    }
+
+    private void encode(Object item) {
+        text.setLength(0);
+        if (item instanceof ServerSentEvent) {
+            ((ServerSentEvent) item).appendTo(text);
+        } else {
+            ServerSentEvent.builder().data(String.valueOf(item)).build().appendTo(text);
+        }
+        if (encoder == null) {
+            encoder = StandardCharsets.UTF_8.newEncoder()
+                                            .onMalformedInput(CodingErrorAction.REPLACE)
+                                            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        boolean flushed = false;
+        while (true) {
+            if (current == null) {
+                current = pool.acquire();
+            }
+            CoderResult result = flushed ? encoder.flush(current) : encoder.encode(chars, current, true);
+            if (result.isOverflow()) {
+                // full buffer is sent immediately
+                emitCurrent();
+            } else if (flushed) {
+                return;
+            } else {
+                flushed = true;
+            }
+        }
+    }
+
+    private void emitCurrent() {
+        ByteBuffer buffer = current;
+        current = null;
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        if (buffer.position() == 0) {
+            pool.release(buffer);
+            return;
+        }
+        buffer.flip();
+        pendingChunks.incrementAndGet();
+        lastFlush = System.nanoTime();
+        ready.addLast(DataChunk.create(true, buffer, () -> {
+            pool.release(buffer);
+            pendingChunks.decrementAndGet();
+            drain();
+        }));
+    }
+
+    private void flush() {
+        synchronized (this) {
+            flushTask = null;
+            if (current != null && !terminated) {
+                emitCurrent();
+            }
+        }
+        drain();
+    }
+
+    private void heartbeat() {
+        synchronized (this) {
+            if (terminated || current != null || !ready.isEmpty()
+                    || System.nanoTime() - lastFlush < heartbeatNanos) {
+                return;
+            }
+            lastFlush = System.nanoTime();
+            ready.addLast(DataChunk.create(true, HEARTBEAT.duplicate()));
+        }
+        drain();
+    }
+
+    private void terminate() {
+        terminated = true;
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        if (heartbeatTask != null) {
+            heartbeatTask.cancel(false);
+            heartbeatTask = null;
+        }
+        if (current != null) {
+            pool.release(current);
+            current = null;
+        }
+        DataChunk chunk;
+        while ((chunk = ready.pollFirst()) != null) {
+            chunk.release();
+        }
+    }
+
+    /**
+     * Publishes ready chunks and requests the next event when all of them were published. Subscriber methods
+     * are never called while holding the monitor of this instance, a work-in-progress counter serializes the calls.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Flow.Subscription requestFrom = null;
+            Flow.Subscription cancel = null;
+            while (true) {
+                DataChunk next = null;
+                Throwable terminalError = null;
+                Flow.Subscriber<? super DataChunk> s;
+                synchronized (this) {
+                    s = sub;
+                    if (s == null || terminated) {
+                        break;
+                    }
+                    if (subscriber.isClosed()) {
+                        if (!upstreamCanceled && !upstreamComplete && upstream != null) {
+                            upstreamCanceled = true;
+                            cancel = upstream;
+                        }
+                        terminate();
+                        break;
+                    }
+                    if (error != null) {
+                        terminalError = error;
+                        if (!upstreamCanceled && !upstreamComplete && upstream != null) {
+                            // invalid request of the downstream subscriber
+                            upstreamCanceled = true;
+                            cancel = upstream;
+                        }
+                        terminate();
+                    } else if (!ready.isEmpty()) {
+                        if (!requested.tryDecrement()) {
+                            break;
+                        }
+                        next = ready.pollFirst();
+                    } else if (upstreamComplete) {
+                        terminate();
+                    } else {
+                        if (!upstreamRequested && upstream != null && requested.get() > 0
+                                && pendingChunks.get() < maxPendingChunks) {
+                            upstreamRequested = true;
+                            requestFrom = upstream;
+                        }
+                        break;
+                    }
+                }
+                if (next != null) {
+                    s.onNext(next);
+                } else if (terminalError != null) {
+                    Throwable t = terminalError;
+                    subscriber.close(sc -> sc.onError(t));
+                    break;
+                } else {
+                    subscriber.close(Flow.Subscriber::onComplete);
+                    break;
+                }
+            }
+            if (cancel != null) {
+                cancel.cancel();
+            } else if (requestFrom != null) {
+                // can deliver synchronously, the loop continues with the delivered event
+                requestFrom.request(1);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A channel reading a sequence of file regions and in-memory byte segments (for example {@code multipart/byteranges}
+ * part headers). File regions are read with positional reads, so the file channel position is never changed.
+ * <p>
+ * Closing this channel closes the file channel.
+ */
+class FileRegionChannel implements ReadableByteChannel {
+
+    private final FileChannel file;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    /**
+     * Creates new instance.
+     *
+     * @param file a file channel to read regions from
+     */
+    FileRegionChannel(FileChannel file) {
+        this.file = file;
+    }
+
+    /**
+     * Appends a region of the file.
+     *
+     * @param position the first byte position
+     * @param length   the number of bytes
+     * @return this instance
+     */
+    FileRegionChannel region(long position, long length) {
+        segments.addLast(new Segment(null, position, length));
+        return this;
+    }
+
+    /**
+     * Appends in-memory bytes.
+     *
+     * @param bytes bytes to append
+     * @return this instance
+     */
+    FileRegionChannel bytes(byte[] bytes) {
+        segments.addLast(new Segment(ByteBuffer.wrap(bytes), 0, bytes.length));
+        return this;
+    }
+
+    /**
+     * Returns the total number of bytes remaining to be read.
+     *
+     * @return the number of bytes
+     */
+    long remaining() {
+        long result = 0;
+        for (Segment segment : segments) {
+            result += segment.remaining;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (segments.isEmpty()) {
+            return -1;
+        }
+        int total = 0;
+        while (dst.hasRemaining() && !segments.isEmpty()) {
+            Segment segment = segments.peekFirst();
+            int count;
+            if (segment.bytes != null) {
+                ByteBuffer src = segment.bytes;
+                count = Math.min(src.remaining(), dst.remaining());
+                int limit = src.limit();
+                src.limit(src.position() + count);
+                dst.put(src);
+                src.limit(limit);
+            } else {
+                int limit = dst.limit();
+                if (dst.remaining() > segment.remaining) {
+                    dst.limit(dst.position() + (int) segment.remaining);
+                }
+                try {
+                    count = file.read(dst, segment.position);
+                } finally {
+                    dst.limit(limit);
+                }
+                if (count < 0) {
+                    throw new EOFException("File is shorter than the requested range!");
+                }
+                if (count == 0) {
+                    break;
+                }
+                segment.position += count;
+            }
+            segment.remaining -= count;
+            total += count;
+            if (segment.remaining == 0) {
+                segments.pollFirst();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return file.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private static final class Segment {
+        private final ByteBuffer bytes;
+        private long position;
+        private long remaining;
+
+        Segment(ByteBuffer bytes, long position, long remaining) {
+            this.bytes = bytes;
+            this.position = position;
+            this.remaining = remaining;
+        }
+    }
+}
@@ -25,9 +25,14 @@ import io.helidon.common.http.Http;
 
 /**
  * Serves files from the filesystem as a static WEB content.
+ * <p>
+ * If a precompressed variant of the requested file ({@code foo.js.br} or {@code foo.js.gz}) exists and
+ * the client accepts its content coding, the variant is served instead.
  */
 class FileSystemContentHandler extends StaticContentHandler {
 
+    private static final HttpException NOT_ACCESSIBLE = stackless("File is not accessible", Http.Status.FORBIDDEN_403);
+
     FileSystemContentHandler(String welcomeFilename, ContentTypeSelector contentTypeSelector, Path root) {
         super(welcomeFilename, contentTypeSelector, root);
     }
@@ -53,24 +58,25 @@ class FileSystemContentHandler extends StaticContentHandler {
         }
 
         if (!Files.isRegularFile(path) || !Files.isReadable(path) || Files.isHidden(path)) {
-            throw new HttpException("File is not accessible", Http.Status.FORBIDDEN_403);
+            throw NOT_ACCESSIBLE;
         }
 
+        // Precompressed variant - the content type is still based on the original filename
+        Path content = selectPrecompressed(path, request.headers(), response.headers());
+
         // Caching headers support
         try {
-            Instant lastMod = Files.getLastModifiedTime(path).toInstant();
-            processEtag(String.valueOf(lastMod.toEpochMilli()), request.headers(), response.headers());
+            Instant lastMod = Files.getLastModifiedTime(content).toInstant();
+            // variants must have different ETags
+            String variantSuffix = getFileName(content).substring(getFileName(path).length());
+            processEtag(lastMod.toEpochMilli() + variantSuffix, request.headers(), response.headers());
             processModifyHeaders(lastMod, request.headers(), response.headers());
         } catch (IOException | SecurityException e) {
             // Cannot get mod time or size - well, we cannot tell if it was modified or not. Don't support cache headers
         }
 
         processContentType(path, request.headers(), response.headers());
-        if (method == Http.Method.HEAD) {
-            response.send();
-        } else {
-            response.send(path);
-        }
+        sendFile(method, content, request, response);
         return true;
     }
 
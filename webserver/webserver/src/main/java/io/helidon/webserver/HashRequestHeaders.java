@@ -18,6 +18,7 @@ package io.helidon.webserver;
 
 import java.net.URI;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -39,7 +40,8 @@ class HashRequestHeaders extends ReadOnlyParameters implements RequestHeaders {
 
     private final Object internalLock = new Object();
     private volatile Parameters cookies;
-    private List<MediaType> acceptedtypesCache;
+    private AcceptedTypes acceptedtypesCache;
+    private Optional<MediaType> contentTypeCache;
 
     /**
      * Creates a new instance.
@@ -60,7 +62,12 @@ class HashRequestHeaders extends ReadOnlyParameters implements RequestHeaders {
 
     @Override
     public Optional<MediaType> contentType() {
-        return first(Http.Header.CONTENT_TYPE).map(MediaType::parse);
+        Optional<MediaType> result = this.contentTypeCache;
+        if (result == null) {
+            result = first(Http.Header.CONTENT_TYPE).map(MediaType::parse);
+            this.contentTypeCache = result;
+        }
+        return result;
     }
 
     @Override
@@ -90,24 +97,22 @@ class HashRequestHeaders extends ReadOnlyParameters implements RequestHeaders {
 
     @Override
     public List<MediaType> acceptedTypes() {
-        List<MediaType> result = this.acceptedtypesCache;
-        if (result == null) {
-            result = all(Http.Header.ACCEPT).stream()
-                            .flatMap(h -> Utils.tokenize(',', "\"", false, h).stream())
-                            .map(String::trim)
-                            .map(MediaType::parse)
-                            .collect(Collectors.toList());
-            result = Collections.unmodifiableList(result);
-            this.acceptedtypesCache = result;
-        }
-        return result;
+        return accepted().list;
     }
 
     @Override
     public boolean isAccepted(MediaType mediaType) {
         Objects.requireNonNull(mediaType, "Parameter 'mediaType' is null!");
-        List<MediaType> acceptedTypes = acceptedTypes();
-        return acceptedTypes.isEmpty() || acceptedTypes.stream().anyMatch(mediaType);
+        MediaType[] types = accepted().types;
+        if (types.length == 0) {
+            return true;
+        }
+        for (MediaType type : types) {
+            if (type.test(mediaType)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -115,29 +120,45 @@ class HashRequestHeaders extends ReadOnlyParameters implements RequestHeaders {
         if (mediaTypes == null || mediaTypes.length == 0) {
             return Optional.empty();
         }
-        List<MediaType> accepts = acceptedTypes();
-        if (accepts == null || accepts.isEmpty()) {
+        AcceptedTypes accepted = accepted();
+        MediaType[] types = accepted.types;
+        if (types.length == 0) {
             return Optional.ofNullable(mediaTypes[0]);
         }
 
-        double best = 0;
-        MediaType result = null;
-        for (MediaType mt : mediaTypes) {
-            if (mt != null) {
-                for (MediaType acc : accepts) {
-                    double q = acc.qualityFactor();
-                    if (q > best && acc.test(mt)) {
-                        if (q == 1) {
+        // accepted types are sorted by quality; within a group of the same quality the first candidate wins
+        int groupStart = 0;
+        while (groupStart < types.length && accepted.qualities[groupStart] > 0) {
+            double quality = accepted.qualities[groupStart];
+            int groupEnd = groupStart + 1;
+            while (groupEnd < types.length && accepted.qualities[groupEnd] == quality) {
+                groupEnd++;
+            }
+            for (MediaType mt : mediaTypes) {
+                if (mt != null) {
+                    for (int i = groupStart; i < groupEnd; i++) {
+                        if (types[i].test(mt)) {
                             return Optional.of(mt);
-                        } else {
-                            best = q;
-                            result = mt;
                         }
                     }
                 }
             }
+            groupStart = groupEnd;
         }
-        return Optional.ofNullable(result);
+        return Optional.empty();
+    }
+
+    private AcceptedTypes accepted() {
+        AcceptedTypes result = this.acceptedtypesCache;
+        if (result == null) {
+            result = new AcceptedTypes(all(Http.Header.ACCEPT).stream()
+                                                              .flatMap(h -> Utils.tokenize(',', "\"", false, h).stream())
+                                                              .map(String::trim)
+                                                              .map(MediaType::parse)
+                                                              .toArray(MediaType[]::new));
+            this.acceptedtypesCache = result;
+        }
+        return result;
     }
 
     @Override
@@ -245,4 +266,41 @@ class HashRequestHeaders extends ReadOnlyParameters implements RequestHeaders {
             return str;
         }
     }
+
+    /**
+     * Accepted media types sorted by their quality factor, the highest first.
+     */
+    private static final class AcceptedTypes {
+
+        private final MediaType[] types;
+        private final double[] qualities;
+        private final List<MediaType> list;
+
+        private AcceptedTypes(MediaType[] parsed) {
+            Integer[] order = new Integer[parsed.length];
+            double[] parsedQualities = new double[parsed.length];
+            for (int i = 0; i < parsed.length; i++) {
+                order[i] = i;
+                parsedQualities[i] = quality(parsed[i]);
+            }
+            // stable, so types of the same quality keep the order of the header
+            Arrays.sort(order, (a, b) -> Double.compare(parsedQualities[b], parsedQualities[a]));
+            this.types = new MediaType[parsed.length];
+            this.qualities = new double[parsed.length];
+            for (int i = 0; i < parsed.length; i++) {
+                types[i] = parsed[order[i]];
+                qualities[i] = parsedQualities[order[i]];
+            }
+            this.list = Collections.unmodifiableList(Arrays.asList(types));
+        }
+
+        private static double quality(MediaType mediaType) {
+            try {
+                return mediaType.qualityFactor();
+            } catch (NumberFormatException e) {
+                // a malformed quality factor, not acceptable
+                return 0;
+            }
+        }
+    }
 }
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A timer for a large number of mostly cancelled timeouts, such as suspended requests. Timeouts are hashed by their
+ * expiration tick into a fixed wheel of buckets; a single thread advances the wheel each tick and expires the timeouts
+ * of the current bucket. Scheduling and cancelling is lock-free and {@code O(1)}, the precision is one tick.
+ * <p>
+ * Tasks run on the timer thread and must not block. A cancelled timeout releases its task immediately, although
+ * the timeout itself stays in its bucket until the wheel comes round. The {@link #shared() shared} timer is used by
+ * the {@link DeadlineSupport} and, through {@link Timeouts}, by other integrations.
+ */
+class HashedWheelTimer {
+
+    private static final Logger LOGGER = Logger.getLogger(HashedWheelTimer.class.getName());
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<List<Timeout>> wheel;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final long startNanos = System.nanoTime();
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    /**
+     * Creates and starts new timer.
+     *
+     * @param tick       duration of a tick
+     * @param unit       time unit of the tick
+     * @param wheelSize  minimal number of buckets, rounded up to a power of two
+     * @param threadName name of the timer thread
+     */
+    HashedWheelTimer(long tick, TimeUnit unit, int wheelSize, String threadName) {
+        this.tickNanos = Math.max(1, unit.toNanos(tick));
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) - 1) << 1;
+        this.mask = size - 1;
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.thread = new Thread(this::run, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the shared timer with a tick of ten milliseconds.
+     *
+     * @return the shared timer
+     */
+    static HashedWheelTimer shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Schedules the task.
+     *
+     * @param task  a task to run on the timer thread
+     * @param delay a delay
+     * @param unit  time unit of the delay
+     * @return a timeout which can be cancelled
+     * @throws IllegalStateException if the timer is stopped
+     */
+    Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("The timer is stopped!");
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay)));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stops the timer thread. Pending timeouts never expire.
+     */
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long now = waitForTick(tick);
+            if (!running) {
+                break;
+            }
+            transferPending(tick);
+            expire(wheel.get((int) (tick & mask)), now);
+            tick++;
+        }
+    }
+
+    private long waitForTick(long tick) {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startNanos;
+            if (now >= deadline || !running) {
+                return now;
+            }
+            LockSupport.parkNanos(this, deadline - now);
+        }
+    }
+
+    private void transferPending(long tick) {
+        for (Timeout timeout = pending.poll(); timeout != null; timeout = pending.poll()) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            // overdue timeouts go to the current bucket
+            long expirationTick = Math.max(tick, timeout.deadlineNanos / tickNanos);
+            timeout.remainingRounds = (expirationTick - tick) >> Long.numberOfTrailingZeros(mask + 1);
+            wheel.get((int) (expirationTick & mask)).add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket, long now) {
+        int kept = 0;
+        for (int i = 0, size = bucket.size(); i < size; i++) {
+            Timeout timeout = bucket.get(i);
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            if (timeout.remainingRounds <= 0 && timeout.deadlineNanos <= now) {
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+                bucket.set(kept++, timeout);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    private static final class SharedHolder {
+        private static final HashedWheelTimer INSTANCE = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 512,
+                                                                             "helidon-timer");
+    }
+
+    /**
+     * A scheduled task.
+     */
+    static final class Timeout implements Timeouts.Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final long deadlineNanos;
+        // released when cancelled or expired, the state guards the access
+        private Runnable task;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        // confined to the timer thread
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                task = null;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Returns {@code true} if the timeout was cancelled.
+         *
+         * @return whether cancelled
+         */
+        boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * Returns {@code true} if the task was run.
+         *
+         * @return whether expired
+         */
+        boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(PENDING, EXPIRED)) {
+                return;
+            }
+            Runnable current = task;
+            task = null;
+            try {
+                current.run();
+            } catch (Throwable t) {
+                LOGGER.log(Level.WARNING, "A timeout task failed.", t);
+            }
+        }
+    }
+}
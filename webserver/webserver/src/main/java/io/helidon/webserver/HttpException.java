@@ -24,6 +24,10 @@ import io.helidon.common.http.Http;
  * This exception may be thrown during request processing if a specific
  * HTTP error response needs to be produced. Only effective if thrown
  * before the status code is sent.
+ * <p>
+ * Expected error responses, such as {@code 404} for unknown paths, can use a stackless instance, see
+ * {@link #HttpException(String, Http.ResponseStatus, Throwable, boolean)}. Creating it costs about as much as any other
+ * object and it can be passed to {@link ServerRequest#next(Throwable)} instead of being thrown.
  */
 public class HttpException extends RuntimeException {
 
@@ -73,6 +77,21 @@ public class HttpException extends RuntimeException {
         this.status = status;
     }
 
+    /**
+     * Creates {@link HttpException} with or without the stack trace. A stackless exception doesn't record its stack trace
+     * nor suppressed exceptions. If it has no cause, a single instance can be preallocated and shared.
+     *
+     * @param message the message
+     * @param status the http status
+     * @param cause the cause of this exception, can be {@code null}
+     * @param writableStackTrace {@code false} to create a stackless exception
+     */
+    protected HttpException(String message, Http.ResponseStatus status, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, writableStackTrace, writableStackTrace);
+
+        this.status = status;
+    }
+
     /**
      * Obtain the associated http status.
      *
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.RequestedCounter;
+import io.helidon.common.reactive.SingleSubscriberHolder;
+
+/**
+ * Publishes lines of a text content. Lines are terminated by {@code \n}, {@code \r\n} or {@code \r} and published
+ * without the terminator.
+ * <p>
+ * The content is requested a single chunk at a time and only when all lines of the previous chunk were requested
+ * by the subscriber, so memory usage is bounded by a chunk size and the longest line.
+ */
+class LinePublisher implements Flow.Publisher<CharSequence>, Flow.Subscriber<DataChunk> {
+
+    private final Flow.Publisher<DataChunk> content;
+    private final ChunkDecoder decoder;
+    private final int maxLineLength;
+
+    private final SingleSubscriberHolder<CharSequence> subscriber = new SingleSubscriberHolder<>();
+    private final RequestedCounter requested = new RequestedCounter();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    // guarded by this
+    private final Deque<CharSequence> lines = new ArrayDeque<>();
+    private final StringBuilder line = new StringBuilder();
+    private Flow.Subscriber<? super CharSequence> sub;
+    private Flow.Subscription upstream;
+    private boolean upstreamRequested;
+    private boolean upstreamComplete;
+    private boolean upstreamCanceled;
+    private boolean lastWasCr;
+    private Throwable error;
+
+    /**
+     * Creates new instance.
+     *
+     * @param content       the text content
+     * @param charset       a charset of the content
+     * @param maxLineLength maximal number of characters of a single line
+     */
+    LinePublisher(Flow.Publisher<DataChunk> content, Charset charset, int maxLineLength) {
+        this.content = content;
+        this.decoder = new ChunkDecoder(charset);
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super CharSequence> subscriberParam) {
+        if (subscriber.register(subscriberParam)) {
+            synchronized (this) {
+                sub = subscriberParam;
+            }
+            subscriberParam.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested.increment(n, LinePublisher.this::onError);
+                    drain();
+                }
+
+                @Override
+                public void cancel() {
+                    subscriber.cancel();
+                    drain();
+                }
+            });
+            content.subscribe(this);
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            upstream = subscription;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(DataChunk item) {
+        try {
+            synchronized (this) {
+                upstreamRequested = false;
+                if (error == null) {
+                    split(decoder.decode(item.data()));
+                }
+            }
+        } catch (BadRequestException e) {
+            onError(e);
+        } finally {
+            item.release();
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (this) {
+            if (error == null) {
+                error = throwable;
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            synchronized (this) {
+                if (error == null) {
+                    split(decoder.finish());
+                    if (line.length() > 0) {
+                        lines.addLast(line.toString());
+                        line.setLength(0);
+                    }
+                }
+                upstreamComplete = true;
+            }
+        } catch (BadRequestException e) {
+            onError(e);
+        }
+        drain();
+    }
+
+    private void split(CharBuffer chars) {
+        while (chars.hasRemaining()) {
+            char c = chars.get();
+            if (c == '\n') {
+                if (!lastWasCr) {
+                    lines.addLast(line.toString());
+                    line.setLength(0);
+                }
+                lastWasCr = false;
+            } else if (c == '\r') {
+                lines.addLast(line.toString());
+                line.setLength(0);
+                lastWasCr = true;
+            } else {
+                if (line.length() >= maxLineLength) {
+                    throw new BadRequestException("Line is longer than " + maxLineLength + " characters!");
+                }
+                line.append(c);
+                lastWasCr = false;
+            }
+        }
+    }
+
+    /**
+     * Publishes available lines and requests the next chunk when all of them were published. Subscriber methods
+     * are never called while holding the monitor of this instance, a work-in-progress counter serializes the calls.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Flow.Subscription requestFrom = null;
+            Flow.Subscription cancel = null;
+            while (true) {
+                CharSequence next = null;
+                Throwable terminalError = null;
+                Flow.Subscriber<? super CharSequence> s;
+                synchronized (this) {
+                    s = sub;
+                    if (s == null) {
+                        break;
+                    }
+                    if (subscriber.isClosed()) {
+                        if (!upstreamCanceled && !upstreamComplete && upstream != null) {
+                            upstreamCanceled = true;
+                            cancel = upstream;
+                        }
+                        lines.clear();
+                        break;
+                    }
+                    if (error != null) {
+                        terminalError = error;
+                        lines.clear();
+                    } else if (!lines.isEmpty()) {
+                        if (!requested.tryDecrement()) {
+                            break;
+                        }
+                        next = lines.pollFirst();
+                    } else if (!upstreamComplete) {
+                        if (!upstreamRequested && upstream != null && requested.get() > 0) {
+                            upstreamRequested = true;
+                            requestFrom = upstream;
+                        }
+                        break;
+                    }
+                }
+                if (next != null) {
+                    s.onNext(next);
+                } else if (terminalError != null) {
+                    Throwable t = terminalError;
+                    // upstream is canceled in the next iteration
+                    subscriber.close(sc -> sc.onError(t));
+                } else {
+                    subscriber.close(Flow.Subscriber::onComplete);
+                }
+            }
+            if (cancel != null) {
+                cancel.cancel();
+            } else if (requestFrom != null) {
+                // can deliver synchronously, the loop continues with the delivered chunk
+                requestFrom.request(1);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import io.helidon.common.reactive.Flow;
+
+/**
+ * A streamed {@code multipart/*} request body (for example {@code multipart/form-data}). It is a single-subscriber
+ * {@link Flow.Publisher publisher} of {@link BodyPart}s.
+ * <p>
+ * Parts are published as soon as their headers are parsed. The request content is read ahead only while the
+ * subscriber requests more parts. Content of a part which is not consumed as fast as it is received is buffered
+ * in memory up to a configured threshold and then spilled over to a temporary file.
+ *
+ * @see MultiPartSupport
+ */
+public interface MultiPart extends Flow.Publisher<BodyPart> {
+}
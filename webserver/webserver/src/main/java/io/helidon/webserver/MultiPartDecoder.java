@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.ReadOnlyParameters;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.RequestedCounter;
+import io.helidon.common.reactive.SingleSubscriberHolder;
+
+/**
+ * Incremental {@code multipart/*} parser (RFC 2046). It subscribes to the request content on the first
+ * {@link MultiPart} subscription and requests a single chunk at a time.
+ * <p>
+ * Boundaries are searched with a KMP automaton which state survives chunk borders, so the content of a part is
+ * published as slices of the original chunks. Only the bytes of a partially matched delimiter at the end of a chunk
+ * which turn out to be content are copied (from the delimiter itself). The original chunk is released when all its
+ * slices are released.
+ */
+class MultiPartDecoder implements MultiPart, Flow.Subscriber<DataChunk> {
+
+    private static final int MAX_HEADERS_SIZE = 1024 * 16;
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private enum State {
+        PREAMBLE, DELIMITER_SUFFIX, HEADERS, BODY, EPILOGUE
+    }
+
+    private final Flow.Publisher<DataChunk> content;
+    private final long memoryThreshold;
+    private final Path tempDirectory;
+    private final byte[] delimiter;
+    private final int[] failure;
+
+    private final SingleSubscriberHolder<BodyPart> subscriber = new SingleSubscriberHolder<>();
+    private final RequestedCounter requested = new RequestedCounter();
+
+    // guarded by this
+    private Flow.Subscriber<? super BodyPart> downstream;
+    private Flow.Subscription upstream;
+    private boolean upstreamRequested;
+    private boolean upstreamComplete;
+    private boolean processing;
+    private boolean terminated;
+    private State state = State.PREAMBLE;
+    // the first delimiter doesn't have to be preceded by CRLF - act as if it was already matched
+    private int matched = CRLF.length;
+    private int held = CRLF.length;
+    private byte suffix;
+    private final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+    private ChunkRef current;
+    private BufferedBodyPart part;
+    private BufferedBodyPart pendingPart;
+
+    /**
+     * Creates new instance.
+     *
+     * @param content         the request content
+     * @param boundary        the boundary parameter of the content type
+     * @param memoryThreshold maximal number of not consumed bytes of a single part which are kept in memory
+     * @param tempDirectory   a directory for temporary files or {@code null} for the default one
+     */
+    MultiPartDecoder(Flow.Publisher<DataChunk> content, String boundary, long memoryThreshold, Path tempDirectory) {
+        this.content = content;
+        this.memoryThreshold = memoryThreshold;
+        this.tempDirectory = tempDirectory;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.US_ASCII);
+        this.failure = failureFunction(delimiter);
+    }
+
+    private static int[] failureFunction(byte[] pattern) {
+        int[] result = new int[pattern.length];
+        int k = 0;
+        for (int i = 1; i < pattern.length; i++) {
+            while (k > 0 && pattern[i] != pattern[k]) {
+                k = result[k - 1];
+            }
+            if (pattern[i] == pattern[k]) {
+                k++;
+            }
+            result[i] = k;
+        }
+        return result;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super BodyPart> subscriberParam) {
+        if (subscriber.register(subscriberParam)) {
+            synchronized (this) {
+                downstream = subscriberParam;
+            }
+            subscriberParam.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested.increment(n, t -> fail(t, true));
+                    process();
+                }
+
+                @Override
+                public void cancel() {
+                    fail(new CancellationException("Multipart subscription canceled!"), true);
+                }
+            });
+            content.subscribe(this);
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            upstream = subscription;
+        }
+        process();
+    }
+
+    @Override
+    public void onNext(DataChunk item) {
+        synchronized (this) {
+            upstreamRequested = false;
+            if (terminated) {
+                item.release();
+                return;
+            }
+            current = new ChunkRef(item);
+        }
+        process();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(throwable, false);
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            upstreamComplete = true;
+        }
+        process();
+    }
+
+    private synchronized void process() {
+        if (processing || downstream == null) {
+            return;
+        }
+        processing = true;
+        try {
+            while (!terminated) {
+                if (pendingPart != null) {
+                    if (!requested.tryDecrement()) {
+                        return;
+                    }
+                    BodyPart next = pendingPart;
+                    pendingPart = null;
+                    downstream.onNext(next);
+                } else if (current != null) {
+                    if (parse(current)) {
+                        current.release();
+                        current = null;
+                    }
+                } else if (upstreamComplete) {
+                    if (state == State.EPILOGUE) {
+                        terminated = true;
+                        subscriber.close(Flow.Subscriber::onComplete);
+                    } else {
+                        fail(new BadRequestException("Unexpected end of the multipart content!"), false);
+                    }
+                } else if (!upstreamRequested && upstream != null) {
+                    upstreamRequested = true;
+                    // can deliver synchronously, the loop continues with the delivered chunk
+                    upstream.request(1);
+                } else {
+                    return;
+                }
+            }
+        } catch (BadRequestException e) {
+            fail(e, true);
+        } finally {
+            processing = false;
+        }
+    }
+
+    private synchronized void fail(Throwable throwable, boolean cancelUpstream) {
+        if (terminated) {
+            return;
+        }
+        terminated = true;
+        if (part != null) {
+            part.fail(throwable);
+            part = null;
+        }
+        pendingPart = null;
+        if (current != null) {
+            current.release();
+            current = null;
+        }
+        if (cancelUpstream && upstream != null) {
+            upstream.cancel();
+        }
+        subscriber.close(s -> s.onError(throwable));
+    }
+
+    /**
+     * Parses the chunk from its current position.
+     *
+     * @param ref the chunk
+     * @return {@code true} if the whole chunk was processed
+     */
+    private boolean parse(ChunkRef ref) {
+        ByteBuffer data = ref.chunk.data();
+        int limit = data.limit();
+        int pos = ref.position;
+        while (pos < limit && pendingPart == null) {
+            switch (state) {
+            case PREAMBLE:
+            case BODY:
+                pos = scanBody(ref, data, pos, limit);
+                break;
+            case DELIMITER_SUFFIX:
+                parseDelimiterSuffix(data.get(pos++));
+                break;
+            case HEADERS:
+                parseHeaderByte(data.get(pos++));
+                break;
+            default:
+                // epilogue is ignored
+                pos = limit;
+            }
+        }
+        ref.position = pos;
+        return pos >= limit;
+    }
+
+    private int scanBody(ChunkRef ref, ByteBuffer data, int pos, int limit) {
+        int k = matched;
+        for (int i = pos; i < limit; i++) {
+            byte b = data.get(i);
+            while (k > 0 && b != delimiter[k]) {
+                int fallback = failure[k - 1];
+                releaseHeld(k - fallback);
+                k = fallback;
+            }
+            if (b == delimiter[k]) {
+                k++;
+            }
+            if (k == delimiter.length) {
+                emit(ref, data, pos, i + 1 - (k - held));
+                matched = 0;
+                held = 0;
+                if (part != null) {
+                    part.complete();
+                    part = null;
+                }
+                suffix = 0;
+                state = State.DELIMITER_SUFFIX;
+                return i + 1;
+            }
+        }
+        emit(ref, data, pos, limit - (k - held));
+        matched = k;
+        held = k;
+        return limit;
+    }
+
+    /**
+     * Releases held bytes of a partially matched delimiter from previous chunks which are not a delimiter.
+     */
+    private void releaseHeld(int count) {
+        int released = Math.min(count, held);
+        if (released > 0) {
+            if (part != null) {
+                byte[] bytes = new byte[released];
+                System.arraycopy(delimiter, 0, bytes, 0, released);
+                part.append(DataChunk.create(bytes));
+            }
+            held -= released;
+        }
+    }
+
+    private void emit(ChunkRef ref, ByteBuffer data, int from, int to) {
+        if (part == null || to <= from) {
+            return;
+        }
+        ByteBuffer slice = data.duplicate();
+        slice.limit(to);
+        slice.position(from);
+        part.append(ref.slice(slice.slice()));
+    }
+
+    private void parseDelimiterSuffix(byte b) {
+        if (suffix == 0) {
+            if (b == '-' || b == '\r') {
+                suffix = b;
+            } else if (b != ' ' && b != '\t') {
+                throw new BadRequestException("Invalid multipart boundary delimiter!");
+            }
+        } else if (suffix == '-' && b == '-') {
+            state = State.EPILOGUE;
+        } else if (suffix == '\r' && b == '\n') {
+            headerBytes.reset();
+            state = State.HEADERS;
+        } else {
+            throw new BadRequestException("Invalid multipart boundary delimiter!");
+        }
+    }
+
+    private void parseHeaderByte(byte b) {
+        headerBytes.write(b);
+        int size = headerBytes.size();
+        if (size > MAX_HEADERS_SIZE) {
+            throw new BadRequestException("Multipart part headers are too large!");
+        }
+        if (b != '\n' || size < 2) {
+            return;
+        }
+        byte[] bytes = headerBytes.toByteArray();
+        boolean noHeaders = size == 2 && bytes[0] == '\r';
+        boolean endOfHeaders = size >= 4 && bytes[size - 2] == '\r' && bytes[size - 3] == '\n' && bytes[size - 4] == '\r';
+        if (noHeaders || endOfHeaders) {
+            part = new BufferedBodyPart(parseHeaders(new String(bytes, StandardCharsets.UTF_8)),
+                                        memoryThreshold,
+                                        tempDirectory);
+            pendingPart = part;
+            state = State.BODY;
+        }
+    }
+
+    private static ReadOnlyParameters parseHeaders(String headers) {
+        Map<String, List<String>> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String line : headers.split("\r\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            int index = line.indexOf(':');
+            if (index <= 0) {
+                throw new BadRequestException("Invalid multipart part header: " + line);
+            }
+            result.computeIfAbsent(line.substring(0, index).trim(), k -> new ArrayList<>())
+                  .add(line.substring(index + 1).trim());
+        }
+        return new ReadOnlyParameters(result);
+    }
+
+    /**
+     * A reference counted chunk of the request content.
+     */
+    private static final class ChunkRef {
+
+        private final DataChunk chunk;
+        private final AtomicInteger references = new AtomicInteger(1);
+        private int position;
+
+        ChunkRef(DataChunk chunk) {
+            this.chunk = chunk;
+            this.position = chunk.data().position();
+        }
+
+        DataChunk slice(ByteBuffer slice) {
+            references.incrementAndGet();
+            AtomicBoolean released = new AtomicBoolean();
+            return DataChunk.create(false, slice, () -> {
+                if (released.compareAndSet(false, true)) {
+                    release();
+                }
+            });
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                chunk.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import io.helidon.common.http.MediaType;
+import io.helidon.common.http.Reader;
+
+/**
+ * Streaming {@code multipart/*} (for example {@code multipart/form-data}) support for the {@link WebServer WebServer}'s
+ * {@link Routing}. If registered, then all {@link Handler Handlers} can use
+ * {@code ServerRequest.}{@link ServerRequest#content() content()}{@code .as(MultiPart.class)} to get a
+ * {@link io.helidon.common.reactive.Flow.Publisher publisher} of {@link BodyPart}s.
+ * <p>
+ * The content is parsed incrementally. Parts are never fully buffered in memory, a part content which is not
+ * consumed as fast as it is received is spilled over to a temporary file above a configured threshold.
+ * <pre>{@code
+ * Routing.builder()
+ *        .post("/upload", MultiPartSupport.create())
+ *        .post("/upload", (req, res) -> req.content().as(MultiPart.class).thenAccept(...))
+ * }</pre>
+ * The reader can also be registered directly using {@link #reader(String)}.
+ */
+public final class MultiPartSupport implements Service, Handler {
+
+    /**
+     * Default maximal number of not consumed bytes of a single part kept in memory.
+     */
+    public static final long DEFAULT_MEMORY_THRESHOLD = 1024 * 1024;
+
+    private static final class DefaultMultiPartSupportHolder {
+        private static final MultiPartSupport INSTANCE = builder().build();
+    }
+
+    private final long memoryThreshold;
+    private final Path tempDirectory;
+
+    private MultiPartSupport(Builder builder) {
+        this.memoryThreshold = builder.memoryThreshold;
+        this.tempDirectory = builder.tempDirectory;
+    }
+
+    @Override
+    public void update(Routing.Rules routingRules) {
+        routingRules.any(this);
+    }
+
+    /**
+     * Registers the {@link MultiPart} reader if the request content type is {@code multipart/*} with a boundary
+     * and calls {@code ServerRequest.}{@link ServerRequest#next() next()}.
+     *
+     * @param request  a server request
+     * @param response a server response
+     */
+    @Override
+    public void accept(ServerRequest request, ServerResponse response) {
+        boundary(request).ifPresent(boundary -> request.content().registerReader(MultiPart.class, reader(boundary)));
+        request.next();
+    }
+
+    /**
+     * Returns a reader of the {@code multipart/*} content with the provided boundary.
+     *
+     * @param boundary a value of the {@code boundary} parameter of the request {@code Content-Type}
+     * @return a reader which completes immediately with a single-subscriber {@link MultiPart}
+     * @throws NullPointerException if {@code boundary} is {@code null}
+     */
+    public Reader<MultiPart> reader(String boundary) {
+        Objects.requireNonNull(boundary, "Parameter 'boundary' is null!");
+        return (publisher, clazz) -> CompletableFuture.completedFuture(
+                new MultiPartDecoder(publisher, boundary, memoryThreshold, tempDirectory));
+    }
+
+    private static Optional<String> boundary(ServerRequest request) {
+        return request.headers()
+                      .contentType()
+                      .filter(mt -> "multipart".equalsIgnoreCase(mt.getType()))
+                      .map(MediaType::getParameters)
+                      .map(parameters -> parameters.get("boundary"))
+                      .map(boundary -> {
+                          if (boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+                              return boundary.substring(1, boundary.length() - 1);
+                          }
+                          return boundary;
+                      });
+    }
+
+    /**
+     * Returns a singleton instance with default configuration.
+     *
+     * @return a singleton instance
+     */
+    public static MultiPartSupport create() {
+        return DefaultMultiPartSupportHolder.INSTANCE;
+    }
+
+    /**
+     * Creates new builder.
+     *
+     * @return a builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Fluent builder of {@link MultiPartSupport}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<MultiPartSupport> {
+
+        private long memoryThreshold = DEFAULT_MEMORY_THRESHOLD;
+        private Path tempDirectory;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximal number of not yet consumed bytes of a single part kept in memory. Content above the
+         * threshold is written to a temporary file. Default is {@value MultiPartSupport#DEFAULT_MEMORY_THRESHOLD}.
+         *
+         * @param memoryThreshold number of bytes
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code memoryThreshold} is negative
+         */
+        public Builder memoryThreshold(long memoryThreshold) {
+            if (memoryThreshold < 0) {
+                throw new IllegalArgumentException("Parameter 'memoryThreshold' cannot be negative!");
+            }
+            this.memoryThreshold = memoryThreshold;
+            return this;
+        }
+
+        /**
+         * Sets a directory for temporary files. Default is the system temporary directory.
+         *
+         * @param tempDirectory a directory
+         * @return updated builder
+         */
+        public Builder tempDirectory(Path tempDirectory) {
+            this.tempDirectory = tempDirectory;
+            return this;
+        }
+
+        @Override
+        public MultiPartSupport build() {
+            return new MultiPartSupport(this);
+        }
+    }
+}
@@ -41,4 +41,16 @@ public class NotFoundException extends HttpException {
     public NotFoundException(String message, Throwable cause) {
         super(message, Http.Status.NOT_FOUND_404, cause);
     }
+
+    /**
+     * Creates {@link NotFoundException} with or without the stack trace.
+     *
+     * @param message the message
+     * @param cause the cause of this exception, can be {@code null}
+     * @param writableStackTrace {@code false} to create a stackless exception
+     * @see HttpException#HttpException(String, Http.ResponseStatus, Throwable, boolean)
+     */
+    protected NotFoundException(String message, Throwable cause, boolean writableStackTrace) {
+        super(message, Http.Status.NOT_FOUND_404, cause, writableStackTrace);
+    }
 }
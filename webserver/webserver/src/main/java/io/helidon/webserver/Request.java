@@ -173,6 +173,15 @@ abstract class Request implements ServerRequest {
         return bareRequest.requestId();
     }
 
+    /**
+     * Returns the {@link System#nanoTime()} at which the request was received by the server.
+     *
+     * @return the receipt time or {@code -1} if it is not known
+     */
+    long receivedNanos() {
+        return bareRequest.receivedNanos();
+    }
+
     private static CompletableFuture failedFuture(Throwable t) {
         CompletableFuture result = new CompletableFuture<>();
         result.completeExceptionally(t);
@@ -36,6 +36,7 @@ import io.helidon.webserver.spi.BareResponse;
 import io.opentracing.Span;
 import io.opentracing.SpanContext;
 import io.opentracing.Tracer;
+import io.opentracing.noop.NoopSpan;
 import io.opentracing.propagation.Format;
 import io.opentracing.propagation.TextMapExtractAdapter;
 import io.opentracing.tag.Tags;
@@ -328,8 +329,8 @@ class RequestRouting implements Routing {
             checkNexted();
             Crawler.Item nextItem = crawler.next();
             if (nextItem == null) {
-                // 404 error
-                nextNoCheck(new NotFoundException("No handler found for path: " + path()));
+                // 404 error - an expected response, the stack trace would be useless
+                nextNoCheck(new NotFoundException("No handler found for path: " + path(), null, false));
             } else {
                 try {
                     RoutedResponse nextResponse = new RoutedResponse(response);
@@ -360,9 +361,7 @@ class RequestRouting implements Routing {
             for (ErrorHandlerRecord<?> record = errorHandlers.pollFirst(); record != null; record = errorHandlers.pollFirst()) {
                 if (record.exceptionClass.isAssignableFrom(t.getClass())) {
                     ErrorRoutedRequest nextErrorRequest = new ErrorRoutedRequest(errorHandlers, t);
-                    requestSpan.log(CollectionsHelper.mapOf("event", "error-handler",
-                                           "handler.class", record.errorHandler.getClass().getName(),
-                                           "handled.error.message", t.toString()));
+                    logErrorHandler(record.errorHandler.getClass().getName(), t);
                     try {
                         // there's no way to avoid this cast
                         ((ErrorHandler<Throwable>) record.errorHandler).accept(nextErrorRequest, response, t);
@@ -385,9 +384,7 @@ class RequestRouting implements Routing {
         }
 
         private void defaultHandler(Throwable t) {
-            requestSpan.log(CollectionsHelper.mapOf("event", "error-handler",
-                                   "handler.class", "DEFAULT-ERROR-HANDLER",
-                                   "handled.error.message", t.toString()));
+            logErrorHandler("DEFAULT-ERROR-HANDLER", t);
             try {
                 if (t instanceof HttpException) {
                     response.status(((HttpException) t).status());
@@ -410,6 +407,15 @@ class RequestRouting implements Routing {
             });
         }
 
+        private void logErrorHandler(String handlerClass, Throwable t) {
+            // no need to create the event if it is not recorded
+            if (!(requestSpan instanceof NoopSpan)) {
+                requestSpan.log(CollectionsHelper.mapOf("event", "error-handler",
+                                                        "handler.class", handlerClass,
+                                                        "handled.error.message", t.toString()));
+            }
+        }
+
         @Override
         public void next(Throwable t) {
             checkNexted();
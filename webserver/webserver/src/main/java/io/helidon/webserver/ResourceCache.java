@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.helidon.common.http.MediaType;
+
+/**
+ * A bounded LRU cache of small immutable static resources. Both the number of entries and the total number of cached
+ * bytes are limited. Resource bytes are held in read-only direct buffers, so they can be written without copying.
+ */
+class ResourceCache {
+
+    private final long maxBytes;
+    private final int maxEntries;
+    private final int maxEntrySize;
+
+    // guarded by this
+    private final LinkedHashMap<Path, CachedResource> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates new instance.
+     *
+     * @param maxBytes     maximal total size of cached resources
+     * @param maxEntries   maximal number of cached resources
+     * @param maxEntrySize maximal size of a single cached resource
+     */
+    ResourceCache(long maxBytes, int maxEntries, int maxEntrySize) {
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    /**
+     * Returns {@code true} if a resource of the given size can be cached.
+     *
+     * @param size a size of the resource
+     * @return whether the resource can be cached
+     */
+    boolean accepts(long size) {
+        return size <= maxEntrySize && size <= maxBytes && maxEntries > 0;
+    }
+
+    /**
+     * Returns the cached resource and updates hit and miss counters.
+     *
+     * @param path a resource path
+     * @return a cached resource or {@code null}
+     */
+    CachedResource get(Path path) {
+        CachedResource result;
+        synchronized (this) {
+            result = entries.get(path);
+        }
+        if (result == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Caches the resource and evicts the least recently used resources above the limits.
+     *
+     * @param path     a resource path
+     * @param resource a resource to cache
+     */
+    synchronized void put(Path path, CachedResource resource) {
+        CachedResource previous = entries.put(path, resource);
+        if (previous != null) {
+            bytes -= previous.size();
+        }
+        bytes += resource.size();
+        Iterator<CachedResource> iterator = entries.values().iterator();
+        while ((bytes > maxBytes || entries.size() > maxEntries) && iterator.hasNext()) {
+            CachedResource eldest = iterator.next();
+            iterator.remove();
+            bytes -= eldest.size();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Removes all cached resources.
+     */
+    synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Returns current statistics.
+     *
+     * @return a snapshot of the statistics
+     */
+    StaticContentSupport.CacheStatistics statistics() {
+        int size;
+        long currentBytes;
+        synchronized (this) {
+            size = entries.size();
+            currentBytes = bytes;
+        }
+        return new StaticContentSupport.CacheStatistics(hits.sum(), misses.sum(), evictions.sum(), size, currentBytes);
+    }
+
+    /**
+     * A cached resource with precomputed response metadata.
+     */
+    static final class CachedResource {
+
+        private final ByteBuffer content;
+        private final String etag;
+        private final Instant lastModified;
+        private final MediaType mediaType;
+
+        /**
+         * Creates new instance.
+         *
+         * @param content      resource bytes
+         * @param etag         an ETag or {@code null}
+         * @param lastModified the last modification time or {@code null}
+         * @param mediaType    a media type based on the resource name or {@code null}
+         */
+        CachedResource(byte[] content, String etag, Instant lastModified, MediaType mediaType) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+            buffer.put(content);
+            buffer.flip();
+            this.content = buffer.asReadOnlyBuffer();
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.mediaType = mediaType;
+        }
+
+        /**
+         * Returns a new read-only view of the resource bytes.
+         *
+         * @return resource bytes
+         */
+        ByteBuffer content() {
+            return content.duplicate();
+        }
+
+        String etag() {
+            return etag;
+        }
+
+        Instant lastModified() {
+            return lastModified;
+        }
+
+        MediaType mediaType() {
+            return mediaType;
+        }
+
+        int size() {
+            return content.capacity();
+        }
+    }
+
+    /**
+     * Returns entries in the least recently used order, for tests only.
+     *
+     * @return a copy of entries
+     */
+    synchronized Map<Path, CachedResource> entries() {
+        return new LinkedHashMap<>(entries);
+    }
+}
@@ -358,6 +358,25 @@ abstract class Response implements ServerResponse {
         return bareResponse.requestId();
     }
 
+    /**
+     * Switches the connection to the WebSocket protocol. No content can be sent after this call.
+     *
+     * @param support the WebSocket configuration
+     * @return a completion stage of the connection, completed once the handshake response is sent
+     * @throws IllegalStateException         if the response is already sent
+     * @throws UnsupportedOperationException if the server doesn't support WebSocket
+     */
+    CompletionStage<WebSocket> upgradeToWebSocket(WebSocketSupport support) {
+        synchronized (sendLockSupport) {
+            if (sendLockSupport.contentSend) {
+                throw new IllegalStateException("Response is already sent!");
+            }
+            CompletionStage<WebSocket> result = bareResponse.upgradeToWebSocket(support);
+            sendLockSupport.contentSend = true;
+            return result;
+        }
+    }
+
     private static class SendLockSupport {
 
         private boolean contentSend = false;
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.helidon.common.http.Http;
+
+/**
+ * A bounded LRU cache of complete responses. Both the number of entries and the total number of cached bytes are
+ * limited, expired entries are removed when they are looked up. Response bodies are held in read-only direct buffers,
+ * so they can be written without copying.
+ * <p>
+ * The {@code Vary} header names of the latest response are kept per base key (a key without the varying request headers)
+ * as long as some response with that base key is cached, so they are bounded by the same limits.
+ */
+class ResponseCache {
+
+    private final long maxBytes;
+    private final int maxEntries;
+
+    // guarded by this
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Vary> varies = new HashMap<>();
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates new instance.
+     *
+     * @param maxBytes   maximal total size of cached response bodies
+     * @param maxEntries maximal number of cached responses
+     */
+    ResponseCache(long maxBytes, int maxEntries) {
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns a cached response which is not expired and updates hit and miss counters.
+     *
+     * @param key      a cache key
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return a cached response or {@code null}
+     */
+    CachedResponse get(String key, long nowNanos) {
+        CachedResponse result;
+        synchronized (this) {
+            result = entries.get(key);
+            if (result != null && result.isExpired(nowNanos)) {
+                entries.remove(key);
+                removed(result);
+                result = null;
+            }
+        }
+        if (result == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the {@code Vary} header names of the latest cached response with the base key.
+     *
+     * @param baseKey a base key
+     * @return sorted lower case header names or {@code null} if no response with the base key is cached
+     */
+    synchronized List<String> vary(String baseKey) {
+        Vary vary = varies.get(baseKey);
+        return vary == null ? null : vary.names;
+    }
+
+    /**
+     * Caches the response and evicts the least recently used responses above the limits.
+     *
+     * @param response a response to cache
+     */
+    synchronized void put(CachedResponse response) {
+        if (response.size() > maxBytes || maxEntries <= 0) {
+            return;
+        }
+        CachedResponse previous = entries.put(response.key(), response);
+        if (previous != null) {
+            removed(previous);
+        }
+        bytes += response.size();
+        Vary vary = varies.computeIfAbsent(response.baseKey(), k -> new Vary());
+        vary.names = response.vary();
+        vary.count++;
+        Iterator<CachedResponse> iterator = entries.values().iterator();
+        while ((bytes > maxBytes || entries.size() > maxEntries) && iterator.hasNext()) {
+            CachedResponse eldest = iterator.next();
+            iterator.remove();
+            removed(eldest);
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Removes all cached responses.
+     */
+    synchronized void clear() {
+        entries.clear();
+        varies.clear();
+        bytes = 0;
+    }
+
+    // guarded by this
+    private void removed(CachedResponse response) {
+        bytes -= response.size();
+        Vary vary = varies.get(response.baseKey());
+        if (vary != null && --vary.count == 0) {
+            varies.remove(response.baseKey());
+        }
+    }
+
+    /**
+     * Returns current statistics.
+     *
+     * @return a snapshot of the statistics
+     */
+    StaticContentSupport.CacheStatistics statistics() {
+        int size;
+        long currentBytes;
+        synchronized (this) {
+            size = entries.size();
+            currentBytes = bytes;
+        }
+        return new StaticContentSupport.CacheStatistics(hits.sum(), misses.sum(), evictions.sum(), size, currentBytes);
+    }
+
+    /**
+     * {@code Vary} header names of a base key and the number of cached responses with it.
+     */
+    private static final class Vary {
+
+        private List<String> names;
+        private int count;
+    }
+
+    /**
+     * A key of a cached response.
+     */
+    static final class Key {
+
+        private final String value;
+        private final String baseKey;
+        private final List<String> vary;
+
+        /**
+         * Creates new instance.
+         *
+         * @param value   the whole key
+         * @param baseKey the key without the varying request headers
+         * @param vary    sorted lower case {@code Vary} header names
+         */
+        Key(String value, String baseKey, List<String> vary) {
+            this.value = value;
+            this.baseKey = baseKey;
+            this.vary = Collections.unmodifiableList(vary);
+        }
+    }
+
+    /**
+     * A cached response.
+     */
+    static final class CachedResponse {
+
+        private final Key key;
+        private final Http.ResponseStatus status;
+        private final Map<String, List<String>> headers;
+        private final ByteBuffer content;
+        private final String etag;
+        private final long createdNanos;
+        private final long expiresNanos;
+
+        /**
+         * Creates new instance.
+         *
+         * @param key          a cache key
+         * @param status       a response status
+         * @param headers      response headers without the hop-by-hop and length headers
+         * @param content      response body
+         * @param etag         a quoted ETag
+         * @param createdNanos {@link System#nanoTime()} of the response
+         * @param ttlNanos     time to live
+         */
+        CachedResponse(Key key,
+                       Http.ResponseStatus status,
+                       Map<String, List<String>> headers,
+                       byte[] content,
+                       String etag,
+                       long createdNanos,
+                       long ttlNanos) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+            buffer.put(content);
+            buffer.flip();
+            this.key = key;
+            this.status = status;
+            this.headers = Collections.unmodifiableMap(headers);
+            this.content = buffer.asReadOnlyBuffer();
+            this.etag = etag;
+            this.createdNanos = createdNanos;
+            this.expiresNanos = createdNanos + ttlNanos;
+        }
+
+        String key() {
+            return key.value;
+        }
+
+        String baseKey() {
+            return key.baseKey;
+        }
+
+        List<String> vary() {
+            return key.vary;
+        }
+
+        Http.ResponseStatus status() {
+            return status;
+        }
+
+        Map<String, List<String>> headers() {
+            return headers;
+        }
+
+        /**
+         * Returns a new read-only view of the response body.
+         *
+         * @return response body
+         */
+        ByteBuffer content() {
+            return content.duplicate();
+        }
+
+        String etag() {
+            return etag;
+        }
+
+        int size() {
+            return content.capacity();
+        }
+
+        long ageSeconds(long nowNanos) {
+            return (nowNanos - createdNanos) / 1_000_000_000L;
+        }
+
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,547 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.ReactiveStreamsAdapter;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches complete responses of {@code GET} requests for the {@link WebServer WebServer}'s {@link Routing}. It is
+ * intended for idempotent routes whose output changes rarely; repeated requests are answered from memory without
+ * calling the handlers.
+ * <p>
+ * Responses are keyed by the path, the query parameters (all of them or the {@link Builder#addQueryParam(String)
+ * selected} ones) and the values of request headers listed in the {@code Vary} response header. Only {@code 200 OK}
+ * responses are cached, unless the response {@code Cache-Control} header forbids it ({@code no-store}, {@code private},
+ * {@code no-cache}) or it contains {@code Set-Cookie}. The {@code s-maxage} or {@code max-age} directive overrides
+ * the configured time to live. Requests with the {@code Authorization} header or {@code Cache-Control: no-store}
+ * bypass the cache, {@code Cache-Control: no-cache} forces a new response.
+ * <p>
+ * Concurrent requests which miss the same entry are coalesced - only one of them calls the handlers, others wait for
+ * its response. Cached responses have an {@code ETag} (computed from the content if the handler did not set one)
+ * and conditional requests are answered by {@code 304 Not Modified}. {@code HEAD} requests are answered from
+ * the cached {@code GET} responses.
+ * <pre>{@code
+ * Routing.builder()
+ *        .register("/catalog", ResponseCacheSupport.builder().ttl(Duration.ofMinutes(5)))
+ *        .register("/catalog", catalogService)
+ * }</pre>
+ */
+public final class ResponseCacheSupport implements Service, Handler {
+
+    /**
+     * Default maximal total size of cached response bodies.
+     */
+    public static final long DEFAULT_MAX_BYTES = 32 * 1024 * 1024;
+
+    /**
+     * Default maximal number of cached responses.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    /**
+     * Default maximal size of a single cached response body.
+     */
+    public static final int DEFAULT_MAX_ENTRY_SIZE = 1024 * 1024;
+
+    /**
+     * Default time to live of a cached response.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(1);
+
+    // not copied to cached responses, the length is set from the cached content
+    private static final Set<String> EXCLUDED_HEADERS = caseInsensitiveSet(Http.Header.DATE,
+                                                                           Http.Header.CONNECTION,
+                                                                           Http.Header.TRANSFER_ENCODING,
+                                                                           Http.Header.CONTENT_LENGTH,
+                                                                           Http.Header.AGE,
+                                                                           "Keep-Alive");
+
+    private final ResponseCache cache;
+    private final int maxEntrySize;
+    private final long ttlNanos;
+    private final List<String> queryParams;
+    private final ConcurrentMap<String, CompletableFuture<ResponseCache.CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private ResponseCacheSupport(Builder builder) {
+        this.cache = new ResponseCache(builder.maxBytes, builder.maxEntries);
+        this.maxEntrySize = builder.maxEntrySize;
+        this.ttlNanos = builder.ttl.toNanos();
+        this.queryParams = new ArrayList<>(builder.queryParams);
+    }
+
+    @Override
+    public void update(Routing.Rules routingRules) {
+        routingRules.get(this)
+                    .head(this);
+    }
+
+    /**
+     * Answers the request from the cache or calls {@code ServerRequest.}{@link ServerRequest#next() next()} and caches
+     * the response.
+     *
+     * @param request  a server request
+     * @param response a server response
+     */
+    @Override
+    public void accept(ServerRequest request, ServerResponse response) {
+        List<String> requestCacheControl = cacheControl(request.headers().values(Http.Header.CACHE_CONTROL));
+        if (requestCacheControl.contains("no-store") || request.headers().first(Http.Header.AUTHORIZATION).isPresent()) {
+            request.next();
+            return;
+        }
+        String baseKey = baseKey(request);
+        String key = key(baseKey, request);
+        if (!requestCacheControl.contains("no-cache")) {
+            ResponseCache.CachedResponse cached = cache.get(key, System.nanoTime());
+            if (cached != null) {
+                send(cached, request, response);
+                return;
+            }
+        }
+        if (request.method() == Http.Method.HEAD) {
+            // the content of a HEAD response is not available
+            request.next();
+            return;
+        }
+        CompletableFuture<ResponseCache.CachedResponse> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseCache.CachedResponse> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            leader.whenComplete((cached, throwable) -> {
+                // the leader may have learned new Vary headers
+                if (cached != null && cached.key().equals(key(baseKey, request))) {
+                    send(cached, request, response);
+                } else {
+                    request.next();
+                }
+            });
+            return;
+        }
+        response.registerFilter(publisher -> {
+            if (response.status().code() != Http.Status.OK_200.code()) {
+                return null;
+            }
+            return new CapturingPublisher(publisher,
+                                          response,
+                                          content -> store(baseKey, key, flight, request, response, content));
+        });
+        response.whenSent().whenComplete((res, throwable) -> complete(key, flight, null));
+        request.next();
+    }
+
+    /**
+     * Removes all cached responses.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Returns statistics of the cache.
+     *
+     * @return a snapshot of the statistics
+     */
+    public StaticContentSupport.CacheStatistics statistics() {
+        return cache.statistics();
+    }
+
+    private void store(String baseKey,
+                       String key,
+                       CompletableFuture<ResponseCache.CachedResponse> flight,
+                       ServerRequest request,
+                       ServerResponse response,
+                       byte[] content) {
+        ResponseCache.CachedResponse cached = null;
+        try {
+            cached = toCached(baseKey, request, response, content);
+            if (cached != null) {
+                cache.put(cached);
+            }
+        } finally {
+            complete(key, flight, cached);
+        }
+    }
+
+    private ResponseCache.CachedResponse toCached(String baseKey,
+                                                  ServerRequest request,
+                                                  ServerResponse response,
+                                                  byte[] content) {
+        ResponseHeaders headers = response.headers();
+        List<String> cacheControl = cacheControl(headers.all(Http.Header.CACHE_CONTROL));
+        if (cacheControl.contains("no-store")
+                || cacheControl.contains("private")
+                || cacheControl.contains("no-cache")
+                || headers.first(Http.Header.SET_COOKIE).isPresent()) {
+            return null;
+        }
+        long ttl = ttl(cacheControl);
+        if (ttl <= 0) {
+            return null;
+        }
+        List<String> vary = new ArrayList<>();
+        for (String value : headers.all(Http.Header.VARY)) {
+            for (String name : value.split(",")) {
+                name = name.trim();
+                if ("*".equals(name)) {
+                    return null;
+                }
+                if (!name.isEmpty()) {
+                    vary.add(name.toLowerCase(Locale.ENGLISH));
+                }
+            }
+        }
+        Collections.sort(vary);
+
+        Map<String, List<String>> cachedHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.toMap().forEach((name, values) -> {
+            if (!EXCLUDED_HEADERS.contains(name)) {
+                cachedHeaders.put(name, new ArrayList<>(values));
+            }
+        });
+        String etag = headers.first(Http.Header.ETAG).orElseGet(() -> etag(content));
+        cachedHeaders.put(Http.Header.ETAG, Collections.singletonList(etag));
+        return new ResponseCache.CachedResponse(new ResponseCache.Key(key(baseKey, vary, request), baseKey, vary),
+                                                response.status(),
+                                                cachedHeaders,
+                                                content,
+                                                etag,
+                                                System.nanoTime(),
+                                                ttl);
+    }
+
+    private void complete(String key,
+                          CompletableFuture<ResponseCache.CachedResponse> flight,
+                          ResponseCache.CachedResponse cached) {
+        if (flight.complete(cached)) {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private void send(ResponseCache.CachedResponse cached, ServerRequest request, ServerResponse response) {
+        ResponseHeaders headers = response.headers();
+        cached.headers().forEach(headers::put);
+        headers.put(Http.Header.AGE, String.valueOf(cached.ageSeconds(System.nanoTime())));
+        try {
+            StaticContentHandler.processEtag(cached.etag(), request.headers(), headers);
+        } catch (HttpException e) {
+            request.next(e);
+            return;
+        }
+        response.status(cached.status());
+        headers.contentLength(cached.size());
+        if (request.method() == Http.Method.HEAD) {
+            response.send();
+        } else {
+            // the shared direct buffer is written without copying
+            response.send(ReactiveStreamsAdapter.publisherToFlow(Mono.just(DataChunk.create(false, cached.content()))));
+        }
+    }
+
+    private long ttl(List<String> cacheControl) {
+        long maxAge = -1;
+        for (String directive : cacheControl) {
+            if (directive.startsWith("s-maxage=")) {
+                return TimeUnit.SECONDS.toNanos(seconds(directive));
+            }
+            if (directive.startsWith("max-age=")) {
+                maxAge = seconds(directive);
+            }
+        }
+        return maxAge >= 0 ? TimeUnit.SECONDS.toNanos(maxAge) : ttlNanos;
+    }
+
+    private static long seconds(String directive) {
+        String value = directive.substring(directive.indexOf('=') + 1).replace("\"", "");
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static List<String> cacheControl(List<String> values) {
+        if (values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>();
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                directive = directive.trim();
+                if (!directive.isEmpty()) {
+                    result.add(directive.toLowerCase(Locale.ENGLISH));
+                }
+            }
+        }
+        return result;
+    }
+
+    // decoded names and values are length prefixed, so that no combination of them results in the same key
+    private String baseKey(ServerRequest request) {
+        StringBuilder key = new StringBuilder(request.uri().getRawPath());
+        if (queryParams.isEmpty()) {
+            String query = request.uri().getRawQuery();
+            if (query != null) {
+                key.append('?').append(query);
+            }
+        } else {
+            key.append('\n');
+            for (String name : queryParams) {
+                List<String> values = request.queryParams().all(name);
+                appendLengthPrefixed(key, name).append(values.size()).append(':');
+                for (String value : values) {
+                    appendLengthPrefixed(key, value);
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    private String key(String baseKey, ServerRequest request) {
+        return key(baseKey, cache.vary(baseKey), request);
+    }
+
+    private static String key(String baseKey, List<String> vary, ServerRequest request) {
+        if (vary == null || vary.isEmpty()) {
+            return baseKey;
+        }
+        StringBuilder key = new StringBuilder(baseKey).append('\n');
+        for (String name : vary) {
+            List<String> values = request.headers().all(name);
+            appendLengthPrefixed(key, name).append(values.size()).append(':');
+            for (String value : values) {
+                appendLengthPrefixed(key, value);
+            }
+        }
+        return key.toString();
+    }
+
+    private static StringBuilder appendLengthPrefixed(StringBuilder key, String value) {
+        return key.append(value.length()).append(':').append(value);
+    }
+
+    private static String etag(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        return '"' + Long.toHexString(crc.getValue()) + '-' + Integer.toHexString(content.length) + '"';
+    }
+
+    private static Set<String> caseInsensitiveSet(String... values) {
+        Set<String> result = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        result.addAll(Arrays.asList(values));
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Creates new instance with default configuration.
+     *
+     * @return new instance
+     */
+    public static ResponseCacheSupport create() {
+        return builder().build();
+    }
+
+    /**
+     * Creates new builder.
+     *
+     * @return a builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Passes the response content through and copies it. The callback is called with the whole content before
+     * the completion is passed on, unless the content is larger than the maximal entry size or it fails.
+     */
+    private final class CapturingPublisher implements Flow.Publisher<DataChunk> {
+
+        private final Flow.Publisher<DataChunk> content;
+        private final ServerResponse response;
+        private final Consumer<byte[]> callback;
+
+        private CapturingPublisher(Flow.Publisher<DataChunk> content,
+                                   ServerResponse response,
+                                   Consumer<byte[]> callback) {
+            this.content = content;
+            this.response = response;
+            this.callback = callback;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+            if (response.headers().contentLength().orElse(0) > maxEntrySize) {
+                content.subscribe(subscriber);
+                return;
+            }
+            content.subscribe(new Flow.Subscriber<DataChunk>() {
+                private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscriber.onSubscribe(subscription);
+                }
+
+                @Override
+                public void onNext(DataChunk item) {
+                    if (bytes != null) {
+                        ByteBuffer data = item.data().duplicate();
+                        if (bytes.size() + data.remaining() > maxEntrySize) {
+                            bytes = null;
+                        } else {
+                            byte[] array = new byte[data.remaining()];
+                            data.get(array);
+                            bytes.write(array, 0, array.length);
+                        }
+                    }
+                    subscriber.onNext(item);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    bytes = null;
+                    subscriber.onError(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    if (bytes != null) {
+                        callback.accept(bytes.toByteArray());
+                        bytes = null;
+                    }
+                    subscriber.onComplete();
+                }
+            });
+        }
+    }
+
+    /**
+     * Fluent builder of {@link ResponseCacheSupport}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<ResponseCacheSupport> {
+
+        private long maxBytes = DEFAULT_MAX_BYTES;
+        private int maxEntries = DEFAULT_MAX_ENTRIES;
+        private int maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+        private Duration ttl = DEFAULT_TTL;
+        private final List<String> queryParams = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximal total size of cached response bodies. Default is
+         * {@value ResponseCacheSupport#DEFAULT_MAX_BYTES}.
+         *
+         * @param maxBytes number of bytes
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code maxBytes} is negative
+         */
+        public Builder maxBytes(long maxBytes) {
+            if (maxBytes < 0) {
+                throw new IllegalArgumentException("Parameter 'maxBytes' cannot be negative!");
+            }
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of cached responses. Default is {@value ResponseCacheSupport#DEFAULT_MAX_ENTRIES}.
+         *
+         * @param maxEntries number of responses
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code maxEntries} is negative
+         */
+        public Builder maxEntries(int maxEntries) {
+            if (maxEntries < 0) {
+                throw new IllegalArgumentException("Parameter 'maxEntries' cannot be negative!");
+            }
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Sets the maximal size of a single cached response body, larger responses are not cached. Default is
+         * {@value ResponseCacheSupport#DEFAULT_MAX_ENTRY_SIZE}.
+         *
+         * @param maxEntrySize number of bytes
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code maxEntrySize} is negative
+         */
+        public Builder maxEntrySize(int maxEntrySize) {
+            if (maxEntrySize < 0) {
+                throw new IllegalArgumentException("Parameter 'maxEntrySize' cannot be negative!");
+            }
+            this.maxEntrySize = maxEntrySize;
+            return this;
+        }
+
+        /**
+         * Sets the time to live of responses without the {@code max-age} or {@code s-maxage} directive. Default is
+         * one minute.
+         *
+         * @param ttl time to live
+         * @return updated builder
+         * @throws NullPointerException if {@code ttl} is {@code null}
+         */
+        public Builder ttl(Duration ttl) {
+            this.ttl = Objects.requireNonNull(ttl, "Parameter 'ttl' is null!");
+            return this;
+        }
+
+        /**
+         * Adds a query parameter which is a part of the cache key. If called, then other query parameters are ignored,
+         * otherwise the whole query is a part of the key.
+         *
+         * @param name a query parameter name
+         * @return updated builder
+         * @throws NullPointerException if {@code name} is {@code null}
+         */
+        public Builder addQueryParam(String name) {
+            queryParams.add(Objects.requireNonNull(name, "Parameter 'name' is null!"));
+            return this;
+        }
+
+        @Override
+        public ResponseCacheSupport build() {
+            return new ResponseCacheSupport(this);
+        }
+    }
+}
@@ -73,11 +73,20 @@ public final class SSLContextBuilder implements Builder<SSLContext> {
      *                               a {@link GeneralSecurityException}
      */
     public static SSLContext fromConfig(Config sslConfig) {
+        return builderFromConfig(sslConfig).build();
+    }
+
+    /**
+     * Creates a builder of the {@link SSLContext} from the provided configuration.
+     *
+     * @param sslConfig the ssl configuration
+     * @return a configured builder
+     */
+    static SSLContextBuilder builderFromConfig(Config sslConfig) {
         return new SSLContextBuilder().privateKeyConfig(KeyConfig.fromConfig(sslConfig.get("private-key")))
                                       .sessionCacheSize(sslConfig.get("sessionCacheSize").asInt(0))
                                       .sessionTimeout(sslConfig.get("sessionTimeout").asInt(0))
-                                      .trustConfig(KeyConfig.fromConfig(sslConfig.get("trust")))
-                                      .build();
+                                      .trustConfig(KeyConfig.fromConfig(sslConfig.get("trust")));
     }
 
     private SSLContextBuilder privateKeyConfig(KeyConfig privateKeyConfig) {
@@ -137,6 +146,37 @@ public final class SSLContextBuilder implements Builder<SSLContext> {
         }
     }
 
+    /**
+     * Creates key manager factory of the configured private key. Used by engines which cannot be created
+     * from an {@link SSLContext}.
+     *
+     * @return key manager factory
+     * @throws IllegalStateException in case of a problem
+     */
+    KeyManagerFactory keyManagerFactory() {
+        Objects.requireNonNull(privateKeyConfig, "The private key config must be set!");
+
+        try {
+            return buildKmf(privateKeyConfig);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Building of the KeyManagerFactory of unsuccessful!", e);
+        }
+    }
+
+    /**
+     * Creates trust manager factory of the configured trusted certificates.
+     *
+     * @return trust manager factory
+     * @throws IllegalStateException in case of a problem
+     */
+    TrustManagerFactory trustManagerFactory() {
+        try {
+            return buildTmf(trustConfig);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Building of the TrustManagerFactory of unsuccessful!", e);
+        }
+    }
+
     private static SSLContext newSSLContext(KeyConfig privateKeyConfig,
                                             KeyConfig trustConfig,
                                             long sessionCacheSize,
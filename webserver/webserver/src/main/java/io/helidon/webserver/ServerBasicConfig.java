@@ -17,6 +17,7 @@
 package io.helidon.webserver;
 
 import java.net.InetAddress;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -66,6 +67,26 @@ class ServerBasicConfig implements ServerConfiguration {
         return socketConfig.ssl();
     }
 
+    @Override
+    public SslConfiguration sslConfiguration() {
+        return socketConfig.sslConfiguration();
+    }
+
+    @Override
+    public int dedicatedWorkersCount() {
+        return socketConfig.dedicatedWorkersCount();
+    }
+
+    @Override
+    public int acceptors() {
+        return socketConfig.acceptors();
+    }
+
+    @Override
+    public Path domainSocket() {
+        return socketConfig.domainSocket();
+    }
+
     @Override
     public int workersCount() {
         return workers;
@@ -114,36 +135,34 @@ class ServerBasicConfig implements ServerConfiguration {
         private final int timeoutMillis;
         private final int receiveBufferSize;
         private final SSLContext sslContext;
+        private final SslConfiguration sslConfiguration;
+        private final int dedicatedWorkersCount;
+        private final int acceptors;
+        private final Path domainSocket;
 
         /**
          * Creates new instance.
          *
-         * @param port              a server port - ff port is {@code 0} or less then any available ephemeral port will be used
-         * @param bindAddress       an address to bind the server or {@code null} for all local addresses
-         * @param sslContext        the ssl context to associate with this socket configuration
-         * @param backlog           a maximum length of the queue of incoming connections
-         * @param timeoutMillis     a socket timeout in milliseconds or {@code 0} for infinite
-         * @param receiveBufferSize proposed TCP receive window size in bytes
+         * @param builder a builder with the configured values
          */
-        SocketConfig(int port,
-                     InetAddress bindAddress,
-                     SSLContext sslContext,
-                     int backlog,
-                     int timeoutMillis,
-                     int receiveBufferSize) {
-            this.port = port <= 0 ? 0 : port;
-            this.bindAddress = bindAddress;
-            this.backlog = backlog <= 0 ? DEFAULT_BACKLOG_SIZE : backlog;
-            this.timeoutMillis = timeoutMillis <= 0 ? 0 : timeoutMillis;
-            this.receiveBufferSize = receiveBufferSize <= 0 ? 0 : receiveBufferSize;
-            this.sslContext = sslContext;
+        SocketConfig(SocketConfiguration.Builder builder) {
+            this.port = builder.port() <= 0 ? 0 : builder.port();
+            this.bindAddress = builder.bindAddress();
+            this.backlog = builder.backlog() <= 0 ? DEFAULT_BACKLOG_SIZE : builder.backlog();
+            this.timeoutMillis = builder.timeoutMillis() <= 0 ? 0 : builder.timeoutMillis();
+            this.receiveBufferSize = builder.receiveBufferSize() <= 0 ? 0 : builder.receiveBufferSize();
+            this.sslContext = builder.sslContext();
+            this.sslConfiguration = builder.sslConfiguration();
+            this.dedicatedWorkersCount = builder.dedicatedWorkersCount() <= 0 ? 0 : builder.dedicatedWorkersCount();
+            this.acceptors = builder.acceptors() <= 0 ? 1 : builder.acceptors();
+            this.domainSocket = builder.domainSocket();
         }
 
         /**
          * Creates default values instance.
          */
         SocketConfig() {
-            this(0, null, null, 0, 0, 0);
+            this(SocketConfiguration.builder());
         }
 
         @Override
@@ -175,5 +194,25 @@ class ServerBasicConfig implements ServerConfiguration {
         public SSLContext ssl() {
             return sslContext;
         }
+
+        @Override
+        public SslConfiguration sslConfiguration() {
+            return sslConfiguration;
+        }
+
+        @Override
+        public int dedicatedWorkersCount() {
+            return dedicatedWorkersCount;
+        }
+
+        @Override
+        public int acceptors() {
+            return acceptors;
+        }
+
+        @Override
+        public Path domainSocket() {
+            return domainSocket;
+        }
     }
 }
@@ -18,6 +18,8 @@ package io.helidon.webserver;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -229,6 +231,30 @@ public interface ServerConfiguration extends SocketConfiguration {
             return this;
         }
 
+        /**
+         * Sets the tuning of the SSL communication of the default server socket: the engine, client authentication,
+         * cipher suites, protocols and the session resumption.
+         *
+         * @param sslConfiguration ssl configuration
+         * @return an updated builder
+         */
+        public Builder sslConfiguration(SslConfiguration sslConfiguration) {
+            defaultSocketBuilder.sslConfiguration(sslConfiguration);
+            return this;
+        }
+
+        /**
+         * Sets the tuning of the SSL communication of the default server socket: the engine, client authentication,
+         * cipher suites, protocols and the session resumption.
+         *
+         * @param sslConfigurationBuilder ssl configuration builder; will be built as a first step of this method execution
+         * @return an updated builder
+         */
+        public Builder sslConfiguration(io.helidon.common.Builder<SslConfiguration> sslConfigurationBuilder) {
+            defaultSocketBuilder.sslConfiguration(sslConfigurationBuilder);
+            return this;
+        }
+
         /**
          * Sets server port. If port is {@code 0} or less then any available ephemeral port will be used.
          * <p>
@@ -295,6 +321,34 @@ public interface ServerConfiguration extends SocketConfiguration {
             return this;
         }
 
+        /**
+         * Sets a number of channels accepting connections on the default server socket port. More acceptors
+         * require the {@code SO_REUSEPORT} option of the native transport.
+         * <p>
+         * Configuration key: {@code acceptors}
+         *
+         * @param acceptors a number of acceptors
+         * @return an updated builder
+         */
+        public Builder acceptors(int acceptors) {
+            this.defaultSocketBuilder.acceptors(acceptors);
+            return this;
+        }
+
+        /**
+         * Sets a path of a Unix domain socket the default server socket listens on instead of the TCP port.
+         * Domain sockets require the native epoll transport.
+         * <p>
+         * Configuration key: {@code domain-socket}
+         *
+         * @param domainSocket a path of the domain socket or {@code null}
+         * @return an updated builder
+         */
+        public Builder domainSocket(Path domainSocket) {
+            this.defaultSocketBuilder.domainSocket(domainSocket);
+            return this;
+        }
+
         /**
          * Adds an additional named server socket configuration. As a result, the server will listen
          * on multiple ports.
@@ -432,12 +486,16 @@ public interface ServerConfiguration extends SocketConfiguration {
             config.get("backlog").asOptionalInt().ifPresent(soConfigBuilder::backlog);
             config.get("timeout").asOptionalInt().ifPresent(soConfigBuilder::timeoutMillis);
             config.get("receive-buffer").asOptionalInt().ifPresent(soConfigBuilder::receiveBufferSize);
+            config.get("dedicated-workers").asOptionalInt().ifPresent(soConfigBuilder::dedicatedWorkersCount);
+            config.get("acceptors").asOptionalInt().ifPresent(soConfigBuilder::acceptors);
+            config.get("domain-socket").asOptional(String.class).map(Paths::get).ifPresent(soConfigBuilder::domainSocket);
 
             // ssl
             Config sslConfig = config.get("ssl");
             if (sslConfig.exists()) {
                 try {
-                    soConfigBuilder.ssl(SSLContextBuilder.fromConfig(sslConfig));
+                    soConfigBuilder.ssl(SSLContextBuilder.builderFromConfig(sslConfig));
+                    soConfigBuilder.sslConfiguration(SslConfiguration.fromConfig(sslConfig));
                 } catch (IllegalStateException e) {
                     throw new ConfigException("Cannot load SSL configuration.", e);
                 }
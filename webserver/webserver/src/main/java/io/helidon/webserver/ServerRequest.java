@@ -16,6 +16,8 @@
 
 package io.helidon.webserver;
 
+import java.util.Optional;
+
 import io.helidon.common.http.Content;
 import io.helidon.common.http.ContextualRegistry;
 import io.helidon.common.http.HttpRequest;
@@ -62,6 +64,15 @@ public interface ServerRequest extends HttpRequest {
      */
     ContextualRegistry context();
 
+    /**
+     * Returns the deadline of this request if {@link DeadlineSupport} is registered.
+     *
+     * @return the deadline of this request
+     */
+    default Optional<Deadline> deadline() {
+        return context().get(Deadline.class);
+    }
+
     /**
      * Returns the Internet Protocol (IP) address of the interface on which the request was received.
      *
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A single event of a {@code text/event-stream} response. Events are sent using {@link SseSupport}.
+ * <p>
+ * Multi-line {@link #data() data} and {@link #comment() comment} are split into multiple lines of the stream.
+ */
+public final class ServerSentEvent {
+
+    private final String id;
+    private final String name;
+    private final String data;
+    private final Duration retry;
+    private final String comment;
+
+    private ServerSentEvent(Builder builder) {
+        this.id = builder.id;
+        this.name = builder.name;
+        this.data = builder.data;
+        this.retry = builder.retry;
+        this.comment = builder.comment;
+    }
+
+    /**
+     * Creates new unnamed event with the provided data.
+     *
+     * @param data an event data
+     * @return new event
+     * @throws NullPointerException if {@code data} is {@code null}
+     */
+    public static ServerSentEvent create(String data) {
+        Objects.requireNonNull(data, "Parameter 'data' is null!");
+        return builder().data(data).build();
+    }
+
+    /**
+     * Creates new builder.
+     *
+     * @return a builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the event id.
+     *
+     * @return an id or {@code null}
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Returns the event name (type).
+     *
+     * @return a name or {@code null}
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the event data.
+     *
+     * @return data or {@code null}
+     */
+    public String data() {
+        return data;
+    }
+
+    /**
+     * Returns the reconnection time.
+     *
+     * @return the reconnection time or {@code null}
+     */
+    public Duration retry() {
+        return retry;
+    }
+
+    /**
+     * Returns the comment.
+     *
+     * @return a comment or {@code null}
+     */
+    public String comment() {
+        return comment;
+    }
+
+    /**
+     * Appends the event in the {@code text/event-stream} format, including the terminating empty line.
+     *
+     * @param sb a builder to append to
+     */
+    void appendTo(StringBuilder sb) {
+        if (comment != null) {
+            appendLines(sb, ":", comment);
+        }
+        if (name != null) {
+            sb.append("event:").append(name).append('\n');
+        }
+        if (id != null) {
+            sb.append("id:").append(id).append('\n');
+        }
+        if (retry != null) {
+            sb.append("retry:").append(retry.toMillis()).append('\n');
+        }
+        if (data != null) {
+            appendLines(sb, "data:", data);
+        }
+        sb.append('\n');
+    }
+
+    private static void appendLines(StringBuilder sb, String field, String value) {
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '\r' || c == '\n') {
+                sb.append(field).append(value, start, i).append('\n');
+                if (c == '\r' && i + 1 < length && value.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+        sb.append(field).append(value, start, length).append('\n');
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Fluent builder of {@link ServerSentEvent}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<ServerSentEvent> {
+
+        private String id;
+        private String name;
+        private String data;
+        private Duration retry;
+        private String comment;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the event id. The client sends the last received id in the {@code Last-Event-ID} header
+         * when it reconnects.
+         *
+         * @param id an id
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code id} contains a line break or {@code NULL} character
+         */
+        public Builder id(String id) {
+            this.id = singleLine("id", id);
+            if (id != null && id.indexOf('\0') >= 0) {
+                throw new IllegalArgumentException("Parameter 'id' cannot contain NULL character!");
+            }
+            return this;
+        }
+
+        /**
+         * Sets the event name (type).
+         *
+         * @param name a name
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code name} contains a line break
+         */
+        public Builder name(String name) {
+            this.name = singleLine("name", name);
+            return this;
+        }
+
+        /**
+         * Sets the event data. Line breaks are allowed.
+         *
+         * @param data event data
+         * @return updated builder
+         */
+        public Builder data(String data) {
+            this.data = data;
+            return this;
+        }
+
+        /**
+         * Sets the time the client waits before it reconnects.
+         *
+         * @param retry the reconnection time
+         * @return updated builder
+         */
+        public Builder retry(Duration retry) {
+            this.retry = retry;
+            return this;
+        }
+
+        /**
+         * Sets a comment. Comments are ignored by clients. Line breaks are allowed.
+         *
+         * @param comment a comment
+         * @return updated builder
+         */
+        public Builder comment(String comment) {
+            this.comment = comment;
+            return this;
+        }
+
+        private static String singleLine(String parameter, String value) {
+            if (value != null && (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0)) {
+                throw new IllegalArgumentException("Parameter '" + parameter + "' cannot contain a line break!");
+            }
+            return value;
+        }
+
+        @Override
+        public ServerSentEvent build() {
+            return new ServerSentEvent(this);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package io.helidon.webserver;
 
 import java.net.InetAddress;
+import java.nio.file.Path;
 
 import javax.net.ssl.SSLContext;
 
@@ -85,6 +86,53 @@ public interface SocketConfiguration {
      */
     SSLContext ssl();
 
+    /**
+     * Returns the tuning of the SSL communication, used only if {@link #ssl()} is not {@code null}.
+     *
+     * @return the SSL configuration
+     */
+    default SslConfiguration sslConfiguration() {
+        return SslConfiguration.DEFAULT;
+    }
+
+    /**
+     * Returns a number of threads of a worker group dedicated to this socket. A dedicated group isolates the traffic
+     * of the socket from the other sockets, for example an administration socket from the main one.
+     * <p>
+     * If {@code 0} then the socket shares the worker group of the server.
+     *
+     * @return a number of dedicated worker threads or {@code 0}
+     */
+    default int dedicatedWorkersCount() {
+        return 0;
+    }
+
+    /**
+     * Returns a number of channels accepting connections on the server socket port. More acceptors spread
+     * the accepting of connections across cores, they require the {@code SO_REUSEPORT} option of the native
+     * transport; a single acceptor is used without it.
+     * <p>
+     * Default value is {@code 1}.
+     *
+     * @return a number of acceptors
+     */
+    default int acceptors() {
+        return 1;
+    }
+
+    /**
+     * Returns a path of a Unix domain socket to listen on instead of the TCP {@link #port() port} and
+     * {@link #bindAddress() bind address}. Local clients, such as a service mesh sidecar, then skip the TCP stack.
+     * Domain sockets require the native epoll transport ({@code netty-transport-native-epoll} on Linux).
+     * <p>
+     * If {@code null} then the socket listens on the TCP port.
+     *
+     * @return a path of the domain socket or {@code null}
+     */
+    default Path domainSocket() {
+        return null;
+    }
+
     /**
      * Creates a builder of {@link SocketConfiguration} class.
      *
@@ -100,9 +148,14 @@ public interface SocketConfiguration {
         private int port = 0;
         private InetAddress bindAddress = null;
         private SSLContext sslContext = null;
+        private SSLContextBuilder sslContextBuilder = null;
+        private SslConfiguration sslConfiguration = SslConfiguration.DEFAULT;
         private int backlog = 0;
         private int timeoutMillis = 0;
         private int receiveBufferSize = 0;
+        private int dedicatedWorkersCount = 0;
+        private int acceptors = 1;
+        private Path domainSocket = null;
 
         private Builder() {
         }
@@ -179,6 +232,7 @@ public interface SocketConfiguration {
          */
         public Builder ssl(SSLContext sslContext) {
             this.sslContext = sslContext;
+            this.sslContextBuilder = null;
             return this;
         }
 
@@ -191,12 +245,128 @@ public interface SocketConfiguration {
          * @return this builder
          */
         public Builder ssl(io.helidon.common.Builder<? extends SSLContext> sslContextBuilder) {
-            return ssl(sslContextBuilder != null ? sslContextBuilder.build() : null);
+            ssl(sslContextBuilder != null ? sslContextBuilder.build() : null);
+            if (sslContextBuilder instanceof SSLContextBuilder) {
+                // keeps the key material for engines which cannot use the SSLContext
+                this.sslContextBuilder = (SSLContextBuilder) sslContextBuilder;
+            }
+            return this;
+        }
+
+        /**
+         * Configures the tuning of the SSL communication: the engine, client authentication, cipher suites,
+         * protocols and the session resumption.
+         *
+         * @param sslConfiguration the SSL configuration; {@code null} for the defaults
+         * @return this builder
+         */
+        public Builder sslConfiguration(SslConfiguration sslConfiguration) {
+            this.sslConfiguration = sslConfiguration != null ? sslConfiguration : SslConfiguration.DEFAULT;
+            return this;
+        }
+
+        /**
+         * Configures the tuning of the SSL communication: the engine, client authentication, cipher suites,
+         * protocols and the session resumption.
+         *
+         * @param sslConfigurationBuilder the SSL configuration builder; will be built as a first step of this
+         *                                method execution
+         * @return this builder
+         */
+        public Builder sslConfiguration(io.helidon.common.Builder<SslConfiguration> sslConfigurationBuilder) {
+            return sslConfiguration(sslConfigurationBuilder != null ? sslConfigurationBuilder.build() : null);
+        }
+
+        /**
+         * Configures a number of threads of a worker group dedicated to this socket. A dedicated group isolates
+         * the traffic of the socket from the other sockets.
+         * <p>
+         * If {@code 0} then the socket shares the worker group of the server.
+         *
+         * @param dedicatedWorkersCount a number of dedicated worker threads or {@code 0}
+         * @return this builder
+         */
+        public Builder dedicatedWorkersCount(int dedicatedWorkersCount) {
+            this.dedicatedWorkersCount = dedicatedWorkersCount;
+            return this;
+        }
+
+        /**
+         * Configures a number of channels accepting connections on the server socket port. More acceptors
+         * require the {@code SO_REUSEPORT} option of the native transport; a single acceptor is used without it.
+         * <p>
+         * Default value is {@code 1}.
+         *
+         * @param acceptors a number of acceptors
+         * @return this builder
+         */
+        public Builder acceptors(int acceptors) {
+            this.acceptors = acceptors;
+            return this;
+        }
+
+        /**
+         * Configures a path of a Unix domain socket to listen on instead of the TCP port and bind address.
+         * Domain sockets require the native epoll transport ({@code netty-transport-native-epoll} on Linux).
+         * A socket file left by a process which doesn't listen on it anymore is replaced. If the path is any other file
+         * or another process listens on the socket, the server fails to start.
+         * <p>
+         * If {@code null} then the socket listens on the TCP port.
+         *
+         * @param domainSocket a path of the domain socket or {@code null}
+         * @return this builder
+         */
+        public Builder domainSocket(Path domainSocket) {
+            this.domainSocket = domainSocket;
+            return this;
         }
 
         @Override
         public SocketConfiguration build() {
-            return new ServerBasicConfig.SocketConfig(port, bindAddress, sslContext, backlog, timeoutMillis, receiveBufferSize);
+            return new ServerBasicConfig.SocketConfig(this);
+        }
+
+        int port() {
+            return port;
+        }
+
+        InetAddress bindAddress() {
+            return bindAddress;
+        }
+
+        SSLContext sslContext() {
+            return sslContext;
+        }
+
+        SslConfiguration sslConfiguration() {
+            if (sslContextBuilder != null && sslConfiguration.provider() == SslConfiguration.Provider.OPENSSL) {
+                return sslConfiguration.withKeyMaterial(sslContextBuilder);
+            }
+            return sslConfiguration;
+        }
+
+        int backlog() {
+            return backlog;
+        }
+
+        int timeoutMillis() {
+            return timeoutMillis;
+        }
+
+        int receiveBufferSize() {
+            return receiveBufferSize;
+        }
+
+        int dedicatedWorkersCount() {
+            return dedicatedWorkersCount;
+        }
+
+        int acceptors() {
+            return acceptors;
+        }
+
+        Path domainSocket() {
+            return domainSocket;
         }
     }
 }
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.function.Function;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.Flow;
+
+/**
+ * Server-Sent Events support for the {@link WebServer WebServer}'s {@link Routing}. If registered, then
+ * a {@link Flow.Publisher publisher} of {@link ServerSentEvent}s can be sent as a {@code text/event-stream} response.
+ * Items of other types are sent as event data using {@link String#valueOf(Object)}.
+ * <pre>{@code
+ * Routing.builder()
+ *        .get("/events", SseSupport.create(), (req, res) -> res.send(eventPublisher))
+ * }</pre>
+ * The stream is flushed immediately if it is idle. Under load, events are batched into larger writes, an event is
+ * never delayed longer than the {@link Builder#maxFlushDelay(Duration) maximal flush delay}. Events are requested
+ * from the publisher only when the previous writes are done, and an idle stream periodically sends
+ * a heartbeat comment to keep the connection open.
+ * <p>
+ * Register it only for routes which send event streams, the writer accepts any published items.
+ */
+public final class SseSupport implements Service, Handler {
+
+    /**
+     * Default maximal time an event waits to be flushed together with following events, in milliseconds.
+     */
+    public static final long DEFAULT_MAX_FLUSH_DELAY_MILLIS = 10;
+
+    /**
+     * Default interval of heartbeat comments sent to an idle stream, in seconds.
+     */
+    public static final long DEFAULT_HEARTBEAT_SECONDS = 30;
+
+    /**
+     * Default size of the buffers events are encoded to.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Default maximal number of buffers per stream written to the connection but not sent yet.
+     */
+    public static final int DEFAULT_MAX_PENDING_BUFFERS = 4;
+
+    private static final MediaType TEXT_EVENT_STREAM = MediaType.parse("text/event-stream");
+
+    private static final class DefaultSseSupportHolder {
+        private static final SseSupport INSTANCE = builder().build();
+    }
+
+    private static final class DefaultSchedulerHolder {
+        private static final ScheduledExecutorService INSTANCE = createScheduler();
+
+        private static ScheduledExecutorService createScheduler() {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "helidon-sse-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // most flushes and heartbeats are canceled
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+
+    private final long maxFlushDelayNanos;
+    private final long heartbeatNanos;
+    private final int maxPendingBuffers;
+    private final ScheduledExecutorService scheduler;
+    private final BufferPool bufferPool;
+
+    private SseSupport(Builder builder) {
+        this.maxFlushDelayNanos = builder.maxFlushDelay.toNanos();
+        this.heartbeatNanos = builder.heartbeat.toNanos();
+        this.maxPendingBuffers = builder.maxPendingBuffers;
+        this.scheduler = builder.scheduler == null ? DefaultSchedulerHolder.INSTANCE : builder.scheduler;
+        this.bufferPool = new BufferPool(builder.bufferSize, builder.bufferPoolSize);
+    }
+
+    @Override
+    public void update(Routing.Rules routingRules) {
+        routingRules.any(this);
+    }
+
+    /**
+     * Registers the {@code text/event-stream} writer of {@link Flow.Publisher publishers} and calls
+     * {@code ServerRequest.}{@link ServerRequest#next() next()}.
+     *
+     * @param request  a server request
+     * @param response a server response
+     */
+    @Override
+    public void accept(ServerRequest request, ServerResponse response) {
+        response.registerWriter(o -> o instanceof Flow.Publisher,
+                                TEXT_EVENT_STREAM,
+                                (Flow.Publisher<?> events) -> {
+                                    response.headers().put(Http.Header.CACHE_CONTROL, "no-cache");
+                                    return writer().apply(events);
+                                });
+        request.next();
+    }
+
+    /**
+     * Returns a function (writer) encoding published events to the {@code text/event-stream} format.
+     *
+     * @return a writer
+     */
+    public Function<Flow.Publisher<?>, Flow.Publisher<DataChunk>> writer() {
+        return events -> new EventStreamPublisher(events,
+                                                  bufferPool,
+                                                  scheduler,
+                                                  maxFlushDelayNanos,
+                                                  heartbeatNanos,
+                                                  maxPendingBuffers);
+    }
+
+    /**
+     * Returns a singleton instance with default configuration.
+     *
+     * @return a singleton instance
+     */
+    public static SseSupport create() {
+        return DefaultSseSupportHolder.INSTANCE;
+    }
+
+    /**
+     * Creates new builder.
+     *
+     * @return a builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Fluent builder of {@link SseSupport}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<SseSupport> {
+
+        private Duration maxFlushDelay = Duration.ofMillis(DEFAULT_MAX_FLUSH_DELAY_MILLIS);
+        private Duration heartbeat = Duration.ofSeconds(DEFAULT_HEARTBEAT_SECONDS);
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private int bufferPoolSize = 256;
+        private int maxPendingBuffers = DEFAULT_MAX_PENDING_BUFFERS;
+        private ScheduledExecutorService scheduler;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximal time an event waits to be flushed together with following events. Zero flushes every
+         * event immediately. Default is {@value SseSupport#DEFAULT_MAX_FLUSH_DELAY_MILLIS} milliseconds.
+         *
+         * @param maxFlushDelay maximal delay
+         * @return updated builder
+         * @throws NullPointerException     if {@code maxFlushDelay} is {@code null}
+         * @throws IllegalArgumentException if {@code maxFlushDelay} is negative
+         */
+        public Builder maxFlushDelay(Duration maxFlushDelay) {
+            Objects.requireNonNull(maxFlushDelay, "Parameter 'maxFlushDelay' is null!");
+            if (maxFlushDelay.isNegative()) {
+                throw new IllegalArgumentException("Parameter 'maxFlushDelay' cannot be negative!");
+            }
+            this.maxFlushDelay = maxFlushDelay;
+            return this;
+        }
+
+        /**
+         * Sets the interval of heartbeat comments sent to an idle stream. Zero disables heartbeats.
+         * Default is {@value SseSupport#DEFAULT_HEARTBEAT_SECONDS} seconds.
+         *
+         * @param heartbeat heartbeat interval
+         * @return updated builder
+         * @throws NullPointerException     if {@code heartbeat} is {@code null}
+         * @throws IllegalArgumentException if {@code heartbeat} is negative
+         */
+        public Builder heartbeat(Duration heartbeat) {
+            Objects.requireNonNull(heartbeat, "Parameter 'heartbeat' is null!");
+            if (heartbeat.isNegative()) {
+                throw new IllegalArgumentException("Parameter 'heartbeat' cannot be negative!");
+            }
+            this.heartbeat = heartbeat;
+            return this;
+        }
+
+        /**
+         * Sets the size of the buffers events are encoded to. Larger events are split into multiple buffers.
+         * Default is {@value SseSupport#DEFAULT_BUFFER_SIZE}.
+         *
+         * @param bufferSize number of bytes
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code bufferSize} is less than {@code 64}
+         */
+        public Builder bufferSize(int bufferSize) {
+            if (bufferSize < 64) {
+                throw new IllegalArgumentException("Parameter 'bufferSize' must be at least 64!");
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of idle buffers kept for reuse. Default is {@code 256}.
+         *
+         * @param bufferPoolSize number of buffers
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code bufferPoolSize} is negative
+         */
+        public Builder bufferPoolSize(int bufferPoolSize) {
+            if (bufferPoolSize < 0) {
+                throw new IllegalArgumentException("Parameter 'bufferPoolSize' cannot be negative!");
+            }
+            this.bufferPoolSize = bufferPoolSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of buffers per stream written to the connection but not sent yet. No more events
+         * are requested from the publisher until some of them are sent.
+         * Default is {@value SseSupport#DEFAULT_MAX_PENDING_BUFFERS}.
+         *
+         * @param maxPendingBuffers number of buffers
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code maxPendingBuffers} is less than {@code 1}
+         */
+        public Builder maxPendingBuffers(int maxPendingBuffers) {
+            if (maxPendingBuffers < 1) {
+                throw new IllegalArgumentException("Parameter 'maxPendingBuffers' must be at least 1!");
+            }
+            this.maxPendingBuffers = maxPendingBuffers;
+            return this;
+        }
+
+        /**
+         * Sets a scheduler of delayed flushes and heartbeats. By default, a single shared daemon thread is used.
+         *
+         * @param scheduler a scheduler
+         * @return updated builder
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        @Override
+        public SseSupport build() {
+            return new SseSupport(this);
+        }
+    }
+}
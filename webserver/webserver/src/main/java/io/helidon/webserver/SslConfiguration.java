@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.TrustManagerFactory;
+
+import io.helidon.config.Config;
+import io.helidon.config.ConfigException;
+
+/**
+ * Tuning of the TLS communication of a server socket: the engine, client authentication, enabled cipher suites
+ * and protocols and the session resumption.
+ * <p>
+ * The key material is provided by the {@link SocketConfiguration#ssl() SSLContext}. The {@link Provider#OPENSSL OpenSSL}
+ * engine cannot use an {@code SSLContext} and needs {@link #keyManagerFactory() key manager factory} instead; it is
+ * created automatically if the socket is configured by the {@link SSLContextBuilder}.
+ */
+public final class SslConfiguration {
+
+    /**
+     * The default configuration: the JDK engine without client authentication.
+     */
+    public static final SslConfiguration DEFAULT = builder().build();
+
+    /**
+     * The size of a session ticket key: 16 bytes of a name, 16 bytes of a HMAC key and 16 bytes of an AES key.
+     */
+    public static final int SESSION_TICKET_KEY_SIZE = 48;
+
+    private final Provider provider;
+    private final ClientAuthentication clientAuth;
+    private final List<String> cipherSuites;
+    private final List<String> protocols;
+    private final int sessionCacheSize;
+    private final int sessionTimeoutSeconds;
+    private final List<byte[]> sessionTicketKeys;
+    private final KeyManagerFactory keyManagerFactory;
+    private final TrustManagerFactory trustManagerFactory;
+
+    private SslConfiguration(Builder builder) {
+        this.provider = builder.provider;
+        this.clientAuth = builder.clientAuth;
+        this.cipherSuites = Collections.unmodifiableList(new ArrayList<>(builder.cipherSuites));
+        this.protocols = Collections.unmodifiableList(new ArrayList<>(builder.protocols));
+        this.sessionCacheSize = builder.sessionCacheSize;
+        this.sessionTimeoutSeconds = builder.sessionTimeoutSeconds;
+        this.sessionTicketKeys = Collections.unmodifiableList(new ArrayList<>(builder.sessionTicketKeys));
+        this.keyManagerFactory = builder.keyManagerFactory;
+        this.trustManagerFactory = builder.trustManagerFactory;
+    }
+
+    /**
+     * Returns the TLS engine implementation.
+     *
+     * @return the engine provider
+     */
+    public Provider provider() {
+        return provider;
+    }
+
+    /**
+     * Returns whether the client must authenticate with a certificate.
+     *
+     * @return the client authentication mode
+     */
+    public ClientAuthentication clientAuth() {
+        return clientAuth;
+    }
+
+    /**
+     * Returns enabled cipher suites in the order of preference.
+     *
+     * @return enabled cipher suites, empty for the engine defaults
+     */
+    public List<String> cipherSuites() {
+        return cipherSuites;
+    }
+
+    /**
+     * Returns enabled protocols, for example {@code TLSv1.2}.
+     *
+     * @return enabled protocols, empty for the engine defaults
+     */
+    public List<String> protocols() {
+        return protocols;
+    }
+
+    /**
+     * Returns the maximal number of cached sessions.
+     *
+     * @return the session cache size or {@code 0} for the engine default
+     */
+    public int sessionCacheSize() {
+        return sessionCacheSize;
+    }
+
+    /**
+     * Returns the timeout of cached sessions and session tickets in seconds.
+     *
+     * @return the session timeout or {@code 0} for the engine default
+     */
+    public int sessionTimeoutSeconds() {
+        return sessionTimeoutSeconds;
+    }
+
+    /**
+     * Returns session ticket keys, each of the {@value #SESSION_TICKET_KEY_SIZE} bytes. The first key encrypts new
+     * tickets, all keys decrypt them. Supported only by the {@link Provider#OPENSSL OpenSSL} engine.
+     *
+     * @return session ticket keys, empty for keys generated by the engine
+     */
+    public List<byte[]> sessionTicketKeys() {
+        return sessionTicketKeys;
+    }
+
+    /**
+     * Returns a key manager factory of the server certificate. Required by the {@link Provider#OPENSSL OpenSSL}
+     * engine.
+     *
+     * @return a key manager factory or {@code null}
+     */
+    public KeyManagerFactory keyManagerFactory() {
+        return keyManagerFactory;
+    }
+
+    /**
+     * Returns a trust manager factory which validates client certificates for the {@link Provider#OPENSSL OpenSSL}
+     * engine.
+     *
+     * @return a trust manager factory or {@code null}
+     */
+    public TrustManagerFactory trustManagerFactory() {
+        return trustManagerFactory;
+    }
+
+    /**
+     * Returns a copy of this configuration with the key material of the given builder, unless a key manager
+     * factory is already configured.
+     *
+     * @param sslContextBuilder a builder of the socket {@code SSLContext}
+     * @return an updated configuration
+     */
+    SslConfiguration withKeyMaterial(SSLContextBuilder sslContextBuilder) {
+        if (keyManagerFactory != null) {
+            return this;
+        }
+        return toBuilder().keyManagerFactory(sslContextBuilder.keyManagerFactory())
+                          .trustManagerFactory(sslContextBuilder.trustManagerFactory())
+                          .build();
+    }
+
+    private Builder toBuilder() {
+        Builder builder = builder().provider(provider)
+                                   .clientAuth(clientAuth)
+                                   .sessionCacheSize(sessionCacheSize)
+                                   .sessionTimeoutSeconds(sessionTimeoutSeconds)
+                                   .keyManagerFactory(keyManagerFactory)
+                                   .trustManagerFactory(trustManagerFactory);
+        cipherSuites.forEach(builder::addCipherSuite);
+        protocols.forEach(builder::addProtocol);
+        sessionTicketKeys.forEach(builder::addSessionTicketKey);
+        return builder;
+    }
+
+    /**
+     * Creates a builder of {@link SslConfiguration}.
+     *
+     * @return a builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates {@link SslConfiguration} from the {@code ssl} node of a socket configuration. Supported keys are
+     * {@code provider} ({@code jdk} or {@code openssl}), {@code client-auth} ({@code none}, {@code optional}
+     * or {@code require}), {@code cipher-suites}, {@code protocols}, {@code sessionCacheSize},
+     * {@code sessionTimeout} and {@code session-ticket-keys} (Base64 encoded).
+     *
+     * @param sslConfig the ssl configuration
+     * @return new instance
+     * @throws ConfigException if a value is not valid
+     */
+    public static SslConfiguration fromConfig(Config sslConfig) {
+        Builder builder = builder();
+        sslConfig.get("provider").asOptionalString()
+                 .ifPresent(value -> builder.provider(parse(Provider.class, "provider", value)));
+        sslConfig.get("client-auth").asOptionalString()
+                 .ifPresent(value -> builder.clientAuth(parse(ClientAuthentication.class, "client-auth", value)));
+        sslConfig.get("cipher-suites").asOptionalStringList()
+                 .ifPresent(values -> values.forEach(builder::addCipherSuite));
+        sslConfig.get("protocols").asOptionalStringList()
+                 .ifPresent(values -> values.forEach(builder::addProtocol));
+        sslConfig.get("sessionCacheSize").asOptionalInt().ifPresent(builder::sessionCacheSize);
+        sslConfig.get("sessionTimeout").asOptionalInt().ifPresent(builder::sessionTimeoutSeconds);
+        sslConfig.get("session-ticket-keys").asOptionalStringList()
+                 .ifPresent(values -> values.forEach(value -> {
+                     try {
+                         builder.addSessionTicketKey(Base64.getDecoder().decode(value));
+                     } catch (IllegalArgumentException e) {
+                         throw new ConfigException("Invalid session ticket key.", e);
+                     }
+                 }));
+        return builder.build();
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String key, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new ConfigException("Invalid value of '" + key + "': " + value, e);
+        }
+    }
+
+    /**
+     * A TLS engine implementation.
+     */
+    public enum Provider {
+        /**
+         * The {@code SSLEngine} of the JDK.
+         */
+        JDK,
+        /**
+         * OpenSSL or BoringSSL engine of the {@code netty-tcnative} library. It is faster in both handshakes
+         * and bulk encryption, the library must be on the class path, otherwise the JDK engine is used.
+         */
+        OPENSSL
+    }
+
+    /**
+     * A client authentication mode.
+     */
+    public enum ClientAuthentication {
+        /**
+         * Client certificate is not requested.
+         */
+        NONE,
+        /**
+         * Client certificate is requested but not required.
+         */
+        OPTIONAL,
+        /**
+         * Client certificate is required, the handshake fails without it.
+         */
+        REQUIRE
+    }
+
+    /**
+     * Fluent builder of {@link SslConfiguration}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<SslConfiguration> {
+
+        private final List<String> cipherSuites = new ArrayList<>();
+        private final List<String> protocols = new ArrayList<>();
+        private final List<byte[]> sessionTicketKeys = new ArrayList<>();
+        private Provider provider = Provider.JDK;
+        private ClientAuthentication clientAuth = ClientAuthentication.NONE;
+        private int sessionCacheSize;
+        private int sessionTimeoutSeconds;
+        private KeyManagerFactory keyManagerFactory;
+        private TrustManagerFactory trustManagerFactory;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the TLS engine implementation. Default is {@link Provider#JDK}.
+         *
+         * @param provider the engine provider
+         * @return updated builder
+         * @throws NullPointerException if {@code provider} is {@code null}
+         */
+        public Builder provider(Provider provider) {
+            Objects.requireNonNull(provider, "Parameter 'provider' is null!");
+            this.provider = provider;
+            return this;
+        }
+
+        /**
+         * Sets the client authentication mode. Default is {@link ClientAuthentication#NONE}.
+         *
+         * @param clientAuth the client authentication mode
+         * @return updated builder
+         * @throws NullPointerException if {@code clientAuth} is {@code null}
+         */
+        public Builder clientAuth(ClientAuthentication clientAuth) {
+            Objects.requireNonNull(clientAuth, "Parameter 'clientAuth' is null!");
+            this.clientAuth = clientAuth;
+            return this;
+        }
+
+        /**
+         * Adds an enabled cipher suite. Cipher suites are preferred in the order of addition.
+         *
+         * @param cipherSuite a cipher suite name
+         * @return updated builder
+         * @throws NullPointerException if {@code cipherSuite} is {@code null}
+         */
+        public Builder addCipherSuite(String cipherSuite) {
+            Objects.requireNonNull(cipherSuite, "Parameter 'cipherSuite' is null!");
+            cipherSuites.add(cipherSuite);
+            return this;
+        }
+
+        /**
+         * Adds an enabled protocol, for example {@code TLSv1.2}.
+         *
+         * @param protocol a protocol name
+         * @return updated builder
+         * @throws NullPointerException if {@code protocol} is {@code null}
+         */
+        public Builder addProtocol(String protocol) {
+            Objects.requireNonNull(protocol, "Parameter 'protocol' is null!");
+            protocols.add(protocol);
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of cached sessions. Resumed sessions skip the asymmetric part of the handshake.
+         *
+         * @param sessionCacheSize the session cache size or {@code 0} for the engine default
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code sessionCacheSize} is negative
+         */
+        public Builder sessionCacheSize(int sessionCacheSize) {
+            if (sessionCacheSize < 0) {
+                throw new IllegalArgumentException("Parameter 'sessionCacheSize' must not be negative!");
+            }
+            this.sessionCacheSize = sessionCacheSize;
+            return this;
+        }
+
+        /**
+         * Sets the timeout of cached sessions and session tickets.
+         *
+         * @param sessionTimeoutSeconds the session timeout in seconds or {@code 0} for the engine default
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code sessionTimeoutSeconds} is negative
+         */
+        public Builder sessionTimeoutSeconds(int sessionTimeoutSeconds) {
+            if (sessionTimeoutSeconds < 0) {
+                throw new IllegalArgumentException("Parameter 'sessionTimeoutSeconds' must not be negative!");
+            }
+            this.sessionTimeoutSeconds = sessionTimeoutSeconds;
+            return this;
+        }
+
+        /**
+         * Adds a session ticket key. Servers sharing the keys resume sessions of each other without a shared
+         * session cache. The first key encrypts new tickets, add the previous keys after it to rotate the keys.
+         * Supported only by the {@link Provider#OPENSSL OpenSSL} engine, which otherwise generates own keys.
+         *
+         * @param key a key of {@value SslConfiguration#SESSION_TICKET_KEY_SIZE} bytes
+         * @return updated builder
+         * @throws NullPointerException     if {@code key} is {@code null}
+         * @throws IllegalArgumentException if {@code key} has a wrong size
+         */
+        public Builder addSessionTicketKey(byte[] key) {
+            Objects.requireNonNull(key, "Parameter 'key' is null!");
+            if (key.length != SESSION_TICKET_KEY_SIZE) {
+                throw new IllegalArgumentException("Session ticket key must have " + SESSION_TICKET_KEY_SIZE + " bytes!");
+            }
+            sessionTicketKeys.add(key.clone());
+            return this;
+        }
+
+        /**
+         * Sets a key manager factory of the server certificate for the {@link Provider#OPENSSL OpenSSL} engine.
+         * It is created automatically if the socket is configured by the {@link SSLContextBuilder}.
+         *
+         * @param keyManagerFactory a key manager factory
+         * @return updated builder
+         */
+        public Builder keyManagerFactory(KeyManagerFactory keyManagerFactory) {
+            this.keyManagerFactory = keyManagerFactory;
+            return this;
+        }
+
+        /**
+         * Sets a trust manager factory which validates client certificates for the {@link Provider#OPENSSL OpenSSL}
+         * engine. It is created automatically if the socket is configured by the {@link SSLContextBuilder}.
+         *
+         * @param trustManagerFactory a trust manager factory
+         * @return updated builder
+         */
+        public Builder trustManagerFactory(TrustManagerFactory trustManagerFactory) {
+            this.trustManagerFactory = trustManagerFactory;
+            return this;
+        }
+
+        @Override
+        public SslConfiguration build() {
+            return new SslConfiguration(this);
+        }
+    }
+}
@@ -17,12 +17,19 @@
 package io.helidon.webserver;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
+import java.time.ZonedDateTime;
 import java.time.chrono.ChronoZonedDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 import io.helidon.common.http.Http;
 import io.helidon.common.http.MediaType;
@@ -32,6 +39,22 @@ import io.helidon.common.http.MediaType;
  */
 abstract class StaticContentHandler {
 
+    /**
+     * Filename suffixes of precompressed variants and their content codings in the order of preference.
+     */
+    private static final String[][] PRECOMPRESSED_VARIANTS = {{".br", "br"}, {".gz", "gzip"}};
+
+    // Expected responses are preallocated stackless exceptions, bots and scanners can produce thousands of them per second
+    private static final HttpException NOT_FOUND = stackless("Content not found!", Http.Status.NOT_FOUND_404);
+    private static final HttpException NONE_MATCH = stackless("Accepted by If-None-Match header!",
+                                                              Http.Status.NOT_MODIFIED_304);
+    private static final HttpException NOT_MATCH = stackless("Not accepted by If-Match header!",
+                                                             Http.Status.PRECONDITION_FAILED_412);
+    private static final HttpException NOT_MODIFIED = stackless("Not valid for If-Modified-Since header!",
+                                                                Http.Status.NOT_MODIFIED_304);
+    private static final HttpException MODIFIED = stackless("Not valid for If-Unmodified-Since header!",
+                                                            Http.Status.PRECONDITION_FAILED_412);
+
     private final String welcomeFilename;
     private final ContentTypeSelector contentTypeSelector;
     private final Path root;
@@ -54,6 +77,15 @@ abstract class StaticContentHandler {
      */
     void releaseCache() {}
 
+    /**
+     * Returns statistics of the cache (if any exists).
+     *
+     * @return cache statistics or empty if there is no cache
+     */
+    Optional<StaticContentSupport.CacheStatistics> cacheStatistics() {
+        return Optional.empty();
+    }
+
     /**
      * Do handle for GET and HEAD HTTP methods. It is filtering implementation, prefers {@code response.next()} before NOT_FOUND.
      *
@@ -89,13 +121,14 @@ abstract class StaticContentHandler {
                 request.next();
             }
         } catch (IOException e) {
-            throw new HttpException("Cannot access static resource!", Http.Status.INTERNAL_SERVER_ERROR_500, e);
+            request.next(new HttpException("Cannot access static resource!", Http.Status.INTERNAL_SERVER_ERROR_500, e));
         } catch (HttpException httpException) {
             if (httpException.status().code() == Http.Status.NOT_FOUND_404.code()) {
                 // Prefer to next() before NOT_FOUND
                 request.next();
             } else {
-                throw  httpException;
+                // Error response without throwing it through the routing
+                request.next(httpException);
             }
         }
     }
@@ -135,7 +168,7 @@ abstract class StaticContentHandler {
         for (String ifNoneMatch : ifNoneMatches) {
             ifNoneMatch = unquoteETag(ifNoneMatch);
             if ("*".equals(ifNoneMatch) || ifNoneMatch.equals(etag)) {
-                throw new HttpException("Accepted by If-None-Match header!", Http.Status.NOT_MODIFIED_304);
+                throw NONE_MATCH;
             }
         }
         // Process If-Match header
@@ -150,7 +183,7 @@ abstract class StaticContentHandler {
                 }
             }
             if (!ifMatchChecked) {
-                throw new HttpException("Not accepted by If-Match header!", Http.Status.PRECONDITION_FAILED_412);
+                throw NOT_MATCH;
             }
         }
     }
@@ -188,17 +221,28 @@ abstract class StaticContentHandler {
                 .ifModifiedSince()
                 .map(ChronoZonedDateTime::toInstant);
         if (ifModSince.isPresent() && !ifModSince.get().isBefore(modified)) {
-            throw new HttpException("Not valid for If-Modified-Since header!", Http.Status.NOT_MODIFIED_304);
+            throw NOT_MODIFIED;
         }
         // If-Unmodified-Since
         Optional<Instant> ifUnmodSince = requestHeaders
                 .ifUnmodifiedSince()
                 .map(ChronoZonedDateTime::toInstant);
         if (ifUnmodSince.isPresent() && ifUnmodSince.get().isBefore(modified)) {
-            throw new HttpException("Not valid for If-Unmodified-Since header!", Http.Status.PRECONDITION_FAILED_412);
+            throw MODIFIED;
         }
     }
 
+    /**
+     * Creates a stackless exception which can be preallocated for an expected error response.
+     *
+     * @param message the message
+     * @param status  the http status
+     * @return a stackless exception
+     */
+    static HttpException stackless(String message, Http.ResponseStatus status) {
+        return new HttpException(message, status, null, false);
+    }
+
     /**
      * If provided {@code condition} is {@code true} then throws not found {@link HttpException}.
      *
@@ -207,7 +251,7 @@ abstract class StaticContentHandler {
      */
     static void throwNotFoundIf(boolean condition) {
         if (condition) {
-            throw new HttpException("Content not found!", Http.Status.NOT_FOUND_404);
+            throw NOT_FOUND;
         }
     }
 
@@ -223,6 +267,179 @@ abstract class StaticContentHandler {
         response.send();
     }
 
+    /**
+     * Finds a precompressed variant of the file ({@code foo.js.br} or {@code foo.js.gz}) acceptable by the
+     * {@code Accept-Encoding} request header. If any variant exists, {@code Vary: Accept-Encoding} is put into the
+     * response headers. If the variant is selected, {@code Content-Encoding} is put as well.
+     *
+     * @param path            a path to the file
+     * @param requestHeaders  an HTTP request headers
+     * @param responseHeaders an HTTP response headers
+     * @return a path of the selected variant or the provided path
+     */
+    static Path selectPrecompressed(Path path, RequestHeaders requestHeaders, ResponseHeaders responseHeaders) {
+        String filename = getFileName(path);
+        Path selected = path;
+        double selectedQuality = 0;
+        String selectedEncoding = null;
+        boolean exists = false;
+        for (String[] variant : PRECOMPRESSED_VARIANTS) {
+            Path candidate = path.resolveSibling(filename + variant[0]);
+            if (!Files.isRegularFile(candidate) || !Files.isReadable(candidate)) {
+                continue;
+            }
+            exists = true;
+            double quality = encodingQuality(variant[1], requestHeaders);
+            if (quality > selectedQuality) {
+                selected = candidate;
+                selectedQuality = quality;
+                selectedEncoding = variant[1];
+            }
+        }
+        if (exists) {
+            responseHeaders.add(Http.Header.VARY, Http.Header.ACCEPT_ENCODING);
+        }
+        if (selectedEncoding != null) {
+            responseHeaders.put(Http.Header.CONTENT_ENCODING, selectedEncoding);
+        }
+        return selected;
+    }
+
+    /**
+     * Returns the quality of the content coding in the {@code Accept-Encoding} request header, or {@code 0} if it
+     * is not acceptable.
+     *
+     * @param encoding       a content coding, for example {@code gzip}
+     * @param requestHeaders an HTTP request headers
+     * @return a quality value
+     */
+    static double encodingQuality(String encoding, RequestHeaders requestHeaders) {
+        Double wildcard = null;
+        for (String value : requestHeaders.values(Http.Header.ACCEPT_ENCODING)) {
+            for (String token : value.split(",")) {
+                String[] parts = token.split(";");
+                String coding = parts[0].trim();
+                double quality = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                        try {
+                            quality = Double.parseDouble(parameter.substring(2).trim());
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                if (coding.equalsIgnoreCase(encoding) || ("gzip".equals(encoding) && coding.equalsIgnoreCase("x-gzip"))) {
+                    return quality;
+                }
+                if ("*".equals(coding)) {
+                    wildcard = quality;
+                }
+            }
+        }
+        return wildcard == null ? 0 : wildcard;
+    }
+
+    /**
+     * Sends the file as a response content. Supports the {@code Range} and {@code If-Range} request headers, so
+     * a single range is sent as a {@code 206 Partial Content} and multiple ranges as a {@code multipart/byteranges}.
+     * The file is read using positional reads of the requested regions only.
+     * <p>
+     * Validators ({@code ETag} and {@code Last-Modified}) and {@code Content-Type} must be already set in the response
+     * headers.
+     *
+     * @param method   GET or HEAD HTTP method
+     * @param path     a path to the file
+     * @param request  an HTTP request
+     * @param response an HTTP response
+     * @throws IOException if the file cannot be read
+     */
+    static void sendFile(Http.RequestMethod method, Path path, ServerRequest request, ServerResponse response)
+            throws IOException {
+        ResponseHeaders responseHeaders = response.headers();
+        responseHeaders.put(Http.Header.ACCEPT_RANGES, "bytes");
+        long length = Files.size(path);
+        List<ByteRange> ranges = request.headers()
+                                        .first(Http.Header.RANGE)
+                                        .filter(range -> ifRangeMatches(request.headers(), responseHeaders))
+                                        .map(range -> ByteRange.parse(range, length))
+                                        .orElse(null);
+        if (ranges == null) {
+            if (method == Http.Method.HEAD) {
+                responseHeaders.contentLength(length);
+                response.send();
+            } else {
+                response.send(path);
+            }
+            return;
+        }
+        if (ranges.isEmpty()) {
+            response.status(Http.Status.REQUESTED_RANGE_NOT_SATISFIABLE_416);
+            responseHeaders.put(Http.Header.CONTENT_RANGE, "bytes */" + length);
+            responseHeaders.contentLength(0);
+            response.send();
+            return;
+        }
+        response.status(Http.Status.PARTIAL_CONTENT_206);
+        FileRegionChannel channel = new FileRegionChannel(FileChannel.open(path, StandardOpenOption.READ));
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            responseHeaders.put(Http.Header.CONTENT_RANGE, range.contentRange(length));
+            channel.region(range.start(), range.length());
+        } else {
+            String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong());
+            String partContentType = responseHeaders.contentType()
+                                                    .map(type -> Http.Header.CONTENT_TYPE + ": " + type + "\r\n")
+                                                    .orElse("");
+            for (ByteRange range : ranges) {
+                channel.bytes(("\r\n--" + boundary + "\r\n"
+                                       + partContentType
+                                       + Http.Header.CONTENT_RANGE + ": " + range.contentRange(length) + "\r\n"
+                                       + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                channel.region(range.start(), range.length());
+            }
+            channel.bytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+            responseHeaders.contentType(MediaType.parse("multipart/byteranges; boundary=" + boundary));
+        }
+        responseHeaders.contentLength(channel.remaining());
+        if (method == Http.Method.HEAD) {
+            channel.close();
+            response.send();
+        } else {
+            response.send(ContentWriters.byteChannelWriter().apply(channel));
+        }
+    }
+
+    /**
+     * Evaluates the {@code If-Range} request header against the validators in the response headers.
+     *
+     * @param requestHeaders  an HTTP request headers
+     * @param responseHeaders an HTTP response headers
+     * @return {@code true} if there is no {@code If-Range} header or if it matches
+     */
+    static boolean ifRangeMatches(RequestHeaders requestHeaders, ResponseHeaders responseHeaders) {
+        Optional<String> ifRange = requestHeaders.first(Http.Header.IF_RANGE);
+        if (!ifRange.isPresent()) {
+            return true;
+        }
+        String value = ifRange.get().trim();
+        if (value.startsWith("\"") || value.startsWith("W/") || value.startsWith("w/")) {
+            // weak validators never match
+            return !value.startsWith("W/")
+                    && !value.startsWith("w/")
+                    && responseHeaders.first(Http.Header.ETAG).map(value::equals).orElse(false);
+        }
+        try {
+            ZonedDateTime date = Http.DateTime.parse(value);
+            return responseHeaders.lastModified()
+                                  .map(modified -> modified.toEpochSecond() == date.toEpochSecond())
+                                  .orElse(false);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
     String getWelcomePageName() {
         return welcomeFilename;
     }
@@ -19,6 +19,7 @@ package io.helidon.webserver;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.TreeMap;
 import java.util.function.Consumer;
 
@@ -39,6 +40,21 @@ import io.helidon.common.http.MediaType;
  */
 public class StaticContentSupport implements Service {
 
+    /**
+     * Default maximal total size of cached class-path resources.
+     */
+    public static final long DEFAULT_CACHE_MAX_BYTES = 10 * 1024 * 1024;
+
+    /**
+     * Default maximal number of cached class-path resources.
+     */
+    public static final int DEFAULT_CACHE_MAX_ENTRIES = 1000;
+
+    /**
+     * Default maximal size of a single cached class-path resource.
+     */
+    public static final int DEFAULT_CACHE_MAX_ENTRY_SIZE = 64 * 1024;
+
     private final StaticContentHandler handler;
 
     private int webServerCounter = 0;
@@ -77,6 +93,15 @@ public class StaticContentSupport implements Service {
         }
     }
 
+    /**
+     * Returns statistics of the in-memory cache of class-path resources.
+     *
+     * @return cache statistics or empty if this instance doesn't serve class-path resources or the cache is disabled
+     */
+    public Optional<CacheStatistics> cacheStatistics() {
+        return handler.cacheStatistics();
+    }
+
     /**
      * Creates new builder with defined static content root as a class-loader resource. Builder provides ability to define
      * more advanced configuration.
@@ -166,6 +191,9 @@ public class StaticContentSupport implements Service {
 
         private final Map<String, MediaType> specificContentTypes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
         private String welcomeFileName;
+        private long cacheMaxBytes = DEFAULT_CACHE_MAX_BYTES;
+        private int cacheMaxEntries = DEFAULT_CACHE_MAX_ENTRIES;
+        private int cacheMaxEntrySize = DEFAULT_CACHE_MAX_ENTRY_SIZE;
 
         Builder(Path fsRoot) {
             Objects.requireNonNull(fsRoot, "Attribute fsRoot is null!");
@@ -218,6 +246,30 @@ public class StaticContentSupport implements Service {
             return this;
         }
 
+        /**
+         * Sets limits of the in-memory LRU cache of class-path resources served from JAR files. Cached resources
+         * are served without any file system access. Default limits are
+         * {@value StaticContentSupport#DEFAULT_CACHE_MAX_BYTES} bytes in total,
+         * {@value StaticContentSupport#DEFAULT_CACHE_MAX_ENTRIES} resources and
+         * {@value StaticContentSupport#DEFAULT_CACHE_MAX_ENTRY_SIZE} bytes of a single resource.
+         * Use zero {@code maxBytes} to disable the cache. The cache is not used for the file system content.
+         *
+         * @param maxBytes     maximal total size of cached resources
+         * @param maxEntries   maximal number of cached resources
+         * @param maxEntrySize maximal size of a single cached resource, larger resources are not cached
+         * @return updated builder
+         * @throws IllegalArgumentException if any parameter is negative
+         */
+        public Builder cache(long maxBytes, int maxEntries, int maxEntrySize) {
+            if (maxBytes < 0 || maxEntries < 0 || maxEntrySize < 0) {
+                throw new IllegalArgumentException("Cache limits cannot be negative!");
+            }
+            this.cacheMaxBytes = maxBytes;
+            this.cacheMaxEntries = maxEntries;
+            this.cacheMaxEntrySize = maxEntrySize;
+            return this;
+        }
+
         /**
          * Builds new {@link StaticContentSupport} instance.
          *
@@ -229,7 +281,10 @@ public class StaticContentSupport implements Service {
             if (fsRoot != null) {
                 handler = new FileSystemContentHandler(welcomeFileName, selector, fsRoot);
             } else if (clRoot != null) {
-                handler = new ClassPathContentHandler(welcomeFileName, selector, clRoot, classLoader);
+                ResourceCache cache = cacheMaxBytes > 0 && cacheMaxEntries > 0 && cacheMaxEntrySize > 0
+                        ? new ResourceCache(cacheMaxBytes, cacheMaxEntries, cacheMaxEntrySize)
+                        : null;
+                handler = new ClassPathContentHandler(welcomeFileName, selector, clRoot, classLoader, cache);
             } else {
                 throw new IllegalArgumentException("Builder was created without specified static content root!");
             }
@@ -237,4 +292,75 @@ public class StaticContentSupport implements Service {
         }
 
     }
+
+    /**
+     * A snapshot of statistics of the in-memory cache of static resources.
+     */
+    public static final class CacheStatistics {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        private final long bytes;
+
+        CacheStatistics(long hits, long misses, long evictions, int size, long bytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Returns the number of requests served from the cache.
+         *
+         * @return the number of hits
+         */
+        public long hits() {
+            return hits;
+        }
+
+        /**
+         * Returns the number of requests not found in the cache.
+         *
+         * @return the number of misses
+         */
+        public long misses() {
+            return misses;
+        }
+
+        /**
+         * Returns the number of resources evicted because of the cache limits.
+         *
+         * @return the number of evictions
+         */
+        public long evictions() {
+            return evictions;
+        }
+
+        /**
+         * Returns the number of currently cached resources.
+         *
+         * @return the number of cached resources
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns the total size of currently cached resources.
+         *
+         * @return the number of cached bytes
+         */
+        public long bytes() {
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return "CacheStatistics{hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                    + ", size=" + size + ", bytes=" + bytes + '}';
+        }
+    }
 }
@@ -32,6 +32,9 @@ import io.helidon.common.reactive.Flow;
  * The StringContentReader provides means to convert a {@link ByteBuffer} publisher to
  * a single string while using a given charset. If the charset cannot be used by the JVM,
  * the returned completion stage ends exceptionally with an {@link IllegalArgumentException}.
+ * <p>
+ * Chunks are decoded as they arrive and released right after, so the content is never held
+ * both as bytes and as characters.
  */
 public class StringContentReader implements Reader<String> {
 
@@ -91,10 +94,7 @@ public class StringContentReader implements Reader<String> {
     @Override
     public CompletionStage<String> apply(Flow.Publisher<DataChunk> publisher, Class<? super String> clazz) {
         if (charset != null) {
-            return ContentReaders
-                    .byteArrayReader()
-                    .apply(publisher, byte[].class)
-                    .thenApply(bytes -> new String(bytes, charset));
+            return decode(publisher, charset);
         }
         CompletableFuture result = new CompletableFuture<>();
         result.completeExceptionally(new IllegalArgumentException(
@@ -102,6 +102,43 @@ public class StringContentReader implements Reader<String> {
         return result;
     }
 
+    private static CompletionStage<String> decode(Flow.Publisher<DataChunk> publisher, Charset charset) {
+        ChunkDecoder decoder = new ChunkDecoder(charset);
+        StringBuilder result = new StringBuilder();
+        CompletableFuture<String> future = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<DataChunk>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(DataChunk item) {
+                try {
+                    synchronized (result) {
+                        result.append(decoder.decode(item.data()));
+                    }
+                } finally {
+                    item.release();
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                synchronized (result) {
+                    result.append(decoder.finish());
+                    future.complete(result.toString());
+                }
+            }
+        });
+        return future;
+    }
+
     /**
      * Obtain the charset from the request.
      *
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timeouts of requests on the timer shared by the {@link WebServer WebServer} integrations, such as the time limited
+ * suspension of Jersey requests. The timer is designed for a large number of mostly cancelled timeouts, its precision
+ * is ten milliseconds.
+ * <p>
+ * Tasks run on the single timer thread and must not block, they should hand any other work over to an executor service.
+ */
+public final class Timeouts {
+
+    private Timeouts() {
+    }
+
+    /**
+     * Schedules the task.
+     *
+     * @param task  a non-blocking task to run on the timer thread
+     * @param delay a delay
+     * @param unit  time unit of the delay
+     * @return a timeout which can be cancelled
+     */
+    public static Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return HashedWheelTimer.shared().schedule(task, delay, unit);
+    }
+
+    /**
+     * A scheduled task.
+     */
+    public interface Timeout {
+
+        /**
+         * Cancels the timeout and releases its task.
+         *
+         * @return {@code false} if the timeout already expired or was cancelled
+         */
+        boolean cancel();
+    }
+}
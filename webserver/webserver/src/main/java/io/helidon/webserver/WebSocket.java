@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.ReactiveStreamsAdapter;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * An open WebSocket connection, created by {@link WebSocketSupport}.
+ * <p>
+ * Received messages are published to a single subscriber. The connection is read only when the subscriber requests
+ * messages, at most one not requested message is held in memory. Sent messages are requested from the publisher only
+ * when the connection is writable, so a slow client slows down the sender.
+ */
+public interface WebSocket {
+
+    /**
+     * Normal closure status code.
+     */
+    int NORMAL_CLOSURE = 1000;
+
+    /**
+     * Returns a single-subscriber publisher of received messages. The publisher completes when the connection
+     * is closed.
+     *
+     * @return a publisher of received messages
+     */
+    Flow.Publisher<WebSocketMessage> receive();
+
+    /**
+     * Sends all published messages. Multiple publishers can be sent concurrently, their messages are interleaved.
+     *
+     * @param messages messages to send
+     * @return a completion stage completed when all messages are written to the connection
+     */
+    CompletionStage<WebSocket> send(Flow.Publisher<WebSocketMessage> messages);
+
+    /**
+     * Sends a single message.
+     *
+     * @param message a message to send
+     * @return a completion stage completed when the message is written to the connection
+     */
+    default CompletionStage<WebSocket> send(WebSocketMessage message) {
+        return send(ReactiveStreamsAdapter.publisherToFlow(Mono.just(message)));
+    }
+
+    /**
+     * Sends the close frame and closes the connection.
+     *
+     * @param statusCode a close status code
+     * @param reason     a close reason or {@code null}
+     */
+    void close(int statusCode, String reason);
+
+    /**
+     * Sends the close frame with the {@link #NORMAL_CLOSURE normal closure} status code and closes the connection.
+     */
+    default void close() {
+        close(NORMAL_CLOSURE, null);
+    }
+
+    /**
+     * Returns a completion stage completed when the connection is closed.
+     *
+     * @return a completion stage
+     */
+    CompletionStage<WebSocket> whenClosed();
+
+    /**
+     * Returns the negotiated subprotocol.
+     *
+     * @return the subprotocol or empty if none was negotiated
+     */
+    Optional<String> subprotocol();
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A complete text or binary {@link WebSocket} message. Fragmented messages are received already assembled.
+ */
+public final class WebSocketMessage {
+
+    private final String text;
+    private final ByteBuffer data;
+
+    private WebSocketMessage(String text, ByteBuffer data) {
+        this.text = text;
+        this.data = data;
+    }
+
+    /**
+     * Creates new text message.
+     *
+     * @param text a text
+     * @return new message
+     * @throws NullPointerException if {@code text} is {@code null}
+     */
+    public static WebSocketMessage text(String text) {
+        Objects.requireNonNull(text, "Parameter 'text' is null!");
+        return new WebSocketMessage(text, null);
+    }
+
+    /**
+     * Creates new binary message. The buffer must not be modified after the message is sent.
+     *
+     * @param data message data
+     * @return new message
+     * @throws NullPointerException if {@code data} is {@code null}
+     */
+    public static WebSocketMessage binary(ByteBuffer data) {
+        Objects.requireNonNull(data, "Parameter 'data' is null!");
+        return new WebSocketMessage(null, data);
+    }
+
+    /**
+     * Creates new binary message.
+     *
+     * @param data message data
+     * @return new message
+     * @throws NullPointerException if {@code data} is {@code null}
+     */
+    public static WebSocketMessage binary(byte[] data) {
+        Objects.requireNonNull(data, "Parameter 'data' is null!");
+        return new WebSocketMessage(null, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Returns {@code true} for a text message.
+     *
+     * @return whether this is a text message
+     */
+    public boolean isText() {
+        return text != null;
+    }
+
+    /**
+     * Returns the text of a text message.
+     *
+     * @return the text
+     * @throws IllegalStateException if this is a binary message
+     */
+    public String text() {
+        if (text == null) {
+            throw new IllegalStateException("Not a text message!");
+        }
+        return text;
+    }
+
+    /**
+     * Returns a read-only view of the message data. Text is encoded in UTF-8.
+     *
+     * @return message data
+     */
+    public ByteBuffer data() {
+        if (data == null) {
+            return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+        }
+        return data.asReadOnlyBuffer();
+    }
+
+    @Override
+    public String toString() {
+        return isText() ? "WebSocketMessage{text=" + text + "}" : "WebSocketMessage{binary=" + data.remaining() + " bytes}";
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.Http;
+
+/**
+ * A {@link Handler} which upgrades {@code GET} requests with the {@code Upgrade: websocket} header to a {@link WebSocket}
+ * connection. Other requests are passed to the next handler, so the same path can serve regular HTTP requests.
+ * <pre>{@code
+ * Routing.builder()
+ *        .get("/notifications", WebSocketSupport.create(ws -> ws.send(notifications)))
+ * }</pre>
+ * The listener is called once the handshake response is sent. The WebSocket protocol must be supported by the
+ * {@link WebServer} implementation, otherwise {@code 501 Not Implemented} is returned.
+ */
+public final class WebSocketSupport implements Handler {
+
+    /**
+     * Default maximal size of a single frame payload.
+     */
+    public static final int DEFAULT_MAX_FRAME_SIZE = 64 * 1024;
+
+    /**
+     * Default maximal size of a message assembled from fragments.
+     */
+    public static final int DEFAULT_MAX_MESSAGE_SIZE = 1024 * 1024;
+
+    private static final Logger LOGGER = Logger.getLogger(WebSocketSupport.class.getName());
+
+    private final Consumer<WebSocket> listener;
+    private final int maxFrameSize;
+    private final int maxMessageSize;
+    private final boolean compression;
+    private final List<String> subprotocols;
+
+    private WebSocketSupport(Builder builder) {
+        this.listener = builder.listener;
+        this.maxFrameSize = builder.maxFrameSize;
+        this.maxMessageSize = builder.maxMessageSize;
+        this.compression = builder.compression;
+        this.subprotocols = Collections.unmodifiableList(new ArrayList<>(builder.subprotocols));
+    }
+
+    /**
+     * Upgrades the connection if the request is a WebSocket handshake, otherwise calls
+     * {@code ServerRequest.}{@link ServerRequest#next() next()}.
+     *
+     * @param request  a server request
+     * @param response a server response
+     */
+    @Override
+    public void accept(ServerRequest request, ServerResponse response) {
+        if (!isUpgrade(request) || !(response instanceof Response)) {
+            request.next();
+            return;
+        }
+        try {
+            ((Response) response).upgradeToWebSocket(this)
+                                 .thenAccept(listener)
+                                 .exceptionally(throwable -> {
+                                     LOGGER.log(Level.FINE, "WebSocket handshake failed.", throwable);
+                                     return null;
+                                 });
+        } catch (UnsupportedOperationException e) {
+            response.status(Http.Status.NOT_IMPLEMENTED_501).send();
+        }
+    }
+
+    private static boolean isUpgrade(ServerRequest request) {
+        if (request.method() != Http.Method.GET) {
+            return false;
+        }
+        RequestHeaders headers = request.headers();
+        return headers.values(Http.Header.UPGRADE).stream().anyMatch(value -> containsToken(value, "websocket"))
+                && headers.values(Http.Header.CONNECTION).stream().anyMatch(value -> containsToken(value, "upgrade"));
+    }
+
+    private static boolean containsToken(String value, String token) {
+        for (String part : value.split(",")) {
+            if (part.trim().equalsIgnoreCase(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the maximal size of a single frame payload.
+     *
+     * @return number of bytes
+     */
+    public int maxFrameSize() {
+        return maxFrameSize;
+    }
+
+    /**
+     * Returns the maximal size of a message assembled from fragments.
+     *
+     * @return number of bytes
+     */
+    public int maxMessageSize() {
+        return maxMessageSize;
+    }
+
+    /**
+     * Returns {@code true} if the {@code permessage-deflate} extension can be negotiated.
+     *
+     * @return whether the compression is enabled
+     */
+    public boolean compression() {
+        return compression;
+    }
+
+    /**
+     * Returns supported subprotocols in the order of preference.
+     *
+     * @return supported subprotocols, can be empty
+     */
+    public List<String> subprotocols() {
+        return subprotocols;
+    }
+
+    /**
+     * Creates new instance with default configuration.
+     *
+     * @param listener a listener called for each new connection
+     * @return new instance
+     * @throws NullPointerException if {@code listener} is {@code null}
+     */
+    public static WebSocketSupport create(Consumer<WebSocket> listener) {
+        return builder(listener).build();
+    }
+
+    /**
+     * Creates new builder.
+     *
+     * @param listener a listener called for each new connection
+     * @return a builder
+     * @throws NullPointerException if {@code listener} is {@code null}
+     */
+    public static Builder builder(Consumer<WebSocket> listener) {
+        return new Builder(listener);
+    }
+
+    /**
+     * Fluent builder of {@link WebSocketSupport}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<WebSocketSupport> {
+
+        private final Consumer<WebSocket> listener;
+        private final List<String> subprotocols = new ArrayList<>();
+        private int maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+        private int maxMessageSize = DEFAULT_MAX_MESSAGE_SIZE;
+        private boolean compression = true;
+
+        private Builder(Consumer<WebSocket> listener) {
+            Objects.requireNonNull(listener, "Parameter 'listener' is null!");
+            this.listener = listener;
+        }
+
+        /**
+         * Sets the maximal size of a single frame payload. Larger frames close the connection with
+         * the {@code 1009} status code. Default is {@value WebSocketSupport#DEFAULT_MAX_FRAME_SIZE}.
+         *
+         * @param maxFrameSize number of bytes
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code maxFrameSize} is not positive
+         */
+        public Builder maxFrameSize(int maxFrameSize) {
+            if (maxFrameSize <= 0) {
+                throw new IllegalArgumentException("Parameter 'maxFrameSize' must be positive!");
+            }
+            this.maxFrameSize = maxFrameSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximal size of a message assembled from fragments. Larger messages close the connection with
+         * the {@code 1009} status code. Default is {@value WebSocketSupport#DEFAULT_MAX_MESSAGE_SIZE}.
+         *
+         * @param maxMessageSize number of bytes
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code maxMessageSize} is not positive
+         */
+        public Builder maxMessageSize(int maxMessageSize) {
+            if (maxMessageSize <= 0) {
+                throw new IllegalArgumentException("Parameter 'maxMessageSize' must be positive!");
+            }
+            this.maxMessageSize = maxMessageSize;
+            return this;
+        }
+
+        /**
+         * Enables or disables the negotiation of the {@code permessage-deflate} extension. Default is {@code true}.
+         * <p>
+         * The extension is negotiated without context takeover of both the server and the client, so a connection holds
+         * a compression context only while a message is compressed or decompressed. Disable the compression if messages
+         * are small or already compressed.
+         *
+         * @param compression whether the compression is enabled
+         * @return updated builder
+         */
+        public Builder compression(boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Adds a supported subprotocol. The first subprotocol requested by the client which is supported is selected.
+         *
+         * @param subprotocol a subprotocol
+         * @return updated builder
+         * @throws NullPointerException if {@code subprotocol} is {@code null}
+         */
+        public Builder addSubprotocol(String subprotocol) {
+            Objects.requireNonNull(subprotocol, "Parameter 'subprotocol' is null!");
+            subprotocols.add(subprotocol);
+            return this;
+        }
+
+        @Override
+        public WebSocketSupport build() {
+            return new WebSocketSupport(this);
+        }
+    }
+}
@@ -116,4 +116,13 @@ public interface BareRequest {
      * @return a unique correlation ID associated with this request and its response
      */
     long requestId();
+
+    /**
+     * Returns the {@link System#nanoTime()} at which the request headers were received by the server.
+     *
+     * @return the receipt time or {@code -1} if it is not known
+     */
+    default long receivedNanos() {
+        return -1;
+    }
 }
@@ -27,6 +27,8 @@ import io.helidon.common.reactive.Flow;
 import io.helidon.webserver.Routing;
 import io.helidon.webserver.SocketClosedException;
 import io.helidon.webserver.WebServer;
+import io.helidon.webserver.WebSocket;
+import io.helidon.webserver.WebSocketSupport;
 
 
 /**
@@ -104,4 +106,16 @@ public interface BareResponse extends Flow.Subscriber<DataChunk> {
      * @return a unique correlation ID associated with this response and its request
      */
     long requestId();
+
+    /**
+     * Switches the connection of this response to the WebSocket protocol. The handshake response is sent instead of
+     * this response, which is completed once the handshake response is sent.
+     *
+     * @param support the WebSocket configuration
+     * @return a completion stage of the connection, completed once the handshake response is sent
+     * @throws UnsupportedOperationException if the server doesn't support WebSocket
+     */
+    default CompletionStage<WebSocket> upgradeToWebSocket(WebSocketSupport support) {
+        throw new UnsupportedOperationException("WebSocket is not supported!");
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Tests {@link AccessLogBuffer}.
+ */
+public class AccessLogBufferTest {
+
+    @Test
+    public void dropsWhenFull() {
+        AccessLogBuffer buffer = new AccessLogBuffer(3, 16, false);
+        assertThat(buffer.capacity(), is(4));
+        for (int i = 0; i < 6; i++) {
+            int line = i;
+            buffer.offer(sb -> sb.append(line));
+        }
+        List<String> lines = new ArrayList<>();
+
+        assertThat(buffer.drain(sb -> lines.add(sb.toString())), is(4));
+        assertThat(lines, contains("0", "1", "2", "3"));
+        assertThat(buffer.dropped(), is(2L));
+        // slots are reused
+        assertThat(buffer.offer(sb -> sb.append("next")), is(true));
+        lines.clear();
+        buffer.drain(sb -> lines.add(sb.toString()));
+        assertThat(lines, contains("next"));
+    }
+
+    @Test
+    public void concurrentProducersBlockWhenFull() throws Exception {
+        AccessLogBuffer buffer = new AccessLogBuffer(8, 16, true);
+        int producers = 4;
+        int perProducer = 1000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    int line = i;
+                    buffer.offer(sb -> sb.append(producer).append(':').append(line));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        Set<String> lines = new HashSet<>();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (lines.size() < producers * perProducer && System.currentTimeMillis() < deadline) {
+            buffer.drain(sb -> lines.add(sb.toString()));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(lines.size(), is(producers * perProducer));
+        assertThat(buffer.dropped(), is(0L));
+    }
+
+    @Test
+    public void oversizedSlotsAreReplaced() {
+        AccessLogBuffer buffer = new AccessLogBuffer(2, 16, false);
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longLine.append('x');
+        }
+        buffer.offer(sb -> sb.append(longLine));
+        List<StringBuilder> slots = new ArrayList<>();
+        buffer.drain(slots::add);
+        assertThat(slots.get(0).length(), is(1000));
+
+        // the same slot again
+        buffer.offer(sb -> sb.append("a"));
+        buffer.offer(sb -> sb.append("b"));
+        slots.clear();
+        buffer.drain(slots::add);
+        assertThat(slots.get(1).toString(), is("b"));
+        assertThat(slots.get(1).capacity(), is(lessThanOrEqualTo(64)));
+    }
+
+    @Test
+    public void awaitIsWokenByProducer() throws Exception {
+        AccessLogBuffer buffer = new AccessLogBuffer(8, 16, false);
+        // returns immediately when a line is available
+        buffer.offer(sb -> sb.append("first"));
+        long start = System.nanoTime();
+        buffer.await(TimeUnit.SECONDS.toNanos(10));
+        assertThat(System.nanoTime() - start, is(lessThan(TimeUnit.SECONDS.toNanos(5))));
+        buffer.drain(sb -> { });
+
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            buffer.offer(sb -> sb.append("second"));
+        });
+        producer.start();
+        start = System.nanoTime();
+        buffer.await(TimeUnit.SECONDS.toNanos(10));
+        List<String> lines = new ArrayList<>();
+        buffer.drain(sb -> lines.add(sb.toString()));
+
+        assertThat(System.nanoTime() - start, is(lessThan(TimeUnit.SECONDS.toNanos(5))));
+        assertThat(lines, contains("second"));
+        producer.join();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+
+import static io.helidon.common.CollectionsHelper.listOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/**
+ * Tests {@link ByteRange} and {@link FileRegionChannel}.
+ */
+public class ByteRangeTest {
+
+    @Test
+    public void singleRanges() throws Exception {
+        assertThat(ByteRange.parse("bytes=0-499", 1000), is(listOf(new ByteRange(0, 499))));
+        assertThat(ByteRange.parse("bytes=500-", 1000), is(listOf(new ByteRange(500, 999))));
+        assertThat(ByteRange.parse("bytes=-100", 1000), is(listOf(new ByteRange(900, 999))));
+        assertThat(ByteRange.parse("bytes=-2000", 1000), is(listOf(new ByteRange(0, 999))));
+        assertThat(ByteRange.parse("Bytes=900-2000", 1000), is(listOf(new ByteRange(900, 999))));
+    }
+
+    @Test
+    public void multipleRanges() throws Exception {
+        assertThat(ByteRange.parse("bytes=0-0, 10-19 ,-1", 1000),
+                   is(listOf(new ByteRange(0, 0), new ByteRange(10, 19), new ByteRange(999, 999))));
+        // unsatisfiable ranges are skipped
+        assertThat(ByteRange.parse("bytes=5000-6000,0-9", 1000), is(listOf(new ByteRange(0, 9))));
+    }
+
+    @Test
+    public void unsatisfiable() throws Exception {
+        assertThat(ByteRange.parse("bytes=1000-", 1000).isEmpty(), is(true));
+        assertThat(ByteRange.parse("bytes=-0", 1000).isEmpty(), is(true));
+        assertThat(ByteRange.parse("bytes=0-", 0).isEmpty(), is(true));
+    }
+
+    @Test
+    public void ignored() throws Exception {
+        assertThat(ByteRange.parse("items=0-10", 1000), nullValue());
+        assertThat(ByteRange.parse("bytes=10-5", 1000), nullValue());
+        assertThat(ByteRange.parse("bytes=a-5", 1000), nullValue());
+        assertThat(ByteRange.parse("bytes=+1-5", 1000), nullValue());
+        assertThat(ByteRange.parse("bytes=10", 1000), nullValue());
+        // overlapping ranges larger than the representation
+        assertThat(ByteRange.parse("bytes=0-999,0-999", 1000), nullValue());
+        StringBuilder tooMany = new StringBuilder("bytes=0-0");
+        for (int i = 1; i <= ByteRange.MAX_RANGES; i++) {
+            tooMany.append(',').append(i).append('-').append(i);
+        }
+        assertThat(ByteRange.parse(tooMany.toString(), 1000), nullValue());
+    }
+
+    @Test
+    public void regionChannel() throws Exception {
+        Path file = Files.createTempFile("range", ".txt");
+        try {
+            Files.write(file, "0123456789abcdef".getBytes(StandardCharsets.US_ASCII));
+            FileRegionChannel channel = new FileRegionChannel(FileChannel.open(file, StandardOpenOption.READ))
+                    .bytes("[".getBytes(StandardCharsets.US_ASCII))
+                    .region(2, 3)
+                    .bytes("][".getBytes(StandardCharsets.US_ASCII))
+                    .region(10, 6)
+                    .bytes("]".getBytes(StandardCharsets.US_ASCII));
+
+            assertThat(channel.remaining(), is(13L));
+            assertThat(readAll(channel, 4), is("[234][abcdef]"));
+            assertThat(channel.read(ByteBuffer.allocate(4)), is(-1));
+            channel.close();
+            assertThat(channel.isOpen(), is(false));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static String readAll(FileRegionChannel channel, int bufferSize) throws IOException {
+        StringBuilder result = new StringBuilder();
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            result.append(StandardCharsets.US_ASCII.decode(buffer));
+            buffer.clear();
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.ReactiveStreamsAdapter;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Tests {@link CompressingPublisher} and {@link DeflaterPool}.
+ */
+public class CompressingPublisherTest {
+
+    private static final String TEXT;
+
+    static {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            text.append("Line ").append(i).append(" of a compressible text.\n");
+        }
+        TEXT = text.toString();
+    }
+
+    private static Flow.Publisher<DataChunk> chunks(byte[] bytes, int chunkSize, boolean flush) {
+        List<DataChunk> chunks = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            byte[] chunk = new byte[Math.min(chunkSize, bytes.length - i)];
+            System.arraycopy(bytes, i, chunk, 0, chunk.length);
+            chunks.add(DataChunk.create(flush, ByteBuffer.wrap(chunk)));
+        }
+        return ReactiveStreamsAdapter.publisherToFlow(Flux.fromIterable(chunks));
+    }
+
+    private static List<byte[]> collect(Flow.Publisher<DataChunk> publisher) {
+        List<byte[]> result = new ArrayList<>();
+        ReactiveStreamsAdapter.publisherFromFlow(publisher)
+                              .doOnNext(chunk -> result.add(chunk.bytes()))
+                              .blockLast(Duration.ofSeconds(10));
+        return result;
+    }
+
+    private static byte[] concat(List<byte[]> chunks) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        chunks.forEach(chunk -> result.write(chunk, 0, chunk.length));
+        return result.toByteArray();
+    }
+
+    private static String read(InputStream is) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int count;
+        while ((count = is.read(buffer)) >= 0) {
+            result.write(buffer, 0, count);
+        }
+        return new String(result.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void gzip() throws Exception {
+        DeflaterPool pool = new DeflaterPool(Deflater.DEFAULT_COMPRESSION, true, 1);
+        byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = concat(collect(new CompressingPublisher(chunks(bytes, 1000, false), pool, true, 100,
+                                                                    () -> true)));
+
+        assertThat(compressed.length < bytes.length / 4, is(true));
+        assertThat(read(new GZIPInputStream(new ByteArrayInputStream(compressed))), is(TEXT));
+        assertThat(pool.size(), is(1));
+    }
+
+    @Test
+    public void deflate() throws Exception {
+        DeflaterPool pool = new DeflaterPool(Deflater.BEST_SPEED, false, 1);
+        byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 2; i++) {
+            // the second run reuses the pooled deflater
+            byte[] compressed = concat(collect(new CompressingPublisher(chunks(bytes, 777, false), pool, false, 0,
+                                                                        () -> true)));
+            assertThat(read(new InflaterInputStream(new ByteArrayInputStream(compressed), new Inflater())), is(TEXT));
+        }
+        assertThat(pool.size(), is(1));
+    }
+
+    @Test
+    public void smallContentIsNotCompressed() throws Exception {
+        AtomicInteger callbacks = new AtomicInteger();
+        byte[] bytes = "small".getBytes(StandardCharsets.UTF_8);
+        byte[] result = concat(collect(new CompressingPublisher(chunks(bytes, 2, false),
+                                                                new DeflaterPool(Deflater.DEFAULT_COMPRESSION, true, 1),
+                                                                true,
+                                                                6,
+                                                                () -> callbacks.incrementAndGet() > 0)));
+
+        assertThat(new String(result, StandardCharsets.UTF_8), is("small"));
+        assertThat(callbacks.get(), is(0));
+    }
+
+    @Test
+    public void refusedCompression() throws Exception {
+        byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        byte[] result = concat(collect(new CompressingPublisher(chunks(bytes, 1000, false),
+                                                                new DeflaterPool(Deflater.DEFAULT_COMPRESSION, true, 1),
+                                                                true,
+                                                                10,
+                                                                () -> false)));
+
+        assertThat(new String(result, StandardCharsets.UTF_8), is(TEXT));
+    }
+
+    @Test
+    public void flushedChunksAreDecodable() throws Exception {
+        byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        List<byte[]> compressed = collect(new CompressingPublisher(chunks(bytes, 4000, true),
+                                                                   new DeflaterPool(Deflater.DEFAULT_COMPRESSION, false, 1),
+                                                                   false,
+                                                                   0,
+                                                                   () -> true));
+
+        // every flushed chunk is complete, so the data received so far can be decompressed
+        Inflater inflater = new Inflater();
+        byte[] buffer = new byte[bytes.length];
+        inflater.setInput(compressed.get(0));
+        int count = inflater.inflate(buffer);
+        assertThat(new String(buffer, 0, count, StandardCharsets.UTF_8), is(TEXT.substring(0, 4000)));
+        inflater.end();
+    }
+
+    @Test
+    public void smallFlushedChunksAreNotHeld() throws Exception {
+        byte[] bytes = TEXT.substring(0, 20).getBytes(StandardCharsets.UTF_8);
+        // the content doesn't complete, flushed chunks must be published before minSize is reached
+        Flux<DataChunk> content = Flux.concat(ReactiveStreamsAdapter.publisherFromFlow(chunks(bytes, 10, true)), Flux.never());
+        List<DataChunk> compressed = ReactiveStreamsAdapter
+                .publisherFromFlow(new CompressingPublisher(ReactiveStreamsAdapter.publisherToFlow(content),
+                                                            new DeflaterPool(Deflater.DEFAULT_COMPRESSION, false, 1),
+                                                            false,
+                                                            1000,
+                                                            () -> true))
+                .take(2)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        Inflater inflater = new Inflater();
+        byte[] buffer = new byte[bytes.length];
+        inflater.setInput(concat(compressed.stream().map(DataChunk::bytes).collect(Collectors.toList())));
+        int count = inflater.inflate(buffer);
+        assertThat(new String(buffer, 0, count, StandardCharsets.UTF_8), is(TEXT.substring(0, 20)));
+        inflater.end();
+    }
+}
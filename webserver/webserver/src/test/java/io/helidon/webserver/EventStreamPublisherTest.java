@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.ReactiveStreamsAdapter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/**
+ * Tests {@link EventStreamPublisher} and {@link ServerSentEvent}.
+ */
+public class EventStreamPublisherTest {
+
+    private static final long NO_DELAY = 0;
+    private static final long LONG_DELAY = TimeUnit.HOURS.toNanos(1);
+
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    public void createScheduler() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    public void shutdownScheduler() {
+        scheduler.shutdownNow();
+    }
+
+    private EventStreamPublisher publisher(Flux<?> events, long maxFlushDelayNanos, long heartbeatNanos, int maxPending) {
+        return new EventStreamPublisher(ReactiveStreamsAdapter.publisherToFlow(events),
+                                        new BufferPool(64, 4),
+                                        scheduler,
+                                        maxFlushDelayNanos,
+                                        heartbeatNanos,
+                                        maxPending);
+    }
+
+    private static String string(DataChunk chunk) {
+        return new String(chunk.bytes(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void eventFormat() throws Exception {
+        ServerSentEvent event = ServerSentEvent.builder()
+                                               .comment("first\nsecond")
+                                               .name("update")
+                                               .id("42")
+                                               .retry(Duration.ofSeconds(3))
+                                               .data("a\r\nb\rc\n")
+                                               .build();
+
+        assertThat(event.toString(), is(":first\n:second\nevent:update\nid:42\nretry:3000\ndata:a\ndata:b\ndata:c\ndata:\n\n"));
+        assertThat(ServerSentEvent.create("").toString(), is("data:\n\n"));
+    }
+
+    @Test
+    public void eventsAreBatchedWhileWritesArePending() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+        publisher(Flux.just("a", ServerSentEvent.create("b"), "c"), LONG_DELAY, 0, 10).subscribe(subscriber);
+
+        // idle stream is flushed immediately, following events wait for the completion of the stream
+        assertThat(string(subscriber.next()), is("data:a\n\n"));
+        assertThat(string(subscriber.next()), is("data:b\n\ndata:c\n\n"));
+        subscriber.completed.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void batchIsFlushedAfterMaxDelay() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+        publisher(Flux.just("a", "b").concatWith(Flux.never()), TimeUnit.MILLISECONDS.toNanos(10), 0, 10)
+                .subscribe(subscriber);
+
+        assertThat(string(subscriber.next()), is("data:a\n\n"));
+        assertThat(string(subscriber.next()), is("data:b\n\n"));
+    }
+
+    @Test
+    public void largeEventIsSplit() throws Exception {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            data.append('x');
+        }
+        TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+        publisher(Flux.just(data.toString()), NO_DELAY, 0, 10).subscribe(subscriber);
+
+        String first = string(subscriber.next());
+        assertThat(first.length(), is(64));
+        assertThat(first + string(subscriber.next()), is("data:" + data + "\n\n"));
+    }
+
+    @Test
+    public void eventsAreRequestedWhenWritesAreDone() throws Exception {
+        AtomicInteger produced = new AtomicInteger();
+        TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+        publisher(Flux.range(0, 10).doOnNext(i -> produced.incrementAndGet()), NO_DELAY, 0, 1).subscribe(subscriber);
+
+        DataChunk first = subscriber.next();
+        assertThat(produced.get(), is(1));
+        first.release();
+        assertThat(string(subscriber.next()), is("data:1\n\n"));
+        assertThat(produced.get(), is(2));
+    }
+
+    @Test
+    public void demandIsRespected() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber(1);
+        publisher(Flux.just("a", "b"), NO_DELAY, 0, 10).subscribe(subscriber);
+
+        assertThat(string(subscriber.next()), is("data:a\n\n"));
+        assertThat(subscriber.chunks.poll(100, TimeUnit.MILLISECONDS), nullValue());
+        subscriber.subscription.request(1);
+        assertThat(string(subscriber.next()), is("data:b\n\n"));
+    }
+
+    @Test
+    public void heartbeat() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+        publisher(Flux.never(), NO_DELAY, TimeUnit.MILLISECONDS.toNanos(10), 10).subscribe(subscriber);
+
+        assertThat(string(subscriber.next()), is(":\n"));
+        assertThat(string(subscriber.next()), is(":\n"));
+        subscriber.subscription.cancel();
+    }
+
+    private static final class TestSubscriber implements Flow.Subscriber<DataChunk> {
+
+        private final BlockingQueue<DataChunk> chunks = new LinkedBlockingQueue<>();
+        private final CompletableFuture<Void> completed = new CompletableFuture<>();
+        private final long initialRequest;
+        private volatile Flow.Subscription subscription;
+
+        private TestSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        private DataChunk next() throws InterruptedException {
+            DataChunk chunk = chunks.poll(10, TimeUnit.SECONDS);
+            if (chunk == null) {
+                throw new AssertionError("No chunk received!");
+            }
+            return chunk;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(DataChunk item) {
+            chunks.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completed.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completed.complete(null);
+        }
+    }
+}
@@ -37,6 +37,7 @@ import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -69,6 +70,8 @@ public class HashRequestHeadersTest {
         HashRequestHeaders hs = withHeader(Http.Header.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
         assertTrue(hs.contentType().isPresent());
         assertEquals(MediaType.APPLICATION_JSON, hs.contentType().get());
+        assertSame(hs.contentType(), hs.contentType());
+        assertFalse(withHeader(Http.Header.ACCEPT, "text/plain").contentType().isPresent());
     }
 
     @Test
@@ -96,13 +99,26 @@ public class HashRequestHeadersTest {
     public void acceptedTypes() {
         HashRequestHeaders hs = withHeader(Http.Header.ACCEPT,
                              "text/*;q=0.3, text/html;q=0.7, text/html;level=1, text/html;level=2;q=0.4");
+        // sorted by the quality factor, stable for equal ones
         assertEquals(4, hs.acceptedTypes().size());
-        assertEquals(new MediaType("text", "*", CollectionsHelper.mapOf("q", "0.3")), hs.acceptedTypes().get(0));
-        assertEquals(0, hs.acceptedTypes().get(0).qualityFactor(), 0.3);
+        assertEquals(new MediaType("text", "html", CollectionsHelper.mapOf("level", "1")), hs.acceptedTypes().get(0));
         assertEquals(new MediaType("text", "html", CollectionsHelper.mapOf("q", "0.7")), hs.acceptedTypes().get(1));
-        assertEquals(new MediaType("text", "html", CollectionsHelper.mapOf("level", "1")), hs.acceptedTypes().get(2));
         assertEquals(new MediaType("text", "html", CollectionsHelper.mapOf("level", "2", "q", "0.4")),
-                     hs.acceptedTypes().get(3));
+                     hs.acceptedTypes().get(2));
+        assertEquals(new MediaType("text", "*", CollectionsHelper.mapOf("q", "0.3")), hs.acceptedTypes().get(3));
+        assertEquals(0.3, hs.acceptedTypes().get(3).qualityFactor(), 0.001);
+    }
+
+    @Test
+    public void acceptedTypesSameQuality() {
+        HashRequestHeaders hs = withHeader(Http.Header.ACCEPT,
+                                           "text/plain;q=0.5, application/json, text/xml;q=0.5, text/html, */*;q=x");
+        assertThat(hs.acceptedTypes(), contains(MediaType.APPLICATION_JSON,
+                                                MediaType.TEXT_HTML,
+                                                new MediaType("text", "plain", CollectionsHelper.mapOf("q", "0.5")),
+                                                new MediaType("text", "xml", CollectionsHelper.mapOf("q", "0.5")),
+                                                new MediaType("*", "*", CollectionsHelper.mapOf("q", "x"))));
+        assertSame(hs.acceptedTypes(), hs.acceptedTypes());
     }
 
     @Test
@@ -131,6 +147,20 @@ public class HashRequestHeadersTest {
         assertFalse(hs.bestAccepted().isPresent());
     }
 
+    @Test
+    public void bestAcceptedSameQuality() {
+        HashRequestHeaders hs = withHeader(Http.Header.ACCEPT, "text/xml;q=0.5, text/plain, application/json, */*;q=0");
+        // the first of the candidates with the highest quality wins
+        assertEquals(MediaType.APPLICATION_JSON, hs.bestAccepted(MediaType.TEXT_XML,
+                                                                 MediaType.APPLICATION_JSON,
+                                                                 MediaType.TEXT_PLAIN).orElse(null));
+        assertEquals(MediaType.TEXT_XML, hs.bestAccepted(MediaType.TEXT_HTML,
+                                                         MediaType.TEXT_XML).orElse(null));
+        // quality 0 means not acceptable
+        assertFalse(hs.bestAccepted(MediaType.TEXT_HTML).isPresent());
+        assertTrue(withHeader(Http.Header.CONTENT_TYPE, "text/plain").bestAccepted(MediaType.TEXT_HTML).isPresent());
+    }
+
     @Test
     public void acceptDatetime() {
         HashRequestHeaders hs = withHeader(Http.Header.ACCEPT_DATETIME, "Tue, 3 Jun 2008 11:05:30 GMT");
@@ -39,6 +39,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doAnswer;
@@ -58,6 +59,15 @@ public class HashResponseHeadersTest {
         assertThat(h.acceptPatches(), IsIterableContainingInOrder.contains(MediaType.APPLICATION_JSON, MediaType.TEXT_XML));
     }
 
+    @Test
+    public void date() throws Exception {
+        HashResponseHeaders h = new HashResponseHeaders(null);
+        String date = h.first(Http.Header.DATE).orElse(null);
+        assertEquals(Http.DateTime.parse(date).toInstant().getEpochSecond(), Instant.now().getEpochSecond(), 2);
+        assertEquals("Thu, 1 Jan 1970 00:00:01 GMT", CachedDate.of(1500));
+        assertSame(CachedDate.of(1500), CachedDate.of(1999));
+    }
+
     @Test
     public void contentType() throws Exception {
         HashResponseHeaders h = new HashResponseHeaders(null);
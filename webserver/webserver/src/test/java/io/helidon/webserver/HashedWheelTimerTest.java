@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+
+/**
+ * Tests {@link HashedWheelTimer}.
+ */
+public class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    public void createTimer() {
+        // a small wheel, so timeouts wrap around it
+        timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 4, "test-timer");
+    }
+
+    @AfterEach
+    public void stopTimer() {
+        timer.stop();
+    }
+
+    @Test
+    public void expiresInOrder() throws Exception {
+        List<Integer> expired = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        long start = System.nanoTime();
+        timer.schedule(() -> { expired.add(3); latch.countDown(); }, 120, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> { expired.add(1); latch.countDown(); }, 0, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> { expired.add(2); latch.countDown(); }, 60, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(expired, contains(1, 2, 3));
+        assertThat(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(120), is(true));
+    }
+
+    @Test
+    public void cancelledNeverExpires() throws Exception {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CountDownLatch other = new CountDownLatch(1);
+        HashedWheelTimer.Timeout timeout = timer.schedule(cancelled::countDown, 20, TimeUnit.MILLISECONDS);
+        timer.schedule(other::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(timeout.cancel(), is(true));
+        assertThat(other.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(cancelled.getCount(), is(1L));
+        assertThat(timeout.isExpired(), is(false));
+        assertThat(timeout.cancel(), is(false));
+    }
+
+    @Test
+    public void expiredCannotBeCancelled() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        HashedWheelTimer.Timeout timeout = timer.schedule(latch::countDown, 1, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(timeout.isExpired(), is(true));
+        assertThat(timeout.cancel(), is(false));
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.ReactiveStreamsAdapter;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import static io.helidon.common.CollectionsHelper.listOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Tests {@link ContentReaders#lineReader(Charset)}.
+ */
+public class LinePublisherTest {
+
+    private static Flow.Publisher<DataChunk> chunks(String text, Charset charset, int chunkSize) {
+        byte[] bytes = text.getBytes(charset);
+        List<DataChunk> chunks = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            byte[] chunk = new byte[Math.min(chunkSize, bytes.length - i)];
+            System.arraycopy(bytes, i, chunk, 0, chunk.length);
+            chunks.add(DataChunk.create(chunk));
+        }
+        return ReactiveStreamsAdapter.publisherToFlow(Flux.fromIterable(chunks));
+    }
+
+    private static List<String> lines(Flow.Publisher<DataChunk> content, Charset charset, int maxLineLength)
+            throws Exception {
+        Flow.Publisher<CharSequence> lines = ContentReaders.lineReader(charset, maxLineLength)
+                                                           .apply(content)
+                                                           .toCompletableFuture()
+                                                           .get(10, TimeUnit.SECONDS);
+        List<String> result = new ArrayList<>();
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        lines.subscribe(new Flow.Subscriber<CharSequence>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(CharSequence item) {
+                result.add(item.toString());
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(result);
+            }
+        });
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void lineTerminators() throws Exception {
+        String text = "first\nsecond\r\nthird\rfourth\r\n\r\nlast";
+        List<String> expected = listOf("first", "second", "third", "fourth", "", "last");
+
+        for (int chunkSize = 1; chunkSize <= text.length(); chunkSize++) {
+            assertThat("Chunk size: " + chunkSize,
+                       lines(chunks(text, StandardCharsets.UTF_8, chunkSize), StandardCharsets.UTF_8, 100),
+                       is(expected));
+        }
+    }
+
+    @Test
+    public void multibyteCharacters() throws Exception {
+        String text = "příliš\nžluťoučký\nkůň";
+
+        for (int chunkSize = 1; chunkSize < 8; chunkSize++) {
+            assertThat(lines(chunks(text, StandardCharsets.UTF_16, chunkSize), StandardCharsets.UTF_16, 100),
+                       is(listOf("příliš", "žluťoučký", "kůň")));
+        }
+    }
+
+    @Test
+    public void tooLongLine() throws Exception {
+        try {
+            lines(chunks("short\nvery long line\n", StandardCharsets.UTF_8, 4), StandardCharsets.UTF_8, 8);
+            fail("Should have failed because of a too long line");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(BadRequestException.class));
+        }
+    }
+
+    @Test
+    public void chunksAreRequestedOnDemand() throws Exception {
+        AtomicInteger requested = new AtomicInteger();
+        Flux<DataChunk> flux = Flux.just("a\nb\n", "c\nd\n", "e\n")
+                                   .map(s -> DataChunk.create(s.getBytes(StandardCharsets.UTF_8)))
+                                   .doOnRequest(n -> requested.addAndGet((int) n));
+        Flow.Publisher<CharSequence> lines = ContentReaders.lineReader(StandardCharsets.UTF_8)
+                                                           .apply(ReactiveStreamsAdapter.publisherToFlow(flux))
+                                                           .toCompletableFuture()
+                                                           .get(10, TimeUnit.SECONDS);
+        List<String> result = new ArrayList<>();
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        lines.subscribe(new Flow.Subscriber<CharSequence>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(CharSequence item) {
+                result.add(item.toString());
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        assertThat(requested.get(), is(0));
+        subscription[0].request(1);
+        assertThat(result, is(listOf("a")));
+        assertThat(requested.get(), is(1));
+        subscription[0].request(2);
+        assertThat(result, is(listOf("a", "b", "c")));
+        assertThat(requested.get(), is(2));
+    }
+}
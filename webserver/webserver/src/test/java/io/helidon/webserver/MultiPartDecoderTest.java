@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.ReactiveStreamsAdapter;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.number.OrderingComparison.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Tests {@link MultiPartDecoder}.
+ */
+public class MultiPartDecoderTest {
+
+    /**
+     * Size of the generated part in {@link #largePartIsSpilledToFile()}. Use {@code -Dmultipart.test.size=4294967296}
+     * to verify memory bounds with a multi-GB upload.
+     */
+    private static final long LARGE_PART_SIZE = Long.getLong("multipart.test.size", 64L * 1024 * 1024);
+
+    private static final String BODY = "preamble is ignored\r\n"
+            + "--AaB03x\r\n"
+            + "Content-Disposition: form-data; name=\"field1\"\r\n"
+            + "\r\n"
+            + "Joe Blow\r\n--almost a boundary\r\n--AaB03\r\n"
+            + "--AaB03x\r\n"
+            + "Content-Disposition: form-data; name=\"pics\"; filename=\"file1.txt\"\r\n"
+            + "Content-Type: text/plain\r\n"
+            + "\r\n"
+            + "... contents of file1.txt ...\r\r\n-\r\n"
+            + "--AaB03x\r\n"
+            + "\r\n"
+            + "no headers\r\n"
+            + "--AaB03x--\r\n"
+            + "epilogue is ignored";
+
+    private static Flow.Publisher<DataChunk> chunks(String body, int chunkSize) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        List<DataChunk> chunks = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            byte[] chunk = new byte[Math.min(chunkSize, bytes.length - i)];
+            System.arraycopy(bytes, i, chunk, 0, chunk.length);
+            chunks.add(DataChunk.create(chunk));
+        }
+        return ReactiveStreamsAdapter.publisherToFlow(Flux.fromIterable(chunks));
+    }
+
+    private static Map<String, String> readAll(Flow.Publisher<BodyPart> multiPart) throws Exception {
+        Map<String, String> result = new LinkedHashMap<>();
+        CompletableFuture<Map<String, String>> future = new CompletableFuture<>();
+        multiPart.subscribe(new Flow.Subscriber<BodyPart>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(BodyPart part) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                part.content().subscribe(new Flow.Subscriber<DataChunk>() {
+                    @Override
+                    public void onSubscribe(Flow.Subscription s) {
+                        s.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(DataChunk chunk) {
+                        byte[] bytes = chunk.bytes();
+                        content.write(bytes, 0, bytes.length);
+                        chunk.release();
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        future.completeExceptionally(throwable);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        result.put(part.name().orElse("<none>"), new String(content.toByteArray(), StandardCharsets.UTF_8));
+                        subscription.request(1);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(result);
+            }
+        });
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void parseParts() throws Exception {
+        Map<String, String> parts = readAll(new MultiPartDecoder(chunks(BODY, 1024), "AaB03x", 1024, null));
+
+        assertThat(parts.size(), is(3));
+        assertThat(parts.get("field1"), is("Joe Blow\r\n--almost a boundary\r\n--AaB03"));
+        assertThat(parts.get("pics"), is("... contents of file1.txt ...\r\r\n-"));
+        assertThat(parts.get("<none>"), is("no headers"));
+    }
+
+    @Test
+    public void boundarySplitAcrossChunks() throws Exception {
+        Map<String, String> expected = readAll(new MultiPartDecoder(chunks(BODY, 1024), "AaB03x", 1024, null));
+        for (int chunkSize = 1; chunkSize < 40; chunkSize++) {
+            Map<String, String> parts = readAll(new MultiPartDecoder(chunks(BODY, chunkSize), "AaB03x", 1024, null));
+            assertThat("Chunk size: " + chunkSize, parts, is(expected));
+        }
+    }
+
+    @Test
+    public void partHeaders() throws Exception {
+        CompletableFuture<BodyPart> future = new CompletableFuture<>();
+        new MultiPartDecoder(chunks(BODY, 16), "AaB03x", 1024, null).subscribe(new Flow.Subscriber<BodyPart>() {
+            private int index;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(BodyPart item) {
+                if (index++ == 1) {
+                    future.complete(item);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        BodyPart part = future.get(10, TimeUnit.SECONDS);
+
+        assertThat(part.name().orElse(null), is("pics"));
+        assertThat(part.filename().orElse(null), is("file1.txt"));
+        assertThat(part.contentType().map(Object::toString).orElse(null), is("text/plain"));
+        assertThat(part.headers().first("content-type").orElse(null), is("text/plain"));
+    }
+
+    @Test
+    public void missingCloseDelimiter() throws Exception {
+        String body = BODY.substring(0, BODY.indexOf("--AaB03x--"));
+        try {
+            readAll(new MultiPartDecoder(chunks(body, 64), "AaB03x", 1024, null));
+            fail("Should have failed because of a missing close delimiter");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(BadRequestException.class));
+        }
+    }
+
+    @Test
+    public void largePartIsSpilledToFile() throws Exception {
+        int chunkSize = 8 * 1024;
+        long threshold = 64 * 1024;
+        GeneratingPublisher publisher = new GeneratingPublisher("XyZ", LARGE_PART_SIZE, chunkSize);
+        MultiPartDecoder decoder = new MultiPartDecoder(publisher, "XyZ", threshold, null);
+
+        CompletableFuture<BufferedBodyPart> partFuture = new CompletableFuture<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        decoder.subscribe(new Flow.Subscriber<BodyPart>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(BodyPart item) {
+                partFuture.complete((BufferedBodyPart) item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        BufferedBodyPart part = partFuture.get(10, TimeUnit.SECONDS);
+        // nobody consumes the part - the whole upload is read ahead and spilled over to a file
+        done.get(5, TimeUnit.MINUTES);
+        assertThat(part.isSpilled(), is(true));
+        assertThat(part.bufferedBytes(), lessThanOrEqualTo(threshold));
+        // only chunks below the memory threshold are retained
+        assertThat(publisher.maxOutstanding.get(), lessThanOrEqualTo(threshold / chunkSize + 2));
+
+        AtomicLong received = new AtomicLong();
+        AtomicLong mismatches = new AtomicLong();
+        CompletableFuture<Long> content = new CompletableFuture<>();
+        part.content().subscribe(new Flow.Subscriber<DataChunk>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(DataChunk item) {
+                ByteBuffer data = item.data();
+                while (data.hasRemaining()) {
+                    if (data.get() != GeneratingPublisher.contentByte(received.getAndIncrement())) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+                item.release();
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                content.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                content.complete(received.get());
+            }
+        });
+
+        assertThat(content.get(5, TimeUnit.MINUTES), is(LARGE_PART_SIZE));
+        assertThat(mismatches.get(), is(0L));
+        assertThat(part.bufferedBytes(), is(0L));
+        assertThat(publisher.outstanding.get(), is(0L));
+    }
+
+    /**
+     * Generates a multipart body with a single part of the requested size on demand, never holding more than
+     * a single chunk.
+     */
+    private static final class GeneratingPublisher implements Flow.Publisher<DataChunk> {
+
+        private final byte[] head;
+        private final byte[] tail;
+        private final long size;
+        private final int chunkSize;
+        private final AtomicLong maxOutstanding = new AtomicLong();
+        private final AtomicLong outstanding = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private long position = -1;
+        private boolean completed;
+
+        GeneratingPublisher(String boundary, long size, int chunkSize) {
+            this.head = ("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            this.tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+            this.size = size;
+            this.chunkSize = chunkSize;
+        }
+
+        static byte contentByte(long index) {
+            return (byte) ('a' + (index % 26));
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+            AtomicLong requested = new AtomicLong();
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested.addAndGet(n);
+                    if (wip.getAndIncrement() != 0) {
+                        return;
+                    }
+                    do {
+                        while (requested.get() > 0 && !completed) {
+                            requested.decrementAndGet();
+                            DataChunk chunk = next();
+                            if (chunk == null) {
+                                completed = true;
+                                subscriber.onComplete();
+                            } else {
+                                maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+                                subscriber.onNext(chunk);
+                            }
+                        }
+                    } while (wip.decrementAndGet() != 0);
+                }
+
+                @Override
+                public void cancel() {
+                    completed = true;
+                }
+            });
+        }
+
+        private DataChunk next() {
+            if (position < 0) {
+                position = 0;
+                return DataChunk.create(false, ByteBuffer.wrap(head), outstanding::decrementAndGet);
+            }
+            if (position > size) {
+                return null;
+            }
+            if (position == size) {
+                position++;
+                return DataChunk.create(false, ByteBuffer.wrap(tail), outstanding::decrementAndGet);
+            }
+            int length = (int) Math.min(chunkSize, size - position);
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            for (int i = 0; i < length; i++) {
+                buffer.put(contentByte(position + i));
+            }
+            buffer.flip();
+            position += length;
+            return DataChunk.create(false, buffer, outstanding::decrementAndGet);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static io.helidon.common.CollectionsHelper.listOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/**
+ * Tests {@link ResourceCache}.
+ */
+public class ResourceCacheTest {
+
+    private static ResourceCache.CachedResource resource(int size) {
+        return new ResourceCache.CachedResource(new byte[size], "etag", null, null);
+    }
+
+    private static List<Path> keys(ResourceCache cache) {
+        return new ArrayList<>(cache.entries().keySet());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedAboveEntryLimit() throws Exception {
+        ResourceCache cache = new ResourceCache(1000, 2, 100);
+        cache.put(Paths.get("a"), resource(10));
+        cache.put(Paths.get("b"), resource(10));
+        // a is now the most recently used
+        assertThat(cache.get(Paths.get("a")), notNullValue());
+        cache.put(Paths.get("c"), resource(10));
+
+        assertThat(keys(cache), is(listOf(Paths.get("a"), Paths.get("c"))));
+        assertThat(cache.statistics().evictions(), is(1L));
+    }
+
+    @Test
+    public void evictsAboveByteLimit() throws Exception {
+        ResourceCache cache = new ResourceCache(100, 10, 100);
+        cache.put(Paths.get("a"), resource(40));
+        cache.put(Paths.get("b"), resource(40));
+        cache.put(Paths.get("c"), resource(40));
+
+        assertThat(keys(cache), is(listOf(Paths.get("b"), Paths.get("c"))));
+        assertThat(cache.statistics().bytes(), is(80L));
+        // replacement doesn't count twice
+        cache.put(Paths.get("c"), resource(20));
+        assertThat(cache.statistics().bytes(), is(60L));
+    }
+
+    @Test
+    public void statistics() throws Exception {
+        ResourceCache cache = new ResourceCache(100, 10, 50);
+        assertThat(cache.get(Paths.get("a")), nullValue());
+        cache.put(Paths.get("a"), resource(5));
+        cache.get(Paths.get("a"));
+        cache.get(Paths.get("a"));
+
+        StaticContentSupport.CacheStatistics statistics = cache.statistics();
+        assertThat(statistics.hits(), is(2L));
+        assertThat(statistics.misses(), is(1L));
+        assertThat(statistics.size(), is(1));
+        assertThat(statistics.bytes(), is(5L));
+        assertThat(cache.accepts(50), is(true));
+        assertThat(cache.accepts(51), is(false));
+
+        cache.clear();
+        assertThat(cache.statistics().size(), is(0));
+    }
+
+    @Test
+    public void contentIsSharedReadOnlyView() throws Exception {
+        ResourceCache.CachedResource resource = new ResourceCache.CachedResource(new byte[] {1, 2, 3}, null, null, null);
+
+        assertThat(resource.content().isDirect(), is(true));
+        assertThat(resource.content().isReadOnly(), is(true));
+        resource.content().get();
+        assertThat(resource.content().remaining(), is(3));
+    }
+}
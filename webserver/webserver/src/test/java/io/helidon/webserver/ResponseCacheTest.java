@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Collections;
+import java.util.List;
+
+import io.helidon.common.http.Http;
+
+import org.junit.jupiter.api.Test;
+
+import static io.helidon.common.CollectionsHelper.listOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/**
+ * Tests {@link ResponseCache}.
+ */
+public class ResponseCacheTest {
+
+    private static ResponseCache.CachedResponse response(String key, String baseKey, List<String> vary, long ttl) {
+        return new ResponseCache.CachedResponse(new ResponseCache.Key(key, baseKey, vary),
+                                                Http.Status.OK_200,
+                                                Collections.emptyMap(),
+                                                new byte[10],
+                                                "\"etag\"",
+                                                0,
+                                                ttl);
+    }
+
+    @Test
+    public void varyIsEvictedWithResponses() throws Exception {
+        ResponseCache cache = new ResponseCache(1000, 2);
+        cache.put(response("/a\nen", "/a", listOf("accept-language"), 100));
+        cache.put(response("/a\ncs", "/a", listOf("accept-language"), 100));
+        assertThat(cache.vary("/a"), is(listOf("accept-language")));
+
+        cache.put(response("/b", "/b", Collections.emptyList(), 100));
+        // one response with the base key is still cached
+        assertThat(cache.vary("/a"), is(listOf("accept-language")));
+        cache.put(response("/c", "/c", Collections.emptyList(), 100));
+        assertThat(cache.vary("/a"), nullValue());
+        assertThat(cache.vary("/b"), is(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void varyIsRemovedWithExpiredResponse() throws Exception {
+        ResponseCache cache = new ResponseCache(1000, 10);
+        cache.put(response("/a\nen", "/a", listOf("accept-language"), 100));
+        // replacement doesn't count twice
+        cache.put(response("/a\nen", "/a", listOf("accept-language"), 100));
+
+        assertThat(cache.get("/a\nen", 200), nullValue());
+        assertThat(cache.vary("/a"), nullValue());
+        assertThat(cache.statistics().bytes(), is(0L));
+    }
+
+    @Test
+    public void clearRemovesVary() throws Exception {
+        ResponseCache cache = new ResponseCache(1000, 10);
+        cache.put(response("/a\nen", "/a", listOf("accept-language"), 100));
+        cache.clear();
+
+        assertThat(cache.vary("/a"), nullValue());
+    }
+}
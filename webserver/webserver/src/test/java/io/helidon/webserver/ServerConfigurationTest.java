@@ -17,7 +17,9 @@
 package io.helidon.webserver;
 
 import java.net.InetAddress;
+import java.nio.file.Paths;
 
+import io.helidon.common.CollectionsHelper;
 import io.helidon.config.Config;
 import io.helidon.config.ConfigSources;
 
@@ -108,6 +110,10 @@ public class ServerConfigurationTest {
         assertEquals(42, sc.socket("other").timeoutMillis());
         assertEquals(InetAddress.getByName("127.0.0.3"), sc.socket("other").bindAddress());
         assertNull(sc.socket("other").ssl());
+        assertNull(sc.socket("other").domainSocket());
+
+        assertEquals(Paths.get("/var/run/app/sidecar.sock"), sc.socket("sidecar").domainSocket());
+        assertNull(sc.domainSocket());
     }
 
     @Test
@@ -121,4 +127,25 @@ public class ServerConfigurationTest {
         assertEquals(11, sc.socket("secure").port());
         assertNotNull(sc.socket("secure").ssl());
     }
+
+    @Test
+    public void sslConfigurationFromConfig() throws Exception {
+        Config config = Config.builder().sources(ConfigSources.classpath("config-with-ssl.conf")).build();
+        ServerConfiguration sc = config.get("webserver").as(ServerConfiguration.class);
+
+        SslConfiguration defaults = sc.sslConfiguration();
+        assertEquals(SslConfiguration.Provider.JDK, defaults.provider());
+        assertEquals(SslConfiguration.ClientAuthentication.NONE, defaults.clientAuth());
+        assertNull(defaults.keyManagerFactory());
+
+        SslConfiguration secure = sc.socket("secure").sslConfiguration();
+        assertEquals(SslConfiguration.Provider.OPENSSL, secure.provider());
+        assertEquals(SslConfiguration.ClientAuthentication.REQUIRE, secure.clientAuth());
+        assertEquals(CollectionsHelper.listOf("TLSv1.2"), secure.protocols());
+        assertEquals(1000, secure.sessionCacheSize());
+        assertEquals(600, secure.sessionTimeoutSeconds());
+        // the OpenSSL engine gets the key material of the SSLContext
+        assertNotNull(secure.keyManagerFactory());
+        assertNotNull(secure.trustManagerFactory());
+    }
 }
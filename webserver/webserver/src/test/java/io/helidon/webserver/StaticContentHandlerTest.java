@@ -217,6 +217,22 @@ public class StaticContentHandlerTest {
         assertEquals(1, handler.counter.get());
     }
 
+    @Test
+    public void handleErrorWithoutThrowing() throws Exception {
+        ServerRequest request = mockRequestWithPath("/");
+        ServerResponse response = mock(ServerResponse.class);
+        HttpException forbidden = StaticContentHandler.stackless("forbidden", Http.Status.FORBIDDEN_403);
+        StaticContentHandler handler = new TestContentHandler("/root", true) {
+            @Override
+            boolean doHandle(Http.RequestMethod method, Path path, ServerRequest request, ServerResponse response) {
+                throw forbidden;
+            }
+        };
+        handler.handle(Http.Method.GET, request, response);
+        verify(request).next(forbidden);
+        assertEquals(0, forbidden.getStackTrace().length);
+    }
+
     static class TestContentHandler extends StaticContentHandler {
 
         final AtomicInteger counter = new AtomicInteger(0);
@@ -17,6 +17,8 @@
 package io.helidon.webserver;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -91,6 +93,35 @@ public class StringContentReaderTest {
         assertThat(s, Is.is("áâă"));
     }
 
+    @Test
+    public void multibyteCharacterSplitAcrossChunks() throws Exception {
+        String text = "Žluťoučký kůň \uD83D\uDE00 úpěl ďábelské ódy";
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        List<DataChunk> chunks = new ArrayList<>();
+        for (byte b : bytes) {
+            chunks.add(DataChunk.create(new byte[] {b}));
+        }
+
+        String s = new StringContentReader(StandardCharsets.UTF_8)
+                .apply(ReactiveStreamsAdapter.publisherToFlow(Flux.fromIterable(chunks)))
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(s, Is.is(text));
+    }
+
+    @Test
+    public void incompleteTrailingCharacterIsReplaced() throws Exception {
+        Flux<DataChunk> flux = Flux.just(DataChunk.create(new byte[] {'a', (byte) 0xC5}));
+
+        String s = new StringContentReader(StandardCharsets.UTF_8)
+                .apply(ReactiveStreamsAdapter.publisherToFlow(flux))
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(s, Is.is("a\uFFFD"));
+    }
+
     @Test
     public void requestContentCharset() throws Exception {
         RequestTestStub request = charset(mapOf("content-type", listOf("application/json; charset=cp1250")));